@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.instance.HazelcastInstanceImpl;
+import com.hazelcast.instance.HazelcastInstanceProxy;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+
+/**
+ * Helpers shared by the benchmarks which need a running cluster.
+ */
+final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Creates a member configuration suitable for a local cluster formed
+     * within the benchmark process: the members join each other using TCP/IP
+     * on the loopback interface and the phone home is disabled.
+     *
+     * @param clusterName the group name isolating the members of a single
+     *                    benchmark from the other benchmarks.
+     * @return the created configuration.
+     */
+    static Config localClusterConfig(String clusterName) {
+        Config config = new Config();
+        config.getGroupConfig().setName(clusterName);
+        config.setProperty("hazelcast.phone.home.enabled", "false");
+        config.setProperty("hazelcast.logging.type", "none");
+
+        JoinConfig join = config.getNetworkConfig().getJoin();
+        join.getMulticastConfig().setEnabled(false);
+        join.getAwsConfig().setEnabled(false);
+        join.getTcpIpConfig().setEnabled(true).addMember("127.0.0.1");
+        config.getNetworkConfig().getInterfaces().setEnabled(true).addInterface("127.0.0.1");
+        return config;
+    }
+
+    /**
+     * Starts the given number of members using the given configuration and
+     * waits until all of them have joined the cluster.
+     *
+     * @return the started members.
+     */
+    static HazelcastInstance[] startCluster(Config config, int memberCount) {
+        HazelcastInstance[] members = new HazelcastInstance[memberCount];
+        for (int i = 0; i < memberCount; ++i) {
+            members[i] = Hazelcast.newHazelcastInstance(config);
+        }
+        for (HazelcastInstance member : members) {
+            while (member.getCluster().getMembers().size() != memberCount) {
+                sleep();
+            }
+        }
+        for (HazelcastInstance member : members) {
+            while (!member.getPartitionService().isClusterSafe()) {
+                sleep();
+            }
+        }
+        return members;
+    }
+
+    static void shutdown(HazelcastInstance[] members) {
+        if (members == null) {
+            return;
+        }
+        for (HazelcastInstance member : members) {
+            if (member != null) {
+                member.getLifecycleService().terminate();
+            }
+        }
+    }
+
+    static NodeEngineImpl getNodeEngine(HazelcastInstance instance) {
+        HazelcastInstanceImpl instanceImpl = ((HazelcastInstanceProxy) instance).getOriginal();
+        return instanceImpl.node.getNodeEngine();
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
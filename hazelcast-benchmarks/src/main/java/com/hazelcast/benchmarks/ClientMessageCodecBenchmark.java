@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks;
+
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.codec.MapGetCodec;
+import com.hazelcast.client.impl.protocol.codec.MapPutCodec;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the encoding and decoding of the client protocol messages of the
+ * most common map operations, i.e. the codec path of every client request
+ * on both the client and the member side.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ClientMessageCodecBenchmark {
+
+    private static final String MAP_NAME = "codecBenchmark";
+
+    private InternalSerializationService serializationService;
+    private Data key;
+    private Data value;
+    private ClientMessage putRequest;
+    private ClientMessage getRequest;
+    private ClientMessage getResponse;
+
+    @Setup
+    public void setup() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        key = serializationService.toData("key");
+        value = serializationService.toData(new byte[100]);
+
+        putRequest = MapPutCodec.encodeRequest(MAP_NAME, key, value, 1, -1);
+        getRequest = MapGetCodec.encodeRequest(MAP_NAME, key, 1);
+        getResponse = MapGetCodec.encodeResponse(value);
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializationService.dispose();
+    }
+
+    @Benchmark
+    public ClientMessage encodePutRequest() {
+        return MapPutCodec.encodeRequest(MAP_NAME, key, value, 1, -1);
+    }
+
+    @Benchmark
+    public Object decodePutRequest() {
+        return MapPutCodec.decodeRequest(wrapForDecode(putRequest));
+    }
+
+    @Benchmark
+    public ClientMessage encodeGetRequest() {
+        return MapGetCodec.encodeRequest(MAP_NAME, key, 1);
+    }
+
+    @Benchmark
+    public Object decodeGetRequest() {
+        return MapGetCodec.decodeRequest(wrapForDecode(getRequest));
+    }
+
+    @Benchmark
+    public Object decodeGetResponse() {
+        return MapGetCodec.decodeResponse(wrapForDecode(getResponse));
+    }
+
+    /**
+     * Wraps the buffer of the given encoded message into a new message ready
+     * to be decoded, the way the messages are received from the network.
+     */
+    private static ClientMessage wrapForDecode(ClientMessage message) {
+        return ClientMessage.createForDecode(message.buffer(), 0);
+    }
+
+}
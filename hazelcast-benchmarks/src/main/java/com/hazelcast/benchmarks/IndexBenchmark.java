@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.query.impl.Index;
+import com.hazelcast.query.impl.IndexCopyBehavior;
+import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.query.impl.QueryEntry;
+import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.query.impl.getters.Extractors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the lookups in the hash, sorted and bitmap indexes, including the
+ * materialization of the produced result sets.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class IndexBenchmark {
+
+    private static final int ENTRY_COUNT = 100000;
+    private static final int DEPARTMENT_COUNT = 10;
+
+    private InternalSerializationService serializationService;
+    private Indexes indexes;
+
+    private Predicate hashEqual;
+    private Predicate sortedRange;
+    private Predicate bitmapEqual;
+    private Predicate bitmapConjunction;
+
+    @Setup
+    public void setup() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        Extractors extractors = Extractors.newBuilder(serializationService).build();
+
+        indexes = Indexes.newBuilder(serializationService, IndexCopyBehavior.NEVER)
+                .extractors(extractors)
+                .bitmapAttributes(Arrays.asList("department", "active"))
+                .build();
+        indexes.addOrGetIndex("id", false);
+        indexes.addOrGetIndex("age", true);
+        indexes.addOrGetIndex("department", false);
+        indexes.addOrGetIndex("active", false);
+
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            Employee employee = new Employee(i, 20 + i % 50, i % DEPARTMENT_COUNT, i % 2 == 0);
+            QueryEntry entry = new QueryEntry(serializationService, serializationService.toData(i), employee, extractors);
+            indexes.saveEntryIndex(entry, null, Index.OperationSource.USER);
+        }
+
+        hashEqual = Predicates.equal("id", ENTRY_COUNT / 2);
+        sortedRange = Predicates.between("age", 30, 32);
+        bitmapEqual = Predicates.equal("department", 3);
+        bitmapConjunction = Predicates.and(Predicates.equal("department", 3), Predicates.equal("active", true));
+    }
+
+    @TearDown
+    public void tearDown() {
+        indexes.destroyIndexes();
+        serializationService.dispose();
+    }
+
+    @Benchmark
+    public int hashIndexEqual() {
+        return size(indexes.query(hashEqual));
+    }
+
+    @Benchmark
+    public int sortedIndexRange() {
+        return size(indexes.query(sortedRange));
+    }
+
+    @Benchmark
+    public int bitmapIndexEqual() {
+        return size(indexes.query(bitmapEqual));
+    }
+
+    @Benchmark
+    public int bitmapIndexConjunction() {
+        return size(indexes.query(bitmapConjunction));
+    }
+
+    private static int size(Set<QueryableEntry> result) {
+        // iterate to account for the lazily materialized result sets
+        int size = 0;
+        for (QueryableEntry ignored : result) {
+            ++size;
+        }
+        return size;
+    }
+
+    public static class Employee implements Serializable {
+
+        private final int id;
+        private final int age;
+        private final int department;
+        private final boolean active;
+
+        Employee(int id, int age, int department, boolean active) {
+            this.id = id;
+            this.age = age;
+            this.department = department;
+            this.active = active;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public int getDepartment() {
+            return department;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+    }
+
+}
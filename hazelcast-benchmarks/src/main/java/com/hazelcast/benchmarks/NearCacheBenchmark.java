@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.core.Member;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.benchmarks.BenchmarkSupport.localClusterConfig;
+import static com.hazelcast.benchmarks.BenchmarkSupport.shutdown;
+import static com.hazelcast.benchmarks.BenchmarkSupport.startCluster;
+
+/**
+ * Measures the map get served from a near cache compared to the get of the
+ * same keys served by a remote member.
+ * <p>
+ * A local two member cluster is started and only the keys owned by the
+ * second member are read by the first member, so every get which misses the
+ * near cache is a remote call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class NearCacheBenchmark {
+
+    private static final String NEAR_CACHED_MAP = "nearCached";
+    private static final String REMOTE_MAP = "remote";
+    private static final int KEY_COUNT = 1000;
+
+    @Param({"BINARY", "OBJECT"})
+    public InMemoryFormat inMemoryFormat;
+
+    private HazelcastInstance[] members;
+    private IMap<String, String> nearCachedMap;
+    private IMap<String, String> remoteMap;
+    private String[] keys;
+
+    @Setup
+    public void setup() {
+        Config config = localClusterConfig(NearCacheBenchmark.class.getSimpleName());
+        NearCacheConfig nearCacheConfig = new NearCacheConfig(NEAR_CACHED_MAP)
+                .setInMemoryFormat(inMemoryFormat)
+                .setCacheLocalEntries(false);
+        config.getMapConfig(NEAR_CACHED_MAP).setNearCacheConfig(nearCacheConfig);
+        members = startCluster(config, 2);
+
+        nearCachedMap = members[0].getMap(NEAR_CACHED_MAP);
+        remoteMap = members[0].getMap(REMOTE_MAP);
+
+        Member remoteMember = members[1].getCluster().getLocalMember();
+        List<String> remoteKeys = new ArrayList<String>(KEY_COUNT);
+        for (int i = 0; remoteKeys.size() < KEY_COUNT; ++i) {
+            String key = "key" + i;
+            if (remoteMember.equals(members[0].getPartitionService().getPartition(key).getOwner())) {
+                remoteKeys.add(key);
+            }
+        }
+        keys = remoteKeys.toArray(new String[0]);
+
+        for (String key : keys) {
+            nearCachedMap.put(key, "value-" + key);
+            remoteMap.put(key, "value-" + key);
+            // populate the near cache
+            nearCachedMap.get(key);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        shutdown(members);
+    }
+
+    @Benchmark
+    public Object nearCacheGet(KeyCursor cursor) {
+        return nearCachedMap.get(keys[cursor.next()]);
+    }
+
+    @Benchmark
+    public Object remoteGet(KeyCursor cursor) {
+        return remoteMap.get(keys[cursor.next()]);
+    }
+
+    /**
+     * The per-thread position in the key array.
+     */
+    @State(Scope.Thread)
+    public static class KeyCursor {
+
+        private int index;
+
+        int next() {
+            index = index + 1 == KEY_COUNT ? 0 : index + 1;
+            return index;
+        }
+    }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks;
+
+import com.hazelcast.spi.impl.operationexecutor.impl.OperationQueue;
+import com.hazelcast.spi.impl.operationexecutor.impl.OperationQueueImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of the {@link OperationQueue} of a partition
+ * thread: a single thread offering and taking the tasks and a set of
+ * producers feeding a single consumer, which is the setup of a partition
+ * thread serving the IO threads.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class OperationQueueBenchmark {
+
+    private static final Object TASK = new Object();
+    // bounds the backlog when the producers outpace the consumer
+    private static final int MAX_BACKLOG = 100000;
+
+    private OperationQueueImpl queue;
+
+    @Setup
+    public void setup() {
+        queue = new OperationQueueImpl();
+    }
+
+    @Benchmark
+    @Group("singleThreaded")
+    public Object addAndTake() throws InterruptedException {
+        queue.add(TASK, false);
+        return queue.take(false);
+    }
+
+    @Benchmark
+    @Group("multiProducer")
+    @GroupThreads(3)
+    public void produce() {
+        if (queue.normalSize() < MAX_BACKLOG) {
+            queue.add(TASK, false);
+        }
+    }
+
+    @Benchmark
+    @Group("multiProducer")
+    @GroupThreads(1)
+    public Object consume() throws InterruptedException {
+        // the only consumer never blocks on a non-empty queue, so the
+        // iteration never hangs once the producers are stopped
+        return queue.normalSize() == 0 ? null : queue.take(false);
+    }
+
+}
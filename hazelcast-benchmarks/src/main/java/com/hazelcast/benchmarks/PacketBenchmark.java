@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks;
+
+import com.hazelcast.nio.Packet;
+import com.hazelcast.nio.PacketIOHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the encoding of packets into and the decoding of packets from the
+ * network buffers by the {@link PacketIOHelper}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PacketBenchmark {
+
+    private static final int BUFFER_SIZE = 128 * 1024;
+
+    @Param({"64", "1024", "16384"})
+    public int payloadSize;
+
+    private final PacketIOHelper writer = new PacketIOHelper();
+    private final PacketIOHelper reader = new PacketIOHelper();
+
+    private Packet packet;
+    private ByteBuffer writeBuffer;
+    private ByteBuffer encoded;
+
+    @Setup
+    public void setup() {
+        packet = new Packet(new byte[payloadSize], 1).setPacketType(Packet.Type.OPERATION);
+        writeBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        if (!new PacketIOHelper().writeTo(packet, buffer)) {
+            throw new IllegalStateException("The packet doesn't fit into the buffer");
+        }
+        buffer.flip();
+        encoded = buffer.asReadOnlyBuffer();
+    }
+
+    @Benchmark
+    public boolean encode() {
+        writeBuffer.clear();
+        return writer.writeTo(packet, writeBuffer);
+    }
+
+    @Benchmark
+    public Packet decode() {
+        ByteBuffer src = encoded.duplicate();
+        return reader.readFrom(src);
+    }
+
+}
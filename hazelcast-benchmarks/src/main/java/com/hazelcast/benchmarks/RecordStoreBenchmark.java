@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.benchmarks.BenchmarkSupport.getNodeEngine;
+import static com.hazelcast.benchmarks.BenchmarkSupport.localClusterConfig;
+import static com.hazelcast.benchmarks.BenchmarkSupport.shutdown;
+import static com.hazelcast.benchmarks.BenchmarkSupport.startCluster;
+
+/**
+ * Measures the put and get on the record store of a single partition, i.e.
+ * the work done by a map operation on a partition thread, excluding the
+ * operation dispatching and the invocation machinery.
+ * <p>
+ * The record store is accessed by the single benchmark thread only, like it's
+ * accessed by its partition thread.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Threads(1)
+@Fork(1)
+public class RecordStoreBenchmark {
+
+    private static final String MAP_NAME = "recordStoreBenchmark";
+    private static final int PARTITION_ID = 0;
+    private static final int KEY_COUNT = 10000;
+
+    @Param({"BINARY", "OBJECT"})
+    public InMemoryFormat inMemoryFormat;
+
+    private HazelcastInstance[] members;
+    private RecordStore recordStore;
+    private Data[] keys;
+    private Data value;
+    private int index;
+
+    @Setup
+    public void setup() {
+        Config config = localClusterConfig(RecordStoreBenchmark.class.getSimpleName());
+        config.getMapConfig(MAP_NAME).setInMemoryFormat(inMemoryFormat);
+        members = startCluster(config, 1);
+
+        NodeEngineImpl nodeEngine = getNodeEngine(members[0]);
+        MapService mapService = nodeEngine.getService(MapService.SERVICE_NAME);
+        MapServiceContext mapServiceContext = mapService.getMapServiceContext();
+        recordStore = mapServiceContext.getRecordStore(PARTITION_ID, MAP_NAME);
+
+        keys = new Data[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; ++i) {
+            keys[i] = nodeEngine.toData("key" + i);
+            recordStore.put(keys[i], nodeEngine.toData("value" + i), -1, -1);
+        }
+        value = nodeEngine.toData("value");
+    }
+
+    @TearDown
+    public void tearDown() {
+        shutdown(members);
+    }
+
+    @Benchmark
+    public Object put() {
+        return recordStore.put(nextKey(), value, -1, -1);
+    }
+
+    @Benchmark
+    public Object get() {
+        return recordStore.get(nextKey(), false, null);
+    }
+
+    private Data nextKey() {
+        Data key = keys[index];
+        index = index + 1 == KEY_COUNT ? 0 : index + 1;
+        return key;
+    }
+
+}
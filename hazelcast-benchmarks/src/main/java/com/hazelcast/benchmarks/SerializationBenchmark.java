@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.serialization.Portable;
+import com.hazelcast.nio.serialization.PortableFactory;
+import com.hazelcast.nio.serialization.PortableReader;
+import com.hazelcast.nio.serialization.PortableWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the serialization and deserialization of the built-in types and
+ * portables by the {@code SerializationServiceV1}, as well as the reading of
+ * a single field of a serialized portable.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private static final int FACTORY_ID = 1;
+
+    private InternalSerializationService serializationService;
+
+    private String string;
+    private Data stringData;
+    private Long longValue;
+    private Data longData;
+    private Person person;
+    private Data personData;
+
+    @Setup
+    public void setup() {
+        serializationService = new DefaultSerializationServiceBuilder()
+                .addPortableFactory(FACTORY_ID, new PersonFactory())
+                .build();
+
+        string = "the quick brown fox jumps over the lazy dog";
+        stringData = serializationService.toData(string);
+        longValue = 42L;
+        longData = serializationService.toData(longValue);
+        person = new Person("John", "Smith", 42, 1000.0);
+        personData = serializationService.toData(person);
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializationService.dispose();
+    }
+
+    @Benchmark
+    public Data serializeString() {
+        return serializationService.toData(string);
+    }
+
+    @Benchmark
+    public Object deserializeString() {
+        return serializationService.toObject(stringData);
+    }
+
+    @Benchmark
+    public Data serializeLong() {
+        return serializationService.toData(longValue);
+    }
+
+    @Benchmark
+    public Object deserializeLong() {
+        return serializationService.toObject(longData);
+    }
+
+    @Benchmark
+    public Data serializePortable() {
+        return serializationService.toData(person);
+    }
+
+    @Benchmark
+    public Object deserializePortable() {
+        return serializationService.toObject(personData);
+    }
+
+    @Benchmark
+    public int readPortableField() throws IOException {
+        return serializationService.createPortableReader(personData).readInt("age");
+    }
+
+    public static class Person implements Portable {
+
+        static final int CLASS_ID = 1;
+
+        private String firstName;
+        private String lastName;
+        private int age;
+        private double salary;
+
+        public Person() {
+        }
+
+        Person(String firstName, String lastName, int age, double salary) {
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.age = age;
+            this.salary = salary;
+        }
+
+        @Override
+        public int getFactoryId() {
+            return FACTORY_ID;
+        }
+
+        @Override
+        public int getClassId() {
+            return CLASS_ID;
+        }
+
+        @Override
+        public void writePortable(PortableWriter writer) throws IOException {
+            writer.writeUTF("firstName", firstName);
+            writer.writeUTF("lastName", lastName);
+            writer.writeInt("age", age);
+            writer.writeDouble("salary", salary);
+        }
+
+        @Override
+        public void readPortable(PortableReader reader) throws IOException {
+            firstName = reader.readUTF("firstName");
+            lastName = reader.readUTF("lastName");
+            age = reader.readInt("age");
+            salary = reader.readDouble("salary");
+        }
+    }
+
+    public static class PersonFactory implements PortableFactory {
+
+        @Override
+        public Portable create(int classId) {
+            return classId == Person.CLASS_ID ? new Person() : null;
+        }
+    }
+
+}
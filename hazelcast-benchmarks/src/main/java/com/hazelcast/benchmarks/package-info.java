@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+/**
+ * JMH benchmarks of the hot paths of Hazelcast: serialization, packet
+ * encoding, operation queueing, record store access, index lookups, near
+ * cache reads and client message codecs.
+ * <p>
+ * The benchmarks module is built with the default build, so the benchmarks
+ * are compiled against every change. To build and run all the benchmarks use:
+ * <pre>
+ * mvn package -DskipTests -pl hazelcast,hazelcast-benchmarks
+ * java -jar hazelcast-benchmarks/target/benchmarks.jar
+ * </pre>
+ * Any of the standard JMH options can be passed to the jar, e.g.
+ * {@code java -jar hazelcast-benchmarks/target/benchmarks.jar PacketBenchmark -f 1 -wi 5 -i 5}.
+ * The benchmarks requiring a cluster start its members in the benchmark
+ * process, no external setup is needed.
+ */
+package com.hazelcast.benchmarks;
@@ -0,0 +1,4 @@
+package com.hazelcast.benchmarks.generated;
+public class ClientMessageCodecBenchmark_jmhType extends ClientMessageCodecBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.hazelcast.benchmarks.generated;
+public class IndexBenchmark_jmhType extends IndexBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.hazelcast.benchmarks.generated;
+public class NearCacheBenchmark_KeyCursor_jmhType extends NearCacheBenchmark_KeyCursor_jmhType_B3 {
+}
+
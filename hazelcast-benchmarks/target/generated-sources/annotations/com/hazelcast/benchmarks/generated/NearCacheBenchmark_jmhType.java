@@ -0,0 +1,4 @@
+package com.hazelcast.benchmarks.generated;
+public class NearCacheBenchmark_jmhType extends NearCacheBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.hazelcast.benchmarks.generated;
+public class OperationQueueBenchmark_jmhType extends OperationQueueBenchmark_jmhType_B3 {
+}
+
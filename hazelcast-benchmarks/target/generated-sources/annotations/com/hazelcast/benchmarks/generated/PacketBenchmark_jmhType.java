@@ -0,0 +1,4 @@
+package com.hazelcast.benchmarks.generated;
+public class PacketBenchmark_jmhType extends PacketBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.hazelcast.benchmarks.generated;
+public class RecordStoreBenchmark_jmhType extends RecordStoreBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.hazelcast.benchmarks.generated;
+public class SerializationBenchmark_jmhType extends SerializationBenchmark_jmhType_B3 {
+}
+
@@ -428,7 +428,7 @@ public final class ClientConfigXmlGenerator {
         }
         gen.open("indexes");
         for (MapIndexConfig index : indexes) {
-            gen.node("index", index.getAttribute(), "ordered", index.isOrdered());
+            gen.node("index", index.getAttribute(), "ordered", index.isOrdered(), "bitmap", index.isBitmap());
         }
         gen.close();
     }
@@ -158,8 +158,9 @@ final class QueryCacheConfigBuilderHelper {
             if ("index".equals(cleanNodeName(indexNode))) {
                 final NamedNodeMap attrs = indexNode.getAttributes();
                 boolean ordered = getBooleanValue(getTextContent(attrs.getNamedItem("ordered")));
+                boolean bitmap = getBooleanValue(getTextContent(attrs.getNamedItem("bitmap")));
                 String attribute = getTextContent(indexNode);
-                queryCacheConfig.addIndexConfig(new MapIndexConfig(attribute, ordered));
+                queryCacheConfig.addIndexConfig(new MapIndexConfig(attribute, ordered).setBitmap(bitmap));
             }
         }
     }
@@ -0,0 +1,318 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.proxy;
+
+import com.hazelcast.client.impl.clientside.HazelcastClientInstanceImpl;
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.codec.MapGetAllCodec;
+import com.hazelcast.client.spi.impl.AbstractClientInvocationService;
+import com.hazelcast.client.spi.impl.ClientInvocation;
+import com.hazelcast.client.spi.impl.ClientInvocationFuture;
+import com.hazelcast.core.ExecutionCallback;
+import com.hazelcast.core.OperationTimeoutException;
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.hazelcast.util.ExceptionUtil.rethrow;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Coalesces the concurrent {@code get} calls on an IMap that target the same
+ * partition into a single {@code getAll} request, so the per-request cost of
+ * the framing, the invocation registration and the network writes is shared
+ * by all calls in the batch.
+ * <p>
+ * The batching doesn't use a timer. A call is sent right away if there is no
+ * request in flight for its partition. Otherwise it's added to the pending
+ * batch of the partition, which is sent once the request in flight returns or
+ * once the batch reaches the maximum batch size. So a lone call doesn't wait
+ * at all, while under load the batches grow with the load.
+ * <p>
+ * A call returns once the batch it was added to has completed; if the batch
+ * request fails, all calls in the batch fail. A call waits at most twice the
+ * invocation timeout, once for the request in flight and once for its own
+ * request; if the batch doesn't complete in time, all calls in the batch fail
+ * with an {@link OperationTimeoutException} and the partition is released for
+ * the next batch.
+ * <p>
+ * The updates aren't batched: a {@code putAll} ignores the locks held on its
+ * keys and isn't equivalent to a {@code set} or {@code putTransient}.
+ */
+final class ClientMapAutoBatcher {
+
+    private final HazelcastClientInstanceImpl client;
+    private final String name;
+    private final int maxBatchSize;
+    private final long awaitTimeoutMillis;
+    private final GetBatcher[] getBatchers;
+
+    ClientMapAutoBatcher(HazelcastClientInstanceImpl client, String name, int partitionCount, int maxBatchSize) {
+        this.client = client;
+        this.name = name;
+        this.maxBatchSize = maxBatchSize;
+        AbstractClientInvocationService invocationService = (AbstractClientInvocationService) client.getInvocationService();
+        this.awaitTimeoutMillis = 2 * invocationService.getInvocationTimeoutMillis();
+        this.getBatchers = new GetBatcher[partitionCount];
+        for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
+            getBatchers[partitionId] = new GetBatcher(partitionId);
+        }
+    }
+
+    /**
+     * Gets the value of a key as part of a {@code getAll} batch.
+     *
+     * @param keyData     the key.
+     * @param partitionId the partition of the key.
+     * @return the value or {@code null} if the map doesn't contain the key.
+     */
+    Data get(Data keyData, int partitionId) {
+        GetBatcher batcher = getBatchers[partitionId];
+        Batch batch = batcher.add(keyData);
+        if (!batch.await(awaitTimeoutMillis)) {
+            batcher.onTimeout(batch);
+            // the batch has been finished either by the timeout or by the
+            // response which has just arrived
+            if (!batch.await(awaitTimeoutMillis)) {
+                throw new OperationTimeoutException("The get call on map " + name + " hasn't completed in time");
+            }
+        }
+        return batch.value(keyData);
+    }
+
+    /**
+     * The batching state of a partition.
+     */
+    private abstract class PartitionBatcher {
+
+        final int partitionId;
+
+        // guarded by this
+        private Batch pending;
+        private int inFlightCount;
+
+        PartitionBatcher(int partitionId) {
+            this.partitionId = partitionId;
+        }
+
+        Batch add(Data keyData) {
+            Batch batch;
+            boolean send = false;
+            synchronized (this) {
+                if (pending == null) {
+                    pending = new Batch();
+                }
+                batch = pending;
+                batch.add(keyData);
+                if (inFlightCount == 0 || batch.size() >= maxBatchSize) {
+                    pending = null;
+                    inFlightCount++;
+                    batch.sent = true;
+                    send = true;
+                }
+            }
+
+            if (send) {
+                send(batch);
+            }
+            return batch;
+        }
+
+        private void send(final Batch batch) {
+            ClientInvocationFuture future;
+            try {
+                ClientMessage request = encodeRequest(batch);
+                future = new ClientInvocation(client, request, name, partitionId).invoke();
+            } catch (Throwable t) {
+                onComplete(batch, null, t);
+                return;
+            }
+
+            future.andThen(new ExecutionCallback<ClientMessage>() {
+                @Override
+                public void onResponse(ClientMessage response) {
+                    onComplete(batch, response, null);
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                    onComplete(batch, null, t);
+                }
+            });
+        }
+
+        /**
+         * Fails the batch which hasn't completed in time. If the batch has been
+         * sent, the partition is released as if its request has failed and
+         * the response arriving later is ignored.
+         */
+        void onTimeout(Batch batch) {
+            boolean sent;
+            int size;
+            synchronized (this) {
+                sent = batch.sent;
+                size = batch.size();
+                if (pending == batch) {
+                    pending = null;
+                }
+            }
+            OperationTimeoutException failure = new OperationTimeoutException("The batch of " + size
+                    + " get calls on map " + name + " in partition " + partitionId + " hasn't completed in "
+                    + awaitTimeoutMillis + " ms");
+            if (sent) {
+                onComplete(batch, null, failure);
+            } else if (batch.finish()) {
+                batch.fail(failure);
+            }
+        }
+
+        private void onComplete(Batch batch, ClientMessage response, Throwable failure) {
+            if (!batch.finish()) {
+                // the batch has timed out already
+                return;
+            }
+
+            try {
+                if (failure == null) {
+                    batch.complete(decodeResponse(response));
+                } else {
+                    batch.fail(failure);
+                }
+            } catch (Throwable t) {
+                batch.fail(t);
+            }
+
+            Batch next = null;
+            synchronized (this) {
+                inFlightCount--;
+                if (inFlightCount == 0 && pending != null) {
+                    next = pending;
+                    pending = null;
+                    inFlightCount++;
+                    next.sent = true;
+                }
+            }
+
+            if (next != null) {
+                send(next);
+            }
+        }
+
+        abstract ClientMessage encodeRequest(Batch batch);
+
+        abstract Map<Data, Data> decodeResponse(ClientMessage response);
+    }
+
+    private final class GetBatcher extends PartitionBatcher {
+
+        GetBatcher(int partitionId) {
+            super(partitionId);
+        }
+
+        @Override
+        ClientMessage encodeRequest(Batch batch) {
+            return MapGetAllCodec.encodeRequest(name, batch.keys);
+        }
+
+        @Override
+        Map<Data, Data> decodeResponse(ClientMessage response) {
+            List<Map.Entry<Data, Data>> entries = MapGetAllCodec.decodeResponse(response).response;
+            Map<Data, Data> values = new HashMap<Data, Data>(entries.size() * 2);
+            for (Map.Entry<Data, Data> entry : entries) {
+                values.put(entry.getKey(), entry.getValue());
+            }
+            return values;
+        }
+    }
+
+    /**
+     * The calls coalesced into a single request. The keys are only modified
+     * before the batch is sent.
+     */
+    private static final class Batch {
+
+        private final List<Data> keys = new ArrayList<Data>();
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private volatile Map<Data, Data> response;
+        private volatile Throwable failure;
+
+        // guarded by the partition batcher
+        private boolean sent;
+
+        void add(Data keyData) {
+            keys.add(keyData);
+        }
+
+        int size() {
+            return keys.size();
+        }
+
+        void complete(Map<Data, Data> response) {
+            this.response = response;
+            completed.countDown();
+        }
+
+        /**
+         * Marks the batch finished either by its response or by a timeout.
+         *
+         * @return {@code true} if the batch hasn't been finished before.
+         */
+        boolean finish() {
+            return finished.compareAndSet(false, true);
+        }
+
+        void fail(Throwable failure) {
+            if (completed.getCount() == 0) {
+                return;
+            }
+            this.failure = failure;
+            completed.countDown();
+        }
+
+        /**
+         * Waits for the batch to complete.
+         *
+         * @param timeoutMillis the maximum time to wait.
+         * @return {@code false} if the batch hasn't completed in time.
+         */
+        boolean await(long timeoutMillis) {
+            try {
+                if (!completed.await(timeoutMillis, MILLISECONDS)) {
+                    return false;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw rethrow(e);
+            }
+
+            if (failure != null) {
+                throw rethrow(failure);
+            }
+            return true;
+        }
+
+        Data value(Data keyData) {
+            return response.get(keyData);
+        }
+    }
+}
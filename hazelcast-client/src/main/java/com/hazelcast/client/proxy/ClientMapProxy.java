@@ -151,6 +151,7 @@ import com.hazelcast.query.Predicate;
 import com.hazelcast.ringbuffer.ReadResultSet;
 import com.hazelcast.ringbuffer.impl.client.PortableReadResultSet;
 import com.hazelcast.spi.impl.UnmodifiableLazyList;
+import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.spi.serialization.SerializationService;
 import com.hazelcast.util.CollectionUtil;
 import com.hazelcast.util.IterationType;
@@ -169,6 +170,8 @@ import java.util.Set;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
+import static com.hazelcast.client.spi.properties.ClientProperty.MAP_AUTO_BATCHING_ENABLED;
+import static com.hazelcast.client.spi.properties.ClientProperty.MAP_AUTO_BATCHING_MAX_BATCH_SIZE;
 import static com.hazelcast.map.impl.ListenerAdapters.createListenerAdapter;
 import static com.hazelcast.map.impl.MapListenerFlagOperator.setAndGetListenerFlags;
 import static com.hazelcast.map.impl.querycache.subscriber.QueryCacheRequest.newQueryCacheRequest;
@@ -255,6 +258,8 @@ public class ClientMapProxy<K, V> extends ClientProxy
     private ClientMessageDecoder eventJournalSubscribeResponseDecoder;
     private ClientLockReferenceIdGenerator lockReferenceIdGenerator;
     private ClientQueryCacheContext queryCacheContext;
+    // null if the auto batching is disabled
+    private ClientMapAutoBatcher autoBatcher;
 
     public ClientMapProxy(String serviceName, String name, ClientContext context) {
         super(serviceName, name, context);
@@ -284,6 +289,13 @@ public class ClientMapProxy<K, V> extends ClientProxy
                 return new EventJournalInitialSubscriberState(resp.oldestSequence, resp.newestSequence);
             }
         };
+
+        HazelcastProperties properties = getClient().getProperties();
+        if (properties.getBoolean(MAP_AUTO_BATCHING_ENABLED)) {
+            int partitionCount = getContext().getPartitionService().getPartitionCount();
+            autoBatcher = new ClientMapAutoBatcher(getClient(), name, partitionCount,
+                    properties.getInteger(MAP_AUTO_BATCHING_MAX_BATCH_SIZE));
+        }
     }
 
     @Override
@@ -321,6 +333,9 @@ public class ClientMapProxy<K, V> extends ClientProxy
 
     protected Object getInternal(Object key) {
         Data keyData = toData(key);
+        if (autoBatcher != null) {
+            return autoBatcher.get(keyData, getContext().getPartitionService().getPartitionId(keyData));
+        }
         ClientMessage request = MapGetCodec.encodeRequest(name, keyData, getThreadId());
         ClientMessage response = invoke(request, keyData);
         MapGetCodec.ResponseParameters resultParameters = MapGetCodec.decodeResponse(response);
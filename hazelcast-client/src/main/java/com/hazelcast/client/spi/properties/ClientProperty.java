@@ -183,6 +183,32 @@ public final class ClientProperty {
     public static final HazelcastProperty RESPONSE_THREAD_COUNT
             = new HazelcastProperty("hazelcast.client.response.thread.count", 2);
 
+    /**
+     * If enabled, the concurrent {@code get(key)} calls on an IMap that target the same partition are coalesced
+     * into a single {@code getAll} request. A call is sent right away if there is no request in flight for its
+     * partition; otherwise it's sent with the next batch of the partition. This reduces the per-request overhead
+     * when many threads share a client. The updates are always sent one by one, since they have to respect the
+     * locks held on their keys.
+     *
+     * A batched call waits for its batch at most twice the {@link #INVOCATION_TIMEOUT_SECONDS invocation timeout}
+     * and fails with an {@link com.hazelcast.core.OperationTimeoutException} otherwise. The batches are sent as
+     * {@code getAll} requests, the members count them as the gets of their keys in the local map statistics.
+     *
+     * The default is false.
+     */
+    public static final HazelcastProperty MAP_AUTO_BATCHING_ENABLED
+            = new HazelcastProperty("hazelcast.client.map.autobatching.enabled", false);
+
+    /**
+     * The maximum number of calls coalesced into a single request when the
+     * {@link #MAP_AUTO_BATCHING_ENABLED map auto batching} is enabled. A batch reaching this size is sent even if
+     * there is another request in flight for its partition.
+     *
+     * The default is 128.
+     */
+    public static final HazelcastProperty MAP_AUTO_BATCHING_MAX_BATCH_SIZE
+            = new HazelcastProperty("hazelcast.client.map.autobatching.max.batch.size", 128);
+
 
     /**
      * Token to use when discovering cluster via hazelcast.cloud
@@ -409,6 +409,10 @@ public class ClientConfigXmlGeneratorTest extends HazelcastTestSupport {
                 new MapIndexConfig()
                         .setOrdered(true)
                         .setAttribute(randomString())
+        ).addIndexConfig(
+                new MapIndexConfig()
+                        .setBitmap(true)
+                        .setAttribute(randomString())
         ).addEntryListenerConfig(
                 (EntryListenerConfig) new EntryListenerConfig()
                         .setIncludeValue(true)
@@ -348,10 +348,15 @@ public class XmlClientConfigBuilderTest extends HazelcastTestSupport {
         assertEquals(InMemoryFormat.BINARY, queryCacheConfig.getInMemoryFormat());
         assertFalse(queryCacheConfig.isCoalesce());
         assertTrue(queryCacheConfig.isPopulate());
-        for (MapIndexConfig mapIndexConfig : queryCacheConfig.getIndexConfigs()) {
-            assertEquals("name", mapIndexConfig.getAttribute());
-            assertFalse(mapIndexConfig.isOrdered());
-        }
+        assertEquals(2, queryCacheConfig.getIndexConfigs().size());
+        MapIndexConfig mapIndexConfig = queryCacheConfig.getIndexConfigs().get(0);
+        assertEquals("name", mapIndexConfig.getAttribute());
+        assertFalse(mapIndexConfig.isOrdered());
+        assertFalse(mapIndexConfig.isBitmap());
+        MapIndexConfig bitmapIndexConfig = queryCacheConfig.getIndexConfigs().get(1);
+        assertEquals("status", bitmapIndexConfig.getAttribute());
+        assertFalse(bitmapIndexConfig.isOrdered());
+        assertTrue(bitmapIndexConfig.isBitmap());
 
         assertEquals("com.hazelcast.examples.ExamplePredicate", queryCacheConfig.getPredicateConfig().getClassName());
     }
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.map;
+
+import com.hazelcast.client.config.ClientConfig;
+import com.hazelcast.client.test.TestHazelcastFactory;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.core.MapStoreAdapter;
+import com.hazelcast.core.OperationTimeoutException;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.client.spi.properties.ClientProperty.INVOCATION_TIMEOUT_SECONDS;
+import static com.hazelcast.client.spi.properties.ClientProperty.MAP_AUTO_BATCHING_ENABLED;
+import static com.hazelcast.client.spi.properties.ClientProperty.MAP_AUTO_BATCHING_MAX_BATCH_SIZE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ClientMapAutoBatchingTest extends HazelcastTestSupport {
+
+    private static final int THREAD_COUNT = 8;
+    private static final int KEY_COUNT_PER_THREAD = 500;
+
+    private final TestHazelcastFactory hazelcastFactory = new TestHazelcastFactory();
+
+    private final CountDownLatch loadLatch = new CountDownLatch(1);
+
+    private HazelcastInstance otherServer;
+    private IMap<Integer, Integer> serverMap;
+    private IMap<Integer, Integer> clientMap;
+
+    @Before
+    public void setup() {
+        Config config = new Config();
+        config.getMapConfig("slow*").getMapStoreConfig()
+                .setEnabled(true)
+                .setImplementation(new MapStoreAdapter<Integer, Integer>() {
+                    @Override
+                    public Integer load(Integer key) {
+                        assertOpenEventually(loadLatch);
+                        return key * 10;
+                    }
+                });
+        HazelcastInstance server = hazelcastFactory.newHazelcastInstance(config);
+        otherServer = hazelcastFactory.newHazelcastInstance(config);
+
+        ClientConfig clientConfig = new ClientConfig()
+                .setProperty(MAP_AUTO_BATCHING_ENABLED.getName(), "true")
+                .setProperty(MAP_AUTO_BATCHING_MAX_BATCH_SIZE.getName(), "16");
+        HazelcastInstance client = hazelcastFactory.newHazelcastClient(clientConfig);
+
+        String mapName = randomMapName();
+        serverMap = server.getMap(mapName);
+        clientMap = client.getMap(mapName);
+    }
+
+    @After
+    public void tearDown() {
+        loadLatch.countDown();
+        hazelcastFactory.terminateAll();
+    }
+
+    @Test
+    public void get_whenKeyMissing_thenNull() {
+        assertNull(clientMap.get(1));
+    }
+
+    @Test
+    public void get_whenKeyPresent() {
+        serverMap.put(1, 10);
+
+        assertEquals(10, (int) clientMap.get(1));
+    }
+
+    @Test
+    public void get_thenCountedInLocalMapStats() {
+        for (int k = 0; k < 10; k++) {
+            clientMap.get(k);
+        }
+
+        long getCount = serverMap.getLocalMapStats().getGetOperationCount()
+                + otherServer.getMap(serverMap.getName()).getLocalMapStats().getGetOperationCount();
+        assertEquals(10, getCount);
+    }
+
+    @Test
+    public void get_whenBatchNotCompletedInTime_thenTimesOutAndPartitionReleased() {
+        ClientConfig clientConfig = new ClientConfig()
+                .setProperty(MAP_AUTO_BATCHING_ENABLED.getName(), "true")
+                .setProperty(INVOCATION_TIMEOUT_SECONDS.getName(), "1");
+        IMap<Integer, Integer> slowMap = hazelcastFactory.newHazelcastClient(clientConfig).getMap("slow" + randomMapName());
+
+        try {
+            slowMap.get(1);
+            fail("the get should time out while the load is blocked");
+        } catch (OperationTimeoutException expected) {
+            ignore(expected);
+        }
+
+        loadLatch.countDown();
+        assertEquals(10, (int) slowMap.get(1));
+    }
+
+    @Test
+    public void set() {
+        clientMap.set(1, 10);
+
+        assertEquals(10, (int) serverMap.get(1));
+    }
+
+    @Test
+    public void set_whenTtl_thenNotBatched() {
+        clientMap.set(1, 10, 1, TimeUnit.HOURS);
+
+        assertEquals(10, (int) serverMap.get(1));
+        assertEquals(10, (int) clientMap.get(1));
+    }
+
+    @Test
+    public void set_whenKeyLockedByOtherOwner_thenWaitsForUnlock() throws Exception {
+        serverMap.lock(1);
+
+        List<Future> futures = new ArrayList<Future>();
+        for (int t = 0; t < THREAD_COUNT; t++) {
+            final int value = t;
+            futures.add(spawn(new Runnable() {
+                @Override
+                public void run() {
+                    clientMap.set(1, value);
+                }
+            }));
+        }
+
+        sleepSeconds(2);
+        for (Future future : futures) {
+            assertFalse(future.isDone());
+        }
+        assertNull(serverMap.get(1));
+
+        serverMap.unlock(1);
+        for (Future future : futures) {
+            future.get();
+        }
+        assertNotNull(serverMap.get(1));
+    }
+
+    @Test
+    public void putTransient_whenKeyLockedByOtherOwner_thenWaitsForUnlock() throws Exception {
+        serverMap.lock(1);
+
+        Future future = spawn(new Runnable() {
+            @Override
+            public void run() {
+                clientMap.putTransient(1, 10, -1, TimeUnit.MILLISECONDS);
+            }
+        });
+
+        sleepSeconds(2);
+        assertFalse(future.isDone());
+        assertNull(serverMap.get(1));
+
+        serverMap.unlock(1);
+        future.get();
+        assertEquals(10, (int) serverMap.get(1));
+    }
+
+    @Test
+    public void concurrentGetAndSet() throws Exception {
+        List<Future> futures = new ArrayList<Future>();
+        for (int t = 0; t < THREAD_COUNT; t++) {
+            final int offset = t * KEY_COUNT_PER_THREAD;
+            futures.add(spawn(new Runnable() {
+                @Override
+                public void run() {
+                    for (int k = offset; k < offset + KEY_COUNT_PER_THREAD; k++) {
+                        assertNull(clientMap.get(k));
+                        clientMap.set(k, k * 2);
+                        assertEquals(k * 2, (int) clientMap.get(k));
+                    }
+                }
+            }));
+        }
+        for (Future future : futures) {
+            future.get();
+        }
+
+        assertEquals(THREAD_COUNT * KEY_COUNT_PER_THREAD, serverMap.size());
+        for (int k = 0; k < THREAD_COUNT * KEY_COUNT_PER_THREAD; k++) {
+            assertEquals(k * 2, (int) serverMap.get(k));
+        }
+    }
+}
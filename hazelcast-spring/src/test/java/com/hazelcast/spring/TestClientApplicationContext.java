@@ -38,6 +38,7 @@ import com.hazelcast.config.EntryListenerConfig;
 import com.hazelcast.config.EvictionConfig;
 import com.hazelcast.config.EvictionPolicy;
 import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MapIndexConfig;
 import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.config.NearCachePreloaderConfig;
 import com.hazelcast.config.QueryCacheConfig;
@@ -396,6 +397,12 @@ public class TestClientApplicationContext {
         assertEquals(EvictionPolicy.LRU, queryCacheConfig.getEvictionConfig().getEvictionPolicy());
         assertEquals(EvictionConfig.MaxSizePolicy.ENTRY_COUNT, queryCacheConfig.getEvictionConfig().getMaximumSizePolicy());
         assertEquals(111, queryCacheConfig.getEvictionConfig().getSize());
+
+        assertEquals(1, queryCacheConfig.getIndexConfigs().size());
+        MapIndexConfig mapIndexConfig = queryCacheConfig.getIndexConfigs().get(0);
+        assertEquals("name", mapIndexConfig.getAttribute());
+        assertFalse(mapIndexConfig.isOrdered());
+        assertTrue(mapIndexConfig.isBitmap());
     }
 
     @Test
@@ -321,8 +321,10 @@ public class TestFullApplicationContext extends HazelcastTestSupport {
         for (MapIndexConfig index : testMapConfig.getMapIndexConfigs()) {
             if ("name".equals(index.getAttribute())) {
                 assertFalse(index.isOrdered());
+                assertTrue(index.isBitmap());
             } else if ("age".equals(index.getAttribute())) {
                 assertTrue(index.isOrdered());
+                assertFalse(index.isBitmap());
             } else {
                 fail("unknown index!");
             }
@@ -1292,6 +1294,7 @@ public class TestFullApplicationContext extends HazelcastTestSupport {
         for (MapIndexConfig mapIndexConfig : queryCacheConfig.getIndexConfigs()) {
             assertEquals("name", mapIndexConfig.getAttribute());
             assertFalse(mapIndexConfig.isOrdered());
+            assertTrue(mapIndexConfig.isBitmap());
         }
     }
 
@@ -18,8 +18,10 @@ package com.hazelcast.aggregation.impl;
 
 import com.hazelcast.aggregation.Aggregator;
 import com.hazelcast.query.impl.Extractable;
+import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.query.impl.getters.MultiResult;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -78,6 +80,50 @@ public abstract class AbstractAggregator<I, E, R> extends Aggregator<I, R> {
         }
     }
 
+    /**
+     * Accumulates the given batch of entries.
+     * <p>
+     * By default, the entries are accumulated one by one using {@link
+     * #accumulate}. Aggregators of numeric attributes override this to
+     * extract the attribute values as primitives and to accumulate them in
+     * a tight loop, avoiding the boxing of the values.
+     *
+     * @param entries the entries to accumulate.
+     */
+    @SuppressWarnings("unchecked")
+    public void accumulateAll(Collection<QueryableEntry> entries) {
+        for (QueryableEntry entry : entries) {
+            accumulate((I) entry);
+        }
+    }
+
+    /**
+     * Tells whether accumulating the entries in batches using {@link
+     * #accumulateAll} is faster than accumulating them one by one. The
+     * entries of a batch are retained until the batch is accumulated, so
+     * collecting them is only worth it if the aggregator benefits from it.
+     *
+     * @return {@code true} if the entries should be accumulated in batches,
+     * {@code false} otherwise.
+     */
+    public boolean isBatchAccumulationBeneficial() {
+        return false;
+    }
+
+    /**
+     * Tells whether the value of the attribute of this aggregator may be
+     * extracted from the given entry as a primitive. Entries which don't
+     * allow that have to be accumulated using {@link #accumulate}.
+     *
+     * @param entry the entry to check.
+     * @return {@code true} if the primitive extraction is possible, {@code
+     * false} otherwise.
+     * @see QueryableEntry#isSingleValuedAttribute
+     */
+    protected final boolean canExtractPrimitive(QueryableEntry entry) {
+        return attributePath != null && entry.isSingleValuedAttribute(attributePath);
+    }
+
     /**
      * Extract the value of the given attributePath from the given entry.
      */
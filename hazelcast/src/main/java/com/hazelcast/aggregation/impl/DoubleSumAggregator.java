@@ -20,8 +20,10 @@ import com.hazelcast.aggregation.Aggregator;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.query.impl.QueryableEntry;
 
 import java.io.IOException;
+import java.util.Collection;
 
 public final class DoubleSumAggregator<I> extends AbstractAggregator<I, Double, Double>
         implements IdentifiedDataSerializable {
@@ -41,6 +43,23 @@ public final class DoubleSumAggregator<I> extends AbstractAggregator<I, Double,
         sum += value;
     }
 
+    @Override
+    public boolean isBatchAccumulationBeneficial() {
+        return attributePath != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void accumulateAll(Collection<QueryableEntry> entries) {
+        for (QueryableEntry entry : entries) {
+            if (canExtractPrimitive(entry)) {
+                sum += entry.getDoubleAttributeValue(attributePath);
+            } else {
+                accumulate((I) entry);
+            }
+        }
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         DoubleSumAggregator longSumAggregator = (DoubleSumAggregator) aggregator;
@@ -20,8 +20,10 @@ import com.hazelcast.aggregation.Aggregator;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.query.impl.QueryableEntry;
 
 import java.io.IOException;
+import java.util.Collection;
 
 public final class IntegerAverageAggregator<I> extends AbstractAggregator<I, Integer, Double>
         implements IdentifiedDataSerializable {
@@ -44,6 +46,24 @@ public final class IntegerAverageAggregator<I> extends AbstractAggregator<I, Int
         sum += value;
     }
 
+    @Override
+    public boolean isBatchAccumulationBeneficial() {
+        return attributePath != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void accumulateAll(Collection<QueryableEntry> entries) {
+        for (QueryableEntry entry : entries) {
+            if (canExtractPrimitive(entry)) {
+                sum += entry.getIntAttributeValue(attributePath);
+                count++;
+            } else {
+                accumulate((I) entry);
+            }
+        }
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         IntegerAverageAggregator integerAverageAggregator = (IntegerAverageAggregator) aggregator;
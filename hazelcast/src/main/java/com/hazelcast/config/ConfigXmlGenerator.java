@@ -982,7 +982,7 @@ public class ConfigXmlGenerator {
         if (!mapIndexConfigs.isEmpty()) {
             gen.open("indexes");
             for (MapIndexConfig indexCfg : mapIndexConfigs) {
-                gen.node("index", indexCfg.getAttribute(), "ordered", indexCfg.isOrdered());
+                gen.node("index", indexCfg.getAttribute(), "ordered", indexCfg.isOrdered(), "bitmap", indexCfg.isBitmap());
             }
             gen.close();
         }
@@ -16,13 +16,17 @@
 
 package com.hazelcast.config;
 
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.Logger;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.nio.serialization.impl.Versioned;
 
 import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
 
 import static com.hazelcast.query.QueryConstants.KEY_ATTRIBUTE_NAME;
 import static com.hazelcast.util.Preconditions.checkHasText;
@@ -31,13 +35,29 @@ import static com.hazelcast.util.Preconditions.checkHasText;
  * Contains the configuration for an index in a map. This class should be used in combination
  * with the {@link MapConfig}. The reason to create an map index is to speed up searches for
  * particular map entries.
+ * <p>
+ * The attribute may list several comma-separated attributes, e.g.
+ * {@code "region, status, createdAt"}, to define a composite index on the
+ * ordered tuple of these attributes. A query having equality predicates on
+ * all the listed attributes is served by a single lookup on the composite
+ * index. An ordered composite index additionally serves queries having
+ * equality predicates on a prefix of the listed attributes optionally followed
+ * by a range predicate on the next attribute, e.g. {@code region = 'EU' and
+ * status = 'OPEN' and createdAt > 1000}. Collection and array attributes can't
+ * be indexed by composite indexes.
+ * <p>
+ * An unordered index on an attribute having few distinct values, like a status
+ * or a category, may be configured as a {@link #setBitmap bitmap} index.
  */
-public class MapIndexConfig implements IdentifiedDataSerializable {
+public class MapIndexConfig implements IdentifiedDataSerializable, Versioned {
 
     private static final ILogger LOG = Logger.getLogger(MapIndexConfig.class);
 
+    private static final char COMPOSITE_INDEX_SEPARATOR = ',';
+
     private String attribute;
     private boolean ordered;
+    private boolean bitmap;
     private transient MapIndexConfigReadOnly readOnly;
 
     /**
@@ -62,6 +82,7 @@ public class MapIndexConfig implements IdentifiedDataSerializable {
     public MapIndexConfig(MapIndexConfig config) {
         attribute = config.getAttribute();
         ordered = config.isOrdered();
+        bitmap = config.isBitmap();
     }
 
     /**
@@ -88,11 +109,14 @@ public class MapIndexConfig implements IdentifiedDataSerializable {
     }
 
     /**
-     * Sets the attribute that is going to be indexed.
+     * Sets the attribute that is going to be indexed. Several comma-separated
+     * attributes define a composite index.
      *
      * @param attribute the attribute that is going to be indexed
      * @return the updated MapIndexConfig
-     * @throws IllegalArgumentException if attribute is null or an empty string
+     * @throws IllegalArgumentException if attribute is null or an empty string,
+     *                                  or if it lists an empty or duplicate
+     *                                  attribute
      */
     public MapIndexConfig setAttribute(String attribute) {
         this.attribute = validateIndexAttribute(attribute);
@@ -122,9 +146,36 @@ public class MapIndexConfig implements IdentifiedDataSerializable {
         return this;
     }
 
+    /**
+     * Checks if the index should be a bitmap index.
+     *
+     * @return {@code true} if the index is a bitmap index, {@code false} otherwise
+     * @see #setBitmap(boolean)
+     */
+    public boolean isBitmap() {
+        return bitmap;
+    }
+
+    /**
+     * Configures the index to be a bitmap index or a regular one. A bitmap
+     * index keeps a compressed set of entries per distinct attribute value,
+     * so equality, {@code in} and {@code not} predicates on it and their
+     * {@code and}/{@code or} combinations are evaluated by cheap set
+     * operations instead of scanning and intersecting entry sets. Bitmap
+     * indexes pay off for attributes with few distinct values, like a status
+     * or a category; they can't be ordered or composite.
+     *
+     * @param bitmap if the index should be a bitmap index
+     * @return the updated MapIndexConfig
+     */
+    public MapIndexConfig setBitmap(boolean bitmap) {
+        this.bitmap = bitmap;
+        return this;
+    }
+
     @Override
     public String toString() {
-        return "MapIndexConfig{attribute='" + attribute + "', ordered=" + ordered + '}';
+        return "MapIndexConfig{attribute='" + attribute + "', ordered=" + ordered + ", bitmap=" + bitmap + '}';
     }
 
     /**
@@ -135,6 +186,26 @@ public class MapIndexConfig implements IdentifiedDataSerializable {
      */
     public static String validateIndexAttribute(String attribute) {
         checkHasText(attribute, "Map index attribute must contain text");
+        if (attribute.indexOf(COMPOSITE_INDEX_SEPARATOR) < 0) {
+            validateIndexComponent(attribute);
+            return attribute;
+        }
+
+        String[] components = attribute.split(String.valueOf(COMPOSITE_INDEX_SEPARATOR), -1);
+        Set<String> seen = new HashSet<String>(components.length);
+        for (String rawComponent : components) {
+            String component = rawComponent.trim();
+            checkHasText(component, "Composite map index attribute must not contain empty attributes: " + attribute);
+            if (!seen.add(component)) {
+                throw new IllegalArgumentException("Composite map index attribute must not contain duplicate attributes: "
+                        + attribute);
+            }
+            validateIndexComponent(component);
+        }
+        return attribute;
+    }
+
+    private static void validateIndexComponent(String attribute) {
         String keyPrefix = KEY_ATTRIBUTE_NAME.value();
         if (attribute.startsWith(keyPrefix) && attribute.length() > keyPrefix.length()) {
             if (attribute.charAt(keyPrefix.length()) != '#') {
@@ -142,7 +213,6 @@ public class MapIndexConfig implements IdentifiedDataSerializable {
                         + attribute + "'. Don't you want to index a key?");
             }
         }
-        return attribute;
     }
 
     @Override
@@ -159,12 +229,20 @@ public class MapIndexConfig implements IdentifiedDataSerializable {
     public void writeData(ObjectDataOutput out) throws IOException {
         out.writeUTF(attribute);
         out.writeBoolean(ordered);
+        // RU_COMPAT_3_11
+        if (out.getVersion().isGreaterOrEqual(Versions.V3_12)) {
+            out.writeBoolean(bitmap);
+        }
     }
 
     @Override
     public void readData(ObjectDataInput in) throws IOException {
         attribute = in.readUTF();
         ordered = in.readBoolean();
+        // RU_COMPAT_3_11
+        if (in.getVersion().isGreaterOrEqual(Versions.V3_12)) {
+            bitmap = in.readBoolean();
+        }
     }
 
     @Override
@@ -180,6 +258,9 @@ public class MapIndexConfig implements IdentifiedDataSerializable {
         if (ordered != that.ordered) {
             return false;
         }
+        if (bitmap != that.bitmap) {
+            return false;
+        }
         return attribute != null ? attribute.equals(that.attribute) : that.attribute == null;
     }
 
@@ -187,6 +268,7 @@ public class MapIndexConfig implements IdentifiedDataSerializable {
     public final int hashCode() {
         int result = attribute != null ? attribute.hashCode() : 0;
         result = 31 * result + (ordered ? 1 : 0);
+        result = 31 * result + (bitmap ? 1 : 0);
         return result;
     }
 }
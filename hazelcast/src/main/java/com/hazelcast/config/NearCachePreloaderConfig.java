@@ -32,6 +32,13 @@ import static com.hazelcast.util.Preconditions.checkPositive;
  *
  * Preloader re-populates Near Cache after client/server restart to provide
  * fast access.
+ * <p>
+ * The keys are stored in an append-only log, so a store only writes the keys
+ * added and removed since the previous store. To do so, the hashes of up to
+ * about one million stored keys are kept on the heap (16 to 32 bytes per key)
+ * and a second set of hashes is built during each store. Each store still
+ * iterates and serializes all keys of the Near Cache. Larger Near Caches keep
+ * no hashes and write all keys to a new file on every store.
  *
  * @since 3.8
  */
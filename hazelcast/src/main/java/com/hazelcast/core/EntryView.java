@@ -67,6 +67,8 @@ public interface EntryView<K, V> {
      * Returns number of hits of the entry.
      * <p>
      * <b>Warning:</b> This method returns {@code -1} if statistics are not enabled or not implemented.
+     * For IMap entries it returns {@code 0} if the hit tracking is disabled with the
+     * {@code hazelcast.map.entry.hits.tracking.enabled} property.
      *
      * @return number of hits of the entry
      */
@@ -23,6 +23,7 @@ import com.hazelcast.config.MemberAddressProviderConfig;
 import com.hazelcast.internal.networking.ChannelErrorHandler;
 import com.hazelcast.internal.networking.ChannelInitializer;
 import com.hazelcast.internal.networking.Networking;
+import com.hazelcast.internal.networking.nio.ByteBufferPool;
 import com.hazelcast.internal.networking.nio.NioNetworking;
 import com.hazelcast.internal.util.InstantiationUtils;
 import com.hazelcast.logging.ILogger;
@@ -40,9 +41,13 @@ import java.nio.channels.ServerSocketChannel;
 import java.util.List;
 import java.util.Properties;
 
+import static com.hazelcast.memory.MemoryUnit.MEGABYTES;
 import static com.hazelcast.spi.properties.GroupProperty.IO_BALANCER_INTERVAL_SECONDS;
+import static com.hazelcast.spi.properties.GroupProperty.IO_BUFFER_POOL_ENABLED;
+import static com.hazelcast.spi.properties.GroupProperty.IO_BUFFER_POOL_MAX_SIZE;
 import static com.hazelcast.spi.properties.GroupProperty.IO_INPUT_THREAD_COUNT;
 import static com.hazelcast.spi.properties.GroupProperty.IO_OUTPUT_THREAD_COUNT;
+import static com.hazelcast.spi.properties.GroupProperty.IO_WRITE_THROUGH_ENABLED;
 import static java.util.Arrays.asList;
 import static java.util.Collections.unmodifiableList;
 
@@ -168,6 +173,15 @@ public class DefaultNodeContext implements NodeContext {
                         .inputThreadCount(props.getInteger(IO_INPUT_THREAD_COUNT))
                         .outputThreadCount(props.getInteger(IO_OUTPUT_THREAD_COUNT))
                         .balancerIntervalSeconds(props.getInteger(IO_BALANCER_INTERVAL_SECONDS))
+                        .writeThroughEnabled(props.getBoolean(IO_WRITE_THROUGH_ENABLED))
+                        .bufferPool(createBufferPool(props))
                         .channelInitializer(initializer));
     }
+
+    private static ByteBufferPool createBufferPool(HazelcastProperties props) {
+        if (!props.getBoolean(IO_BUFFER_POOL_ENABLED)) {
+            return null;
+        }
+        return new ByteBufferPool(MEGABYTES.toBytes(props.getLong(IO_BUFFER_POOL_MAX_SIZE)));
+    }
 }
@@ -59,9 +59,12 @@ import com.hazelcast.internal.dynamicconfig.EmptyDynamicConfigListener;
 import com.hazelcast.internal.jmx.ManagementService;
 import com.hazelcast.internal.management.ManagementCenterConnectionFactory;
 import com.hazelcast.internal.management.TimedMemberStateFactory;
+import com.hazelcast.internal.metrics.MetricsProvider;
+import com.hazelcast.internal.metrics.MetricsRegistry;
 import com.hazelcast.internal.networking.InboundHandler;
 import com.hazelcast.internal.networking.ChannelInitializer;
 import com.hazelcast.internal.networking.OutboundHandler;
+import com.hazelcast.internal.networking.nio.ByteBufferPool;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.SerializationServiceBuilder;
 import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
@@ -73,6 +76,7 @@ import com.hazelcast.nio.Address;
 import com.hazelcast.nio.ClassLoaderUtil;
 import com.hazelcast.nio.IOService;
 import com.hazelcast.nio.MemberSocketInterceptor;
+import com.hazelcast.nio.tcp.GatheringPacketEncoder;
 import com.hazelcast.nio.tcp.PacketDecoder;
 import com.hazelcast.nio.tcp.PacketEncoder;
 import com.hazelcast.nio.tcp.PlainChannelInitializer;
@@ -86,6 +90,7 @@ import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.spi.impl.eventservice.impl.EventServiceImpl;
 import com.hazelcast.spi.impl.servicemanager.ServiceManager;
 import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.util.ByteArrayProcessor;
 import com.hazelcast.util.ConstructorFunction;
 import com.hazelcast.util.ExceptionUtil;
@@ -104,10 +109,11 @@ import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import static com.hazelcast.map.impl.MapServiceConstructor.getDefaultMapServiceConstructor;
+import static com.hazelcast.memory.MemoryUnit.MEGABYTES;
 
 @PrivateApi
 @SuppressWarnings({"checkstyle:methodcount", "checkstyle:classfanoutcomplexity", "checkstyle:classdataabstractioncoupling"})
-public class DefaultNodeExtension implements NodeExtension {
+public class DefaultNodeExtension implements NodeExtension, MetricsProvider {
 
     protected final Node node;
     protected final ILogger logger;
@@ -116,15 +122,24 @@ public class DefaultNodeExtension implements NodeExtension {
     protected PhoneHome phoneHome;
 
     private final MemoryStats memoryStats = new DefaultMemoryStats();
+    private final ByteBufferPool payloadPool;
 
     public DefaultNodeExtension(Node node) {
         this.node = node;
         this.logger = node.getLogger(NodeExtension.class);
         this.systemLogger = node.getLogger("com.hazelcast.system");
+        this.payloadPool = createPayloadPool(node.getProperties());
         checkSecurityAllowed();
         createAndSetPhoneHome();
     }
 
+    private static ByteBufferPool createPayloadPool(HazelcastProperties properties) {
+        if (!properties.getBoolean(GroupProperty.IO_PAYLOAD_POOL_ENABLED)) {
+            return null;
+        }
+        return new ByteBufferPool(MEGABYTES.toBytes(properties.getLong(GroupProperty.IO_PAYLOAD_POOL_MAX_SIZE)));
+    }
+
     private void checkSecurityAllowed() {
         SecurityConfig securityConfig = node.getConfig().getSecurityConfig();
         if (securityConfig != null && securityConfig.isEnabled()) {
@@ -259,12 +274,15 @@ public class DefaultNodeExtension implements NodeExtension {
     @Override
     public InboundHandler[] createInboundHandlers(TcpIpConnection connection, IOService ioService) {
         NodeEngineImpl nodeEngine = node.nodeEngine;
-        PacketDecoder decoder = new PacketDecoder(connection, nodeEngine.getPacketDispatcher());
+        PacketDecoder decoder = new PacketDecoder(connection, nodeEngine.getPacketDispatcher(), payloadPool);
         return new InboundHandler[]{decoder};
     }
 
     @Override
     public OutboundHandler[] createOutboundHandlers(TcpIpConnection connection, IOService ioService) {
+        if (node.getProperties().getBoolean(GroupProperty.IO_GATHERING_WRITE_ENABLED)) {
+            return new OutboundHandler[]{new GatheringPacketEncoder()};
+        }
         return new OutboundHandler[]{new PacketEncoder()};
     }
 
@@ -288,6 +306,13 @@ public class DefaultNodeExtension implements NodeExtension {
     public void onThreadStop(Thread thread) {
     }
 
+    @Override
+    public void provideMetrics(MetricsRegistry registry) {
+        if (payloadPool != null) {
+            registry.scanAndRegister(payloadPool, "tcp.payloadPool");
+        }
+    }
+
     @Override
     public MemoryStats getMemoryStats() {
         return memoryStats;
@@ -27,6 +27,7 @@ import com.hazelcast.config.EvictionConfig.MaxSizePolicy;
 import com.hazelcast.config.EvictionPolicy;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MapIndexConfig;
 import com.hazelcast.config.MultiMapConfig;
 import com.hazelcast.config.NativeMemoryConfig;
 import com.hazelcast.config.NearCacheConfig;
@@ -40,10 +41,12 @@ import com.hazelcast.internal.eviction.EvictionPolicyComparator;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.Logger;
 import com.hazelcast.map.merge.MergePolicyProvider;
+import com.hazelcast.query.impl.IndexUtils;
 import com.hazelcast.spi.merge.SplitBrainMergePolicyProvider;
 import com.hazelcast.spi.merge.SplitBrainMergeTypeProvider;
 
 import java.util.EnumSet;
+import java.util.List;
 
 import static com.hazelcast.config.EvictionPolicy.LFU;
 import static com.hazelcast.config.EvictionPolicy.LRU;
@@ -81,11 +84,66 @@ public final class ConfigValidator {
      * @param mergePolicyProvider the {@link MergePolicyProvider} to resolve merge policy classes
      */
     public static void checkMapConfig(MapConfig mapConfig, MergePolicyProvider mergePolicyProvider) {
-        checkNotNativeWhenOpenSource(mapConfig.getInMemoryFormat());
+        checkMapConfig(mapConfig, null, mergePolicyProvider);
+    }
+
+    /**
+     * Validates the given {@link MapConfig}.
+     * <p>
+     * On Hazelcast OS the {@link InMemoryFormat#NATIVE} in-memory format is
+     * accepted only if the given {@link NativeMemoryConfig} is enabled.
+     *
+     * @param mapConfig           the {@link MapConfig}
+     * @param nativeMemoryConfig  the {@link NativeMemoryConfig} of the Hazelcast instance, can be {@code null}
+     * @param mergePolicyProvider the {@link MergePolicyProvider} to resolve merge policy classes
+     */
+    public static void checkMapConfig(MapConfig mapConfig, NativeMemoryConfig nativeMemoryConfig,
+                                      MergePolicyProvider mergePolicyProvider) {
+        checkMapNativeMemoryConfig(mapConfig.getInMemoryFormat(), nativeMemoryConfig);
         checkMapMergePolicy(mapConfig, mergePolicyProvider);
+        checkMapIndexConfigs(mapConfig.getName(), mapConfig.getMapIndexConfigs());
         logIgnoredConfig(mapConfig);
     }
 
+    /**
+     * Throws {@link IllegalArgumentException} if any of the given index
+     * configs defines an ordered or composite bitmap index.
+     *
+     * @param mapName         the name of the map the indexes are defined for
+     * @param mapIndexConfigs the index configs to check
+     */
+    private static void checkMapIndexConfigs(String mapName, List<MapIndexConfig> mapIndexConfigs) {
+        for (MapIndexConfig indexConfig : mapIndexConfigs) {
+            if (!indexConfig.isBitmap()) {
+                continue;
+            }
+            if (indexConfig.isOrdered()) {
+                throw new IllegalArgumentException(format("Bitmap index '%s' of map '%s' can't be ordered",
+                        indexConfig.getAttribute(), mapName));
+            }
+            if (IndexUtils.isComposite(indexConfig.getAttribute())) {
+                throw new IllegalArgumentException(format("Bitmap index '%s' of map '%s' can't be composite",
+                        indexConfig.getAttribute(), mapName));
+            }
+        }
+    }
+
+    /**
+     * Throws {@link IllegalArgumentException} if the given {@link InMemoryFormat}
+     * is {@link InMemoryFormat#NATIVE}, Hazelcast is OS and native memory is not enabled.
+     *
+     * @param inMemoryFormat     supplied inMemoryFormat
+     * @param nativeMemoryConfig the {@link NativeMemoryConfig} of the Hazelcast instance, can be {@code null}
+     */
+    private static void checkMapNativeMemoryConfig(InMemoryFormat inMemoryFormat, NativeMemoryConfig nativeMemoryConfig) {
+        if (inMemoryFormat != NATIVE || getBuildInfo().isEnterprise()) {
+            return;
+        }
+        if (nativeMemoryConfig == null || !nativeMemoryConfig.isEnabled()) {
+            throw new IllegalArgumentException("Enable native memory config to use NATIVE in-memory-format for IMap");
+        }
+    }
+
     @SuppressWarnings("deprecation")
     private static void logIgnoredConfig(MapConfig mapConfig) {
         if (mapConfig.getMinEvictionCheckMillis() != DEFAULT_MIN_EVICTION_CHECK_MILLIS
@@ -107,7 +165,7 @@ public final class ConfigValidator {
      */
     public static void checkNearCacheConfig(String mapName, NearCacheConfig nearCacheConfig,
                                             NativeMemoryConfig nativeMemoryConfig, boolean isClient) {
-        checkNotNativeWhenOpenSource(nearCacheConfig.getInMemoryFormat());
+        checkNearCacheNotNativeWithoutNativeMemory(nearCacheConfig.getInMemoryFormat(), nativeMemoryConfig);
         checkLocalUpdatePolicy(mapName, nearCacheConfig.getLocalUpdatePolicy());
         checkEvictionConfig(nearCacheConfig.getEvictionConfig(), true);
         checkOnHeapNearCacheMaxSizePolicy(nearCacheConfig);
@@ -120,6 +178,23 @@ public final class ConfigValidator {
         checkPreloaderConfig(nearCacheConfig, isClient);
     }
 
+    /**
+     * Throws {@link IllegalArgumentException} if the given {@link InMemoryFormat}
+     * is {@link InMemoryFormat#NATIVE}, Hazelcast is OS and native memory is not enabled.
+     *
+     * @param inMemoryFormat     the {@link InMemoryFormat} of the Near Cache
+     * @param nativeMemoryConfig the {@link NativeMemoryConfig} of the Hazelcast instance, can be {@code null}
+     */
+    private static void checkNearCacheNotNativeWithoutNativeMemory(InMemoryFormat inMemoryFormat,
+                                                                   NativeMemoryConfig nativeMemoryConfig) {
+        if (inMemoryFormat != NATIVE || getBuildInfo().isEnterprise()) {
+            return;
+        }
+        if (nativeMemoryConfig == null || !nativeMemoryConfig.isEnabled()) {
+            throw new IllegalArgumentException("Enable native memory config to use NATIVE in-memory-format for Near Cache");
+        }
+    }
+
     /**
      * Checks IMap's supported Near Cache local update policy configuration.
      *
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.memory.impl;
+
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+import static com.hazelcast.util.Preconditions.checkPositive;
+
+/**
+ * {@link MemoryManager} which allocates blocks from the native heap with {@link UnsafeMalloc}
+ * and keeps the total size of the currently allocated blocks within a fixed limit. Memory is
+ * accessed through the platform-aware global {@link MemoryAccessor}.
+ */
+public final class StandardMemoryManager implements MemoryManager {
+
+    private final MemoryAllocator malloc;
+    private final MemoryAllocator boundedMalloc = new BoundedAllocator();
+    private final AtomicLong usedMemory = new AtomicLong();
+    private final long maxMemory;
+
+    public StandardMemoryManager(long maxMemory) {
+        this(new UnsafeMalloc(), maxMemory);
+    }
+
+    StandardMemoryManager(MemoryAllocator malloc, long maxMemory) {
+        checkPositive(maxMemory, "maxMemory should be positive");
+        this.malloc = malloc;
+        this.maxMemory = maxMemory;
+    }
+
+    @Override
+    public MemoryAllocator getAllocator() {
+        return boundedMalloc;
+    }
+
+    @Override
+    public MemoryAccessor getAccessor() {
+        return MEM;
+    }
+
+    @Override
+    public void dispose() {
+        malloc.dispose();
+    }
+
+    /**
+     * @return total size of the currently allocated blocks in bytes
+     */
+    public long getUsedMemory() {
+        return usedMemory.get();
+    }
+
+    /**
+     * @return the maximum number of bytes this memory manager allows to be allocated at any time
+     */
+    public long getMaxMemory() {
+        return maxMemory;
+    }
+
+    /**
+     * @return number of bytes which can still be allocated
+     */
+    public long getFreeMemory() {
+        return Math.max(maxMemory - usedMemory.get(), 0);
+    }
+
+    private void reserve(long size) {
+        for (;;) {
+            long used = usedMemory.get();
+            long newUsed = used + size;
+            if (newUsed > maxMemory) {
+                throw new NativeOutOfMemoryError("Not enough native memory! Requested: " + size
+                        + " bytes, used: " + used + " bytes, max: " + maxMemory + " bytes");
+            }
+            if (usedMemory.compareAndSet(used, newUsed)) {
+                return;
+            }
+        }
+    }
+
+    private void release(long size) {
+        usedMemory.addAndGet(-size);
+    }
+
+    private final class BoundedAllocator implements MemoryAllocator {
+
+        @Override
+        public long allocate(long size) {
+            reserve(size);
+            try {
+                return malloc.allocate(size);
+            } catch (NativeOutOfMemoryError e) {
+                release(size);
+                throw e;
+            }
+        }
+
+        @Override
+        public long reallocate(long address, long currentSize, long newSize) {
+            long diff = newSize - currentSize;
+            if (diff > 0) {
+                reserve(diff);
+            }
+            long newAddress;
+            try {
+                newAddress = malloc.reallocate(address, currentSize, newSize);
+            } catch (NativeOutOfMemoryError e) {
+                if (diff > 0) {
+                    release(diff);
+                }
+                throw e;
+            }
+            if (diff < 0) {
+                release(-diff);
+            }
+            return newAddress;
+        }
+
+        @Override
+        public void free(long address, long size) {
+            malloc.free(address, size);
+            release(size);
+        }
+
+        @Override
+        public void dispose() {
+            StandardMemoryManager.this.dispose();
+        }
+    }
+}
@@ -55,6 +55,17 @@ public interface NearCache<K, V> extends InitializingObject {
             = new HazelcastProperty(PROP_EXPIRATION_TASK_PERIOD_SECONDS,
             DEFAULT_EXPIRATION_TASK_PERIOD_SECONDS);
 
+    String PROP_RESERVATION_FREE_READS
+            = "hazelcast.internal.nearcache.reservation.free.reads";
+
+    /**
+     * If enabled, on-heap Near Caches with invalidations populate missed
+     * keys without reserving a record for the key, see
+     * {@link com.hazelcast.internal.nearcache.impl.store.BaseHeapNearCacheRecordStore#tryReserveForUpdate}.
+     */
+    HazelcastProperty RESERVATION_FREE_READS
+            = new HazelcastProperty(PROP_RESERVATION_FREE_READS, false);
+
     /**
      * NULL Object
      */
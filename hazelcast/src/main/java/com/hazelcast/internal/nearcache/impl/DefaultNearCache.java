@@ -19,8 +19,11 @@ package com.hazelcast.internal.nearcache.impl;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.internal.adapter.DataStructureAdapter;
+import com.hazelcast.internal.memory.impl.StandardMemoryManager;
 import com.hazelcast.internal.nearcache.NearCache;
 import com.hazelcast.internal.nearcache.NearCacheRecordStore;
+import com.hazelcast.internal.nearcache.impl.nativememory.NativeMemoryNearCacheRecordStore;
+import com.hazelcast.internal.nearcache.impl.store.BaseHeapNearCacheRecordStore;
 import com.hazelcast.internal.nearcache.impl.store.NearCacheDataRecordStore;
 import com.hazelcast.internal.nearcache.impl.store.NearCacheObjectRecordStore;
 import com.hazelcast.monitor.NearCacheStats;
@@ -48,6 +51,7 @@ public class DefaultNearCache<K, V> implements NearCache<K, V> {
 
     private final boolean serializeKeys;
     private final HazelcastProperties properties;
+    private final StandardMemoryManager nativeMemoryManager;
 
     private volatile boolean preloadDone;
 
@@ -55,13 +59,35 @@ public class DefaultNearCache<K, V> implements NearCache<K, V> {
                             SerializationService serializationService, TaskScheduler scheduler,
                             ClassLoader classLoader, HazelcastProperties properties) {
         this(name, nearCacheConfig, null,
-                serializationService, scheduler, classLoader, properties);
+                serializationService, scheduler, classLoader, properties, null);
+    }
+
+    /**
+     * @param nativeMemoryManager the memory manager to store the records of a
+     *                            {@link InMemoryFormat#NATIVE} Near Cache in,
+     *                            can be {@code null} for other in-memory-formats
+     */
+    public DefaultNearCache(String name, NearCacheConfig nearCacheConfig,
+                            SerializationService serializationService, TaskScheduler scheduler,
+                            ClassLoader classLoader, HazelcastProperties properties,
+                            StandardMemoryManager nativeMemoryManager) {
+        this(name, nearCacheConfig, null,
+                serializationService, scheduler, classLoader, properties, nativeMemoryManager);
     }
 
     public DefaultNearCache(String name, NearCacheConfig nearCacheConfig,
                             NearCacheRecordStore<K, V> nearCacheRecordStore,
                             SerializationService serializationService, TaskScheduler scheduler,
                             ClassLoader classLoader, HazelcastProperties properties) {
+        this(name, nearCacheConfig, nearCacheRecordStore,
+                serializationService, scheduler, classLoader, properties, null);
+    }
+
+    private DefaultNearCache(String name, NearCacheConfig nearCacheConfig,
+                             NearCacheRecordStore<K, V> nearCacheRecordStore,
+                             SerializationService serializationService, TaskScheduler scheduler,
+                             ClassLoader classLoader, HazelcastProperties properties,
+                             StandardMemoryManager nativeMemoryManager) {
         this.name = name;
         this.nearCacheConfig = nearCacheConfig;
         this.serializationService = serializationService;
@@ -70,6 +96,7 @@ public class DefaultNearCache<K, V> implements NearCache<K, V> {
         this.nearCacheRecordStore = nearCacheRecordStore;
         this.serializeKeys = nearCacheConfig.isSerializeKeys();
         this.properties = properties;
+        this.nativeMemoryManager = nativeMemoryManager;
     }
 
     @Override
@@ -77,6 +104,10 @@ public class DefaultNearCache<K, V> implements NearCache<K, V> {
         if (nearCacheRecordStore == null) {
             nearCacheRecordStore = createNearCacheRecordStore(name, nearCacheConfig);
         }
+        if (nearCacheRecordStore instanceof BaseHeapNearCacheRecordStore && properties != null) {
+            ((BaseHeapNearCacheRecordStore) nearCacheRecordStore)
+                    .setReservationFreeReads(properties.getBoolean(RESERVATION_FREE_READS));
+        }
         nearCacheRecordStore.initialize();
 
         expirationTaskFuture = createAndScheduleExpirationTask();
@@ -92,6 +123,12 @@ public class DefaultNearCache<K, V> implements NearCache<K, V> {
                 return new NearCacheDataRecordStore<K, V>(name, nearCacheConfig, serializationService, classLoader);
             case OBJECT:
                 return new NearCacheObjectRecordStore<K, V>(name, nearCacheConfig, serializationService, classLoader);
+            case NATIVE:
+                if (nativeMemoryManager == null) {
+                    throw new IllegalStateException("Enable native memory config to use NATIVE in-memory-format for Near Cache");
+                }
+                return new NativeMemoryNearCacheRecordStore<K, V>(name, nearCacheConfig, serializationService, classLoader,
+                        nativeMemoryManager);
             default:
                 throw new IllegalArgumentException("Invalid in memory format: " + inMemoryFormat);
         }
@@ -19,6 +19,7 @@ package com.hazelcast.internal.nearcache.impl;
 import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.config.NearCachePreloaderConfig;
 import com.hazelcast.internal.adapter.DataStructureAdapter;
+import com.hazelcast.internal.memory.impl.StandardMemoryManager;
 import com.hazelcast.internal.nearcache.NearCache;
 import com.hazelcast.internal.nearcache.NearCacheManager;
 import com.hazelcast.monitor.NearCacheStats;
@@ -34,6 +35,7 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledFuture;
 
+import static com.hazelcast.config.InMemoryFormat.NATIVE;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
@@ -47,11 +49,21 @@ public class DefaultNearCacheManager implements NearCacheManager {
     private final Object mutex = new Object();
     private final Queue<ScheduledFuture> preloadTaskFutures = new ConcurrentLinkedQueue<ScheduledFuture>();
     private final ConcurrentMap<String, NearCache> nearCacheMap = new ConcurrentHashMap<String, NearCache>();
+    private final StandardMemoryManager nativeMemoryManager;
 
     private volatile ScheduledFuture storageTaskFuture;
 
     public DefaultNearCacheManager(SerializationService ss, TaskScheduler es,
                                    ClassLoader classLoader, HazelcastProperties properties) {
+        this(ss, es, classLoader, properties, null);
+    }
+
+    /**
+     * @param nativeMemoryManager the memory manager for {@link com.hazelcast.config.InMemoryFormat#NATIVE}
+     *                            Near Caches, {@code null} if native memory is not enabled
+     */
+    public DefaultNearCacheManager(SerializationService ss, TaskScheduler es, ClassLoader classLoader,
+                                   HazelcastProperties properties, StandardMemoryManager nativeMemoryManager) {
         assert ss != null;
         assert es != null;
 
@@ -59,6 +71,7 @@ public class DefaultNearCacheManager implements NearCacheManager {
         this.scheduler = es;
         this.classLoader = classLoader;
         this.properties = properties;
+        this.nativeMemoryManager = nativeMemoryManager;
     }
 
     @Override
@@ -99,8 +112,17 @@ public class DefaultNearCacheManager implements NearCacheManager {
     }
 
     protected <K, V> NearCache<K, V> createNearCache(String name, NearCacheConfig nearCacheConfig) {
+        StandardMemoryManager memoryManager = nearCacheConfig.getInMemoryFormat() == NATIVE ? getNativeMemoryManager() : null;
         return new DefaultNearCache<K, V>(name, nearCacheConfig, serializationService,
-                scheduler, classLoader, properties);
+                scheduler, classLoader, properties, memoryManager);
+    }
+
+    /**
+     * @return the memory manager for {@link com.hazelcast.config.InMemoryFormat#NATIVE} Near Caches
+     * or {@code null} if native memory is not enabled
+     */
+    protected StandardMemoryManager getNativeMemoryManager() {
+        return nativeMemoryManager;
     }
 
     @Override
@@ -25,6 +25,8 @@ import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.spi.EventRegistration;
 import com.hazelcast.spi.ExecutionService;
 import com.hazelcast.spi.NodeEngine;
+import com.hazelcast.spi.properties.HazelcastProperties;
+import com.hazelcast.spi.properties.HazelcastProperty;
 import com.hazelcast.util.ConstructorFunction;
 
 import java.util.ArrayList;
@@ -37,71 +39,114 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.hazelcast.core.LifecycleEvent.LifecycleState.SHUTTING_DOWN;
+import static com.hazelcast.internal.util.ToHeapDataConverter.toHeapData;
 import static com.hazelcast.util.ConcurrencyUtil.getOrPutIfAbsent;
+import static com.hazelcast.util.MapUtil.createLinkedHashMap;
+import static com.hazelcast.util.UuidUtil.newUnsecureUuidString;
 import static java.lang.Thread.currentThread;
+import static java.util.Collections.singletonList;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
  * Sends invalidations to Near Cache in batches.
+ * <p>
+ * Key invalidations are queued as {@link PendingInvalidation}s without a
+ * sequence. When a batch is sent, the pending invalidations of the same
+ * key are coalesced into one and only the coalesced invalidations are
+ * built as {@link Invalidation}s with a sequence, so the receivers don't see a
+ * gap in the sequences of a partition. The batch size grows with the
+ * depth of the event queue, so an overloaded event service has to send
+ * fewer, larger events.
  */
 public class BatchInvalidator extends Invalidator {
 
+    /**
+     * The batch size grows up to this factor of the configured batch size,
+     * when the event queue fills up. A factor of {@code 1} disables the
+     * adaptive batch size.
+     */
+    public static final HazelcastProperty BATCH_SIZE_MAX_FACTOR
+            = new HazelcastProperty("hazelcast.internal.invalidation.batch.size.max.factor", 4);
+
+    /**
+     * If a batch contains more keys of a single partition than this
+     * threshold, all keys of the data structure are invalidated instead.
+     * A threshold of {@code 0} or less disables the escalation.
+     */
+    public static final HazelcastProperty BATCH_CLEAR_THRESHOLD
+            = new HazelcastProperty("hazelcast.internal.invalidation.batch.clear.threshold", 0);
+
     private final String invalidationExecutorName;
 
     /**
      * Creates an invalidation-queue per data-structure-name.
      */
-    private final ConstructorFunction<String, InvalidationQueue<Invalidation>> invalidationQueueConstructor
-            = new ConstructorFunction<String, InvalidationQueue<Invalidation>>() {
+    private final ConstructorFunction<String, InvalidationQueue<PendingInvalidation>> invalidationQueueConstructor
+            = new ConstructorFunction<String, InvalidationQueue<PendingInvalidation>>() {
         @Override
-        public InvalidationQueue<Invalidation> createNew(String dataStructureName) {
-            return new InvalidationQueue<Invalidation>();
+        public InvalidationQueue<PendingInvalidation> createNew(String dataStructureName) {
+            return new InvalidationQueue<PendingInvalidation>();
         }
     };
 
     /**
      * data-structure-name to invalidation-queue mappings.
      */
-    private final ConcurrentMap<String, InvalidationQueue<Invalidation>> invalidationQueues
-            = new ConcurrentHashMap<String, InvalidationQueue<Invalidation>>();
+    private final ConcurrentMap<String, InvalidationQueue<PendingInvalidation>> invalidationQueues
+            = new ConcurrentHashMap<String, InvalidationQueue<PendingInvalidation>>();
+
+    /**
+     * Source UUID of coalesced invalidations from different sources, which
+     * doesn't match any receiver, so all receivers apply the invalidation.
+     */
+    private final String mixedSourceUuid = newUnsecureUuidString();
 
     private final int batchSize;
+    private final int maxBatchSize;
+    private final int clearThreshold;
     private final int batchFrequencySeconds;
     private final String nodeShutdownListenerId;
     private final AtomicBoolean runningBackgroundTask = new AtomicBoolean(false);
 
+    private volatile int currentBatchSize;
+
     public BatchInvalidator(String serviceName, int batchSize, int batchFrequencySeconds,
                             IFunction<EventRegistration, Boolean> eventFilter, NodeEngine nodeEngine) {
         super(serviceName, eventFilter, nodeEngine);
 
+        HazelcastProperties properties = nodeEngine.getProperties();
         this.batchSize = batchSize;
+        this.maxBatchSize = batchSize * Math.max(1, properties.getInteger(BATCH_SIZE_MAX_FACTOR));
+        this.clearThreshold = properties.getInteger(BATCH_CLEAR_THRESHOLD);
+        this.currentBatchSize = batchSize;
         this.batchFrequencySeconds = batchFrequencySeconds;
         this.nodeShutdownListenerId = registerNodeShutdownListener();
         this.invalidationExecutorName = serviceName + getClass();
     }
 
     @Override
-    protected Invalidation newInvalidation(Data key, String dataStructureName, String sourceUuid, int partitionId) {
+    protected void invalidateKeyInternal(Data key, String dataStructureName, String sourceUuid, int partitionId) {
         checkBackgroundTaskIsRunning();
-        return super.newInvalidation(key, dataStructureName, sourceUuid, partitionId);
-    }
 
-    @Override
-    protected void invalidateInternal(Invalidation invalidation, int orderKey) {
-        String dataStructureName = invalidation.getName();
-        InvalidationQueue<Invalidation> invalidationQueue = invalidationQueueOf(dataStructureName);
-        invalidationQueue.offer(invalidation);
+        InvalidationQueue<PendingInvalidation> invalidationQueue = invalidationQueueOf(dataStructureName);
+        invalidationQueue.offer(new PendingInvalidation(key, sourceUuid, partitionId));
 
-        if (invalidationQueue.size() >= batchSize) {
+        if (invalidationQueue.size() >= currentBatchSize) {
             pollAndSendInvalidations(dataStructureName, invalidationQueue);
         }
     }
 
-    private InvalidationQueue<Invalidation> invalidationQueueOf(String dataStructureName) {
+    @Override
+    protected void invalidateInternal(Invalidation invalidation, int orderKey) {
+        // only the key invalidations are batched
+        sendImmediately(invalidation, orderKey);
+    }
+
+    private InvalidationQueue<PendingInvalidation> invalidationQueueOf(String dataStructureName) {
         return getOrPutIfAbsent(invalidationQueues, dataStructureName, invalidationQueueConstructor);
     }
 
-    private void pollAndSendInvalidations(String dataStructureName, InvalidationQueue<Invalidation> invalidationQueue) {
+    private void pollAndSendInvalidations(String dataStructureName, InvalidationQueue<PendingInvalidation> invalidationQueue) {
         assert invalidationQueue != null;
 
         if (!invalidationQueue.tryAcquire()) {
@@ -110,21 +155,29 @@ public class BatchInvalidator extends Invalidator {
 
         List<Invalidation> invalidations;
         try {
-            invalidations = pollInvalidations(invalidationQueue);
+            // the sequences are assigned while holding the queue, so they increase from batch to batch
+            invalidations = coalesceInvalidations(dataStructureName, pollInvalidations(invalidationQueue));
         } finally {
             invalidationQueue.release();
         }
-
-        sendInvalidations(dataStructureName, invalidations);
+        updateBatchSize();
+
+        if (invalidations.size() == 1 && invalidations.get(0).getKey() == null) {
+            // the batch has been escalated to a clear invalidation
+            Invalidation invalidation = invalidations.get(0);
+            sendImmediately(invalidation, partitionService.getPartitionId(dataStructureName));
+        } else if (!invalidations.isEmpty()) {
+            sendInvalidations(dataStructureName, invalidations);
+        }
     }
 
-    private List<Invalidation> pollInvalidations(InvalidationQueue<Invalidation> invalidationQueue) {
+    private List<PendingInvalidation> pollInvalidations(InvalidationQueue<PendingInvalidation> invalidationQueue) {
         final int size = invalidationQueue.size();
 
-        List<Invalidation> invalidations = new ArrayList<Invalidation>(size);
+        List<PendingInvalidation> invalidations = new ArrayList<PendingInvalidation>(size);
 
         for (int i = 0; i < size; i++) {
-            Invalidation invalidation = invalidationQueue.poll();
+            PendingInvalidation invalidation = invalidationQueue.poll();
             if (invalidation == null) {
                 break;
             }
@@ -135,6 +188,67 @@ public class BatchInvalidator extends Invalidator {
         return invalidations;
     }
 
+    /**
+     * Coalesces the pending invalidations of the same key and builds the
+     * coalesced invalidations with their sequences.
+     *
+     * @return the invalidations to send, or a single clear invalidation if
+     * a partition exceeds the {@link #BATCH_CLEAR_THRESHOLD}
+     */
+    private List<Invalidation> coalesceInvalidations(String dataStructureName, List<PendingInvalidation> invalidations) {
+        Map<Data, PendingInvalidation> keyInvalidations = createLinkedHashMap(invalidations.size());
+        int[] keysPerPartition = clearThreshold > 0 ? new int[partitionCount] : null;
+
+        for (PendingInvalidation invalidation : invalidations) {
+            PendingInvalidation coalesced = keyInvalidations.get(invalidation.key);
+            if (coalesced != null) {
+                coalesced.sourceUuid = mergeSourceUuid(coalesced.sourceUuid, invalidation.sourceUuid);
+                continue;
+            }
+            keyInvalidations.put(invalidation.key, invalidation);
+
+            if (keysPerPartition != null && ++keysPerPartition[invalidation.partitionId] > clearThreshold) {
+                if (logger.isFinestEnabled()) {
+                    logger.finest("Escalated invalidation batch of " + dataStructureName + " to clear, partition "
+                            + invalidation.partitionId + " exceeded " + clearThreshold + " keys");
+                }
+                int partitionId = partitionService.getPartitionId(dataStructureName);
+                Invalidation clearInvalidation = newInvalidation(null, dataStructureName,
+                        mixedSourceUuid, partitionId);
+                return singletonList(clearInvalidation);
+            }
+        }
+
+        List<Invalidation> sequencedInvalidations = new ArrayList<Invalidation>(keyInvalidations.size());
+        for (PendingInvalidation invalidation : keyInvalidations.values()) {
+            sequencedInvalidations.add(newInvalidation(invalidation.key, dataStructureName,
+                    invalidation.sourceUuid, invalidation.partitionId));
+        }
+        return sequencedInvalidations;
+    }
+
+    private String mergeSourceUuid(String sourceUuid, String otherSourceUuid) {
+        if (sourceUuid == null || sourceUuid.equals(otherSourceUuid)) {
+            return otherSourceUuid;
+        }
+        return mixedSourceUuid;
+    }
+
+    /**
+     * Scales the batch size with the fill rate of the event queue.
+     */
+    private void updateBatchSize() {
+        if (maxBatchSize == batchSize) {
+            return;
+        }
+        int eventQueueCapacity = eventService.getEventQueueCapacity();
+        if (eventQueueCapacity <= 0) {
+            return;
+        }
+        double fillRate = Math.min(1.0, (double) eventService.getEventQueueSize() / eventQueueCapacity);
+        currentBatchSize = batchSize + (int) ((maxBatchSize - batchSize) * fillRate);
+    }
+
     private void sendInvalidations(String dataStructureName, List<Invalidation> invalidations) {
         // There will always be at least one listener which listens invalidations. This is the reason behind eager creation
         // of BatchNearCacheInvalidation instance here. There is a causality between listener and invalidation. Only if we have
@@ -163,8 +277,8 @@ public class BatchInvalidator extends Invalidator {
             @Override
             public void stateChanged(LifecycleEvent event) {
                 if (event.getState() == SHUTTING_DOWN) {
-                    Set<Map.Entry<String, InvalidationQueue<Invalidation>>> entries = invalidationQueues.entrySet();
-                    for (Map.Entry<String, InvalidationQueue<Invalidation>> entry : entries) {
+                    Set<Map.Entry<String, InvalidationQueue<PendingInvalidation>>> entries = invalidationQueues.entrySet();
+                    for (Map.Entry<String, InvalidationQueue<PendingInvalidation>> entry : entries) {
                         pollAndSendInvalidations(entry.getKey(), entry.getValue());
                     }
                 }
@@ -192,12 +306,12 @@ public class BatchInvalidator extends Invalidator {
 
         @Override
         public void run() {
-            for (Map.Entry<String, InvalidationQueue<Invalidation>> entry : invalidationQueues.entrySet()) {
+            for (Map.Entry<String, InvalidationQueue<PendingInvalidation>> entry : invalidationQueues.entrySet()) {
                 if (currentThread().isInterrupted()) {
                     break;
                 }
                 String name = entry.getKey();
-                InvalidationQueue<Invalidation> invalidationQueue = entry.getValue();
+                InvalidationQueue<PendingInvalidation> invalidationQueue = entry.getValue();
                 if (invalidationQueue.size() > 0) {
                     pollAndSendInvalidations(name, invalidationQueue);
                 }
@@ -205,6 +319,24 @@ public class BatchInvalidator extends Invalidator {
         }
     }
 
+    /**
+     * A key invalidation which waits in an invalidation queue. The
+     * {@link Invalidation} with its sequence is built when it's sent with
+     * a batch.
+     */
+    private static final class PendingInvalidation {
+
+        private final Data key;
+        private final int partitionId;
+        private String sourceUuid;
+
+        PendingInvalidation(Data key, String sourceUuid, int partitionId) {
+            this.key = toHeapData(key);
+            this.sourceUuid = sourceUuid;
+            this.partitionId = partitionId;
+        }
+    }
+
     @Override
     public void destroy(String dataStructureName, String sourceUuid) {
         invalidationQueues.remove(dataStructureName);
@@ -68,8 +68,16 @@ public abstract class Invalidator {
         checkNotNull(key, "key cannot be null");
         checkNotNull(sourceUuid, "sourceUuid cannot be null");
 
-        Invalidation invalidation = newKeyInvalidation(key, dataStructureName, sourceUuid);
-        invalidateInternal(invalidation, getPartitionId(key));
+        invalidateKeyInternal(key, dataStructureName, sourceUuid, getPartitionId(key));
+    }
+
+    /**
+     * Invalidates the supplied key, by default with an invalidation which
+     * gets its sequence immediately.
+     */
+    protected void invalidateKeyInternal(Data key, String dataStructureName, String sourceUuid, int partitionId) {
+        Invalidation invalidation = newInvalidation(key, dataStructureName, sourceUuid, partitionId);
+        invalidateInternal(invalidation, partitionId);
     }
 
     /**
@@ -95,11 +103,6 @@ public abstract class Invalidator {
         metaDataGenerator.resetSequence(dataStructureName, partitionId);
     }
 
-    private Invalidation newKeyInvalidation(Data key, String dataStructureName, String sourceUuid) {
-        int partitionId = getPartitionId(key);
-        return newInvalidation(key, dataStructureName, sourceUuid, partitionId);
-    }
-
     private Invalidation newClearInvalidation(String dataStructureName, String sourceUuid) {
         int partitionId = getPartitionId(dataStructureName);
         return newInvalidation(null, dataStructureName, sourceUuid, partitionId);
@@ -34,6 +34,8 @@ public final class MetaDataContainer {
             = newUpdater(MetaDataContainer.class, "staleSequence");
     private static final AtomicLongFieldUpdater<MetaDataContainer> MISSED_SEQUENCE_COUNT =
             newUpdater(MetaDataContainer.class, "missedSequenceCount");
+    private static final AtomicLongFieldUpdater<MetaDataContainer> INVALIDATION_EPOCH =
+            newUpdater(MetaDataContainer.class, "invalidationEpoch");
     private static final AtomicReferenceFieldUpdater<MetaDataContainer, UUID> UUID =
             newUpdater(MetaDataContainer.class, java.util.UUID.class, "uuid");
 
@@ -54,6 +56,13 @@ public final class MetaDataContainer {
      */
     private volatile long missedSequenceCount;
 
+    /**
+     * Incremented whenever Near Cached data of this partition may have become
+     * stale, i.e. a key of the partition has been invalidated or the UUID or
+     * the sequence had to be repaired
+     */
+    private volatile long invalidationEpoch;
+
     /**
      * UUID of the source partition that generates invalidation events
      */
@@ -109,4 +118,12 @@ public final class MetaDataContainer {
     public long getMissedSequenceCount() {
         return missedSequenceCount;
     }
+
+    public long getInvalidationEpoch() {
+        return invalidationEpoch;
+    }
+
+    public void incrementInvalidationEpoch() {
+        INVALIDATION_EPOCH.incrementAndGet(this);
+    }
 }
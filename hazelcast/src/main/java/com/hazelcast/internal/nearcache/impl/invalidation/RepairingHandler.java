@@ -157,6 +157,7 @@ public final class RepairingHandler {
             if (metaData.casUuid(prevUuid, newUuid)) {
                 metaData.resetSequence();
                 metaData.resetStaleSequence();
+                metaData.incrementInvalidationEpoch();
                 if (logger.isFinestEnabled()) {
                     logger.finest(format("%s:[name=%s,partition=%d,prevUuid=%s,newUuid=%s]",
                             "Invalid UUID, lost remote partition data unexpectedly", name, partition, prevUuid, newUuid));
@@ -188,6 +189,7 @@ public final class RepairingHandler {
                     // `miss = next - current - 1`.
                     final long missCount = viaAntiEntropy ? sequenceDiff : sequenceDiff - 1;
                     final long totalMissCount = metaData.addAndGetMissedSequenceCount(missCount);
+                    metaData.incrementInvalidationEpoch();
 
                     if (logger.isFinestEnabled()) {
                         logger.finest(format("%s:[map=%s,partition=%d,currentSequence=%d,nextSequence=%d,totalMissCount=%d]",
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.maxsize;
+
+import com.hazelcast.config.EvictionConfig.MaxSizePolicy;
+import com.hazelcast.internal.eviction.EvictionChecker;
+import com.hazelcast.internal.memory.impl.StandardMemoryManager;
+import com.hazelcast.monitor.NearCacheStats;
+
+import static com.hazelcast.memory.MemoryUnit.MEGABYTES;
+
+/**
+ * Near Cache max-size policy implementation for the native memory based policies of
+ * {@link com.hazelcast.config.EvictionConfig.MaxSizePolicy}.
+ * <p>
+ * The used memory is the native memory owned by the Near Cache, while the free memory
+ * is the free memory of the {@link StandardMemoryManager} shared by all native structures.
+ *
+ * @see EvictionChecker
+ */
+public class NativeMemoryNearCacheEvictionChecker implements EvictionChecker {
+
+    private static final int ONE_HUNDRED = 100;
+
+    private final MaxSizePolicy maxSizePolicy;
+    private final int maxConfiguredSize;
+    private final NearCacheStats nearCacheStats;
+    private final StandardMemoryManager memoryManager;
+
+    public NativeMemoryNearCacheEvictionChecker(MaxSizePolicy maxSizePolicy, int maxConfiguredSize,
+                                                NearCacheStats nearCacheStats, StandardMemoryManager memoryManager) {
+        this.maxSizePolicy = maxSizePolicy;
+        this.maxConfiguredSize = maxConfiguredSize;
+        this.nearCacheStats = nearCacheStats;
+        this.memoryManager = memoryManager;
+    }
+
+    @Override
+    public boolean isEvictionRequired() {
+        long maxMemory = Math.max(memoryManager.getMaxMemory(), 1);
+        switch (maxSizePolicy) {
+            case USED_NATIVE_MEMORY_SIZE:
+                return nearCacheStats.getOwnedEntryMemoryCost() > MEGABYTES.toBytes(maxConfiguredSize);
+            case USED_NATIVE_MEMORY_PERCENTAGE:
+                return nearCacheStats.getOwnedEntryMemoryCost() * ONE_HUNDRED / maxMemory > maxConfiguredSize;
+            case FREE_NATIVE_MEMORY_SIZE:
+                return memoryManager.getFreeMemory() < MEGABYTES.toBytes(maxConfiguredSize);
+            case FREE_NATIVE_MEMORY_PERCENTAGE:
+                return memoryManager.getFreeMemory() * ONE_HUNDRED / maxMemory < maxConfiguredSize;
+            default:
+                throw new IllegalArgumentException("Not an appropriate max size policy [" + maxSizePolicy + ']');
+        }
+    }
+}
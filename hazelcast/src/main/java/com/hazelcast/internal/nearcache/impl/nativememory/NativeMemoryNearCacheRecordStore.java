@@ -0,0 +1,358 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.nativememory;
+
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.config.NearCachePreloaderConfig;
+import com.hazelcast.internal.adapter.DataStructureAdapter;
+import com.hazelcast.internal.memory.impl.StandardMemoryManager;
+import com.hazelcast.internal.nearcache.NearCacheRecord;
+import com.hazelcast.internal.nearcache.NearCacheRecordStore;
+import com.hazelcast.internal.nearcache.impl.invalidation.StaleReadDetector;
+import com.hazelcast.internal.nearcache.impl.preloader.NearCachePreloader;
+import com.hazelcast.internal.nearcache.impl.record.NearCacheDataRecord;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+import com.hazelcast.monitor.NearCacheStats;
+import com.hazelcast.monitor.impl.NearCacheStatsImpl;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static com.hazelcast.internal.nearcache.NearCacheRecord.NOT_RESERVED;
+import static com.hazelcast.internal.nearcache.NearCacheRecord.READ_PERMITTED;
+
+/**
+ * {@link NearCacheRecordStore} implementation for Near Caches with
+ * {@link com.hazelcast.config.InMemoryFormat#NATIVE} in-memory-format.
+ * <p>
+ * The records, keys and values are stored in native memory allocated from the
+ * given {@link StandardMemoryManager}, so a large Near Cache doesn't add to the
+ * heap the garbage collector has to trace. The store is split into segments by
+ * the hash of the key, each guarded by its own lock. All access to native memory
+ * happens while holding the lock of a segment and everything handed out of the
+ * store is copied to the heap.
+ * <p>
+ * If there is not enough native memory to cache an entry, an entry of the same
+ * segment is evicted and the entry is cached if it fits then, otherwise it's
+ * just not cached.
+ *
+ * @param <K> the type of the key stored in Near Cache
+ * @param <V> the type of the value stored in Near Cache
+ */
+@SuppressWarnings("checkstyle:methodcount")
+public class NativeMemoryNearCacheRecordStore<K, V> implements NearCacheRecordStore<K, V> {
+
+    static final int SEGMENT_COUNT = 16;
+
+    private final NearCacheStatsImpl nearCacheStats = new NearCacheStatsImpl();
+    private final NativeNearCacheRecordStoreSegment<K, V>[] segments;
+    private final SerializationService serializationService;
+    private final NearCachePreloader<Data> nearCachePreloader;
+
+    @SuppressWarnings("unchecked")
+    public NativeMemoryNearCacheRecordStore(String name, NearCacheConfig nearCacheConfig,
+                                            SerializationService serializationService, ClassLoader classLoader,
+                                            StandardMemoryManager memoryManager) {
+        this.serializationService = serializationService;
+        this.segments = new NativeNearCacheRecordStoreSegment[SEGMENT_COUNT];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new NativeNearCacheRecordStoreSegment<K, V>(nearCacheConfig, nearCacheStats,
+                    serializationService, classLoader, memoryManager, SEGMENT_COUNT);
+        }
+
+        NearCachePreloaderConfig preloaderConfig = nearCacheConfig.getPreloaderConfig();
+        this.nearCachePreloader = preloaderConfig.isEnabled() ? new NearCachePreloader<Data>(name, preloaderConfig,
+                nearCacheStats, serializationService) : null;
+    }
+
+    @Override
+    public void initialize() {
+        for (NativeNearCacheRecordStoreSegment<K, V> segment : segments) {
+            segment.initialize();
+        }
+    }
+
+    @Override
+    public V get(K key) {
+        NativeNearCacheRecordStoreSegment<K, V> segment = segmentOf(key);
+        segment.lock.lock();
+        try {
+            return segment.get(key);
+        } finally {
+            unlock(segment);
+        }
+    }
+
+    @Override
+    public void put(K key, Data keyData, V value, Data valueData) {
+        NativeNearCacheRecordStoreSegment<K, V> segment = segmentOf(key);
+        segment.lock.lock();
+        try {
+            try {
+                segment.doEviction(false);
+                segment.put(key, keyData, value, valueData);
+            } catch (NativeOutOfMemoryError e) {
+                makeRoom(segment);
+                segment.put(key, keyData, value, valueData);
+            }
+        } catch (NativeOutOfMemoryError e) {
+            // the old value of the key must not be served anymore
+            segment.invalidate(key);
+        } finally {
+            unlock(segment);
+        }
+    }
+
+    @Override
+    public long tryReserveForUpdate(K key, Data keyData) {
+        NativeNearCacheRecordStoreSegment<K, V> segment = segmentOf(key);
+        segment.lock.lock();
+        try {
+            try {
+                segment.doEviction(false);
+                return segment.tryReserveForUpdate(key, keyData);
+            } catch (NativeOutOfMemoryError e) {
+                makeRoom(segment);
+                return segment.tryReserveForUpdate(key, keyData);
+            }
+        } catch (NativeOutOfMemoryError e) {
+            return NOT_RESERVED;
+        } finally {
+            unlock(segment);
+        }
+    }
+
+    @Override
+    public V tryPublishReserved(K key, V value, long reservationId, boolean deserialize) {
+        NativeNearCacheRecordStoreSegment<K, V> segment = segmentOf(key);
+        segment.lock.lock();
+        try {
+            return segment.tryPublishReserved(key, value, reservationId, deserialize);
+        } catch (NativeOutOfMemoryError e) {
+            // the reserved record can't be published, so it's removed to let the key be reserved again
+            segment.invalidate(key);
+            return null;
+        } finally {
+            unlock(segment);
+        }
+    }
+
+    @Override
+    public void invalidate(K key) {
+        NativeNearCacheRecordStoreSegment<K, V> segment = segmentOf(key);
+        segment.lock.lock();
+        try {
+            segment.invalidate(key);
+        } finally {
+            unlock(segment);
+        }
+    }
+
+    @Override
+    public void clear() {
+        int size = 0;
+        for (NativeNearCacheRecordStoreSegment<K, V> segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.clearRecords();
+            } finally {
+                unlock(segment);
+            }
+        }
+        nearCacheStats.setOwnedEntryCount(0);
+        nearCacheStats.setOwnedEntryMemoryCost(0L);
+        nearCacheStats.incrementInvalidations(size);
+        nearCacheStats.incrementInvalidationRequests();
+    }
+
+    @Override
+    public void destroy() {
+        clear();
+        for (NativeNearCacheRecordStoreSegment<K, V> segment : segments) {
+            segment.lock.lock();
+            try {
+                segment.dispose();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        if (nearCachePreloader != null) {
+            nearCachePreloader.destroy();
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (NativeNearCacheRecordStoreSegment<K, V> segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns an on-heap copy of the record of the given key.
+     */
+    @Override
+    public NearCacheRecord getRecord(K key) {
+        NativeNearCacheRecordStoreSegment<K, V> segment = segmentOf(key);
+        segment.lock.lock();
+        try {
+            NativeNearCacheRecord record = segment.getRecord(key);
+            return record == null ? null : toHeapRecord(record);
+        } finally {
+            unlock(segment);
+        }
+    }
+
+    @Override
+    public NearCacheStats getNearCacheStats() {
+        return nearCacheStats;
+    }
+
+    @Override
+    public void doExpiration() {
+        for (NativeNearCacheRecordStoreSegment<K, V> segment : segments) {
+            segment.lock.lock();
+            try {
+                segment.doExpiration();
+            } finally {
+                unlock(segment);
+            }
+        }
+    }
+
+    /**
+     * The segment of a key is already checked for eviction when the key is added,
+     * so this method only evicts if the max-size check is skipped, in which case
+     * an entry is evicted from every segment.
+     */
+    @Override
+    public void doEviction(boolean withoutMaxSizeCheck) {
+        if (!withoutMaxSizeCheck) {
+            return;
+        }
+        for (NativeNearCacheRecordStoreSegment<K, V> segment : segments) {
+            segment.lock.lock();
+            try {
+                segment.doEviction(true);
+            } finally {
+                unlock(segment);
+            }
+        }
+    }
+
+    @Override
+    public void loadKeys(DataStructureAdapter<Object, ?> adapter) {
+        if (nearCachePreloader != null) {
+            nearCachePreloader.loadKeys(adapter);
+        }
+    }
+
+    @Override
+    public void storeKeys() {
+        if (nearCachePreloader != null) {
+            nearCachePreloader.storeKeys(new KeyIterator());
+        }
+    }
+
+    @Override
+    public void setStaleReadDetector(StaleReadDetector detector) {
+        for (NativeNearCacheRecordStoreSegment<K, V> segment : segments) {
+            segment.setStaleReadDetector(detector);
+        }
+    }
+
+    private NativeNearCacheRecordStoreSegment<K, V> segmentOf(K key) {
+        Data keyData = key instanceof Data ? (Data) key : serializationService.<Data>toData(key);
+        int hash = (int) (keyData.hash64() >>> Integer.SIZE);
+        return segments[(hash & Integer.MAX_VALUE) % segments.length];
+    }
+
+    private static void makeRoom(NativeNearCacheRecordStoreSegment segment) {
+        segment.doEviction(true);
+        segment.disposeDeferredBlocks();
+    }
+
+    private static void unlock(NativeNearCacheRecordStoreSegment segment) {
+        try {
+            segment.disposeDeferredBlocks();
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    private static NearCacheRecord toHeapRecord(NativeNearCacheRecord record) {
+        NearCacheDataRecord heapRecord = new NearCacheDataRecord(record.getValue(), record.getCreationTime(),
+                record.getExpirationTime());
+        heapRecord.setAccessTime(record.getLastAccessTime());
+        heapRecord.setAccessHit(record.getAccessHit());
+        heapRecord.setPartitionId(record.getPartitionId());
+        heapRecord.setInvalidationSequence(record.getInvalidationSequence());
+        heapRecord.setUuid(record.getUuid());
+        heapRecord.casRecordState(READ_PERMITTED, record.getRecordState());
+        return heapRecord;
+    }
+
+    /**
+     * Iterates over the keys segment by segment, the keys of a segment are
+     * copied while holding its lock.
+     */
+    private final class KeyIterator implements Iterator<Data> {
+
+        private int segmentIndex;
+        private Iterator<Data> keys = Collections.<Data>emptyList().iterator();
+
+        @Override
+        public boolean hasNext() {
+            while (!keys.hasNext()) {
+                if (segmentIndex == segments.length) {
+                    return false;
+                }
+                NativeNearCacheRecordStoreSegment<K, V> segment = segments[segmentIndex++];
+                segment.lock.lock();
+                try {
+                    keys = segment.keys().iterator();
+                } finally {
+                    segment.lock.unlock();
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Data next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return keys.next();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
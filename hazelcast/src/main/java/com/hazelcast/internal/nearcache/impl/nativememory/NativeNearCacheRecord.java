@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.nativememory;
+
+import com.hazelcast.internal.nearcache.NearCacheRecord;
+import com.hazelcast.internal.serialization.impl.NativeMemoryData;
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.UUID;
+
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+
+/**
+ * A {@link NearCacheRecord} view over a fixed-size native memory block.
+ * <p>
+ * The block holds the metadata of the record, the address of the next record
+ * with the same key hash and the addresses of the {@link NativeMemoryData}
+ * blocks of the key and the value. The value is exposed as an on-heap copy
+ * from {@link #getValue()}, so no reference to native memory escapes the record.
+ * <p>
+ * Instances are short-lived flyweights. They must only be used while holding
+ * the lock of the {@link NativeMemoryNearCacheRecordStore} segment which owns
+ * the block, hence the record state doesn't need atomic updates.
+ */
+@SuppressWarnings("checkstyle:methodcount")
+public final class NativeNearCacheRecord implements NearCacheRecord<Data> {
+
+    static final int NEXT_OFFSET = 0;
+    static final int KEY_ADDRESS_OFFSET = 8;
+    static final int VALUE_ADDRESS_OFFSET = 16;
+    static final int CREATION_TIME_OFFSET = 24;
+    static final int EXPIRATION_TIME_OFFSET = 32;
+    static final int ACCESS_TIME_OFFSET = 40;
+    static final int RECORD_STATE_OFFSET = 48;
+    static final int SEQUENCE_OFFSET = 56;
+    static final int UUID_MOST_SIG_BITS_OFFSET = 64;
+    static final int UUID_LEAST_SIG_BITS_OFFSET = 72;
+    static final int PARTITION_ID_OFFSET = 80;
+    static final int ACCESS_HIT_OFFSET = 84;
+
+    static final int SIZE = 88;
+
+    private final long address;
+
+    NativeNearCacheRecord(long address) {
+        assert address != NULL_ADDRESS : "NULL_ADDRESS cannot back a NativeNearCacheRecord";
+        this.address = address;
+    }
+
+    /**
+     * Initializes a newly allocated record block.
+     *
+     * @param address        the address of the block
+     * @param valueAddress   the address of the value block or {@link com.hazelcast.internal.memory.MemoryAllocator#NULL_ADDRESS}
+     * @param creationTime   the creation time of the record
+     * @param expirationTime the expiration time of the record or {@link #TIME_NOT_SET}
+     */
+    static void init(long address, long valueAddress, long creationTime, long expirationTime) {
+        MEM.putLong(address + NEXT_OFFSET, NULL_ADDRESS);
+        MEM.putLong(address + KEY_ADDRESS_OFFSET, NULL_ADDRESS);
+        MEM.putLong(address + VALUE_ADDRESS_OFFSET, valueAddress);
+        MEM.putLong(address + CREATION_TIME_OFFSET, creationTime);
+        MEM.putLong(address + EXPIRATION_TIME_OFFSET, expirationTime);
+        MEM.putLong(address + ACCESS_TIME_OFFSET, TIME_NOT_SET);
+        MEM.putLong(address + RECORD_STATE_OFFSET, READ_PERMITTED);
+        MEM.putLong(address + SEQUENCE_OFFSET, 0);
+        MEM.putLong(address + UUID_MOST_SIG_BITS_OFFSET, 0);
+        MEM.putLong(address + UUID_LEAST_SIG_BITS_OFFSET, 0);
+        MEM.putInt(address + PARTITION_ID_OFFSET, 0);
+        MEM.putInt(address + ACCESS_HIT_OFFSET, 0);
+    }
+
+    long address() {
+        return address;
+    }
+
+    long getNextAddress() {
+        return MEM.getLong(address + NEXT_OFFSET);
+    }
+
+    void setNextAddress(long nextAddress) {
+        MEM.putLong(address + NEXT_OFFSET, nextAddress);
+    }
+
+    long getKeyAddress() {
+        return MEM.getLong(address + KEY_ADDRESS_OFFSET);
+    }
+
+    void setKeyAddress(long keyAddress) {
+        MEM.putLong(address + KEY_ADDRESS_OFFSET, keyAddress);
+    }
+
+    long getValueAddress() {
+        return MEM.getLong(address + VALUE_ADDRESS_OFFSET);
+    }
+
+    void setValueAddress(long valueAddress) {
+        MEM.putLong(address + VALUE_ADDRESS_OFFSET, valueAddress);
+    }
+
+    /**
+     * @return the native key of this record or {@code null} if the record isn't stored yet
+     */
+    NativeMemoryData getNativeKey() {
+        long keyAddress = getKeyAddress();
+        return keyAddress == NULL_ADDRESS ? null : new NativeMemoryData(keyAddress);
+    }
+
+    /**
+     * @return an on-heap copy of the key or {@code null} if the record isn't stored yet
+     */
+    Data getKey() {
+        return NativeMemoryData.toHeapData(getKeyAddress());
+    }
+
+    @Override
+    public Data getValue() {
+        return NativeMemoryData.toHeapData(getValueAddress());
+    }
+
+    /**
+     * Not supported, the value block is replaced by {@link NativeNearCacheRecordMap#setValue(NativeNearCacheRecord, Data)}.
+     */
+    @Override
+    public void setValue(Data value) {
+        throw new UnsupportedOperationException("The value of a native record is set by its record map");
+    }
+
+    @Override
+    public long getCreationTime() {
+        return MEM.getLong(address + CREATION_TIME_OFFSET);
+    }
+
+    @Override
+    public void setCreationTime(long time) {
+        MEM.putLong(address + CREATION_TIME_OFFSET, time);
+    }
+
+    @Override
+    public long getExpirationTime() {
+        return MEM.getLong(address + EXPIRATION_TIME_OFFSET);
+    }
+
+    @Override
+    public void setExpirationTime(long time) {
+        MEM.putLong(address + EXPIRATION_TIME_OFFSET, time);
+    }
+
+    @Override
+    public long getLastAccessTime() {
+        return MEM.getLong(address + ACCESS_TIME_OFFSET);
+    }
+
+    @Override
+    public void setAccessTime(long time) {
+        MEM.putLong(address + ACCESS_TIME_OFFSET, time);
+    }
+
+    @Override
+    public int getAccessHit() {
+        return MEM.getInt(address + ACCESS_HIT_OFFSET);
+    }
+
+    @Override
+    public void setAccessHit(int hit) {
+        MEM.putInt(address + ACCESS_HIT_OFFSET, hit);
+    }
+
+    @Override
+    public void incrementAccessHit() {
+        setAccessHit(getAccessHit() + 1);
+    }
+
+    @Override
+    public void resetAccessHit() {
+        setAccessHit(0);
+    }
+
+    @Override
+    public boolean isExpiredAt(long now) {
+        long expirationTime = getExpirationTime();
+        return (expirationTime > TIME_NOT_SET) && (expirationTime <= now);
+    }
+
+    @Override
+    public boolean isIdleAt(long maxIdleMilliSeconds, long now) {
+        if (maxIdleMilliSeconds <= 0) {
+            return false;
+        }
+        long accessTime = getLastAccessTime();
+        if (accessTime > TIME_NOT_SET) {
+            return accessTime + maxIdleMilliSeconds < now;
+        }
+        return getCreationTime() + maxIdleMilliSeconds < now;
+    }
+
+    @Override
+    public long getRecordState() {
+        return MEM.getLong(address + RECORD_STATE_OFFSET);
+    }
+
+    @Override
+    public boolean casRecordState(long expect, long update) {
+        if (getRecordState() != expect) {
+            return false;
+        }
+        MEM.putLong(address + RECORD_STATE_OFFSET, update);
+        return true;
+    }
+
+    @Override
+    public int getPartitionId() {
+        return MEM.getInt(address + PARTITION_ID_OFFSET);
+    }
+
+    @Override
+    public void setPartitionId(int partitionId) {
+        MEM.putInt(address + PARTITION_ID_OFFSET, partitionId);
+    }
+
+    @Override
+    public long getInvalidationSequence() {
+        return MEM.getLong(address + SEQUENCE_OFFSET);
+    }
+
+    @Override
+    public void setInvalidationSequence(long sequence) {
+        MEM.putLong(address + SEQUENCE_OFFSET, sequence);
+    }
+
+    /**
+     * A {@code null} UUID is stored as zeros, since a random UUID is never all zeros.
+     */
+    @Override
+    public void setUuid(UUID uuid) {
+        MEM.putLong(address + UUID_MOST_SIG_BITS_OFFSET, uuid == null ? 0 : uuid.getMostSignificantBits());
+        MEM.putLong(address + UUID_LEAST_SIG_BITS_OFFSET, uuid == null ? 0 : uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * @return the UUID set by {@link #setUuid(UUID)}
+     */
+    UUID getUuid() {
+        long mostSigBits = MEM.getLong(address + UUID_MOST_SIG_BITS_OFFSET);
+        long leastSigBits = MEM.getLong(address + UUID_LEAST_SIG_BITS_OFFSET);
+        return mostSigBits == 0 && leastSigBits == 0 ? null : new UUID(mostSigBits, leastSigBits);
+    }
+
+    @Override
+    public boolean hasSameUuid(UUID thatUuid) {
+        UUID uuid = getUuid();
+        return uuid != null && uuid.equals(thatUuid);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof NativeNearCacheRecord && ((NativeNearCacheRecord) o).address == address;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (address ^ (address >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return "NativeNearCacheRecord{"
+                + "address=" + address
+                + ", creationTime=" + getCreationTime()
+                + ", sequence=" + getInvalidationSequence()
+                + ", partitionId=" + getPartitionId()
+                + ", expirationTime=" + getExpirationTime()
+                + ", accessTime=" + getLastAccessTime()
+                + ", accessHit=" + getAccessHit()
+                + ", recordState=" + getRecordState()
+                + '}';
+    }
+}
@@ -0,0 +1,498 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.nativememory;
+
+import com.hazelcast.internal.eviction.EvictionCandidate;
+import com.hazelcast.internal.eviction.EvictionListener;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.internal.nearcache.impl.SampleableNearCacheRecordMap;
+import com.hazelcast.internal.serialization.impl.NativeMemoryData;
+import com.hazelcast.internal.util.ThreadLocalRandomProvider;
+import com.hazelcast.internal.util.hashslot.HashSlotCursor8byteKey;
+import com.hazelcast.internal.util.hashslot.SlotAssignmentResult;
+import com.hazelcast.internal.util.hashslot.impl.HashSlotArray8byteKeyImpl;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.nio.Bits.LONG_SIZE_IN_BYTES;
+
+/**
+ * {@link SampleableNearCacheRecordMap} implementation which keeps the records
+ * and their keys and values in native memory.
+ * <p>
+ * The records are indexed by a {@link HashSlotArray8byteKeyImpl} keyed by the
+ * {@link Data#hash64()} of their keys. The value of a slot is the address of
+ * the first record with that key hash; records whose keys share the same
+ * 64-bit hash are chained through their next address.
+ * <p>
+ * The blocks of removed records and replaced values are not freed immediately,
+ * since the caller may still read the removed record, e.g. an
+ * {@link EvictionListener}. They are freed on the next call to
+ * {@link #disposeDeferredBlocks()}.
+ * <p>
+ * This class is not thread-safe, it's guarded by the lock of the owning
+ * {@link NativeMemoryNearCacheRecordStore} segment.
+ */
+public class NativeNearCacheRecordMap extends AbstractMap<Data, NativeNearCacheRecord>
+        implements SampleableNearCacheRecordMap<Data, NativeNearCacheRecord> {
+
+    private static final int INITIAL_DEFERRED_CAPACITY = 16;
+
+    private final MemoryAllocator malloc;
+    private final SerializationService serializationService;
+    private final NearCacheHashSlotArray hsa;
+
+    private int size;
+    private boolean disposed;
+
+    // (address, size) pairs of the blocks waiting to be freed
+    private long[] deferredBlocks = new long[INITIAL_DEFERRED_CAPACITY];
+    private int deferredBlockCount;
+
+    NativeNearCacheRecordMap(MemoryManager memoryManager, SerializationService serializationService) {
+        this.malloc = memoryManager.getAllocator();
+        this.serializationService = serializationService;
+        this.hsa = new NearCacheHashSlotArray(memoryManager);
+        hsa.gotoNew();
+    }
+
+    /**
+     * Creates a record which isn't stored in this map yet.
+     *
+     * @param value          the value of the record, can be {@code null}
+     * @param creationTime   the creation time of the record
+     * @param expirationTime the expiration time of the record
+     * @return the new record
+     * @throws NativeOutOfMemoryError if there is not enough native memory for the record
+     */
+    NativeNearCacheRecord newRecord(Data value, long creationTime, long expirationTime) {
+        long valueAddress = toNativeData(value);
+        long address;
+        try {
+            address = malloc.allocate(NativeNearCacheRecord.SIZE);
+        } catch (NativeOutOfMemoryError e) {
+            freeDataBlock(valueAddress);
+            throw e;
+        }
+        NativeNearCacheRecord.init(address, valueAddress, creationTime, expirationTime);
+        return new NativeNearCacheRecord(address);
+    }
+
+    /**
+     * Replaces the value of the given record.
+     *
+     * @throws NativeOutOfMemoryError if there is not enough native memory for the value
+     */
+    void setValue(NativeNearCacheRecord record, Data value) {
+        long valueAddress = toNativeData(value);
+        long oldValueAddress = record.getValueAddress();
+        record.setValueAddress(valueAddress);
+        deferDataBlock(oldValueAddress);
+    }
+
+    /**
+     * Schedules the blocks of a record, which isn't stored in this map
+     * (anymore), to be freed on the next call to {@link #disposeDeferredBlocks()}.
+     */
+    void dispose(NativeNearCacheRecord record) {
+        deferDataBlock(record.getKeyAddress());
+        deferDataBlock(record.getValueAddress());
+        deferBlock(record.address(), NativeNearCacheRecord.SIZE);
+    }
+
+    /**
+     * Frees all native blocks previously scheduled for disposal.
+     */
+    void disposeDeferredBlocks() {
+        for (int i = 0; i < deferredBlockCount; i += 2) {
+            malloc.free(deferredBlocks[i], deferredBlocks[i + 1]);
+        }
+        deferredBlockCount = 0;
+        if (deferredBlocks.length > INITIAL_DEFERRED_CAPACITY) {
+            deferredBlocks = new long[INITIAL_DEFERRED_CAPACITY];
+        }
+    }
+
+    /**
+     * Frees all native memory of this map, the map can't be used afterwards
+     * except for {@link #clear()} and {@link #dispose()}, which are no-ops then.
+     */
+    void dispose() {
+        if (disposed) {
+            return;
+        }
+        clear();
+        disposeDeferredBlocks();
+        hsa.dispose();
+        disposed = true;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public NativeNearCacheRecord get(Object key) {
+        if (!(key instanceof Data)) {
+            return null;
+        }
+        Data keyData = (Data) key;
+        long slotAddress = hsa.get(keyData.hash64());
+        if (slotAddress == NULL_ADDRESS) {
+            return null;
+        }
+        for (long address = MEM.getLong(slotAddress); address != NULL_ADDRESS; ) {
+            NativeNearCacheRecord record = new NativeNearCacheRecord(address);
+            if (new NativeMemoryData(record.getKeyAddress()).equals(keyData)) {
+                return record;
+            }
+            address = record.getNextAddress();
+        }
+        return null;
+    }
+
+    /**
+     * Stores the given record, which must have been created by {@link #newRecord(Data, long, long)}
+     * and not stored yet. The record takes over the native key of a replaced record,
+     * the replaced record is scheduled to be freed.
+     *
+     * @throws NativeOutOfMemoryError if there is not enough native memory for the key
+     */
+    @Override
+    public NativeNearCacheRecord put(Data key, NativeNearCacheRecord record) {
+        assert record.getKeyAddress() == NULL_ADDRESS : "Record is already stored: " + record;
+
+        long hash = key.hash64();
+        long slotAddress = hsa.get(hash);
+        if (slotAddress != NULL_ADDRESS) {
+            long previousAddress = NULL_ADDRESS;
+            for (long address = MEM.getLong(slotAddress); address != NULL_ADDRESS; ) {
+                NativeNearCacheRecord existing = new NativeNearCacheRecord(address);
+                if (new NativeMemoryData(existing.getKeyAddress()).equals(key)) {
+                    record.setKeyAddress(existing.getKeyAddress());
+                    record.setNextAddress(existing.getNextAddress());
+                    link(slotAddress, previousAddress, record.address());
+                    existing.setKeyAddress(NULL_ADDRESS);
+                    dispose(existing);
+                    return existing;
+                }
+                previousAddress = address;
+                address = existing.getNextAddress();
+            }
+        }
+
+        long keyAddress = NativeMemoryData.copyOf(key, malloc).address();
+        try {
+            SlotAssignmentResult slot = hsa.ensure(hash);
+            record.setNextAddress(slot.isNew() ? NULL_ADDRESS : MEM.getLong(slot.address()));
+            MEM.putLong(slot.address(), record.address());
+        } catch (NativeOutOfMemoryError e) {
+            freeDataBlock(keyAddress);
+            throw e;
+        }
+        record.setKeyAddress(keyAddress);
+        size++;
+        return null;
+    }
+
+    @Override
+    public NativeNearCacheRecord putIfAbsent(Data key, NativeNearCacheRecord record) {
+        NativeNearCacheRecord existing = get(key);
+        return existing != null ? existing : put(key, record);
+    }
+
+    @Override
+    public NativeNearCacheRecord remove(Object key) {
+        if (!(key instanceof Data)) {
+            return null;
+        }
+        Data keyData = (Data) key;
+        long hash = keyData.hash64();
+        long slotAddress = hsa.get(hash);
+        if (slotAddress == NULL_ADDRESS) {
+            return null;
+        }
+        long previousAddress = NULL_ADDRESS;
+        for (long address = MEM.getLong(slotAddress); address != NULL_ADDRESS; ) {
+            NativeNearCacheRecord record = new NativeNearCacheRecord(address);
+            if (new NativeMemoryData(record.getKeyAddress()).equals(keyData)) {
+                long nextAddress = record.getNextAddress();
+                if (previousAddress == NULL_ADDRESS && nextAddress == NULL_ADDRESS) {
+                    hsa.remove(hash);
+                } else {
+                    link(slotAddress, previousAddress, nextAddress);
+                }
+                size--;
+                dispose(record);
+                return record;
+            }
+            previousAddress = address;
+            address = record.getNextAddress();
+        }
+        return null;
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        NativeNearCacheRecord existing = get(key);
+        if (existing == null || !existing.equals(value)) {
+            return false;
+        }
+        remove(key);
+        return true;
+    }
+
+    @Override
+    public boolean replace(Data key, NativeNearCacheRecord oldValue, NativeNearCacheRecord newValue) {
+        NativeNearCacheRecord existing = get(key);
+        if (existing == null || !existing.equals(oldValue)) {
+            return false;
+        }
+        put(key, newValue);
+        return true;
+    }
+
+    @Override
+    public NativeNearCacheRecord replace(Data key, NativeNearCacheRecord value) {
+        return containsKey(key) ? put(key, value) : null;
+    }
+
+    @Override
+    public void clear() {
+        if (disposed) {
+            return;
+        }
+        HashSlotCursor8byteKey cursor = hsa.cursor();
+        while (cursor.advance()) {
+            for (long address = MEM.getLong(cursor.valueAddress()); address != NULL_ADDRESS; ) {
+                NativeNearCacheRecord record = new NativeNearCacheRecord(address);
+                address = record.getNextAddress();
+                dispose(record);
+            }
+        }
+        hsa.clear();
+        size = 0;
+    }
+
+    /**
+     * Iterates over on-heap copies of the keys and the records, which are only
+     * valid while the map isn't modified.
+     */
+    @Override
+    public Set<Entry<Data, NativeNearCacheRecord>> entrySet() {
+        return new AbstractSet<Entry<Data, NativeNearCacheRecord>>() {
+            @Override
+            public Iterator<Entry<Data, NativeNearCacheRecord>> iterator() {
+                return new RecordIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public <C extends EvictionCandidate<Data, NativeNearCacheRecord>> boolean tryEvict(
+            C evictionCandidate, EvictionListener<Data, NativeNearCacheRecord> evictionListener) {
+        if (evictionCandidate == null) {
+            return false;
+        }
+        // the removed record is freed only on disposeDeferredBlocks(), so the listener can still read it
+        if (remove(evictionCandidate.getAccessor()) == null) {
+            return false;
+        }
+        if (evictionListener != null) {
+            evictionListener.onEvict(evictionCandidate.getAccessor(), evictionCandidate.getEvictable(), false);
+        }
+        return true;
+    }
+
+    /**
+     * Samples the records starting from a random slot of the hash slot array.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Iterable<NativeEvictionCandidate> sample(int sampleCount) {
+        List<NativeEvictionCandidate> samples = new ArrayList<NativeEvictionCandidate>(sampleCount);
+        long capacity = hsa.capacity();
+        if (size == 0 || capacity == 0) {
+            return samples;
+        }
+        long firstSlot = ThreadLocalRandomProvider.get().nextInt((int) Math.min(capacity, Integer.MAX_VALUE));
+        for (long i = 0; i < capacity && samples.size() < sampleCount; i++) {
+            long slot = (firstSlot + i) % capacity;
+            long address = hsa.headAddressOfSlot(slot);
+            while (address != NULL_ADDRESS && samples.size() < sampleCount) {
+                NativeNearCacheRecord record = new NativeNearCacheRecord(address);
+                samples.add(new NativeEvictionCandidate(record));
+                address = record.getNextAddress();
+            }
+        }
+        return samples;
+    }
+
+    private void link(long slotAddress, long previousAddress, long address) {
+        if (previousAddress == NULL_ADDRESS) {
+            MEM.putLong(slotAddress, address);
+        } else {
+            new NativeNearCacheRecord(previousAddress).setNextAddress(address);
+        }
+    }
+
+    private long toNativeData(Data data) {
+        return data == null ? NULL_ADDRESS : NativeMemoryData.copyOf(data, malloc).address();
+    }
+
+    private void freeDataBlock(long address) {
+        if (address != NULL_ADDRESS) {
+            malloc.free(address, NativeMemoryData.blockSizeAt(address));
+        }
+    }
+
+    private void deferDataBlock(long address) {
+        if (address != NULL_ADDRESS) {
+            deferBlock(address, NativeMemoryData.blockSizeAt(address));
+        }
+    }
+
+    private void deferBlock(long address, long size) {
+        if (deferredBlockCount == deferredBlocks.length) {
+            deferredBlocks = Arrays.copyOf(deferredBlocks, deferredBlocks.length * 2);
+        }
+        deferredBlocks[deferredBlockCount++] = address;
+        deferredBlocks[deferredBlockCount++] = size;
+    }
+
+    /**
+     * Exposes the chain head stored in a slot, which is needed to sample from a random slot.
+     */
+    private static final class NearCacheHashSlotArray extends HashSlotArray8byteKeyImpl {
+
+        NearCacheHashSlotArray(MemoryManager memoryManager) {
+            super(NULL_ADDRESS, memoryManager, LONG_SIZE_IN_BYTES);
+        }
+
+        /**
+         * @return the address of the first record of the slot or {@link MemoryAllocator#NULL_ADDRESS}
+         * if the slot is unassigned, which is also the unassigned sentinel
+         */
+        long headAddressOfSlot(long slot) {
+            return mem().getLong(slotBase(address(), slot) + offsetOfUnassignedSentinel);
+        }
+    }
+
+    private final class RecordIterator implements Iterator<Entry<Data, NativeNearCacheRecord>> {
+
+        private final HashSlotCursor8byteKey cursor = hsa.cursor();
+        private long nextAddress = NULL_ADDRESS;
+
+        @Override
+        public boolean hasNext() {
+            while (nextAddress == NULL_ADDRESS) {
+                if (!cursor.advance()) {
+                    return false;
+                }
+                nextAddress = MEM.getLong(cursor.valueAddress());
+            }
+            return true;
+        }
+
+        @Override
+        public Entry<Data, NativeNearCacheRecord> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            NativeNearCacheRecord record = new NativeNearCacheRecord(nextAddress);
+            nextAddress = record.getNextAddress();
+            return new SimpleImmutableEntry<Data, NativeNearCacheRecord>(record.getKey(), record);
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * An eviction candidate whose accessor is the native key of the sampled record.
+     */
+    public final class NativeEvictionCandidate implements EvictionCandidate<Data, NativeNearCacheRecord> {
+
+        private final NativeNearCacheRecord record;
+
+        NativeEvictionCandidate(NativeNearCacheRecord record) {
+            this.record = record;
+        }
+
+        @Override
+        public Data getAccessor() {
+            return record.getNativeKey();
+        }
+
+        @Override
+        public NativeNearCacheRecord getEvictable() {
+            return record;
+        }
+
+        @Override
+        public Object getKey() {
+            return serializationService.toObject(record.getKey());
+        }
+
+        @Override
+        public Object getValue() {
+            return serializationService.toObject(record.getValue());
+        }
+
+        @Override
+        public long getCreationTime() {
+            return record.getCreationTime();
+        }
+
+        @Override
+        public long getLastAccessTime() {
+            return record.getLastAccessTime();
+        }
+
+        @Override
+        public long getAccessHit() {
+            return record.getAccessHit();
+        }
+    }
+}
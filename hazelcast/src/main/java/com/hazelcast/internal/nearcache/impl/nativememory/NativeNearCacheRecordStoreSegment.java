@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.nativememory;
+
+import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.EvictionConfig.MaxSizePolicy;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.internal.adapter.DataStructureAdapter;
+import com.hazelcast.internal.eviction.EvictionChecker;
+import com.hazelcast.internal.memory.impl.StandardMemoryManager;
+import com.hazelcast.internal.nearcache.impl.maxsize.EntryCountNearCacheEvictionChecker;
+import com.hazelcast.internal.nearcache.impl.maxsize.NativeMemoryNearCacheEvictionChecker;
+import com.hazelcast.internal.nearcache.impl.store.AbstractNearCacheRecordStore;
+import com.hazelcast.internal.serialization.impl.NativeMemoryData;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+import com.hazelcast.monitor.impl.NearCacheStatsImpl;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+import com.hazelcast.util.Clock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.internal.nearcache.NearCacheRecord.TIME_NOT_SET;
+import static com.hazelcast.util.QuickMath.divideByAndCeilToInt;
+
+/**
+ * A segment of a {@link NativeMemoryNearCacheRecordStore}, which stores the
+ * records of a subset of the keys in a {@link NativeNearCacheRecordMap}.
+ * <p>
+ * The segment isn't thread-safe, all calls must be made while holding its
+ * {@link #lock}. The segments of a store share the same {@link NearCacheStatsImpl}.
+ *
+ * @param <K> the type of the key stored in Near Cache
+ * @param <V> the type of the value stored in Near Cache
+ */
+class NativeNearCacheRecordStoreSegment<K, V>
+        extends AbstractNearCacheRecordStore<K, V, Data, NativeNearCacheRecord, NativeNearCacheRecordMap> {
+
+    final ReentrantLock lock = new ReentrantLock();
+
+    private final StandardMemoryManager memoryManager;
+    private final int segmentCount;
+
+    NativeNearCacheRecordStoreSegment(NearCacheConfig nearCacheConfig, NearCacheStatsImpl nearCacheStats,
+                                      SerializationService serializationService, ClassLoader classLoader,
+                                      StandardMemoryManager memoryManager, int segmentCount) {
+        super(nearCacheConfig, nearCacheStats, serializationService, classLoader);
+        this.memoryManager = memoryManager;
+        this.segmentCount = segmentCount;
+    }
+
+    @Override
+    protected EvictionChecker createNearCacheEvictionChecker(EvictionConfig evictionConfig, NearCacheConfig nearCacheConfig) {
+        MaxSizePolicy maxSizePolicy = evictionConfig.getMaximumSizePolicy();
+        switch (maxSizePolicy) {
+            case ENTRY_COUNT:
+                return new EntryCountNearCacheEvictionChecker(divideByAndCeilToInt(evictionConfig.getSize(), segmentCount),
+                        records);
+            case USED_NATIVE_MEMORY_SIZE:
+            case USED_NATIVE_MEMORY_PERCENTAGE:
+            case FREE_NATIVE_MEMORY_SIZE:
+            case FREE_NATIVE_MEMORY_PERCENTAGE:
+                return new NativeMemoryNearCacheEvictionChecker(maxSizePolicy, evictionConfig.getSize(), nearCacheStats,
+                        memoryManager);
+            default:
+                throw new IllegalArgumentException("Invalid max-size policy (" + maxSizePolicy + ") for "
+                        + getClass().getName());
+        }
+    }
+
+    @Override
+    protected NativeNearCacheRecordMap createNearCacheRecordMap(NearCacheConfig nearCacheConfig) {
+        return new NativeNearCacheRecordMap(memoryManager, serializationService);
+    }
+
+    @Override
+    public NativeNearCacheRecord getRecord(K key) {
+        return records.get(toKeyData(key));
+    }
+
+    @Override
+    protected long getKeyStorageMemoryCost(K key) {
+        return NativeMemoryData.blockSize(toKeyData(key).totalSize());
+    }
+
+    /**
+     * The memory cost of the native blocks of the record and its value, the key is accounted for by
+     * {@link #getKeyStorageMemoryCost(Object)}.
+     */
+    @Override
+    protected long getRecordStorageMemoryCost(NativeNearCacheRecord record) {
+        if (record == null) {
+            return 0L;
+        }
+        long valueAddress = record.getValueAddress();
+        return NativeNearCacheRecord.SIZE
+                + (valueAddress == NULL_ADDRESS ? 0L : NativeMemoryData.blockSizeAt(valueAddress));
+    }
+
+    @Override
+    protected NativeNearCacheRecord createRecord(V value) {
+        long creationTime = Clock.currentTimeMillis();
+        long expirationTime = timeToLiveMillis > 0 ? creationTime + timeToLiveMillis : TIME_NOT_SET;
+        return records.newRecord(toData(value), creationTime, expirationTime);
+    }
+
+    @Override
+    protected void updateRecordValue(NativeNearCacheRecord record, V value) {
+        records.setValue(record, toData(value));
+    }
+
+    @Override
+    protected NativeNearCacheRecord getOrCreateToReserve(K key, Data keyData) {
+        Data nativeKey = toKeyData(key);
+        NativeNearCacheRecord record = records.get(nativeKey);
+        if (record != null) {
+            return record;
+        }
+        record = new ReserveForUpdateFunction(keyData).apply(key);
+        try {
+            records.put(nativeKey, record);
+        } catch (NativeOutOfMemoryError e) {
+            records.dispose(record);
+            throw e;
+        }
+        return record;
+    }
+
+    @Override
+    protected V updateAndGetReserved(K key, V value, long reservationId, boolean deserialize) {
+        NativeNearCacheRecord reservedRecord = records.get(toKeyData(key));
+        if (reservedRecord == null) {
+            return null;
+        }
+        updateReservedRecordInternal(key, value, reservedRecord, reservationId);
+        if (!deserialize) {
+            return null;
+        }
+        Data cachedValue = reservedRecord.getValue();
+        return cachedValue == null ? null : toValue(cachedValue);
+    }
+
+    @Override
+    protected NativeNearCacheRecord putRecord(K key, NativeNearCacheRecord record) {
+        NativeNearCacheRecord oldRecord = records.put(toKeyData(key), record);
+        nearCacheStats.incrementOwnedEntryMemoryCost(getTotalStorageMemoryCost(key, record));
+        if (oldRecord != null) {
+            // the blocks of the old record are only freed with the deferred blocks
+            nearCacheStats.decrementOwnedEntryMemoryCost(getTotalStorageMemoryCost(key, oldRecord));
+        }
+        return oldRecord;
+    }
+
+    @Override
+    protected void onPutError(K key, V value, NativeNearCacheRecord record, NativeNearCacheRecord oldRecord,
+                              Throwable error) {
+        // a record which couldn't be stored has no key yet
+        if (record != null && record.getKeyAddress() == NULL_ADDRESS) {
+            records.dispose(record);
+        }
+    }
+
+    @Override
+    protected boolean containsRecordKey(K key) {
+        return records.containsKey(toKeyData(key));
+    }
+
+    @Override
+    public void invalidate(K key) {
+        Data nativeKey = toKeyData(key);
+        NativeNearCacheRecord record = records.remove(nativeKey);
+        if (canUpdateStats(record)) {
+            nearCacheStats.decrementOwnedEntryCount();
+            nearCacheStats.decrementOwnedEntryMemoryCost(getTotalStorageMemoryCost(key, record));
+            nearCacheStats.incrementInvalidations();
+        }
+        nearCacheStats.incrementInvalidationRequests();
+    }
+
+    @Override
+    public void onEvict(Data key, NativeNearCacheRecord record, boolean wasExpired) {
+        super.onEvict(key, record, wasExpired);
+        nearCacheStats.decrementOwnedEntryMemoryCost(NativeMemoryData.blockSize(key.totalSize())
+                + getRecordStorageMemoryCost(record));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void doExpiration() {
+        List<Data> expiredKeys = new ArrayList<Data>();
+        for (Map.Entry<Data, NativeNearCacheRecord> entry : records.entrySet()) {
+            if (isRecordExpired(entry.getValue())) {
+                expiredKeys.add(entry.getKey());
+            }
+        }
+        for (Data key : expiredKeys) {
+            NativeNearCacheRecord record = records.get(key);
+            invalidate((K) key);
+            onExpire((K) key, record);
+        }
+    }
+
+    /**
+     * Removes all records without updating the shared statistics.
+     *
+     * @return the number of removed records
+     */
+    int clearRecords() {
+        int size = records.size();
+        records.clear();
+        return size;
+    }
+
+    /**
+     * Frees the native blocks of the removed records and replaced values.
+     */
+    void disposeDeferredBlocks() {
+        if (records != null) {
+            records.disposeDeferredBlocks();
+        }
+    }
+
+    /**
+     * Frees all native memory of this segment.
+     */
+    void dispose() {
+        records.dispose();
+    }
+
+    /**
+     * @return on-heap copies of the keys of this segment
+     */
+    List<Data> keys() {
+        List<Data> keys = new ArrayList<Data>(records.size());
+        for (Map.Entry<Data, NativeNearCacheRecord> entry : records.entrySet()) {
+            keys.add(entry.getKey());
+        }
+        return keys;
+    }
+
+    @Override
+    public void loadKeys(DataStructureAdapter<Object, ?> adapter) {
+        throw new UnsupportedOperationException("Keys are loaded by the owning store");
+    }
+
+    @Override
+    public void storeKeys() {
+        throw new UnsupportedOperationException("Keys are stored by the owning store");
+    }
+
+    private Data toKeyData(K key) {
+        return key instanceof Data ? (Data) key : toData(key);
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.preloader;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.nio.IOUtil.closeResource;
+import static com.hazelcast.nio.UnsafeHelper.UNSAFE;
+import static com.hazelcast.util.EmptyStatement.ignore;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+
+/**
+ * Reads a Near Cache store file via memory-mapped regions, so the keys are
+ * read straight from the page cache instead of being copied through a
+ * stream buffer.
+ * <p>
+ * The file is mapped in regions of {@value #REGION_SIZE} bytes, so files
+ * larger than 2 GB can be read as well. A value which crosses the end of a
+ * region is read from a new region starting at the value.
+ * <p>
+ * A region is unmapped as soon as it's replaced or the reader is closed,
+ * since a file with a live mapping can't be truncated or replaced on
+ * Windows. If the JVM doesn't allow to unmap a region, it's released once
+ * it's garbage collected.
+ * <p>
+ * This class is not thread-safe.
+ */
+final class MappedStoreFileReader implements Closeable {
+
+    static final int REGION_SIZE = 1 << 26;
+
+    private static final Method INVOKE_CLEANER = findInvokeCleaner();
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final long fileSize;
+
+    private MappedByteBuffer region;
+    private long regionStart;
+
+    MappedStoreFileReader(File storeFile) throws IOException {
+        this.file = new RandomAccessFile(storeFile, "r");
+        this.channel = file.getChannel();
+        this.fileSize = channel.size();
+    }
+
+    long size() {
+        return fileSize;
+    }
+
+    /**
+     * Checks if the file contains the given number of bytes from the given
+     * position on.
+     */
+    boolean contains(long position, int count) {
+        return count >= 0 && position + count <= fileSize;
+    }
+
+    int readInt(long position) throws IOException {
+        MappedByteBuffer region = region(position, INT_SIZE_IN_BYTES);
+        return region.getInt((int) (position - regionStart));
+    }
+
+    long readLong(long position) throws IOException {
+        MappedByteBuffer region = region(position, LONG_SIZE_IN_BYTES);
+        return region.getLong((int) (position - regionStart));
+    }
+
+    byte[] readBytes(long position, int count) throws IOException {
+        MappedByteBuffer region = region(position, count);
+        byte[] bytes = new byte[count];
+        region.position((int) (position - regionStart));
+        region.get(bytes);
+        return bytes;
+    }
+
+    @Override
+    public void close() {
+        unmap(region);
+        region = null;
+        closeResource(channel);
+        closeResource(file);
+    }
+
+    private MappedByteBuffer region(long position, int count) throws IOException {
+        if (region == null || position < regionStart || position + count > regionStart + region.limit()) {
+            long regionSize = Math.min(Math.max(REGION_SIZE, count), fileSize - position);
+            // an unmapped region must never be accessed, even if the mapping below fails
+            unmap(region);
+            region = null;
+            region = channel.map(READ_ONLY, position, regionSize);
+            regionStart = position;
+        }
+        return region;
+    }
+
+    /**
+     * Releases the mapping of the given region right away. The region must
+     * not be accessed afterwards.
+     */
+    static void unmap(MappedByteBuffer region) {
+        if (region == null) {
+            return;
+        }
+        try {
+            if (INVOKE_CLEANER != null) {
+                // Java 9 and later
+                INVOKE_CLEANER.invoke(UNSAFE, region);
+                return;
+            }
+            Method cleanerMethod = region.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            Object cleaner = cleanerMethod.invoke(region);
+            if (cleaner != null) {
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+        } catch (Exception e) {
+            // the mapping is released once the region is garbage collected
+            ignore(e);
+        }
+    }
+
+    private static Method findInvokeCleaner() {
+        if (UNSAFE == null) {
+            return null;
+        }
+        try {
+            return UNSAFE.getClass().getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -19,7 +19,6 @@ package com.hazelcast.internal.nearcache.impl.preloader;
 import com.hazelcast.config.NearCachePreloaderConfig;
 import com.hazelcast.internal.adapter.DataStructureAdapter;
 import com.hazelcast.internal.serialization.impl.HeapData;
-import com.hazelcast.internal.util.BufferingInputStream;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.Logger;
 import com.hazelcast.memory.MemoryUnit;
@@ -28,22 +27,22 @@ import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.spi.serialization.SerializationService;
 import com.hazelcast.util.collection.InflatableSet;
 import com.hazelcast.util.collection.InflatableSet.Builder;
+import com.hazelcast.util.collection.LongHashSet;
+import com.hazelcast.util.collection.LongIterator;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.util.Iterator;
 
 import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
-import static com.hazelcast.nio.Bits.readIntB;
-import static com.hazelcast.nio.Bits.writeIntB;
+import static com.hazelcast.nio.Bits.LONG_SIZE_IN_BYTES;
 import static com.hazelcast.nio.IOUtil.closeResource;
 import static com.hazelcast.nio.IOUtil.deleteQuietly;
 import static com.hazelcast.nio.IOUtil.getPath;
-import static com.hazelcast.nio.IOUtil.readFullyOrNothing;
 import static com.hazelcast.nio.IOUtil.rename;
 import static com.hazelcast.nio.IOUtil.toFileName;
 import static com.hazelcast.util.StringUtil.isNullOrEmpty;
@@ -53,6 +52,21 @@ import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 /**
  * Loads and stores the keys from a Near Cache into a file.
+ * <p>
+ * The keys are stored in an append-only log: the first store writes all keys
+ * and every further store only appends the keys which have been added and
+ * the hashes of the keys which have been removed since the previous store.
+ * Once the log contains more than {@value #COMPACTION_FACTOR} times as many
+ * records as keys, it's compacted by writing all keys to a new file.
+ * <p>
+ * To append to the log, the hashes of the stored keys are kept on the heap
+ * between the stores, which costs 16 to 32 bytes per key, and a second set
+ * of hashes is built during each store. Every store still iterates and
+ * serializes all keys, only the file I/O shrinks to the changes. The hashes
+ * are only kept for up to {@value #MAX_REMEMBERED_KEY_COUNT} keys, larger
+ * key sets are written to a new file on every store.
+ * <p>
+ * The file is read via memory-mapped regions, see {@link MappedStoreFileReader}.
  *
  * @param <K> type of the {@link com.hazelcast.internal.nearcache.NearCacheRecord} keys
  */
@@ -62,7 +76,15 @@ public class NearCachePreloader<K> {
      * File format for the file header.
      */
     private enum FileFormat {
-        INTERLEAVED_LENGTH_FIELD
+        /**
+         * The length of a key followed by the key.
+         */
+        INTERLEAVED_LENGTH_FIELD,
+        /**
+         * Either the length of a key followed by the hash and the key, or
+         * {@link #REMOVED_KEY} followed by the hash of a removed key.
+         */
+        APPEND_ONLY_LOG
     }
 
     /**
@@ -70,6 +92,31 @@ public class NearCachePreloader<K> {
      */
     private static final int MAGIC_BYTES = 0xEA3CAC4E;
 
+    private static final int HEADER_SIZE = 2 * INT_SIZE_IN_BYTES;
+
+    /**
+     * Length field of a removed key record.
+     */
+    private static final int REMOVED_KEY = -1;
+
+    /**
+     * Marks the empty slots of the key hash sets, a key with this hash is
+     * stored with the next hash instead.
+     */
+    private static final long NO_KEY_HASH = Long.MIN_VALUE;
+
+    /**
+     * The log is compacted once it contains more than this factor times the
+     * stored keys.
+     */
+    private static final int COMPACTION_FACTOR = 2;
+
+    /**
+     * The maximum number of key hashes which are kept between the stores,
+     * which bounds the hash set to 16 MB.
+     */
+    private static final int MAX_REMEMBERED_KEY_COUNT = 1 << 20;
+
     /**
      * Base-2 logarithm of buffer size.
      */
@@ -81,11 +128,14 @@ public class NearCachePreloader<K> {
 
     /**
      * Batch size for the pre-loader.
+     * <p>
+     * The {@code getAll()} of the data structures splits the keys by
+     * partition and fetches the partitions in parallel, so a large batch
+     * spreads the load over all partition owners.
      */
-    private static final int LOAD_BATCH_SIZE = 100;
+    private static final int LOAD_BATCH_SIZE = 1000;
 
     private final ILogger logger = Logger.getLogger(NearCachePreloader.class);
-    private final byte[] tmpBytes = new byte[INT_SIZE_IN_BYTES];
 
     private final String nearCacheName;
     private final NearCacheStatsImpl nearCacheStats;
@@ -96,9 +146,15 @@ public class NearCachePreloader<K> {
     private final File tmpStoreFile;
 
     private ByteBuffer buf;
-    private int lastWrittenBytes;
+    private long lastWrittenBytes;
     private int lastKeyCount;
 
+    // the state of the store file, null if the file has to be written from scratch
+    private KeyHashSet storedKeyHashes;
+    private long storedRecordCount;
+    private long storedFileLength;
+    private int maxRememberedKeyCount = MAX_REMEMBERED_KEY_COUNT;
+
     public NearCachePreloader(String nearCacheName, NearCachePreloaderConfig preloaderConfig,
                               NearCacheStatsImpl nearCacheStats, SerializationService serializationService) {
         this.nearCacheName = nearCacheName;
@@ -115,6 +171,11 @@ public class NearCachePreloader<K> {
         lock.release();
     }
 
+    // just for testing
+    void setMaxRememberedKeyCount(int maxRememberedKeyCount) {
+        this.maxRememberedKeyCount = maxRememberedKeyCount;
+    }
+
     /**
      * Loads the values via a stored key file into the supplied {@link DataStructureAdapter}.
      *
@@ -128,37 +189,43 @@ public class NearCachePreloader<K> {
         }
 
         long startedNanos = System.nanoTime();
-        BufferingInputStream bis = null;
+        MappedStoreFileReader reader = null;
         try {
-            bis = new BufferingInputStream(new FileInputStream(storeFile), BUFFER_SIZE);
-            if (!checkHeader(bis)) {
+            reader = new MappedStoreFileReader(storeFile);
+            FileFormat fileFormat = readHeader(reader);
+            if (fileFormat == null) {
                 return;
             }
 
-            int loadedKeys = loadKeySet(bis, adapter);
+            int loadedKeys;
+            if (fileFormat == FileFormat.APPEND_ONLY_LOG) {
+                loadedKeys = loadKeyLog(reader, adapter);
+            } else {
+                loadedKeys = loadKeySet(reader, adapter);
+            }
 
             long elapsedMillis = getElapsedMillis(startedNanos);
             logger.info(format("Loaded %d keys of Near Cache %s in %d ms", loadedKeys, nearCacheName, elapsedMillis));
         } catch (Exception e) {
             logger.warning(format("Could not pre-load Near Cache %s (%s)", nearCacheName, storeFile.getAbsolutePath()), e);
+            storedKeyHashes = null;
         } finally {
-            closeResource(bis);
+            closeResource(reader);
         }
     }
 
-    private boolean checkHeader(BufferingInputStream bis) throws IOException {
-        int magicBytes = readInt(bis);
-        if (magicBytes != MAGIC_BYTES) {
+    private FileFormat readHeader(MappedStoreFileReader reader) throws IOException {
+        if (!reader.contains(0, HEADER_SIZE) || reader.readInt(0) != MAGIC_BYTES) {
             logger.warning(format("Found invalid header for Near Cache %s (%s)", nearCacheName, storeFile.getAbsolutePath()));
-            return false;
+            return null;
         }
-        int fileFormat = readInt(bis);
+        int fileFormat = reader.readInt(INT_SIZE_IN_BYTES);
         if (fileFormat < 0 || fileFormat > FileFormat.values().length - 1) {
             logger.warning(format("Found invalid file format for Near Cache %s (%s)", nearCacheName,
                     storeFile.getAbsolutePath()));
-            return false;
+            return null;
         }
-        return true;
+        return FileFormat.values()[fileFormat];
     }
 
     /**
@@ -168,38 +235,28 @@ public class NearCachePreloader<K> {
      */
     public void storeKeys(Iterator<K> iterator) {
         long startedNanos = System.nanoTime();
-        FileOutputStream fos = null;
         try {
-            buf = allocate(BUFFER_SIZE);
+            if (buf == null) {
+                buf = allocate(BUFFER_SIZE);
+            }
+            buf.clear();
             lastWrittenBytes = 0;
             lastKeyCount = 0;
 
-            fos = new FileOutputStream(tmpStoreFile, false);
-
-            // write header and keys
-            writeInt(fos, MAGIC_BYTES);
-            writeInt(fos, FileFormat.INTERLEAVED_LENGTH_FIELD.ordinal());
-            writeKeySet(fos, fos.getChannel(), iterator);
-
-            // cleanup if no keys have been written
-            if (lastKeyCount == 0) {
-                deleteQuietly(storeFile);
-                updatePersistenceStats(startedNanos);
-                return;
+            if (storedKeyHashes == null || !storeFile.exists()
+                    || storedRecordCount > (long) COMPACTION_FACTOR * storedKeyHashes.size()) {
+                writeKeySet(iterator);
+            } else {
+                appendKeySetChanges(iterator);
             }
 
-            fos.flush();
-            closeResource(fos);
-            rename(tmpStoreFile, storeFile);
-
             updatePersistenceStats(startedNanos);
         } catch (Exception e) {
             logger.warning(format("Could not store keys of Near Cache %s (%s)", nearCacheName, storeFile.getAbsolutePath()), e);
 
+            // the content of the file is unknown, so it's written from scratch the next time
+            storedKeyHashes = null;
             nearCacheStats.addPersistenceFailure(e);
-        } finally {
-            closeResource(fos);
-            deleteQuietly(tmpStoreFile);
         }
     }
 
@@ -211,22 +268,23 @@ public class NearCachePreloader<K> {
                 MemoryUnit.BYTES.toKiloBytes(lastWrittenBytes)));
     }
 
-    private int loadKeySet(BufferingInputStream bis, DataStructureAdapter<Object, ?> adapter) throws IOException {
+    /**
+     * Loads the keys of an {@link FileFormat#INTERLEAVED_LENGTH_FIELD} file.
+     */
+    private int loadKeySet(MappedStoreFileReader reader, DataStructureAdapter<Object, ?> adapter) throws IOException {
         int loadedKeys = 0;
 
         Builder<Object> builder = InflatableSet.newBuilder(LOAD_BATCH_SIZE);
-        while (readFullyOrNothing(bis, tmpBytes)) {
-            int dataSize = readIntB(tmpBytes, 0);
-            byte[] payload = new byte[dataSize];
-            if (!readFullyOrNothing(bis, payload)) {
+        long position = HEADER_SIZE;
+        while (reader.contains(position, INT_SIZE_IN_BYTES)) {
+            int dataSize = reader.readInt(position);
+            if (!reader.contains(position + INT_SIZE_IN_BYTES, dataSize)) {
                 break;
             }
-            Data key = new HeapData(payload);
-            builder.add(serializationService.toObject(key));
-            if (builder.size() == LOAD_BATCH_SIZE) {
-                adapter.getAll(builder.build());
-                builder = InflatableSet.newBuilder(LOAD_BATCH_SIZE);
-            }
+            Data key = new HeapData(reader.readBytes(position + INT_SIZE_IN_BYTES, dataSize));
+            position += INT_SIZE_IN_BYTES + dataSize;
+
+            builder = addToBatch(builder, key, adapter);
             loadedKeys++;
         }
         if (builder.size() > 0) {
@@ -235,61 +293,227 @@ public class NearCachePreloader<K> {
         return loadedKeys;
     }
 
-    private void writeKeySet(FileOutputStream fos, FileChannel outChannel, Iterator<K> iterator) throws IOException {
-        while (iterator.hasNext()) {
-            K key = iterator.next();
-            Data dataKey = serializationService.toData(key);
-            if (dataKey != null) {
-                int dataSize = dataKey.totalSize();
-                writeInt(fos, dataSize);
-
-                int position = 0;
-                int remaining = dataSize;
-                while (remaining > 0) {
-                    int transferredCount = Math.min(BUFFER_SIZE - buf.position(), remaining);
-                    ensureBufHasRoom(fos, transferredCount);
-                    buf.put(dataKey.toByteArray(), position, transferredCount);
-                    position += transferredCount;
-                    remaining -= transferredCount;
+    /**
+     * Loads the keys of an {@link FileFormat#APPEND_ONLY_LOG} file.
+     * <p>
+     * The log is read twice: the first pass only reads the key hashes to
+     * find the keys which haven't been removed, the second pass loads these
+     * keys. The stored keys are remembered, so the next store can append to
+     * the log. A record which has only been written partially is cut off by
+     * the next store.
+     */
+    private int loadKeyLog(MappedStoreFileReader reader, DataStructureAdapter<Object, ?> adapter) throws IOException {
+        KeyHashSet keyHashes = new KeyHashSet();
+        long recordCount = 0;
+        long position = HEADER_SIZE;
+        while (reader.contains(position, INT_SIZE_IN_BYTES + LONG_SIZE_IN_BYTES)) {
+            int dataSize = reader.readInt(position);
+            long keyHash = reader.readLong(position + INT_SIZE_IN_BYTES);
+            long recordEnd = position + INT_SIZE_IN_BYTES + LONG_SIZE_IN_BYTES;
+            if (dataSize == REMOVED_KEY) {
+                keyHashes.remove(keyHash);
+            } else if (dataSize > 0 && reader.contains(recordEnd, dataSize)) {
+                keyHashes.add(keyHash);
+                recordEnd += dataSize;
+            } else {
+                break;
+            }
+            position = recordEnd;
+            recordCount++;
+        }
+        long logLength = position;
+
+        int loadedKeys = 0;
+        Builder<Object> builder = InflatableSet.newBuilder(LOAD_BATCH_SIZE);
+        position = HEADER_SIZE;
+        while (position < logLength) {
+            int dataSize = reader.readInt(position);
+            position += INT_SIZE_IN_BYTES + LONG_SIZE_IN_BYTES;
+            if (dataSize == REMOVED_KEY) {
+                continue;
+            }
+            long keyHash = reader.readLong(position - LONG_SIZE_IN_BYTES);
+            if (keyHashes.contains(keyHash)) {
+                Data key = new HeapData(reader.readBytes(position, dataSize));
+                builder = addToBatch(builder, key, adapter);
+                loadedKeys++;
+            }
+            position += dataSize;
+        }
+        if (builder.size() > 0) {
+            adapter.getAll(builder.build());
+        }
+
+        storedKeyHashes = rememberKeyHashes(keyHashes);
+        storedRecordCount = recordCount;
+        storedFileLength = logLength;
+        return loadedKeys;
+    }
+
+    private Builder<Object> addToBatch(Builder<Object> builder, Data key, DataStructureAdapter<Object, ?> adapter) {
+        builder.add(serializationService.toObject(key));
+        if (builder.size() < LOAD_BATCH_SIZE) {
+            return builder;
+        }
+        adapter.getAll(builder.build());
+        return InflatableSet.newBuilder(LOAD_BATCH_SIZE);
+    }
+
+    /**
+     * Writes all keys to a new file, which replaces the store file.
+     */
+    private void writeKeySet(Iterator<K> iterator) throws IOException {
+        storedKeyHashes = null;
+        FileOutputStream fos = null;
+        try {
+            fos = new FileOutputStream(tmpStoreFile, false);
+            FileChannel channel = fos.getChannel();
+
+            buf.putInt(MAGIC_BYTES);
+            buf.putInt(FileFormat.APPEND_ONLY_LOG.ordinal());
+
+            KeyHashSet keyHashes = new KeyHashSet();
+            while (iterator.hasNext()) {
+                Data key = serializationService.toData(iterator.next());
+                if (key != null) {
+                    long keyHash = keyHash(key);
+                    if (keyHashes == null || keyHashes.add(keyHash)) {
+                        writeKey(channel, key, keyHash);
+                        lastKeyCount++;
+                    }
+                    if (keyHashes != null && keyHashes.size() > maxRememberedKeyCount) {
+                        // too many keys to remember, the next store writes a new file again
+                        keyHashes = null;
+                    }
                 }
+            }
+            flushBuffer(channel);
 
-                lastWrittenBytes += INT_SIZE_IN_BYTES + dataSize;
-                lastKeyCount++;
+            // cleanup if no keys have been written
+            if (lastKeyCount == 0) {
+                lastWrittenBytes = 0;
+                deleteQuietly(storeFile);
+                return;
             }
-            flushLocalBuffer(outChannel);
+
+            closeResource(fos);
+            rename(tmpStoreFile, storeFile);
+
+            storedKeyHashes = keyHashes;
+            storedRecordCount = lastKeyCount;
+            storedFileLength = HEADER_SIZE + lastWrittenBytes;
+        } finally {
+            closeResource(fos);
+            deleteQuietly(tmpStoreFile);
         }
     }
 
-    private int readInt(BufferingInputStream bis) throws IOException {
-        readFullyOrNothing(bis, tmpBytes);
-        return readIntB(tmpBytes, 0);
+    /**
+     * Appends the keys which have been added and the hashes of the keys which
+     * have been removed since the previous store to the store file.
+     */
+    private void appendKeySetChanges(Iterator<K> iterator) throws IOException {
+        KeyHashSet previousKeyHashes = storedKeyHashes;
+        storedKeyHashes = null;
+
+        RandomAccessFile file = null;
+        try {
+            file = new RandomAccessFile(storeFile, "rw");
+            FileChannel channel = file.getChannel();
+            if (channel.size() > storedFileLength) {
+                // cuts off a record which has only been written partially
+                channel.truncate(storedFileLength);
+            }
+            channel.position(storedFileLength);
+
+            long recordCount = 0;
+            KeyHashSet keyHashes = new KeyHashSet();
+            while (iterator.hasNext()) {
+                Data key = serializationService.toData(iterator.next());
+                if (key != null) {
+                    long keyHash = keyHash(key);
+                    if (keyHashes.add(keyHash) && !previousKeyHashes.contains(keyHash)) {
+                        writeKey(channel, key, keyHash);
+                        recordCount++;
+                    }
+                }
+            }
+            LongIterator previousIterator = previousKeyHashes.iterator();
+            while (previousIterator.hasNext()) {
+                long keyHash = previousIterator.nextValue();
+                if (!keyHashes.contains(keyHash)) {
+                    writeRemovedKey(channel, keyHash);
+                    recordCount++;
+                }
+            }
+            flushBuffer(channel);
+            lastKeyCount = keyHashes.size();
+
+            // cleanup if no keys are left
+            if (lastKeyCount == 0) {
+                lastWrittenBytes = 0;
+                closeResource(file);
+                deleteQuietly(storeFile);
+                return;
+            }
+
+            storedKeyHashes = rememberKeyHashes(keyHashes);
+            storedRecordCount += recordCount;
+            storedFileLength += lastWrittenBytes;
+        } finally {
+            closeResource(file);
+        }
     }
 
-    private void writeInt(FileOutputStream fos, int dataSize) throws IOException {
-        ensureBufHasRoom(fos, INT_SIZE_IN_BYTES);
-        writeIntB(tmpBytes, 0, dataSize);
-        buf.put(tmpBytes);
+    private KeyHashSet rememberKeyHashes(KeyHashSet keyHashes) {
+        return keyHashes.size() > maxRememberedKeyCount ? null : keyHashes;
     }
 
-    private void ensureBufHasRoom(FileOutputStream fos, int expectedSize) throws IOException {
-        if (buf.position() < BUFFER_SIZE - expectedSize) {
-            return;
+    private void writeKey(FileChannel channel, Data key, long keyHash) throws IOException {
+        byte[] bytes = key.toByteArray();
+        ensureBufHasRoom(channel, INT_SIZE_IN_BYTES + LONG_SIZE_IN_BYTES);
+        buf.putInt(bytes.length);
+        buf.putLong(keyHash);
+        if (bytes.length > BUFFER_SIZE) {
+            flushBuffer(channel);
+            writeFully(channel, ByteBuffer.wrap(bytes));
+        } else {
+            ensureBufHasRoom(channel, bytes.length);
+            buf.put(bytes);
         }
-        fos.write(buf.array());
-        buf.position(0);
+        lastWrittenBytes += INT_SIZE_IN_BYTES + LONG_SIZE_IN_BYTES + bytes.length;
     }
 
-    private void flushLocalBuffer(FileChannel outChannel) throws IOException {
-        if (buf.position() == 0) {
-            return;
+    private void writeRemovedKey(FileChannel channel, long keyHash) throws IOException {
+        ensureBufHasRoom(channel, INT_SIZE_IN_BYTES + LONG_SIZE_IN_BYTES);
+        buf.putInt(REMOVED_KEY);
+        buf.putLong(keyHash);
+        lastWrittenBytes += INT_SIZE_IN_BYTES + LONG_SIZE_IN_BYTES;
+    }
+
+    private void ensureBufHasRoom(FileChannel channel, int expectedSize) throws IOException {
+        if (buf.remaining() < expectedSize) {
+            flushBuffer(channel);
         }
+    }
+
+    private void flushBuffer(FileChannel channel) throws IOException {
         buf.flip();
-        while (buf.hasRemaining()) {
-            outChannel.write(buf);
-        }
+        writeFully(channel, buf);
         buf.clear();
     }
 
+    private static void writeFully(FileChannel channel, ByteBuffer src) throws IOException {
+        while (src.hasRemaining()) {
+            channel.write(src);
+        }
+    }
+
+    private static long keyHash(Data key) {
+        long keyHash = key.hash64();
+        return keyHash == NO_KEY_HASH ? keyHash + 1 : keyHash;
+    }
+
     private static String getFilename(String directory, String nearCacheName) {
         String filename = toFileName("nearCache-" + nearCacheName + ".store");
         if (isNullOrEmpty(directory)) {
@@ -301,4 +525,44 @@ public class NearCachePreloader<K> {
     private static long getElapsedMillis(long startedNanos) {
         return NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
     }
+
+    /**
+     * A set of key hashes, which grows on demand.
+     */
+    private static final class KeyHashSet {
+
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private LongHashSet hashes = new LongHashSet(INITIAL_CAPACITY, NO_KEY_HASH);
+        private int capacity = INITIAL_CAPACITY;
+
+        boolean add(long keyHash) {
+            if (hashes.size() == capacity) {
+                LongHashSet grown = new LongHashSet(capacity * 2, NO_KEY_HASH);
+                LongIterator iterator = hashes.iterator();
+                while (iterator.hasNext()) {
+                    grown.add(iterator.nextValue());
+                }
+                hashes = grown;
+                capacity *= 2;
+            }
+            return hashes.add(keyHash);
+        }
+
+        boolean remove(long keyHash) {
+            return hashes.remove(keyHash);
+        }
+
+        boolean contains(long keyHash) {
+            return hashes.contains(keyHash);
+        }
+
+        int size() {
+            return hashes.size();
+        }
+
+        LongIterator iterator() {
+            return hashes.iterator();
+        }
+    }
 }
@@ -24,14 +24,21 @@ import com.hazelcast.core.IBiFunction;
 import com.hazelcast.internal.adapter.DataStructureAdapter;
 import com.hazelcast.internal.eviction.EvictionChecker;
 import com.hazelcast.internal.nearcache.NearCacheRecord;
+import com.hazelcast.internal.nearcache.impl.invalidation.MetaDataContainer;
+import com.hazelcast.internal.nearcache.impl.invalidation.StaleReadDetector;
 import com.hazelcast.internal.nearcache.impl.maxsize.EntryCountNearCacheEvictionChecker;
 import com.hazelcast.internal.nearcache.impl.preloader.NearCachePreloader;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.spi.serialization.SerializationService;
 
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
+import static com.hazelcast.internal.nearcache.NearCacheRecord.NOT_RESERVED;
+import static com.hazelcast.internal.nearcache.impl.invalidation.StaleReadDetector.ALWAYS_FRESH;
+import static com.hazelcast.util.ExceptionUtil.rethrow;
 import static java.lang.String.format;
+import static java.util.concurrent.atomic.AtomicLongFieldUpdater.newUpdater;
 
 /**
  * Base implementation of {@link AbstractNearCacheRecordStore} for on-heap Near Caches.
@@ -45,9 +52,21 @@ public abstract class BaseHeapNearCacheRecordStore<K, V, R extends NearCacheReco
 
     private static final int DEFAULT_INITIAL_CAPACITY = 1000;
 
+    /**
+     * Marks the reservation IDs which are load tokens, the reservation IDs
+     * of {@link AbstractNearCacheRecordStore} are positive.
+     */
+    private static final long LOAD_TOKEN_FLAG = Long.MIN_VALUE;
+
+    private static final AtomicLongFieldUpdater<BaseHeapNearCacheRecordStore> CLEAR_EPOCH
+            = newUpdater(BaseHeapNearCacheRecordStore.class, "clearEpoch");
+
     private final NearCachePreloader<K> nearCachePreloader;
     private final IBiFunction<? super K, ? super R, ? extends R> invalidatorFunction = createInvalidatorFunction();
 
+    private volatile boolean reservationFreeReads;
+    private volatile long clearEpoch;
+
     BaseHeapNearCacheRecordStore(String name, NearCacheConfig nearCacheConfig, SerializationService serializationService,
                                  ClassLoader classLoader) {
         super(nearCacheConfig, serializationService, classLoader);
@@ -57,6 +76,14 @@ public abstract class BaseHeapNearCacheRecordStore<K, V, R extends NearCacheReco
                 serializationService) : null;
     }
 
+    /**
+     * Enables the reservation-free population of missed keys, see
+     * {@link #tryReserveForUpdate(Object, Data)}.
+     */
+    public void setReservationFreeReads(boolean reservationFreeReads) {
+        this.reservationFreeReads = reservationFreeReads;
+    }
+
     @Override
     protected EvictionChecker createNearCacheEvictionChecker(EvictionConfig evictionConfig, NearCacheConfig nearCacheConfig) {
         MaxSizePolicy maxSizePolicy = evictionConfig.getMaximumSizePolicy();
@@ -124,6 +151,13 @@ public abstract class BaseHeapNearCacheRecordStore<K, V, R extends NearCacheReco
         }
     }
 
+    @Override
+    public void clear() {
+        // must happen before the records are removed, see tryPublishReserved()
+        CLEAR_EPOCH.incrementAndGet(this);
+        super.clear();
+    }
+
     @Override
     public void destroy() {
         super.destroy();
@@ -155,13 +189,107 @@ public abstract class BaseHeapNearCacheRecordStore<K, V, R extends NearCacheReco
         return cachedValue instanceof Data ? toValue(cachedValue) : (V) cachedValue;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If reservation-free reads are enabled and the Near Cache receives
+     * invalidations, no record is reserved for the key. The returned ID is a
+     * load token instead, which holds the invalidation epoch of the partition
+     * of the key (see {@link MetaDataContainer#getInvalidationEpoch()}) before
+     * the value is loaded. {@link #tryPublishReserved} only publishes the
+     * loaded value if the epoch is still the same, so if no key of the
+     * partition has been invalidated and no invalidation of the partition has
+     * been missed meanwhile. That's the staleness guarantee of a reservation
+     * at partition instead of key granularity, without creating a record and
+     * CAS-ing its state on every miss. Concurrent misses of the same key load
+     * the value independently.
+     */
+    @Override
+    public long tryReserveForUpdate(K key, Data keyData) {
+        StaleReadDetector staleReadDetector = this.staleReadDetector;
+        if (!reservationFreeReads || staleReadDetector == ALWAYS_FRESH) {
+            return super.tryReserveForUpdate(key, keyData);
+        }
+
+        checkAvailable();
+        // if there is no eviction configured we return if the Near Cache is full and it's a new key
+        // (we have to check the key, otherwise we might lose updates on existing keys)
+        if (evictionDisabled && evictionChecker.isEvictionRequired() && !containsRecordKey(key)) {
+            return NOT_RESERVED;
+        }
+        return loadToken(metaDataContainerOf(staleReadDetector, keyData == null ? toKeyData(key) : keyData));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V tryPublishReserved(K key, V value, long reservationId, boolean deserialize) {
+        if ((reservationId & LOAD_TOKEN_FLAG) == 0) {
+            return super.tryPublishReserved(key, value, reservationId, deserialize);
+        }
+
+        checkAvailable();
+        Data keyData = toKeyData(key);
+        MetaDataContainer metaData = metaDataContainerOf(staleReadDetector, keyData);
+        if (loadToken(metaData) != reservationId) {
+            return null;
+        }
+
+        R record = null;
+        R oldRecord = null;
+        try {
+            record = createRecord(value);
+            onRecordCreate(key, keyData, record);
+            oldRecord = putRecord(key, record);
+            if (oldRecord == null) {
+                nearCacheStats.incrementOwnedEntryCount();
+            }
+        } catch (Throwable error) {
+            onPutError(key, value, record, oldRecord, error);
+            throw rethrow(error);
+        }
+
+        // an invalidation which removed the key before the record was put has
+        // incremented the epoch before, so it's visible now
+        if (loadToken(metaData) != reservationId) {
+            if (records.remove(key, record)) {
+                nearCacheStats.decrementOwnedEntryCount();
+                nearCacheStats.decrementOwnedEntryMemoryCost(getTotalStorageMemoryCost(key, record));
+            }
+            return null;
+        }
+
+        if (!deserialize) {
+            return null;
+        }
+        Object cachedValue = record.getValue();
+        return cachedValue instanceof Data ? toValue(cachedValue) : (V) cachedValue;
+    }
+
     @Override
     public void invalidate(K key) {
+        StaleReadDetector staleReadDetector = this.staleReadDetector;
+        if (reservationFreeReads && staleReadDetector != ALWAYS_FRESH) {
+            // must happen before the record is removed, see tryPublishReserved()
+            metaDataContainerOf(staleReadDetector, toKeyData(key)).incrementInvalidationEpoch();
+        }
         records.applyIfPresent(key, invalidatorFunction);
 
         nearCacheStats.incrementInvalidationRequests();
     }
 
+    private long loadToken(MetaDataContainer metaData) {
+        // both epochs only increase, so their sum changes if any of them changes
+        return LOAD_TOKEN_FLAG | (metaData.getInvalidationEpoch() + clearEpoch);
+    }
+
+    private Data toKeyData(K key) {
+        return key instanceof Data ? (Data) key : toData(key);
+    }
+
+    private static MetaDataContainer metaDataContainerOf(StaleReadDetector staleReadDetector, Data keyData) {
+        return staleReadDetector.getMetaDataContainer(staleReadDetector.getPartitionId(keyData));
+    }
+
     private IBiFunction<K, R, R> createInvalidatorFunction() {
         return new IBiFunction<K, R, R>() {
             @Override
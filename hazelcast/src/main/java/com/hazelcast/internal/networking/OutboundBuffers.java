@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.networking;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Implemented by the last {@link OutboundHandler} of an {@link OutboundPipeline}
+ * which produces its output not in a single dst buffer, but in a sequence of
+ * buffers. The pipeline writes them to the socket using a single gathering
+ * write, see {@link java.nio.channels.GatheringByteChannel#write(ByteBuffer[], int, int)}.
+ *
+ * The buffers are in the reading mode and are written in the order they are
+ * returned. The pipeline considers the output flushed once none of the buffers
+ * has any remaining bytes.
+ */
+public interface OutboundBuffers {
+
+    /**
+     * Returns the buffers to write to the socket. Only the first
+     * {@link #bufferCount()} buffers are to be written.
+     *
+     * @return the buffers.
+     */
+    ByteBuffer[] buffers();
+
+    /**
+     * Returns the number of the buffers to write to the socket.
+     *
+     * @return the number of buffers.
+     */
+    int bufferCount();
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking.nio;
+
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.util.counters.Counter;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+import static com.hazelcast.nio.IOUtil.newByteBuffer;
+import static com.hazelcast.util.Preconditions.checkNotNegative;
+import static com.hazelcast.util.QuickMath.log2;
+import static com.hazelcast.util.QuickMath.nextPowerOfTwo;
+
+/**
+ * A pool of receive and send {@link ByteBuffer}s shared by the pipelines of
+ * the {@link NioNetworking}.
+ * <p>
+ * Without the pool, every pipeline holds on to its buffer for the lifetime of
+ * the channel, even if the channel is idle most of the time; the pipelines
+ * borrow a buffer from the pool only while they have data in flight and
+ * return it as soon as it's drained, so the number of buffers is bound by the
+ * number of busy channels instead of the number of channels.
+ * <p>
+ * The buffers are kept in size classes: a requested capacity is rounded up to
+ * the next power of two. Buffers smaller than {@link #MIN_CAPACITY} aren't
+ * pooled at all. The total capacity of the idle buffers kept by the pool is
+ * limited, the buffers released over the limit are left to the GC.
+ * <p>
+ * The pool is thread-safe: a buffer can be acquired by one IO thread and
+ * released by another one, e.g. when a pipeline is migrated.
+ */
+public final class ByteBufferPool {
+
+    /**
+     * The minimum capacity of a pooled buffer.
+     */
+    public static final int MIN_CAPACITY = 4096;
+
+    private static final int MIN_CAPACITY_SHIFT = log2(MIN_CAPACITY);
+    private static final int SIZE_CLASS_COUNT = Integer.SIZE - 1 - MIN_CAPACITY_SHIFT;
+
+    private final Queue<ByteBuffer>[] directBuffers = newSizeClasses();
+    private final Queue<ByteBuffer>[] heapBuffers = newSizeClasses();
+    private final long maxPooledBytes;
+
+    @Probe
+    private final AtomicLong pooledBytes = new AtomicLong();
+    @Probe
+    private final AtomicLong pooledCount = new AtomicLong();
+    @Probe
+    private final Counter acquireCount = newMwCounter();
+    @Probe
+    private final Counter allocationCount = newMwCounter();
+    @Probe
+    private final Counter releaseCount = newMwCounter();
+    @Probe
+    private final Counter discardCount = newMwCounter();
+
+    /**
+     * Creates a pool.
+     *
+     * @param maxPooledBytes the maximum total capacity of the idle buffers
+     *                       kept by the pool.
+     * @throws IllegalArgumentException if maxPooledBytes is negative.
+     */
+    public ByteBufferPool(long maxPooledBytes) {
+        this.maxPooledBytes = checkNotNegative(maxPooledBytes, "maxPooledBytes can't be negative");
+    }
+
+    /**
+     * Checks if buffers with the given capacity are pooled.
+     *
+     * @param capacity the capacity of the buffer.
+     * @return {@code true} if the capacity is pooled, {@code false} otherwise.
+     */
+    public boolean isPooled(int capacity) {
+        return capacity >= MIN_CAPACITY && capacity <= 1 << (Integer.SIZE - 2);
+    }
+
+    /**
+     * Acquires a cleared buffer from the pool or allocates a new one if the
+     * pool has no buffer of the size class.
+     *
+     * @param capacity the minimum capacity of the buffer, see {@link #isPooled(int)}.
+     * @param direct   {@code true} for a direct buffer, {@code false} for a heap
+     *                 buffer.
+     * @return the buffer in writing mode.
+     * @throws IllegalArgumentException if the capacity isn't pooled.
+     */
+    public ByteBuffer acquire(int capacity, boolean direct) {
+        if (!isPooled(capacity)) {
+            throw new IllegalArgumentException("Capacity " + capacity + " isn't pooled");
+        }
+        acquireCount.inc();
+
+        int sizeClass = sizeClass(capacity);
+        ByteBuffer buffer = (direct ? directBuffers : heapBuffers)[sizeClass].poll();
+        if (buffer == null) {
+            allocationCount.inc();
+            return newByteBuffer(1 << (sizeClass + MIN_CAPACITY_SHIFT), direct);
+        }
+
+        pooledCount.decrementAndGet();
+        pooledBytes.addAndGet(-buffer.capacity());
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Releases a buffer to the pool. The buffer must not be used by the
+     * caller anymore.
+     * <p>
+     * A buffer not acquired from the pool is accepted too as long as its
+     * capacity matches a size class exactly.
+     *
+     * @param buffer the buffer to release.
+     */
+    public void release(ByteBuffer buffer) {
+        releaseCount.inc();
+
+        int capacity = buffer.capacity();
+        if (!isPooled(capacity) || capacity != nextPowerOfTwo(capacity)) {
+            discardCount.inc();
+            return;
+        }
+
+        if (pooledBytes.addAndGet(capacity) > maxPooledBytes) {
+            pooledBytes.addAndGet(-capacity);
+            discardCount.inc();
+            return;
+        }
+
+        pooledCount.incrementAndGet();
+        (buffer.isDirect() ? directBuffers : heapBuffers)[sizeClass(capacity)].offer(buffer);
+    }
+
+    private static int sizeClass(int capacity) {
+        return log2(nextPowerOfTwo(capacity)) - MIN_CAPACITY_SHIFT;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Queue<ByteBuffer>[] newSizeClasses() {
+        Queue<ByteBuffer>[] sizeClasses = new Queue[SIZE_CLASS_COUNT];
+        for (int i = 0; i < sizeClasses.length; i++) {
+            sizeClasses[i] = new ConcurrentLinkedQueue<ByteBuffer>();
+        }
+        return sizeClasses;
+    }
+}
@@ -50,6 +50,11 @@ public final class NioInboundPipeline extends NioPipeline implements InboundPipe
 
     private InboundHandler[] handlers = new InboundHandler[0];
     private ByteBuffer receiveBuffer;
+    // the pool the receive buffer is borrowed from while data is in flight;
+    // null if the receive buffer is owned by the first handler
+    private final ByteBufferPool bufferPool;
+    private int pooledReceiveBufferCapacity;
+    private boolean pooledReceiveBufferDirect;
 
     @Probe(name = "bytesRead")
     private final SwCounter bytesRead = newSwCounter();
@@ -69,7 +74,17 @@ public final class NioInboundPipeline extends NioPipeline implements InboundPipe
                        ChannelErrorHandler errorHandler,
                        ILogger logger,
                        IOBalancer balancer) {
+        this(channel, owner, errorHandler, logger, balancer, null);
+    }
+
+    NioInboundPipeline(NioChannel channel,
+                       NioThread owner,
+                       ChannelErrorHandler errorHandler,
+                       ILogger logger,
+                       IOBalancer balancer,
+                       ByteBufferPool bufferPool) {
         super(channel, owner, errorHandler, OP_READ, logger, balancer);
+        this.bufferPool = bufferPool;
     }
 
     public long normalFramesRead() {
@@ -110,6 +125,10 @@ public final class NioInboundPipeline extends NioPipeline implements InboundPipe
         // the connection is going to be closed anyway.
         lastReadTime = currentTimeMillis();
 
+        if (receiveBuffer == null && pooledReceiveBufferCapacity > 0) {
+            borrowReceiveBuffer();
+        }
+
         int readBytes = socketChannel.read(receiveBuffer);
 
         if (readBytes == -1) {
@@ -160,6 +179,23 @@ public final class NioInboundPipeline extends NioPipeline implements InboundPipe
         if (unregisterRead) {
             unregisterOp(OP_READ);
         }
+
+        if (pooledReceiveBufferCapacity > 0 && receiveBuffer.position() == 0) {
+            // all received data got processed, the buffer isn't needed till
+            // the next read
+            releaseReceiveBuffer();
+        }
+    }
+
+    private void borrowReceiveBuffer() {
+        receiveBuffer = bufferPool.acquire(pooledReceiveBufferCapacity, pooledReceiveBufferDirect);
+        handlers[0].src(receiveBuffer);
+    }
+
+    private void releaseReceiveBuffer() {
+        bufferPool.release(receiveBuffer);
+        receiveBuffer = null;
+        handlers[0].src(null);
     }
 
     @Override
@@ -237,6 +273,14 @@ public final class NioInboundPipeline extends NioPipeline implements InboundPipe
     private void updatePipeline(InboundHandler[] handlers) {
         this.handlers = handlers;
         receiveBuffer = handlers.length == 0 ? null : (ByteBuffer) handlers[0].src();
+        if (bufferPool != null && receiveBuffer != null && bufferPool.isPooled(receiveBuffer.capacity())) {
+            // the buffer allocated by the handler is used till it's drained,
+            // then it's replaced by the pooled ones
+            pooledReceiveBufferCapacity = receiveBuffer.capacity();
+            pooledReceiveBufferDirect = receiveBuffer.isDirect();
+        } else {
+            pooledReceiveBufferCapacity = 0;
+        }
 
         InboundHandler prev = null;
         for (InboundHandler handler : handlers) {
@@ -75,6 +75,10 @@ import static java.util.logging.Level.INFO;
  * 'selectNow' mode that makes it spinning on the selector. This is an experimental
  * feature and will cause the io threads to run hot. For this reason, when this feature
  * is enabled, the number of io threads should be reduced (preferably 1).
+ * <p>
+ * Optionally the frames can be written through: a thread writing a frame to
+ * an idle channel writes it to the socket directly instead of handing it over
+ * to the output {@link NioThread}, see {@link NioOutboundPipeline}.
  */
 public final class NioNetworking implements Networking {
 
@@ -94,6 +98,8 @@ public final class NioNetworking implements Networking {
     private final SelectorMode selectorMode;
     private final BackoffIdleStrategy idleStrategy;
     private final boolean selectorWorkaroundTest;
+    private final boolean writeThroughEnabled;
+    private final ByteBufferPool bufferPool;
     private final ExecutorService closeListenerExecutor;
     private volatile IOBalancer ioBalancer;
     private volatile NioThread[] inputThreads;
@@ -112,6 +118,8 @@ public final class NioNetworking implements Networking {
         this.selectorMode = ctx.selectorMode;
         this.selectorWorkaroundTest = ctx.selectorWorkaroundTest;
         this.idleStrategy = ctx.idleStrategy;
+        this.writeThroughEnabled = ctx.writeThroughEnabled;
+        this.bufferPool = ctx.bufferPool;
         this.closeListenerExecutor = newSingleThreadExecutor(new ThreadFactory() {
             @Override
             public Thread newThread(Runnable r) {
@@ -183,6 +191,10 @@ public final class NioNetworking implements Networking {
 
         startIOBalancer();
 
+        if (bufferPool != null) {
+            metricsRegistry.scanAndRegister(bufferPool, "tcp.bufferPool");
+        }
+
         if (metricsRegistry.minimumLevel().isEnabled(DEBUG)) {
             metricsRegistry.scheduleAtFixedRate(new PublishAllTask(), 1, SECONDS, ProbeLevel.INFO);
         }
@@ -250,7 +262,9 @@ public final class NioNetworking implements Networking {
                 threads[index],
                 errorHandler,
                 loggingService.getLogger(NioOutboundPipeline.class),
-                ioBalancer);
+                ioBalancer,
+                writeThroughEnabled,
+                bufferPool);
     }
 
     private NioInboundPipeline newInboundPipeline(NioChannel channel) {
@@ -265,7 +279,8 @@ public final class NioNetworking implements Networking {
                 threads[index],
                 errorHandler,
                 loggingService.getLogger(NioInboundPipeline.class),
-                ioBalancer);
+                ioBalancer,
+                bufferPool);
     }
 
     private class ChannelCloseListenerImpl implements ChannelCloseListener {
@@ -331,6 +346,8 @@ public final class NioNetworking implements Networking {
         private SelectorMode selectorMode = SelectorMode.getConfiguredValue();
         private boolean selectorWorkaroundTest = Boolean.getBoolean("hazelcast.io.selector.workaround.test");
         private ChannelInitializer channelInitializer;
+        private boolean writeThroughEnabled;
+        private ByteBufferPool bufferPool;
 
         public Context() {
             String selectorModeString = SelectorMode.getConfiguredString();
@@ -388,5 +405,15 @@ public final class NioNetworking implements Networking {
             this.channelInitializer = channelInitializer;
             return this;
         }
+
+        public Context writeThroughEnabled(boolean writeThroughEnabled) {
+            this.writeThroughEnabled = writeThroughEnabled;
+            return this;
+        }
+
+        public Context bufferPool(ByteBufferPool bufferPool) {
+            this.bufferPool = bufferPool;
+            return this;
+        }
     }
 }
@@ -19,6 +19,7 @@ package com.hazelcast.internal.networking.nio;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.networking.ChannelErrorHandler;
 import com.hazelcast.internal.networking.ChannelHandler;
+import com.hazelcast.internal.networking.OutboundBuffers;
 import com.hazelcast.internal.networking.OutboundHandler;
 import com.hazelcast.internal.networking.OutboundPipeline;
 import com.hazelcast.internal.networking.HandlerStatus;
@@ -34,6 +35,8 @@ import java.util.Arrays;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static com.hazelcast.internal.metrics.ProbeLevel.DEBUG;
 import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
@@ -60,14 +63,32 @@ public final class NioOutboundPipeline
 
     private OutboundHandler[] handlers = new OutboundHandler[0];
     private ByteBuffer sendBuffer;
+    // set if the last handler produces its output for a gathering write
+    private OutboundBuffers sendBuffers;
+    // the pool the send buffer is borrowed from while data is in flight;
+    // null if the send buffer is owned by the last handler
+    private final ByteBufferPool bufferPool;
+    private int pooledSendBufferCapacity;
+    private boolean pooledSendBufferDirect;
 
     private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    // guards the processing of the pipeline when the frames can be written
+    // through by the threads producing them, see writeThrough()
+    private final Lock processLock = new ReentrantLock();
+    private final boolean writeThroughEnabled;
+    // set by the owner when it's about to process the pipeline, so a write
+    // through thread holding the processLock knows it has to hand over
+    private volatile boolean processMissed;
     @Probe(name = "bytesWritten")
     private final SwCounter bytesWritten = newSwCounter();
     @Probe(name = "normalFramesWritten")
     private final SwCounter normalFramesWritten = newSwCounter();
     @Probe(name = "priorityFramesWritten")
     private final SwCounter priorityFramesWritten = newSwCounter();
+    @Probe(name = "writeThroughCount")
+    private final SwCounter writeThroughCount = newSwCounter();
+    @Probe(name = "writeSyscallCount")
+    private final SwCounter writeSyscallCount = newSwCounter();
 
     private volatile long lastWriteTime;
 
@@ -81,7 +102,19 @@ public final class NioOutboundPipeline
                         ChannelErrorHandler errorHandler,
                         ILogger logger,
                         IOBalancer balancer) {
+        this(channel, owner, errorHandler, logger, balancer, false, null);
+    }
+
+    NioOutboundPipeline(NioChannel channel,
+                        NioThread owner,
+                        ChannelErrorHandler errorHandler,
+                        ILogger logger,
+                        IOBalancer balancer,
+                        boolean writeThroughEnabled,
+                        ByteBufferPool bufferPool) {
         super(channel, owner, errorHandler, OP_WRITE, logger, balancer);
+        this.writeThroughEnabled = writeThroughEnabled;
+        this.bufferPool = bufferPool;
     }
 
     @Override
@@ -129,6 +162,13 @@ public final class NioOutboundPipeline
         return max(currentTimeMillis() - lastWriteTime, 0);
     }
 
+    @Probe(level = DEBUG)
+    private double framesPerWriteSyscall() {
+        long syscalls = writeSyscallCount.get();
+        long frames = normalFramesWritten.get() + priorityFramesWritten.get();
+        return syscalls == 0 ? 0 : (double) frames / syscalls;
+    }
+
     @Probe(level = DEBUG)
     private long isScheduled() {
         return scheduled.get() ? 1 : 0;
@@ -179,36 +219,83 @@ public final class NioOutboundPipeline
             return;
         }
 
-        addTaskAndWakeup(this);
+        if (writeThroughEnabled && !(currentThread() instanceof NioThread)) {
+            writeThrough();
+        } else {
+            addTaskAndWakeup(this);
+        }
     }
 
-    @Override
-    @SuppressWarnings("unchecked")
-    public void process() throws Exception {
-        processCount.inc();
+    /**
+     * Writes the pending frames to the socket directly from the calling thread,
+     * instead of handing the pipeline over to the IO thread. This saves the
+     * handover and the selector wakeup, which dominate the latency of small
+     * frames like the responses of simple operations.
+     * <p/>
+     * The calling thread has scheduled this pipeline, so it's the only writer;
+     * the processLock protects it against the owner processing the pipeline
+     * for other reasons, e.g. a {@link #wakeup()}. If the frames can't be
+     * written completely, e.g. the socket buffer is full, or the pipeline is
+     * being migrated, the pipeline is handed over to the owner as usual. The
+     * selection key is never touched by the calling thread.
+     */
+    private void writeThrough() {
+        if (!processLock.tryLock()) {
+            addTaskAndWakeup(this);
+            return;
+        }
 
-        OutboundHandler[] localHandlers = handlers;
-        HandlerStatus pipelineStatus = CLEAN;
-        for (int handlerIndex = 0; handlerIndex < localHandlers.length; handlerIndex++) {
-            OutboundHandler handler = localHandlers[handlerIndex];
+        boolean handOver = true;
+        try {
+            if (owner != null && (sendBuffer != null || pooledSendBufferCapacity > 0)) {
+                writeThroughCount.inc();
+                handOver = processHandlers() != CLEAN;
+            }
+        } catch (Throwable t) {
+            // the owner is going to run into the same problem and deal with it
+            logger.finest("Failed to write through " + channel + ", handing over to the owner", t);
+        } finally {
+            processLock.unlock();
+        }
 
-            HandlerStatus handlerStatus = handler.onWrite();
+        if (handOver) {
+            addTaskAndWakeup(this);
+            return;
+        }
 
-            if (localHandlers != handlers) {
-                // change in the pipeline detected, therefor the pipeline is restarted.
-                localHandlers = handlers;
-                pipelineStatus = CLEAN;
-                handlerIndex = -1;
-            } else if (handlerStatus != CLEAN) {
-                pipelineStatus = handlerStatus;
+        scheduled.set(false);
+        if (processMissed || !writeQueue.isEmpty() || !priorityWriteQueue.isEmpty()) {
+            // the owner tried to process the pipeline or frames were added
+            // after the writing, we must not leave them behind
+            if (scheduled.compareAndSet(false, true)) {
+                addTaskAndWakeup(this);
             }
         }
+    }
 
-        flushToSocket();
+    @Override
+    public void process() throws Exception {
+        if (!writeThroughEnabled) {
+            process0();
+            return;
+        }
 
-        if (sendBuffer.remaining() > 0) {
-            pipelineStatus = DIRTY;
+        processMissed = true;
+        if (!processLock.tryLock()) {
+            // a write through is in progress, it's going to hand the pipeline
+            // over once it's done since it sees processMissed
+            return;
         }
+        try {
+            processMissed = false;
+            process0();
+        } finally {
+            processLock.unlock();
+        }
+    }
+
+    private void process0() throws Exception {
+        HandlerStatus pipelineStatus = processHandlers();
 
         switch (pipelineStatus) {
             case CLEAN:
@@ -229,6 +316,59 @@ public final class NioOutboundPipeline
         }
     }
 
+    /**
+     * Runs the handlers and flushes the send buffer to the socket.
+     *
+     * @return the resulting status of the pipeline.
+     */
+    @SuppressWarnings("unchecked")
+    private HandlerStatus processHandlers() throws Exception {
+        processCount.inc();
+
+        if (sendBuffer == null && pooledSendBufferCapacity > 0) {
+            borrowSendBuffer();
+        }
+
+        OutboundHandler[] localHandlers = handlers;
+        HandlerStatus pipelineStatus = CLEAN;
+        for (int handlerIndex = 0; handlerIndex < localHandlers.length; handlerIndex++) {
+            OutboundHandler handler = localHandlers[handlerIndex];
+
+            HandlerStatus handlerStatus = handler.onWrite();
+
+            if (localHandlers != handlers) {
+                // change in the pipeline detected, therefor the pipeline is restarted.
+                localHandlers = handlers;
+                pipelineStatus = CLEAN;
+                handlerIndex = -1;
+            } else if (handlerStatus != CLEAN) {
+                pipelineStatus = handlerStatus;
+            }
+        }
+
+        if (flushToSocket()) {
+            pipelineStatus = DIRTY;
+        } else if (pipelineStatus == CLEAN && pooledSendBufferCapacity > 0) {
+            // everything got written, the buffer isn't needed till the next
+            // frames show up
+            releaseSendBuffer();
+        }
+        return pipelineStatus;
+    }
+
+    private void borrowSendBuffer() {
+        sendBuffer = bufferPool.acquire(pooledSendBufferCapacity, pooledSendBufferDirect);
+        // the send buffer is in reading mode
+        sendBuffer.flip();
+        handlers[handlers.length - 1].dst(sendBuffer);
+    }
+
+    private void releaseSendBuffer() {
+        bufferPool.release(sendBuffer);
+        sendBuffer = null;
+        handlers[handlers.length - 1].dst(null);
+    }
+
     /**
      * Tries to unschedule this pipeline.
      * <p/>
@@ -268,11 +408,34 @@ public final class NioOutboundPipeline
         owner().addTask(this);
     }
 
-    private void flushToSocket() throws IOException {
+    /**
+     * Writes the output of the last handler to the socket.
+     *
+     * @return {@code true} if not all the output got written, {@code false}
+     * otherwise.
+     */
+    private boolean flushToSocket() throws IOException {
         lastWriteTime = currentTimeMillis();
-        int written = socketChannel.write(sendBuffer);
-        bytesWritten.inc(written);
-        //System.out.println(channel+" bytes written:"+written);
+        if (sendBuffers == null) {
+            if (sendBuffer.hasRemaining()) {
+                writeSyscallCount.inc();
+                bytesWritten.inc(socketChannel.write(sendBuffer));
+            }
+            return sendBuffer.hasRemaining();
+        }
+
+        ByteBuffer[] buffers = sendBuffers.buffers();
+        int count = sendBuffers.bufferCount();
+        int offset = 0;
+        while (offset < count && !buffers[offset].hasRemaining()) {
+            offset++;
+        }
+        if (offset == count) {
+            return false;
+        }
+        writeSyscallCount.inc();
+        bytesWritten.inc(socketChannel.write(buffers, offset, count - offset));
+        return buffers[count - 1].hasRemaining();
     }
 
     void drainWriteQueues() {
@@ -342,7 +505,17 @@ public final class NioOutboundPipeline
 
     private void updatePipeline(OutboundHandler[] newHandlers) {
         this.handlers = newHandlers;
-        this.sendBuffer = newHandlers.length == 0 ? null : (ByteBuffer) newHandlers[newHandlers.length - 1].dst();
+        OutboundHandler last = newHandlers.length == 0 ? null : newHandlers[newHandlers.length - 1];
+        this.sendBuffer = last == null ? null : (ByteBuffer) last.dst();
+        this.sendBuffers = last instanceof OutboundBuffers ? (OutboundBuffers) last : null;
+        if (bufferPool != null && sendBuffer != null && bufferPool.isPooled(sendBuffer.capacity())) {
+            // the buffer allocated by the handler is used till it's drained,
+            // then it's replaced by the pooled ones
+            pooledSendBufferCapacity = sendBuffer.capacity();
+            pooledSendBufferDirect = sendBuffer.isDirect();
+        } else {
+            pooledSendBufferCapacity = 0;
+        }
 
         OutboundHandler prev = null;
         for (OutboundHandler handler : handlers) {
@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl;
+
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.util.HashUtil;
+
+import java.nio.ByteOrder;
+
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+import static com.hazelcast.internal.serialization.impl.HeapData.DATA_OFFSET;
+import static com.hazelcast.internal.serialization.impl.HeapData.HEAP_DATA_OVERHEAD;
+import static com.hazelcast.internal.serialization.impl.HeapData.PARTITION_HASH_OFFSET;
+import static com.hazelcast.internal.serialization.impl.HeapData.TYPE_OFFSET;
+import static com.hazelcast.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.util.JVMUtil.REFERENCE_COST_IN_BYTES;
+
+/**
+ * A {@link Data} implementation where the content lives in a native memory block.
+ * <p>
+ * The block starts with an 8-byte header holding the size of the payload, followed by
+ * the payload itself which is byte-for-byte the same as the payload of a {@link HeapData}.
+ * Hence {@link #hashCode()}, {@link #hash64()} and {@link #equals(Object)} are compatible
+ * with {@link HeapData} and both implementations can be used interchangeably as map keys.
+ * <p>
+ * Memory is always accessed through the platform-aware global {@link MemoryAccessor}, so
+ * the block must be allocated from a {@link MemoryAllocator} which hands out real native
+ * addresses.
+ */
+public final class NativeMemoryData implements Data {
+
+    /**
+     * Offset of the payload size in the native block.
+     */
+    public static final int SIZE_OFFSET = 0;
+
+    /**
+     * Offset of the payload in the native block.
+     */
+    public static final int PAYLOAD_OFFSET = 8;
+
+    private static final boolean BIG_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN;
+
+    private final long address;
+
+    public NativeMemoryData(long address) {
+        assert address != MemoryAllocator.NULL_ADDRESS : "NULL_ADDRESS cannot back a NativeMemoryData";
+        this.address = address;
+    }
+
+    /**
+     * Allocates a native block from the given allocator and copies the content of the given {@link Data} into it.
+     *
+     * @param data   the data to copy
+     * @param malloc the allocator to allocate the native block from
+     * @return a new {@link NativeMemoryData} backed by the allocated block
+     */
+    public static NativeMemoryData copyOf(Data data, MemoryAllocator malloc) {
+        byte[] payload = data.toByteArray();
+        int size = payload == null ? 0 : payload.length;
+        long address = malloc.allocate(blockSize(size));
+        MEM.putInt(address + SIZE_OFFSET, size);
+        if (size > 0) {
+            MEM.copyFromByteArray(payload, 0, address + PAYLOAD_OFFSET, size);
+        }
+        return new NativeMemoryData(address);
+    }
+
+    /**
+     * Returns the size of a native block which can hold a payload of the given size.
+     */
+    public static long blockSize(int payloadSize) {
+        return PAYLOAD_OFFSET + payloadSize;
+    }
+
+    /**
+     * Returns the size of the native block at the given address.
+     */
+    public static long blockSizeAt(long address) {
+        return blockSize(MEM.getInt(address + SIZE_OFFSET));
+    }
+
+    /**
+     * Copies the content of the native block at the given address to a new {@link HeapData}.
+     *
+     * @param address the address of a block previously populated by {@link #copyOf(Data, MemoryAllocator)}
+     * @return the on-heap copy or {@code null} if the address is {@link MemoryAllocator#NULL_ADDRESS}
+     */
+    public static HeapData toHeapData(long address) {
+        if (address == MemoryAllocator.NULL_ADDRESS) {
+            return null;
+        }
+        return new HeapData(new NativeMemoryData(address).toByteArray());
+    }
+
+    /**
+     * @return the base address of the native block backing this data
+     */
+    public long address() {
+        return address;
+    }
+
+    /**
+     * @return the size of the native block backing this data
+     */
+    public long size() {
+        return blockSize(totalSize());
+    }
+
+    @Override
+    public byte[] toByteArray() {
+        int size = totalSize();
+        byte[] bytes = new byte[size];
+        if (size > 0) {
+            MEM.copyToByteArray(address + PAYLOAD_OFFSET, bytes, 0, size);
+        }
+        return bytes;
+    }
+
+    @Override
+    public int getType() {
+        if (totalSize() == 0) {
+            return SerializationConstants.CONSTANT_TYPE_NULL;
+        }
+        return readIntB(TYPE_OFFSET);
+    }
+
+    @Override
+    public int totalSize() {
+        return MEM.getInt(address + SIZE_OFFSET);
+    }
+
+    @Override
+    public void copyTo(byte[] dest, int destPos) {
+        int size = totalSize();
+        if (size > 0) {
+            MEM.copyToByteArray(address + PAYLOAD_OFFSET, dest, destPos, size);
+        }
+    }
+
+    @Override
+    public int dataSize() {
+        return Math.max(totalSize() - HEAP_DATA_OVERHEAD, 0);
+    }
+
+    /**
+     * Returns the cost of the on-heap wrapper only, the native block is not part of the heap.
+     */
+    @Override
+    public int getHeapCost() {
+        return REFERENCE_COST_IN_BYTES + LONG_SIZE_IN_BYTES;
+    }
+
+    @Override
+    public int getPartitionHash() {
+        if (hasPartitionHash()) {
+            return readIntB(PARTITION_HASH_OFFSET);
+        }
+        return hashCode();
+    }
+
+    @Override
+    public boolean hasPartitionHash() {
+        return totalSize() >= HEAP_DATA_OVERHEAD && readIntB(PARTITION_HASH_OFFSET) != 0;
+    }
+
+    @Override
+    public long hash64() {
+        return HashUtil.MurmurHash3_x64_64_direct(MEM, address, PAYLOAD_OFFSET + DATA_OFFSET, dataSize());
+    }
+
+    @Override
+    public boolean isPortable() {
+        return SerializationConstants.CONSTANT_TYPE_PORTABLE == getType();
+    }
+
+    @Override
+    public boolean isJson() {
+        return SerializationConstants.JAVASCRIPT_JSON_SERIALIZATION_TYPE == getType();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Data)) {
+            return false;
+        }
+
+        Data data = (Data) o;
+        if (getType() != data.getType()) {
+            return false;
+        }
+
+        int dataSize = dataSize();
+        if (dataSize != data.dataSize()) {
+            return false;
+        }
+        if (dataSize == 0) {
+            return true;
+        }
+
+        if (data instanceof NativeMemoryData) {
+            return equals(address, ((NativeMemoryData) data).address, totalSize());
+        }
+        return equals(address, data.toByteArray());
+    }
+
+    @Override
+    public int hashCode() {
+        return HashUtil.MurmurHash3_x86_32_direct(MEM, address, PAYLOAD_OFFSET + DATA_OFFSET, dataSize());
+    }
+
+    @Override
+    public String toString() {
+        return "NativeMemoryData{"
+                + "address=" + address
+                + ", type=" + getType()
+                + ", hashCode=" + hashCode()
+                + ", partitionHash=" + getPartitionHash()
+                + ", totalSize=" + totalSize()
+                + ", dataSize=" + dataSize()
+                + '}';
+    }
+
+    // type and partition_hash are always written with BIG_ENDIAN byte-order
+    private int readIntB(int offset) {
+        int value = MEM.getInt(address + PAYLOAD_OFFSET + offset);
+        return BIG_ENDIAN ? value : Integer.reverseBytes(value);
+    }
+
+    private static boolean equals(long address1, long address2, int length) {
+        for (int i = length - 1; i >= DATA_OFFSET; i--) {
+            if (MEM.getByte(address1 + PAYLOAD_OFFSET + i) != MEM.getByte(address2 + PAYLOAD_OFFSET + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean equals(long address, byte[] bytes) {
+        for (int i = bytes.length - 1; i >= DATA_OFFSET; i--) {
+            if (MEM.getByte(address + PAYLOAD_OFFSET + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util;
+
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.util.counters.SwCounter;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
+import static java.lang.Long.numberOfLeadingZeros;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * A latency histogram that is made to be used by a single writing thread and
+ * read by any thread, e.g. the {@link com.hazelcast.internal.metrics.MetricsRegistry}.
+ * <p>
+ * The latencies are recorded in microseconds into log-linear buckets in the
+ * style of the HdrHistogram: every power of two range is split into
+ * {@link #SUB_BUCKET_COUNT} linear buckets, so the value reported for a
+ * percentile is at most 12.5% higher than the recorded value. The values
+ * above ~19 hours are recorded into the last bucket.
+ * <p>
+ * Recording a value is a handful of arithmetic operations and lazySets, there
+ * is no locking and no litter, so it can be enabled in production. The reads
+ * are racy; a percentile could be calculated from a partially updated state,
+ * which is fine for monitoring purposes.
+ */
+public final class LatencyHistogram {
+
+    /**
+     * The number of linear buckets per power of two range.
+     */
+    public static final int SUB_BUCKET_COUNT = 8;
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int MAX_VALUE_BITS = 36;
+
+    /**
+     * The number of buckets of a histogram.
+     */
+    public static final int BUCKET_COUNT = (MAX_VALUE_BITS - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+    private static final double P50 = 0.5;
+    private static final double P90 = 0.9;
+    private static final double P99 = 0.99;
+    private static final double P999 = 0.999;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final SwCounter count = newSwCounter();
+    private final SwCounter totalMicros = newSwCounter();
+    private final SwCounter maxMicros = newSwCounter();
+
+    /**
+     * Records a latency. Should only be called by the owning thread.
+     *
+     * @param latencyNanos the latency in nanoseconds. Negative values are
+     *                     recorded as 0.
+     */
+    public void recordValue(long latencyNanos) {
+        long micros = latencyNanos < 0 ? 0 : NANOSECONDS.toMicros(latencyNanos);
+        int index = bucketIndex(micros);
+        buckets.lazySet(index, buckets.get(index) + 1);
+        count.inc();
+        totalMicros.inc(micros);
+        long max = maxMicros.get();
+        if (micros > max) {
+            maxMicros.inc(micros - max);
+        }
+    }
+
+    /**
+     * Adds the bucket counts of this histogram to the given array, so the
+     * histograms of multiple threads can be merged.
+     *
+     * @param counts the array to add to, with a length of {@link #BUCKET_COUNT}.
+     */
+    public void addCountsTo(long[] counts) {
+        for (int k = 0; k < BUCKET_COUNT; k++) {
+            counts[k] += buckets.get(k);
+        }
+    }
+
+    @Probe
+    public long count() {
+        return count.get();
+    }
+
+    @Probe
+    public long maxMicros() {
+        return maxMicros.get();
+    }
+
+    @Probe
+    public long totalMicros() {
+        return totalMicros.get();
+    }
+
+    @Probe
+    public long meanMicros() {
+        long count = this.count.get();
+        return count == 0 ? 0 : totalMicros.get() / count;
+    }
+
+    @Probe
+    public long p50Micros() {
+        return valueAtPercentile(P50);
+    }
+
+    @Probe
+    public long p90Micros() {
+        return valueAtPercentile(P90);
+    }
+
+    @Probe
+    public long p99Micros() {
+        return valueAtPercentile(P99);
+    }
+
+    @Probe
+    public long p999Micros() {
+        return valueAtPercentile(P999);
+    }
+
+    /**
+     * Returns the value at the given percentile.
+     *
+     * @param percentile the percentile, between 0 and 1.
+     * @return the highest value equivalent to the bucket the percentile falls
+     * into, in microseconds, or 0 if no value was recorded.
+     */
+    public long valueAtPercentile(double percentile) {
+        long[] counts = new long[BUCKET_COUNT];
+        addCountsTo(counts);
+        return Math.min(valueAtPercentile(counts, percentile), maxMicros.get());
+    }
+
+    /**
+     * Returns the value at the given percentile of the given bucket counts.
+     *
+     * @param counts     the bucket counts, see {@link #addCountsTo(long[])}.
+     * @param percentile the percentile, between 0 and 1.
+     * @return the highest value equivalent to the bucket the percentile falls
+     * into, in microseconds, or 0 if the counts are empty.
+     */
+    public static long valueAtPercentile(long[] counts, double percentile) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long threshold = Math.max(1, (long) Math.ceil(percentile * total));
+        long seen = 0;
+        for (int index = 0; index < counts.length; index++) {
+            seen += counts[index];
+            if (seen >= threshold) {
+                return highestEquivalentValue(index);
+            }
+        }
+        return highestEquivalentValue(counts.length - 1);
+    }
+
+    static int bucketIndex(long micros) {
+        if (micros < SUB_BUCKET_COUNT) {
+            return (int) micros;
+        }
+
+        int exponent = Long.SIZE - 1 - numberOfLeadingZeros(micros);
+        if (exponent >= MAX_VALUE_BITS) {
+            return BUCKET_COUNT - 1;
+        }
+        int shift = exponent - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKET_COUNT + (int) ((micros >>> shift) - SUB_BUCKET_COUNT);
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long lowestEquivalentValue = (long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << shift;
+        return lowestEquivalentValue + (1L << shift) - 1;
+    }
+}
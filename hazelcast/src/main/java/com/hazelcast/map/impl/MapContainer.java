@@ -41,12 +41,14 @@ import com.hazelcast.map.impl.mapstore.MapStoreContext;
 import com.hazelcast.map.impl.nearcache.invalidation.InvalidationListener;
 import com.hazelcast.map.impl.query.QueryEntryFactory;
 import com.hazelcast.map.impl.record.DataRecordFactory;
+import com.hazelcast.map.impl.record.NativeDataRecordFactory;
 import com.hazelcast.map.impl.record.ObjectRecordFactory;
 import com.hazelcast.map.impl.record.RecordFactory;
 import com.hazelcast.nio.ClassLoaderUtil;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.nio.serialization.SerializableByConvention;
 import com.hazelcast.query.impl.Index;
+import com.hazelcast.query.impl.IndexUtils;
 import com.hazelcast.query.impl.Indexes;
 import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.query.impl.getters.Extractors;
@@ -70,6 +72,7 @@ import static com.hazelcast.config.InMemoryFormat.NATIVE;
 import static com.hazelcast.config.InMemoryFormat.OBJECT;
 import static com.hazelcast.map.impl.eviction.Evictor.NULL_EVICTOR;
 import static com.hazelcast.map.impl.mapstore.MapStoreContextFactory.createMapStoreContext;
+import static com.hazelcast.spi.properties.GroupProperty.MAP_ENTRY_HITS_TRACKING_ENABLED;
 import static com.hazelcast.spi.properties.GroupProperty.MAP_EVICTION_BATCH_SIZE;
 import static com.hazelcast.spi.properties.GroupProperty.MAP_LOAD_ALL_PUBLISHES_ADDED_EVENT;
 import static java.lang.System.getProperty;
@@ -160,6 +163,7 @@ public class MapContainer {
                 .statsEnabled(mapConfig.isStatisticsEnabled())
                 .indexProvider(mapServiceContext.getIndexProvider(mapConfig))
                 .usesCachedQueryableEntries(mapConfig.getCacheDeserializedValues() != CacheDeserializedValues.NEVER)
+                .bitmapAttributes(IndexUtils.getBitmapAttributes(mapConfig.getMapIndexConfigs()))
                 .build();
     }
 
@@ -233,11 +237,18 @@ public class MapContainer {
         return new ConstructorFunction<Void, RecordFactory>() {
             @Override
             public RecordFactory createNew(Void notUsedArg) {
+                boolean hitsTrackingEnabled = mapServiceContext.getNodeEngine().getProperties()
+                        .getBoolean(MAP_ENTRY_HITS_TRACKING_ENABLED);
                 switch (mapConfig.getInMemoryFormat()) {
                     case BINARY:
-                        return new DataRecordFactory(mapConfig, serializationService, partitioningStrategy);
+                        return new DataRecordFactory(mapConfig, serializationService, partitioningStrategy,
+                                hitsTrackingEnabled);
                     case OBJECT:
-                        return new ObjectRecordFactory(mapConfig, serializationService);
+                        return new ObjectRecordFactory(mapConfig, serializationService, hitsTrackingEnabled);
+                    case NATIVE:
+                        return new NativeDataRecordFactory(mapConfig,
+                                mapServiceContext.getNativeMemoryManager().getAllocator(),
+                                serializationService, partitioningStrategy);
                     default:
                         throw new IllegalArgumentException("Invalid storage format: " + mapConfig.getInMemoryFormat());
                 }
@@ -121,6 +121,7 @@ import com.hazelcast.map.impl.operation.WriteBehindStateHolder;
 import com.hazelcast.map.impl.query.AggregationResult;
 import com.hazelcast.map.impl.query.Query;
 import com.hazelcast.map.impl.query.QueryEventFilter;
+import com.hazelcast.map.impl.query.QueryChunkOperation;
 import com.hazelcast.map.impl.query.QueryOperation;
 import com.hazelcast.map.impl.query.QueryPartitionOperation;
 import com.hazelcast.map.impl.query.QueryResult;
@@ -313,8 +314,9 @@ public final class MapDataSerializerHook implements DataSerializerHook {
     public static final int SET_TTL = 148;
     public static final int SET_TTL_BACKUP = 149;
     public static final int MERKLE_TREE_NODE_ENTRIES = 150;
+    public static final int QUERY_CHUNK_OPERATION = 151;
 
-    private static final int LEN = MERKLE_TREE_NODE_ENTRIES + 1;
+    private static final int LEN = QUERY_CHUNK_OPERATION + 1;
 
     @Override
     public int getFactoryId() {
@@ -1063,6 +1065,12 @@ public final class MapDataSerializerHook implements DataSerializerHook {
                 return new MerkleTreeNodeEntries();
             }
         };
+        constructors[QUERY_CHUNK_OPERATION] = new ConstructorFunction<Integer, IdentifiedDataSerializable>() {
+            @Override
+            public IdentifiedDataSerializable createNew(Integer arg) {
+                return new QueryChunkOperation();
+            }
+        };
 
         return new ArrayDataSerializableFactory(constructors);
     }
@@ -22,6 +22,7 @@ import com.hazelcast.config.MapConfig;
 import com.hazelcast.config.PartitioningStrategyConfig;
 import com.hazelcast.core.PartitioningStrategy;
 import com.hazelcast.internal.eviction.ExpirationManager;
+import com.hazelcast.internal.memory.impl.StandardMemoryManager;
 import com.hazelcast.internal.util.comparators.ValueComparator;
 import com.hazelcast.map.impl.event.MapEventPublisher;
 import com.hazelcast.map.impl.eviction.MapClearExpiredRecordsTask;
@@ -202,4 +203,13 @@ public interface MapServiceContext extends MapServiceContextInterceptorSupport,
     Collection<RecordStoreMutationObserver<Record>> createRecordStoreMutationObservers(String mapName, int partitionId);
 
     ValueComparator getValueComparatorOf(InMemoryFormat inMemoryFormat);
+
+    /**
+     * Returns the member-wide memory manager which backs the storage of
+     * {@link InMemoryFormat#NATIVE NATIVE} maps.
+     *
+     * @return the native memory manager
+     * @throws IllegalStateException if native memory is not enabled
+     */
+    StandardMemoryManager getNativeMemoryManager();
 }
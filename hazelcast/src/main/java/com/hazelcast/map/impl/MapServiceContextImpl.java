@@ -20,12 +20,15 @@ import com.hazelcast.cluster.ClusterState;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.MapConfig;
 import com.hazelcast.config.MergePolicyConfig;
+import com.hazelcast.config.NativeMemoryConfig;
 import com.hazelcast.config.PartitioningStrategyConfig;
 import com.hazelcast.core.PartitioningStrategy;
 import com.hazelcast.internal.eviction.ExpirationManager;
+import com.hazelcast.internal.memory.impl.StandardMemoryManager;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.util.InvocationUtil;
 import com.hazelcast.internal.util.LocalRetryableExecution;
+import com.hazelcast.internal.util.RuntimeAvailableProcessors;
 import com.hazelcast.internal.util.comparators.ValueComparator;
 import com.hazelcast.internal.util.comparators.ValueComparatorUtil;
 import com.hazelcast.logging.ILogger;
@@ -58,6 +61,7 @@ import com.hazelcast.map.impl.query.QueryResult;
 import com.hazelcast.map.impl.query.QueryResultProcessor;
 import com.hazelcast.map.impl.query.QueryRunner;
 import com.hazelcast.map.impl.query.ResultProcessorRegistry;
+import com.hazelcast.map.impl.query.WorkStealingPartitionScanExecutor;
 import com.hazelcast.map.impl.querycache.NodeQueryCacheContext;
 import com.hazelcast.map.impl.querycache.QueryCacheContext;
 import com.hazelcast.map.impl.record.Record;
@@ -104,6 +108,8 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
+import static com.hazelcast.config.InMemoryFormat.BINARY;
+import static com.hazelcast.config.InMemoryFormat.NATIVE;
 import static com.hazelcast.map.impl.ListenerAdapters.createListenerAdapter;
 import static com.hazelcast.map.impl.MapListenerFlagOperator.setAndGetListenerFlags;
 import static com.hazelcast.map.impl.MapService.SERVICE_NAME;
@@ -114,6 +120,9 @@ import static com.hazelcast.spi.properties.GroupProperty.AGGREGATION_ACCUMULATIO
 import static com.hazelcast.spi.properties.GroupProperty.INDEX_COPY_BEHAVIOR;
 import static com.hazelcast.spi.properties.GroupProperty.OPERATION_CALL_TIMEOUT_MILLIS;
 import static com.hazelcast.spi.properties.GroupProperty.QUERY_PREDICATE_PARALLEL_EVALUATION;
+import static com.hazelcast.spi.properties.GroupProperty.QUERY_PREDICATE_PARALLEL_EVALUATION_CHUNK_SIZE;
+import static com.hazelcast.spi.properties.GroupProperty.QUERY_PREDICATE_PARALLEL_EVALUATION_PARALLELISM;
+import static com.hazelcast.spi.properties.GroupProperty.QUERY_PREDICATE_PARALLEL_EVALUATION_WORK_STEALING;
 import static java.lang.Thread.currentThread;
 
 /**
@@ -157,6 +166,7 @@ class MapServiceContextImpl implements MapServiceContext {
     protected final EventService eventService;
     protected final MapOperationProviders operationProviders;
     protected final ResultProcessorRegistry resultProcessorRegistry;
+    protected final StandardMemoryManager nativeMemoryManager;
     protected ILogger logger;
 
     protected MapService mapService;
@@ -183,6 +193,7 @@ class MapServiceContextImpl implements MapServiceContext {
         this.eventService = nodeEngine.getEventService();
         this.operationProviders = createOperationProviders();
         this.partitioningStrategyFactory = new PartitioningStrategyFactory(nodeEngine.getConfigClassLoader());
+        this.nativeMemoryManager = createNativeMemoryManager();
         this.logger = nodeEngine.getLogger(getClass());
     }
 
@@ -196,6 +207,15 @@ class MapServiceContextImpl implements MapServiceContext {
         };
     }
 
+    // this method is overridden in another context
+    StandardMemoryManager createNativeMemoryManager() {
+        NativeMemoryConfig nativeMemoryConfig = nodeEngine.getConfig().getNativeMemoryConfig();
+        if (nativeMemoryConfig == null || !nativeMemoryConfig.isEnabled()) {
+            return null;
+        }
+        return new StandardMemoryManager(nativeMemoryConfig.getSize().bytes());
+    }
+
     // this method is overridden in another context
     MapNearCacheManager createMapNearCacheManager() {
         return new MapNearCacheManager(this);
@@ -235,8 +255,18 @@ class MapServiceContextImpl implements MapServiceContext {
         if (parallelEvaluation) {
             int opTimeoutInMillis = nodeEngine.getProperties().getInteger(OPERATION_CALL_TIMEOUT_MILLIS);
             ManagedExecutorService queryExecutorService = nodeEngine.getExecutionService().getExecutor(QUERY_EXECUTOR);
-            partitionScanExecutor = new ParallelPartitionScanExecutor(partitionScanRunner, queryExecutorService,
-                    opTimeoutInMillis);
+            if (nodeEngine.getProperties().getBoolean(QUERY_PREDICATE_PARALLEL_EVALUATION_WORK_STEALING)) {
+                int parallelism = nodeEngine.getProperties().getInteger(QUERY_PREDICATE_PARALLEL_EVALUATION_PARALLELISM);
+                if (parallelism <= 0) {
+                    parallelism = RuntimeAvailableProcessors.get();
+                }
+                int chunkSize = nodeEngine.getProperties().getInteger(QUERY_PREDICATE_PARALLEL_EVALUATION_CHUNK_SIZE);
+                partitionScanExecutor = new WorkStealingPartitionScanExecutor(partitionScanRunner, queryExecutorService,
+                        opTimeoutInMillis, parallelism, chunkSize);
+            } else {
+                partitionScanExecutor = new ParallelPartitionScanExecutor(partitionScanRunner, queryExecutorService,
+                        opTimeoutInMillis);
+            }
         } else {
             partitionScanExecutor = new CallerRunsPartitionScanExecutor(partitionScanRunner);
         }
@@ -864,6 +894,19 @@ class MapServiceContextImpl implements MapServiceContext {
 
     @Override
     public ValueComparator getValueComparatorOf(InMemoryFormat inMemoryFormat) {
+        if (inMemoryFormat == NATIVE) {
+            // native records expose their values as on-heap copies
+            return ValueComparatorUtil.getValueComparatorOf(BINARY);
+        }
         return ValueComparatorUtil.getValueComparatorOf(inMemoryFormat);
     }
+
+    @Override
+    public StandardMemoryManager getNativeMemoryManager() {
+        if (nativeMemoryManager == null) {
+            throw new IllegalStateException("Native memory is not enabled,"
+                    + " enable NativeMemoryConfig to use NATIVE in-memory-format for IMap");
+        }
+        return nativeMemoryManager;
+    }
 }
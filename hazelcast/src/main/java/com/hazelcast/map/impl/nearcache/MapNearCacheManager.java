@@ -18,6 +18,7 @@ package com.hazelcast.map.impl.nearcache;
 
 import com.hazelcast.core.IFunction;
 import com.hazelcast.internal.cluster.ClusterService;
+import com.hazelcast.internal.memory.impl.StandardMemoryManager;
 import com.hazelcast.internal.nearcache.NearCache;
 import com.hazelcast.internal.nearcache.impl.DefaultNearCacheManager;
 import com.hazelcast.internal.nearcache.impl.invalidation.BatchInvalidator;
@@ -72,6 +73,11 @@ public class MapNearCacheManager extends DefaultNearCacheManager {
         this.repairingTask = createRepairingInvalidationTask();
     }
 
+    @Override
+    protected StandardMemoryManager getNativeMemoryManager() {
+        return mapServiceContext.getNativeMemoryManager();
+    }
+
     private Invalidator createInvalidator() {
         HazelcastProperties hazelcastProperties = nodeEngine.getProperties();
         int batchSize = hazelcastProperties.getInteger(MAP_INVALIDATION_MESSAGE_BATCH_SIZE);
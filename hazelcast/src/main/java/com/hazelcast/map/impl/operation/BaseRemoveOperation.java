@@ -54,6 +54,7 @@ public abstract class BaseRemoveOperation extends LockAwareOperation
         invalidateNearCache(dataKey);
         publishWanRemove(dataKey);
         evict(dataKey);
+        disposeDeferredBlocks();
     }
 
     @Override
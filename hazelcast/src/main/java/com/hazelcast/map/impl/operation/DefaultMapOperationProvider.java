@@ -20,6 +20,7 @@ import com.hazelcast.core.EntryView;
 import com.hazelcast.map.EntryProcessor;
 import com.hazelcast.map.impl.MapEntries;
 import com.hazelcast.map.impl.query.Query;
+import com.hazelcast.map.impl.query.QueryChunkOperation;
 import com.hazelcast.map.impl.query.QueryOperation;
 import com.hazelcast.map.impl.query.QueryPartitionOperation;
 import com.hazelcast.map.impl.tx.TxnDeleteOperation;
@@ -238,6 +239,11 @@ public class DefaultMapOperationProvider implements MapOperationProvider {
         return new QueryOperation(query);
     }
 
+    @Override
+    public MapOperation createQueryChunkOperation(Query query, List<Integer> partitionIds) {
+        return new QueryChunkOperation(query, partitionIds);
+    }
+
     @Override
     public MapOperation createQueryPartitionOperation(Query query) {
         return new QueryPartitionOperation(query);
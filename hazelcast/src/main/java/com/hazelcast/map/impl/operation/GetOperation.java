@@ -44,6 +44,7 @@ public final class GetOperation extends ReadonlyKeyBasedMapOperation implements
     @Override
     public void afterRun() {
         mapServiceContext.interceptAfterGet(name, result);
+        disposeDeferredBlocks();
     }
 
     @Override
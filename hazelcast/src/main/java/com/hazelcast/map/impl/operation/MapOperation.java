@@ -98,6 +98,24 @@ public abstract class MapOperation extends AbstractNamedOperation implements Ide
         }
     }
 
+    @Override
+    public void afterRun() throws Exception {
+        super.afterRun();
+        disposeDeferredBlocks();
+    }
+
+    /**
+     * Frees the native memory blocks which were released by this
+     * operation, see {@link RecordStore#disposeDeferredBlocks()}.
+     * Subclasses overriding {@link #afterRun()} without calling the
+     * super method should call this at the end of their {@code afterRun}.
+     */
+    protected final void disposeDeferredBlocks() {
+        if (recordStore != null) {
+            recordStore.disposeDeferredBlocks();
+        }
+    }
+
     @Override
     public String getServiceName() {
         return MapService.SERVICE_NAME;
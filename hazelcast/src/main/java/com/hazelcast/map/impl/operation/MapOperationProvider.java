@@ -85,6 +85,15 @@ public interface MapOperationProvider {
 
     MapOperation createQueryOperation(Query query);
 
+    /**
+     * Creates an operation to run the given query on a chunk of the
+     * partitions owned by the target member.
+     *
+     * @param query        the query to run
+     * @param partitionIds the partitions of the chunk
+     */
+    MapOperation createQueryChunkOperation(Query query, List<Integer> partitionIds);
+
     MapOperation createQueryPartitionOperation(Query query);
 
     /**
@@ -267,6 +267,11 @@ abstract class MapOperationProviderDelegator implements MapOperationProvider {
         return getDelegate().createQueryOperation(query);
     }
 
+    @Override
+    public MapOperation createQueryChunkOperation(Query query, List<Integer> partitionIds) {
+        return getDelegate().createQueryChunkOperation(query, partitionIds);
+    }
+
     @Override
     public MapOperation createQueryPartitionOperation(Query query) {
         return getDelegate().createQueryPartitionOperation(query);
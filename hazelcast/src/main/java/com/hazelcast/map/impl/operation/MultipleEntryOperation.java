@@ -28,6 +28,7 @@ import com.hazelcast.query.Predicate;
 import com.hazelcast.spi.BackupAwareOperation;
 import com.hazelcast.spi.Operation;
 import com.hazelcast.spi.PartitionAwareOperation;
+import com.hazelcast.spi.impl.BulkOperation;
 import com.hazelcast.spi.impl.MutatingOperation;
 import com.hazelcast.spi.serialization.SerializationService;
 
@@ -39,7 +40,7 @@ import static com.hazelcast.util.SetUtil.createHashSet;
 
 
 public class MultipleEntryOperation extends MapOperation
-        implements MutatingOperation, PartitionAwareOperation, BackupAwareOperation {
+        implements MutatingOperation, PartitionAwareOperation, BackupAwareOperation, BulkOperation {
 
     protected Set<Data> keys;
     protected MapEntries responses;
@@ -29,6 +29,7 @@ import com.hazelcast.query.Predicate;
 import com.hazelcast.spi.BackupAwareOperation;
 import com.hazelcast.spi.Operation;
 import com.hazelcast.spi.PartitionAwareOperation;
+import com.hazelcast.spi.impl.BulkOperation;
 import com.hazelcast.spi.impl.MutatingOperation;
 import com.hazelcast.spi.serialization.SerializationService;
 import com.hazelcast.util.Clock;
@@ -43,7 +44,7 @@ import static com.hazelcast.map.impl.operation.EntryOperator.operator;
  */
 
 public class PartitionWideEntryOperation extends MapOperation
-        implements MutatingOperation, PartitionAwareOperation, BackupAwareOperation {
+        implements MutatingOperation, PartitionAwareOperation, BackupAwareOperation, BulkOperation {
 
     protected MapEntries responses;
     protected EntryProcessor entryProcessor;
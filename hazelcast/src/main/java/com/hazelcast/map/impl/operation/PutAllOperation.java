@@ -27,6 +27,7 @@ import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.spi.BackupAwareOperation;
 import com.hazelcast.spi.Operation;
 import com.hazelcast.spi.PartitionAwareOperation;
+import com.hazelcast.spi.impl.BulkOperation;
 import com.hazelcast.spi.impl.MutatingOperation;
 
 import java.io.IOException;
@@ -46,7 +47,7 @@ import static com.hazelcast.map.impl.recordstore.RecordStore.DEFAULT_TTL;
  * Used to reduce the number of remote invocations of an {@link com.hazelcast.core.IMap#putAll(Map)} call.
  */
 public class PutAllOperation extends MapOperation
-        implements PartitionAwareOperation, BackupAwareOperation, MutatingOperation {
+        implements PartitionAwareOperation, BackupAwareOperation, MutatingOperation, BulkOperation {
 
     private MapEntries mapEntries;
 
@@ -82,6 +82,7 @@ public final class PutBackupOperation extends KeyBasedMapOperation implements Ba
             evict(dataKey);
         }
         publishWanUpdate(dataKey, dataValue);
+        disposeDeferredBlocks();
     }
 
     @Override
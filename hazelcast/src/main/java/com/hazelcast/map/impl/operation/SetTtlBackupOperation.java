@@ -49,5 +49,6 @@ public class SetTtlBackupOperation extends KeyBasedMapOperation implements Backu
         if (record != null) {
             publishWanUpdate(dataKey, record.getValue());
         }
+        disposeDeferredBlocks();
     }
 }
@@ -54,6 +54,7 @@ public class SetTtlOperation extends LockAwareOperation implements BackupAwareOp
             publishWanUpdate(dataKey, record.getValue());
             invalidateNearCache(dataKey);
         }
+        disposeDeferredBlocks();
     }
 
     @Override
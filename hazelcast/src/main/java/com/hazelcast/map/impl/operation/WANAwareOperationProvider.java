@@ -136,6 +136,12 @@ public class WANAwareOperationProvider extends MapOperationProviderDelegator {
         return getDelegate().createQueryOperation(query);
     }
 
+    @Override
+    public MapOperation createQueryChunkOperation(Query query, List<Integer> partitionIds) {
+        checkWanReplicationQueues(query.getMapName());
+        return getDelegate().createQueryChunkOperation(query, partitionIds);
+    }
+
     @Override
     public MapOperation createQueryPartitionOperation(Query query) {
         checkWanReplicationQueues(query.getMapName());
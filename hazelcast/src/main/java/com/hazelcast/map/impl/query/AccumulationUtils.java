@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.aggregation.impl.AbstractAggregator;
+import com.hazelcast.query.impl.QueryableEntry;
+
+import java.util.Collection;
+
+/**
+ * Utilities shared by the {@link AccumulationExecutor} implementations.
+ */
+final class AccumulationUtils {
+
+    private AccumulationUtils() {
+    }
+
+    /**
+     * Accumulates the given entries using the given aggregator. The built-in
+     * aggregators accumulate the entries as a single batch, which allows the
+     * numeric ones to avoid boxing the extracted values; other aggregators
+     * accumulate the entries one by one.
+     *
+     * @param aggregator the aggregator to accumulate the entries with.
+     * @param entries    the entries to accumulate.
+     */
+    @SuppressWarnings("unchecked")
+    static void accumulate(Aggregator aggregator, Collection<QueryableEntry> entries) {
+        if (aggregator instanceof AbstractAggregator) {
+            ((AbstractAggregator) aggregator).accumulateAll(entries);
+        } else {
+            for (QueryableEntry entry : entries) {
+                aggregator.accumulate(entry);
+            }
+        }
+    }
+
+}
@@ -17,9 +17,12 @@
 package com.hazelcast.map.impl.query;
 
 import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.aggregation.impl.AbstractAggregator;
+import com.hazelcast.aggregation.impl.AggregatorDataSerializerHook;
 import com.hazelcast.map.impl.MapDataSerializerHook;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.query.PagingPredicate;
 import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.spi.serialization.SerializationService;
@@ -27,6 +30,7 @@ import com.hazelcast.spi.serialization.SerializationService;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -36,11 +40,19 @@ import java.util.Map;
  */
 public class AggregationResult implements Result<AggregationResult> {
 
+    /**
+     * The maximum number of entries collected before they are accumulated.
+     */
+    static final int BATCH_SIZE = 1024;
+
     private Aggregator aggregator;
     private Collection<Integer> partitionIds;
 
     private final transient SerializationService serializationService;
 
+    // the entries not accumulated yet, null if the aggregator doesn't benefit from batches
+    private transient List<QueryableEntry> batch;
+
     public AggregationResult() {
         this.serializationService = null;
     }
@@ -48,10 +60,15 @@ public class AggregationResult implements Result<AggregationResult> {
     public AggregationResult(Aggregator aggregator, SerializationService serializationService) {
         this.aggregator = aggregator;
         this.serializationService = serializationService;
+        if (aggregator instanceof AbstractAggregator
+                && ((AbstractAggregator) aggregator).isBatchAccumulationBeneficial()) {
+            this.batch = new ArrayList<QueryableEntry>();
+        }
     }
 
     @SuppressWarnings("unchecked")
     public <R> Aggregator<?, R> getAggregator() {
+        accumulateBatch();
         return aggregator;
     }
 
@@ -70,19 +87,68 @@ public class AggregationResult implements Result<AggregationResult> {
             partitionIds = new ArrayList<Integer>(otherPartitionIds.size());
         }
         partitionIds.addAll(otherPartitionIds);
-        aggregator.combine(result.aggregator);
+        accumulateBatch();
+        aggregator.combine(result.getAggregator());
     }
 
     @Override
     public void onCombineFinished() {
+        accumulateBatch();
         if (aggregator != null) {
             aggregator.onCombinationFinished();
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the aggregator benefits from accumulating the entries in batches,
+     * the entry is collected and accumulated together with the next ones
+     * using {@link AbstractAggregator#accumulateAll}.
+     */
     @Override
+    @SuppressWarnings("unchecked")
     public void add(QueryableEntry entry) {
-        aggregator.accumulate(entry);
+        if (batch == null) {
+            aggregator.accumulate(entry);
+            return;
+        }
+        batch.add(entry);
+        if (batch.size() == BATCH_SIZE) {
+            accumulateBatch();
+        }
+    }
+
+    private void accumulateBatch() {
+        if (batch == null || batch.isEmpty()) {
+            return;
+        }
+        ((AbstractAggregator) aggregator).accumulateAll(batch);
+        batch.clear();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The built-in aggregators accumulate the values extracted from the
+     * entries, except for the min-by and max-by ones keeping the entries
+     * themselves. The entries of a batch are retained until the batch is
+     * accumulated. Custom aggregators are assumed to retain the entries.
+     */
+    @Override
+    public boolean retainsEntries() {
+        if (batch != null) {
+            return true;
+        }
+        if (!(aggregator instanceof IdentifiedDataSerializable)) {
+            return true;
+        }
+        IdentifiedDataSerializable builtInAggregator = (IdentifiedDataSerializable) aggregator;
+        if (builtInAggregator.getFactoryId() != AggregatorDataSerializerHook.F_ID) {
+            return true;
+        }
+        int id = builtInAggregator.getId();
+        return id == AggregatorDataSerializerHook.MAX_BY || id == AggregatorDataSerializerHook.MIN_BY;
     }
 
     @Override
@@ -99,6 +165,7 @@ public class AggregationResult implements Result<AggregationResult> {
 
     @Override
     public void completeConstruction(Collection<Integer> partitionIds) {
+        accumulateBatch();
         setPartitionIds(partitionIds);
     }
 
@@ -126,6 +193,7 @@ public class AggregationResult implements Result<AggregationResult> {
                 out.writeInt(partitionId);
             }
         }
+        accumulateBatch();
         out.writeObject(aggregator);
     }
 
@@ -39,9 +39,7 @@ public class CallerRunsAccumulationExecutor implements AccumulationExecutor {
             Aggregator aggregator, Collection<QueryableEntry> entries, Collection<Integer> partitionIds) {
         Aggregator resultAggregator = serializationService.toObject(serializationService.toData(aggregator));
         try {
-            for (QueryableEntry entry : entries) {
-                resultAggregator.accumulate(entry);
-            }
+            AccumulationUtils.accumulate(resultAggregator, entries);
         } finally {
             resultAggregator.onAccumulationFinished();
         }
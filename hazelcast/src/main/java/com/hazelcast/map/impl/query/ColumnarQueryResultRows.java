@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.Data;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * The list of {@link QueryResultRow query result rows} stored in a columnar
+ * form: the keys and the values of the rows are stored back to back in two
+ * contiguous byte blocks accompanied by arrays of the end offsets, instead of
+ * a pair of {@link Data} objects per row.
+ * <p>
+ * The columns are serialized in one shot and the rows are decoded lazily: a
+ * new row instance is produced on every access. A zero-length segment in a
+ * column denotes a {@code null} key or value, serialized non-null data is
+ * never empty and the empty data is decoded to {@code null} anyway.
+ */
+final class ColumnarQueryResultRows extends AbstractList<QueryResultRow> implements RandomAccess {
+
+    private static final int INITIAL_ROW_CAPACITY = 16;
+    private static final int INITIAL_BLOCK_CAPACITY = 256;
+
+    private final Column keys = new Column();
+    private final Column values = new Column();
+
+    private int size;
+
+    @Override
+    public QueryResultRow get(int index) {
+        checkIndex(index);
+        return new QueryResultRow(keys.get(index), values.get(index));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean add(QueryResultRow row) {
+        add(row.getKey(), row.getValue());
+        return true;
+    }
+
+    /**
+     * Appends a new row formed from the given key and value.
+     *
+     * @param key   the key of the row to append, can be {@code null}.
+     * @param value the value of the row to append, can be {@code null}.
+     */
+    void add(Data key, Data value) {
+        keys.append(key, size);
+        values.append(value, size);
+        ++size;
+        ++modCount;
+    }
+
+    /**
+     * Appends all the rows of the given columnar rows to this rows by copying
+     * the column blocks as a whole, no rows are decoded in the process.
+     *
+     * @param that the rows to append.
+     */
+    void appendAll(ColumnarQueryResultRows that) {
+        if (that.size == 0) {
+            return;
+        }
+        keys.appendAll(that.keys, size, that.size);
+        values.appendAll(that.values, size, that.size);
+        size += that.size;
+        ++modCount;
+    }
+
+    @Override
+    public QueryResultRow remove(int index) {
+        QueryResultRow row = get(index);
+        keys.remove(index, size);
+        values.remove(index, size);
+        --size;
+        ++modCount;
+        return row;
+    }
+
+    @Override
+    public void clear() {
+        keys.clear();
+        values.clear();
+        size = 0;
+        ++modCount;
+    }
+
+    void writeData(ObjectDataOutput out) throws IOException {
+        out.writeInt(size);
+        keys.writeData(out, size);
+        values.writeData(out, size);
+    }
+
+    void readData(ObjectDataInput in) throws IOException {
+        size = in.readInt();
+        keys.readData(in, size);
+        values.readData(in, size);
+        ++modCount;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    /**
+     * A single column of data: the data payloads stored back to back plus the
+     * end offset of every payload.
+     */
+    private static final class Column {
+
+        private byte[] bytes = new byte[0];
+        private int byteCount;
+        private int[] ends = new int[0];
+
+        Data get(int index) {
+            int start = index == 0 ? 0 : ends[index - 1];
+            int end = ends[index];
+            return start == end ? null : new HeapData(Arrays.copyOfRange(bytes, start, end));
+        }
+
+        void append(Data data, int index) {
+            if (data != null && data.totalSize() > 0) {
+                byte[] payload = data.toByteArray();
+                ensureByteCapacity(byteCount + payload.length);
+                System.arraycopy(payload, 0, bytes, byteCount, payload.length);
+                byteCount += payload.length;
+            }
+            ensureRowCapacity(index + 1);
+            ends[index] = byteCount;
+        }
+
+        void appendAll(Column that, int offset, int count) {
+            ensureByteCapacity(byteCount + that.byteCount);
+            System.arraycopy(that.bytes, 0, bytes, byteCount, that.byteCount);
+            ensureRowCapacity(offset + count);
+            for (int i = 0; i < count; ++i) {
+                ends[offset + i] = that.ends[i] + byteCount;
+            }
+            byteCount += that.byteCount;
+        }
+
+        void remove(int index, int size) {
+            int start = index == 0 ? 0 : ends[index - 1];
+            int end = ends[index];
+            int length = end - start;
+            System.arraycopy(bytes, end, bytes, start, byteCount - end);
+            byteCount -= length;
+            for (int i = index + 1; i < size; ++i) {
+                ends[i - 1] = ends[i] - length;
+            }
+        }
+
+        void clear() {
+            bytes = new byte[0];
+            byteCount = 0;
+            ends = new int[0];
+        }
+
+        void writeData(ObjectDataOutput out, int size) throws IOException {
+            out.writeInt(byteCount);
+            out.write(bytes, 0, byteCount);
+            for (int i = 0; i < size; ++i) {
+                out.writeInt(ends[i]);
+            }
+        }
+
+        void readData(ObjectDataInput in, int size) throws IOException {
+            byteCount = in.readInt();
+            bytes = new byte[byteCount];
+            in.readFully(bytes);
+            ends = new int[size];
+            for (int i = 0; i < size; ++i) {
+                ends[i] = in.readInt();
+            }
+        }
+
+        private void ensureByteCapacity(int capacity) {
+            if (capacity > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(capacity, Math.max(INITIAL_BLOCK_CAPACITY, bytes.length * 2)));
+            }
+        }
+
+        private void ensureRowCapacity(int capacity) {
+            if (capacity > ends.length) {
+                ends = Arrays.copyOf(ends, Math.max(capacity, Math.max(INITIAL_ROW_CAPACITY, ends.length * 2)));
+            }
+        }
+
+    }
+
+}
@@ -121,9 +121,7 @@ public class ParallelAccumulationExecutor implements AccumulationExecutor {
         @Override
         public Aggregator call() throws Exception {
             try {
-                for (QueryableEntry entry : entries) {
-                    aggregator.accumulate(entry);
-                }
+                AccumulationUtils.accumulate(aggregator, entries);
             } finally {
                 aggregator.onAccumulationFinished();
             }
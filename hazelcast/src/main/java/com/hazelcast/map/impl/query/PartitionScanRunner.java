@@ -40,9 +40,9 @@ import com.hazelcast.spi.OperationService;
 import com.hazelcast.spi.partition.IPartitionService;
 import com.hazelcast.util.Clock;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -52,6 +52,10 @@ import static com.hazelcast.util.SortingUtil.compareAnchor;
 
 /**
  * Responsible for running a full-partition scan for a single partition in the calling thread.
+ * <p>
+ * The scanned records are streamed through a single mutable entry which is
+ * reinitialized for every record; a new entry is allocated only after a
+ * matching entry is handed over to a consumer which may retain it.
  */
 public class PartitionScanRunner {
 
@@ -73,16 +77,60 @@ public class PartitionScanRunner {
         this.clusterService = nodeEngine.getClusterService();
     }
 
-    @SuppressWarnings("unchecked")
     public void run(String mapName, Predicate predicate, int partitionId, Result result) {
+        PartitionContainer partitionContainer = mapServiceContext.getPartitionContainer(partitionId);
+        Iterator<Record> iterator = partitionContainer.getRecordStore(mapName).loadAwareIterator(getNow(), false);
+        PagingPredicate pagingPredicate = scan(mapName, predicate, partitionId, iterator, result);
+        result.orderAndLimit(pagingPredicate, getNearestAnchorEntry(pagingPredicate));
+    }
+
+    /**
+     * Collects the records of the given partition in a single pass. Together
+     * with {@link #run(String, Predicate, int, List, Result)} allows scanning
+     * a single partition in chunks which may be processed by different
+     * threads. The collected records are not affected by the table resizes
+     * of the record store.
+     *
+     * @param mapName     the map name
+     * @param partitionId the partition to collect the records of
+     * @return the records of the partition
+     */
+    public List<Record> collectRecords(String mapName, int partitionId) {
+        RecordStore recordStore = mapServiceContext.getPartitionContainer(partitionId).getRecordStore(mapName);
+        Iterator<Record> iterator = recordStore.loadAwareIterator(getNow(), false);
+        List<Record> records = new ArrayList<Record>(recordStore.size());
+        while (iterator.hasNext()) {
+            records.add(iterator.next());
+        }
+        return records;
+    }
+
+    /**
+     * Executes the predicate on the given records previously {@link
+     * #collectRecords collected} from a partition and adds the matching ones
+     * to the given result. Unlike {@link #run(String, Predicate, int, Result)},
+     * the result is not ordered and limited.
+     *
+     * @param mapName     the map name
+     * @param predicate   the predicate which the records must match
+     * @param partitionId the partition the records were collected from
+     * @param records     the records to execute the predicate on
+     * @param result      the result to add the matching entries to
+     */
+    public void run(String mapName, Predicate predicate, int partitionId, List<Record> records, Result result) {
+        scan(mapName, predicate, partitionId, records.iterator(), result);
+    }
+
+    @SuppressWarnings("unchecked")
+    private PagingPredicate scan(String mapName, Predicate predicate, int partitionId, Iterator<Record> iterator,
+                                 Result result) {
         PagingPredicate pagingPredicate = predicate instanceof PagingPredicate ? (PagingPredicate) predicate : null;
 
-        PartitionContainer partitionContainer = mapServiceContext.getPartitionContainer(partitionId);
         MapContainer mapContainer = mapServiceContext.getMapContainer(mapName);
-        Iterator<Record> iterator = partitionContainer.getRecordStore(mapName).loadAwareIterator(getNow(), false);
         Map.Entry<Integer, Map.Entry> nearestAnchorEntry = getNearestAnchorEntry(pagingPredicate);
         boolean useCachedValues = isUseCachedDeserializedValuesEnabled(mapContainer, partitionId);
         Extractors extractors = mapServiceContext.getExtractors(mapName);
+        boolean retainsEntries = result.retainsEntries();
         LazyMapEntry queryEntry = new LazyMapEntry();
         while (iterator.hasNext()) {
             Record record = iterator.next();
@@ -97,12 +145,14 @@ public class PartitionScanRunner {
             if (predicate.apply(queryEntry) && compareAnchor(pagingPredicate, queryEntry, nearestAnchorEntry)) {
                 result.add(queryEntry);
 
-                // We can't reuse the existing entry after it was added to the
-                // result. Allocate the new one.
-                queryEntry = new LazyMapEntry();
+                if (retainsEntries) {
+                    // We can't reuse the existing entry after it was added to
+                    // the result. Allocate the new one.
+                    queryEntry = new LazyMapEntry();
+                }
             }
         }
-        result.orderAndLimit(pagingPredicate, nearestAnchorEntry);
+        return pagingPredicate;
     }
 
     /**
@@ -124,10 +174,11 @@ public class PartitionScanRunner {
      */
     public QueryableEntriesSegment run(String mapName, Predicate predicate, int partitionId, int tableIndex, int fetchSize) {
         int lastIndex = tableIndex;
-        final List<QueryableEntry> resultList = new LinkedList<QueryableEntry>();
+        final List<QueryableEntry> resultList = new ArrayList<QueryableEntry>();
         final PartitionContainer partitionContainer = mapServiceContext.getPartitionContainer(partitionId);
         final RecordStore recordStore = partitionContainer.getRecordStore(mapName);
         final Extractors extractors = mapServiceContext.getExtractors(mapName);
+        LazyMapEntry queryEntry = new LazyMapEntry();
 
         while (resultList.size() < fetchSize && lastIndex >= 0) {
             final MapEntriesWithCursor cursor = recordStore.fetchEntries(lastIndex, fetchSize - resultList.size());
@@ -137,9 +188,10 @@ public class PartitionScanRunner {
                 break;
             }
             for (Entry<Data, Data> entry : entries) {
-                QueryableEntry queryEntry = new LazyMapEntry(entry.getKey(), entry.getValue(), serializationService, extractors);
+                queryEntry.init(serializationService, entry.getKey(), entry.getValue(), extractors);
                 if (predicate.apply(queryEntry)) {
                     resultList.add(queryEntry);
+                    queryEntry = new LazyMapEntry();
                 }
             }
         }
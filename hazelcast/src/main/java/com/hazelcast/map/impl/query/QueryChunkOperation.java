@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.core.MemberLeftException;
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.map.impl.operation.MapOperation;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.ExceptionAction;
+import com.hazelcast.spi.ReadonlyOperation;
+import com.hazelcast.spi.exception.TargetNotMemberException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.spi.ExceptionAction.THROW_EXCEPTION;
+
+/**
+ * Runs a query on a chunk of the partitions owned by the target member.
+ * <p>
+ * Like {@link QueryOperation} it runs on a query thread and uses a global
+ * index if possible, in which case the response covers all owned partitions.
+ * Otherwise only the owned partitions of the chunk are scanned, which lets
+ * the caller receive the result of a member in several smaller responses.
+ */
+public class QueryChunkOperation extends MapOperation implements ReadonlyOperation {
+
+    private Query query;
+    private List<Integer> partitionIds;
+    private Result result;
+
+    public QueryChunkOperation() {
+    }
+
+    public QueryChunkOperation(Query query, List<Integer> partitionIds) {
+        super(query.getMapName());
+        this.query = query;
+        this.partitionIds = partitionIds;
+    }
+
+    @Override
+    public void run() throws Exception {
+        QueryRunner queryRunner = mapServiceContext.getMapQueryRunner(getName());
+        result = queryRunner.runIndexOrPartitionScanQueryOnOwnedPartitions(query, partitionIds);
+    }
+
+    @Override
+    public ExceptionAction onInvocationException(Throwable throwable) {
+        if (throwable instanceof MemberLeftException || throwable instanceof TargetNotMemberException) {
+            return THROW_EXCEPTION;
+        }
+        return super.onInvocationException(throwable);
+    }
+
+    @Override
+    public Object getResponse() {
+        return result;
+    }
+
+    @Override
+    public int getId() {
+        return MapDataSerializerHook.QUERY_CHUNK_OPERATION;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeObject(query);
+        out.writeInt(partitionIds.size());
+        for (int partitionId : partitionIds) {
+            out.writeInt(partitionId);
+        }
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        query = in.readObject();
+        int size = in.readInt();
+        partitionIds = new ArrayList<Integer>(size);
+        for (int i = 0; i < size; i++) {
+            partitionIds.add(in.readInt());
+        }
+    }
+}
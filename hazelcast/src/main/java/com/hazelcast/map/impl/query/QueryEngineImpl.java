@@ -23,6 +23,7 @@ import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.QueryResultSizeExceededException;
 import com.hazelcast.map.impl.MapService;
 import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.nio.Address;
 import com.hazelcast.query.PagingPredicate;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.QueryException;
@@ -38,12 +39,16 @@ import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.Future;
 
 import static com.hazelcast.cluster.memberselector.MemberSelectors.DATA_MEMBER_SELECTOR;
+import static com.hazelcast.internal.cluster.Versions.V3_12;
 import static com.hazelcast.map.impl.query.Target.ALL_NODES;
 import static com.hazelcast.map.impl.query.Target.LOCAL_NODE;
+import static com.hazelcast.spi.properties.GroupProperty.QUERY_PARTITION_CHUNK_SIZE;
 import static com.hazelcast.util.BitSetUtils.hasAllBitsSet;
 import static com.hazelcast.util.ExceptionUtil.rethrow;
 import static java.util.Collections.singletonList;
@@ -70,6 +75,7 @@ public class QueryEngineImpl implements QueryEngine {
     private final OperationService operationService;
     private final ClusterService clusterService;
     private final ResultProcessorRegistry resultProcessorRegistry;
+    private final int partitionChunkSize;
 
     public QueryEngineImpl(MapServiceContext mapServiceContext) {
         this.mapServiceContext = mapServiceContext;
@@ -80,6 +86,7 @@ public class QueryEngineImpl implements QueryEngine {
         this.operationService = nodeEngine.getOperationService();
         this.clusterService = nodeEngine.getClusterService();
         this.resultProcessorRegistry = mapServiceContext.getResultProcessorRegistry();
+        this.partitionChunkSize = nodeEngine.getProperties().getInteger(QUERY_PARTITION_CHUNK_SIZE);
     }
 
     @Override
@@ -148,8 +155,12 @@ public class QueryEngineImpl implements QueryEngine {
 
     private Result doRunOnQueryThreads(Query query, BitSet partitionIds, Target target) {
         Result result = populateResult(query, partitionIds);
-        List<Future<Result>> futures = dispatchOnQueryThreads(query, target);
-        addResultsOfPredicate(futures, result, partitionIds, false);
+        if (isChunkedQueryEnabled()) {
+            runInChunksOnQueryThreads(query, partitionIds, target, result);
+        } else {
+            List<Future<Result>> futures = dispatchOnQueryThreads(query, target);
+            addResultsOfPredicate(futures, result, partitionIds, false);
+        }
         return result;
     }
 
@@ -157,20 +168,86 @@ public class QueryEngineImpl implements QueryEngine {
         try {
             return dispatchFullQueryOnQueryThread(query, target);
         } catch (Throwable t) {
-            if (!(t instanceof HazelcastException)) {
-                // these are programmatic errors that needs to be visible
-                throw rethrow(t);
-            } else if (t.getCause() instanceof QueryResultSizeExceededException) {
-                throw rethrow(t);
-            } else {
-                // log failure to invoke query on member at fine level
-                // the missing partition IDs will be queried anyway, so it's not a terminal failure
-                if (logger.isFineEnabled()) {
-                    logger.fine("Query invocation failed on member ", t);
+            handleQueryThreadDispatchFailure(t);
+        }
+        return Collections.emptyList();
+    }
+
+    private void handleQueryThreadDispatchFailure(Throwable t) {
+        if (!(t instanceof HazelcastException)) {
+            // these are programmatic errors that needs to be visible
+            throw rethrow(t);
+        } else if (t.getCause() instanceof QueryResultSizeExceededException) {
+            throw rethrow(t);
+        } else {
+            // log failure to invoke query on member at fine level
+            // the missing partition IDs will be queried anyway, so it's not a terminal failure
+            if (logger.isFineEnabled()) {
+                logger.fine("Query invocation failed on member ", t);
+            }
+        }
+    }
+
+    private boolean isChunkedQueryEnabled() {
+        // members of the previous version don't know the chunk operation
+        return partitionChunkSize > 0 && clusterService.getClusterVersion().isGreaterOrEqual(V3_12);
+    }
+
+    // every member gets a single chunk at a time, so it never holds more than a chunk of the result;
+    // the members still scan their chunks in parallel
+    private void runInChunksOnQueryThreads(Query query, BitSet partitionIds, Target target, Result result) {
+        List<MemberPartitionChunks> members = new LinkedList<MemberPartitionChunks>();
+        for (Member member : getQueryTargetMembers(target)) {
+            Address address = member.getAddress();
+            members.add(new MemberPartitionChunks(address, partitionService.getMemberPartitions(address)));
+        }
+
+        while (!members.isEmpty()) {
+            List<Future<Result>> futures = new ArrayList<Future<Result>>(members.size());
+            Iterator<MemberPartitionChunks> iterator = members.iterator();
+            while (iterator.hasNext()) {
+                MemberPartitionChunks member = iterator.next();
+                // partitions already covered by a former response, e.g. a global index query, are skipped
+                member.nextChunk(partitionIds, partitionChunkSize);
+                if (member.chunk.isEmpty()) {
+                    iterator.remove();
+                    continue;
+                }
+                try {
+                    futures.add(dispatchQueryChunkOnQueryThread(query, member.chunk, member.address));
+                } catch (Throwable t) {
+                    handleQueryThreadDispatchFailure(t);
+                    iterator.remove();
+                }
+            }
+            addResultsOfPredicate(futures, result, partitionIds, false);
+
+            // a member which didn't cover its chunk failed or lost some partitions,
+            // the remaining partitions are queried on the partition threads
+            iterator = members.iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().isChunkMissing(partitionIds)) {
+                    iterator.remove();
                 }
             }
         }
-        return Collections.emptyList();
+    }
+
+    private Collection<Member> getQueryTargetMembers(Target target) {
+        switch (target.mode()) {
+            case ALL_NODES:
+                return clusterService.getMembers(DATA_MEMBER_SELECTOR);
+            case LOCAL_NODE:
+                return Collections.<Member>singletonList(clusterService.getLocalMember());
+            default:
+                throw new IllegalArgumentException("Illegal target " + target);
+        }
+    }
+
+    protected Future<Result> dispatchQueryChunkOnQueryThread(Query query, List<Integer> partitionIds, Address address) {
+        Operation operation = mapServiceContext.getMapOperationProvider(query.getMapName())
+                                               .createQueryChunkOperation(query, partitionIds);
+        return operationService.invokeOnTarget(MapService.SERVICE_NAME, operation, address);
     }
 
     private Result populateResult(Query query, BitSet partitionIds) {
@@ -324,4 +401,38 @@ public class QueryEngineImpl implements QueryEngine {
     private static boolean shouldSkipPartitionsQuery(BitSet partitionIds) {
         return partitionIds == null || partitionIds.isEmpty();
     }
+
+    /**
+     * The partitions of a single member which are requested in chunks.
+     */
+    private static final class MemberPartitionChunks {
+
+        private final Address address;
+        private final Iterator<Integer> partitionIds;
+        private List<Integer> chunk;
+
+        MemberPartitionChunks(Address address, List<Integer> partitionIds) {
+            this.address = address;
+            this.partitionIds = partitionIds.iterator();
+        }
+
+        void nextChunk(BitSet remainingPartitionIds, int chunkSize) {
+            chunk = new ArrayList<Integer>(chunkSize);
+            while (chunk.size() < chunkSize && partitionIds.hasNext()) {
+                int partitionId = partitionIds.next();
+                if (remainingPartitionIds.get(partitionId)) {
+                    chunk.add(partitionId);
+                }
+            }
+        }
+
+        boolean isChunkMissing(BitSet remainingPartitionIds) {
+            for (int partitionId : chunk) {
+                if (remainingPartitionIds.get(partitionId)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
 }
@@ -23,10 +23,12 @@ import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.query.impl.Indexes;
 import com.hazelcast.spi.PartitionAwareOperation;
 import com.hazelcast.spi.ReadonlyOperation;
+import com.hazelcast.spi.impl.BulkOperation;
 
 import java.io.IOException;
 
-public class QueryPartitionOperation extends MapOperation implements PartitionAwareOperation, ReadonlyOperation {
+public class QueryPartitionOperation extends MapOperation
+        implements PartitionAwareOperation, ReadonlyOperation, BulkOperation {
 
     private Query query;
     private Result result;
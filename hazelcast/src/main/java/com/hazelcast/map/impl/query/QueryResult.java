@@ -16,11 +16,13 @@
 
 package com.hazelcast.map.impl.query;
 
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.map.QueryResultSizeExceededException;
 import com.hazelcast.map.impl.MapDataSerializerHook;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.serialization.impl.Versioned;
 import com.hazelcast.projection.Projection;
 import com.hazelcast.query.PagingPredicate;
 import com.hazelcast.query.impl.QueryableEntry;
@@ -32,9 +34,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Map;
 
 /**
@@ -57,10 +57,14 @@ import java.util.Map;
  * intermediate result is represented directly as a collection of {@link
  * QueryResultRow rows} and no further conversion is performed.
  * </ol>
+ * The rows are stored in a {@link ColumnarQueryResultRows columnar form}: the
+ * keys and the values of all the rows are kept in two contiguous byte blocks
+ * which are serialized in one shot and decoded lazily on the caller side.
  */
-public class QueryResult implements Result<QueryResult>, Iterable<QueryResultRow> {
+public class QueryResult implements Result<QueryResult>, Iterable<QueryResultRow>, Versioned {
 
-    private List rows = new LinkedList();
+    private final ColumnarQueryResultRows rows = new ColumnarQueryResultRows();
+    private transient List<QueryableEntry> entries;
 
     private Collection<Integer> partitionIds;
     private IterationType iterationType;
@@ -105,6 +109,9 @@ public class QueryResult implements Result<QueryResult>, Iterable<QueryResultRow
         this.serializationService = serializationService;
         this.resultLimit = resultLimit;
         this.orderAndLimitExpected = orderAndLimitExpected;
+        if (orderAndLimitExpected) {
+            this.entries = new ArrayList<QueryableEntry>();
+        }
     }
 
     // for testing
@@ -121,14 +128,14 @@ public class QueryResult implements Result<QueryResult>, Iterable<QueryResultRow
      * @return the size of this result.
      */
     public int size() {
-        return rows.size();
+        return entries == null ? rows.size() : entries.size();
     }
 
     /**
      * @return {@code true} if this result is empty, {@code false} otherwise.
      **/
     public boolean isEmpty() {
-        return rows.isEmpty();
+        return size() == 0;
     }
 
     /**
@@ -152,7 +159,22 @@ public class QueryResult implements Result<QueryResult>, Iterable<QueryResultRow
             throw new QueryResultSizeExceededException();
         }
 
-        rows.add(orderAndLimitExpected ? entry : convertEntryToRow(entry));
+        if (orderAndLimitExpected) {
+            entries.add(entry);
+        } else {
+            addEntryAsRow(entry);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The entries are retained only if the {@link #orderAndLimit} call is
+     * expected, otherwise they are converted to rows right away.
+     */
+    @Override
+    public boolean retainsEntries() {
+        return orderAndLimitExpected;
     }
 
     @Override
@@ -162,16 +184,17 @@ public class QueryResult implements Result<QueryResult>, Iterable<QueryResultRow
 
     @Override
     public void orderAndLimit(PagingPredicate pagingPredicate, Map.Entry<Integer, Map.Entry> nearestAnchorEntry) {
-        rows = SortingUtil.getSortedSubList(rows, pagingPredicate, nearestAnchorEntry);
+        entries = SortingUtil.getSortedSubList(entries, pagingPredicate, nearestAnchorEntry);
     }
 
     @Override
     public void completeConstruction(Collection<Integer> partitionIds) {
         setPartitionIds(partitionIds);
-        if (orderAndLimitExpected) {
-            for (ListIterator iterator = rows.listIterator(); iterator.hasNext(); ) {
-                iterator.set(convertEntryToRow((QueryableEntry) iterator.next()));
+        if (entries != null) {
+            for (QueryableEntry entry : entries) {
+                addEntryAsRow(entry);
             }
+            entries = null;
         }
     }
 
@@ -198,7 +221,11 @@ public class QueryResult implements Result<QueryResult>, Iterable<QueryResultRow
             partitionIds = new ArrayList<Integer>(otherPartitionIds.size());
         }
         partitionIds.addAll(otherPartitionIds);
-        rows.addAll(result.rows);
+        rows.appendAll(result.rows);
+        if (entries != null && result.entries != null) {
+            // the entries retained for the pending order and limit call
+            entries.addAll(result.entries);
+        }
     }
 
     @Override
@@ -239,10 +266,13 @@ public class QueryResult implements Result<QueryResult>, Iterable<QueryResultRow
 
         out.writeByte(iterationType.getId());
 
-        int resultSize = rows.size();
-        out.writeInt(resultSize);
-        if (resultSize > 0) {
-            for (QueryResultRow row : (List<QueryResultRow>) rows) {
+        // RU_COMPAT_3_11
+        if (out.getVersion().isGreaterOrEqual(Versions.V3_12)) {
+            rows.writeData(out);
+        } else {
+            int resultSize = rows.size();
+            out.writeInt(resultSize);
+            for (QueryResultRow row : rows) {
                 row.writeData(out);
             }
         }
@@ -260,8 +290,11 @@ public class QueryResult implements Result<QueryResult>, Iterable<QueryResultRow
 
         iterationType = IterationType.getById(in.readByte());
 
-        int resultSize = in.readInt();
-        if (resultSize > 0) {
+        // RU_COMPAT_3_11
+        if (in.getVersion().isGreaterOrEqual(Versions.V3_12)) {
+            rows.readData(in);
+        } else {
+            int resultSize = in.readInt();
             for (int i = 0; i < resultSize; i++) {
                 QueryResultRow row = new QueryResultRow();
                 row.readData(in);
@@ -270,7 +303,7 @@ public class QueryResult implements Result<QueryResult>, Iterable<QueryResultRow
         }
     }
 
-    private QueryResultRow convertEntryToRow(QueryableEntry entry) {
+    private void addEntryAsRow(QueryableEntry entry) {
         Data key = null;
         Data value = null;
         switch (iterationType) {
@@ -287,6 +320,6 @@ public class QueryResult implements Result<QueryResult>, Iterable<QueryResultRow
             default:
                 throw new IllegalStateException("Unknown iterationType:" + iterationType);
         }
-        return new QueryResultRow(key, value);
+        rows.add(key, value);
     }
 }
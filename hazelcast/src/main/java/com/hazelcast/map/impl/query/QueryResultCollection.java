@@ -20,7 +20,6 @@ import com.hazelcast.spi.serialization.SerializationService;
 import com.hazelcast.util.IterationType;
 
 import java.util.AbstractSet;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -39,7 +38,8 @@ public class QueryResultCollection<E> extends AbstractSet<E> {
         this.serializationService = serializationService;
         this.iterationType = iterationType;
         this.binary = binary;
-        this.rows = unique ? new HashSet<QueryResultRow>() : new ArrayList<QueryResultRow>();
+        // non-unique rows are kept in the columnar form and decoded lazily on iteration
+        this.rows = unique ? new HashSet<QueryResultRow>() : new ColumnarQueryResultRows();
     }
 
     public QueryResultCollection(SerializationService serializationService,
@@ -61,7 +61,11 @@ public class QueryResultCollection<E> extends AbstractSet<E> {
     }
 
     public void addAllRows(Collection<QueryResultRow> collection) {
-        rows.addAll(collection);
+        if (rows instanceof ColumnarQueryResultRows && collection instanceof ColumnarQueryResultRows) {
+            ((ColumnarQueryResultRows) rows).appendAll((ColumnarQueryResultRows) collection);
+        } else {
+            rows.addAll(collection);
+        }
     }
 
     @Override
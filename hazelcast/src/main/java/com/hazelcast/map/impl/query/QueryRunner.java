@@ -31,9 +31,11 @@ import com.hazelcast.query.impl.predicates.QueryOptimizer;
 import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.spi.OperationService;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
+import static com.hazelcast.config.InMemoryFormat.NATIVE;
 import static java.util.Collections.singletonList;
 
 /**
@@ -100,10 +102,34 @@ public class QueryRunner {
     // MIGRATION SAFE QUERYING -> MIGRATION STAMPS ARE VALIDATED (does not have to run on a partition thread)
     // full query = index query (if possible), then partition-scan query
     public Result runIndexOrPartitionScanQueryOnOwnedPartitions(Query query) {
+        return runIndexOrPartitionScanQueryOnOwnedPartitions(query, null);
+    }
+
+    /**
+     * Performs the given query on a chunk of the owned partitions.
+     * <p>
+     * If the query can be answered using a global index, the result covers
+     * all owned partitions, since the index lookup costs the same regardless
+     * of the partitions asked for. Otherwise only the owned partitions of the
+     * given chunk are scanned, so that a caller may collect the results of
+     * a member in several smaller responses.
+     *
+     * @param query          the query to perform
+     * @param partitionChunk the partitions to scan if no index can be used,
+     *                       or {@code null} to scan all owned partitions
+     * @return the result of the query along with the partitions it covers
+     */
+    public Result runIndexOrPartitionScanQueryOnOwnedPartitions(Query query, Collection<Integer> partitionChunk) {
         int migrationStamp = getMigrationStamp();
         Collection<Integer> initialPartitions = mapServiceContext.getOwnedPartitions();
         MapContainer mapContainer = mapServiceContext.getMapContainer(query.getMapName());
 
+        if (mapContainer.getMapConfig().getInMemoryFormat() == NATIVE) {
+            // native records can be freed by partition threads at any time, so they may only be
+            // scanned on partition threads; the empty result makes the caller fall back to them
+            return populateEmptyResult(query, initialPartitions);
+        }
+
         // to optimize the query we need to get any index instance
         Indexes indexes = mapContainer.getIndexes();
         if (indexes == null) {
@@ -117,7 +143,14 @@ public class QueryRunner {
 
         Result result;
         if (entries == null) {
-            result = runUsingPartitionScanSafely(query, predicate, initialPartitions, migrationStamp);
+            Collection<Integer> partitions = initialPartitions;
+            if (partitionChunk != null) {
+                partitions = new ArrayList<Integer>(partitionChunk);
+                partitions.retainAll(initialPartitions);
+            }
+            result = partitions.isEmpty()
+                    ? populateEmptyResult(query, partitionChunk)
+                    : runUsingPartitionScanSafely(query, predicate, partitions, migrationStamp);
         } else {
             result = populateResult(query, initialPartitions, entries);
         }
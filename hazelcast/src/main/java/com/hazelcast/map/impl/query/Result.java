@@ -68,6 +68,19 @@ public interface Result<T extends Result> extends IdentifiedDataSerializable {
      */
     void add(QueryableEntry entry);
 
+    /**
+     * Tells whether this result may keep references to the entries passed to
+     * {@link #add} after the call returns.
+     * <p>
+     * If the entries are not retained, the query execution engine is free to
+     * reuse a single mutable entry instance while scanning a partition
+     * instead of allocating a new one for every matching entry.
+     *
+     * @return {@code true} if the added entries may be retained, {@code false}
+     * otherwise.
+     */
+    boolean retainsEntries();
+
     /**
      * Creates a new empty sub result of the same type as this result.
      * <p>
@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.query.PagingPredicate;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.QueryableEntriesSegment;
+import com.hazelcast.util.executor.ManagedExecutorService;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.query.PagingPredicateAccessor.getNearestAnchorEntry;
+import static com.hazelcast.util.FutureUtil.RETHROW_EVERYTHING;
+import static com.hazelcast.util.FutureUtil.returnWithDeadline;
+import static com.hazelcast.util.Preconditions.checkPositive;
+import static java.lang.Math.min;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Implementation of the {@link PartitionScanExecutor} which scans the
+ * partitions in chunks and balances the chunks between a bounded number of
+ * workers running on the underlying executor.
+ * <p>
+ * Unlike the {@link ParallelPartitionScanExecutor}, which dedicates a single
+ * task to every partition, the unit of work here is a chunk of a partition.
+ * Every worker takes a partition which is not scanned yet, {@link
+ * PartitionScanRunner#collectRecords collects} its records in a single pass
+ * and scans them chunk by chunk; once there are no such partitions left, the
+ * worker steals the chunks of the partitions which are still being scanned by
+ * other workers. That way a single large partition of a skewed map is scanned
+ * by all the workers instead of a single one.
+ * <p>
+ * The number of workers per query is limited by the configured parallelism
+ * and by the number of the partitions, the calling thread acts as one of the
+ * workers. A query of a single partition is scanned by the calling thread
+ * alone.
+ * <p>
+ * <b>NOTE</b>
+ * Since the records of a partition are collected before they are scanned, the
+ * scan is not affected by the resizes of the record store, but it's not
+ * guaranteed to observe the entries which are inserted, updated or removed
+ * while it's in progress.
+ */
+public class WorkStealingPartitionScanExecutor implements PartitionScanExecutor {
+
+    private final PartitionScanRunner partitionScanRunner;
+    private final ManagedExecutorService executor;
+    private final int timeoutInMillis;
+    private final int parallelism;
+    private final int chunkSize;
+
+    public WorkStealingPartitionScanExecutor(PartitionScanRunner partitionScanRunner, ManagedExecutorService executor,
+                                             int timeoutInMillis, int parallelism, int chunkSize) {
+        this.partitionScanRunner = partitionScanRunner;
+        this.executor = executor;
+        this.timeoutInMillis = timeoutInMillis;
+        this.parallelism = checkPositive(parallelism, "parallelism must be positive");
+        this.chunkSize = checkPositive(chunkSize, "chunkSize must be positive");
+    }
+
+    @Override
+    public void execute(String mapName, Predicate predicate, Collection<Integer> partitions, Result result) {
+        int workerCount = min(parallelism, partitions.size());
+        if (workerCount <= 1) {
+            // nobody to share the chunks with, scan the partitions right away
+            for (Integer partitionId : partitions) {
+                partitionScanRunner.run(mapName, predicate, partitionId, result);
+            }
+            return;
+        }
+
+        ScanJob job = new ScanJob(mapName, predicate, partitions);
+
+        List<Future<Result>> futures = new ArrayList<Future<Result>>(workerCount - 1);
+        for (int i = 1; i < workerCount; ++i) {
+            futures.add(executor.submit(new ScanWorker(job, result.createSubResult())));
+        }
+
+        Result callerResult;
+        Collection<Result> subResults;
+        try {
+            callerResult = new ScanWorker(job, result.createSubResult()).call();
+            subResults = returnWithDeadline(futures, timeoutInMillis, MILLISECONDS, RETHROW_EVERYTHING);
+        } catch (RuntimeException e) {
+            // stop the remaining workers, the result is discarded anyway
+            job.cancel();
+            throw e;
+        }
+
+        result.combine(callerResult);
+        for (Result subResult : subResults) {
+            result.combine(subResult);
+        }
+
+        if (predicate instanceof PagingPredicate) {
+            Map.Entry<Integer, Map.Entry> nearestAnchorEntry = getNearestAnchorEntry((PagingPredicate) predicate);
+            result.orderAndLimit((PagingPredicate) predicate, nearestAnchorEntry);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Parallel execution for a partition chunk query is not supported.
+     */
+    @Override
+    public QueryableEntriesSegment execute(String mapName, Predicate predicate, int partitionId, int tableIndex, int fetchSize) {
+        return partitionScanRunner.run(mapName, predicate, partitionId, tableIndex, fetchSize);
+    }
+
+    /**
+     * The state of a single query execution shared by its workers.
+     */
+    private final class ScanJob {
+
+        private final String mapName;
+        private final Predicate predicate;
+        private final Queue<Integer> pendingPartitions;
+        private final Queue<PartitionSnapshot> activeSnapshots = new ConcurrentLinkedQueue<PartitionSnapshot>();
+
+        private volatile boolean cancelled;
+
+        ScanJob(String mapName, Predicate predicate, Collection<Integer> partitions) {
+            this.mapName = mapName;
+            this.predicate = predicate;
+            this.pendingPartitions = new ConcurrentLinkedQueue<Integer>(partitions);
+        }
+
+        /**
+         * Returns the snapshot to take the next chunk from: the given current
+         * snapshot if it's not exhausted yet, otherwise a snapshot of a
+         * partition nobody has started to scan yet or, if there are no such
+         * partitions, a snapshot of a partition which is being scanned by
+         * another worker.
+         *
+         * @return the snapshot or {@code null} if there is no work left.
+         */
+        PartitionSnapshot nextSnapshot(PartitionSnapshot current) {
+            if (cancelled) {
+                return null;
+            }
+            if (current != null && !current.isExhausted()) {
+                return current;
+            }
+
+            Integer partitionId = pendingPartitions.poll();
+            if (partitionId != null) {
+                PartitionSnapshot snapshot = new PartitionSnapshot(partitionId,
+                        partitionScanRunner.collectRecords(mapName, partitionId));
+                activeSnapshots.add(snapshot);
+                return snapshot;
+            }
+
+            for (PartitionSnapshot snapshot : activeSnapshots) {
+                if (snapshot.isExhausted()) {
+                    activeSnapshots.remove(snapshot);
+                } else {
+                    return snapshot;
+                }
+            }
+            return null;
+        }
+
+        void cancel() {
+            cancelled = true;
+        }
+
+    }
+
+    /**
+     * The records of a single partition collected in a single pass, the
+     * chunks of the records are claimed and scanned concurrently by the
+     * workers.
+     */
+    private final class PartitionSnapshot {
+
+        private final int partitionId;
+        private final List<Record> records;
+        private final AtomicInteger nextIndex = new AtomicInteger();
+
+        PartitionSnapshot(int partitionId, List<Record> records) {
+            this.partitionId = partitionId;
+            this.records = records;
+        }
+
+        boolean isExhausted() {
+            return nextIndex.get() >= records.size();
+        }
+
+        /**
+         * Claims the next chunk of the records.
+         *
+         * @return the chunk, empty if the snapshot is exhausted.
+         */
+        List<Record> nextChunk() {
+            int from = nextIndex.getAndAdd(chunkSize);
+            if (from >= records.size()) {
+                return Collections.emptyList();
+            }
+            return records.subList(from, min(from + chunkSize, records.size()));
+        }
+
+    }
+
+    private final class ScanWorker implements Callable<Result> {
+
+        private final ScanJob job;
+        private final Result result;
+
+        ScanWorker(ScanJob job, Result result) {
+            this.job = job;
+            this.result = result;
+        }
+
+        @Override
+        public Result call() {
+            PartitionSnapshot snapshot = null;
+            while ((snapshot = job.nextSnapshot(snapshot)) != null) {
+                List<Record> chunk = snapshot.nextChunk();
+                if (!chunk.isEmpty()) {
+                    partitionScanRunner.run(job.mapName, job.predicate, snapshot.partitionId, chunk, result);
+                }
+            }
+            // a partition is shared by the workers, the final result is
+            // assigned the partition IDs on the construction completion
+            result.setPartitionIds(Collections.<Integer>emptyList());
+            return result;
+        }
+
+    }
+
+}
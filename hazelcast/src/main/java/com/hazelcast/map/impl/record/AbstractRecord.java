@@ -17,7 +17,6 @@
 package com.hazelcast.map.impl.record;
 
 import com.hazelcast.nio.serialization.Data;
-import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
 import static com.hazelcast.nio.Bits.LONG_SIZE_IN_BYTES;
@@ -27,9 +26,15 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
+ * Base class of on-heap records. It carries only the metadata which is
+ * needed regardless of the map configuration; per-entry statistics like
+ * the hit count are kept by {@link AbstractRecordWithHits} and
+ * {@link AbstractRecordWithStats}, and are not tracked by the records
+ * extending this class directly.
+ *
  * @param <V> the type of the value of Record.
  */
-@SuppressWarnings({ "checkstyle:methodcount", "VolatileLongOrDoubleField" })
+@SuppressWarnings("checkstyle:methodcount")
 public abstract class AbstractRecord<V> implements Record<V> {
 
     /**
@@ -44,7 +49,7 @@ public abstract class AbstractRecord<V> implements Record<V> {
      */
     public static final long EPOCH_TIME = zeroOutMs(1514764800000L);
 
-    private static final int NUMBER_OF_LONGS = 2;
+    private static final int NUMBER_OF_LONGS = 1;
     private static final int NUMBER_OF_INTS = 5;
 
     protected Data key;
@@ -52,9 +57,6 @@ public abstract class AbstractRecord<V> implements Record<V> {
     protected int ttl;
     protected int maxIdle;
 
-    @SuppressFBWarnings(value = "VO_VOLATILE_INCREMENT",
-            justification = "Record can be accessed by only its own partition thread.")
-    protected volatile long hits;
     private volatile int lastAccessTime = NOT_AVAILABLE;
     private volatile int lastUpdateTime = NOT_AVAILABLE;
     private int creationTime = NOT_AVAILABLE;
@@ -133,12 +135,11 @@ public abstract class AbstractRecord<V> implements Record<V> {
 
     @Override
     public long getHits() {
-        return hits;
+        return 0L;
     }
 
     @Override
     public void setHits(long hits) {
-        this.hits = hits;
     }
 
     @Override
@@ -159,7 +160,6 @@ public abstract class AbstractRecord<V> implements Record<V> {
 
     @Override
     public void onAccess(long now) {
-        hits++;
         lastAccessTime = stripBaseTime(now);
     }
 
@@ -232,9 +232,6 @@ public abstract class AbstractRecord<V> implements Record<V> {
         if (creationTime != that.creationTime) {
             return false;
         }
-        if (hits != that.hits) {
-            return false;
-        }
         if (lastAccessTime != that.lastAccessTime) {
             return false;
         }
@@ -251,7 +248,6 @@ public abstract class AbstractRecord<V> implements Record<V> {
         result = 31 * result + ttl;
         result = 31 * result + maxIdle;
         result = 31 * result + creationTime;
-        result = 31 * result + (int) (hits ^ (hits >>> 32));
         result = 31 * result + lastAccessTime;
         result = 31 * result + lastUpdateTime;
         return result;
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.record;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import static com.hazelcast.nio.Bits.LONG_SIZE_IN_BYTES;
+
+/**
+ * Record which additionally counts the hits of its entry.
+ *
+ * @param <V> type of {@link AbstractRecord}
+ */
+@SuppressWarnings("VolatileLongOrDoubleField")
+abstract class AbstractRecordWithHits<V>
+        extends AbstractRecord<V> {
+
+    @SuppressFBWarnings(value = "VO_VOLATILE_INCREMENT",
+            justification = "Record can be accessed by only its own partition thread.")
+    protected volatile long hits;
+
+    AbstractRecordWithHits() {
+    }
+
+    @Override
+    public long getHits() {
+        return hits;
+    }
+
+    @Override
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+
+    @Override
+    public void onAccess(long now) {
+        hits++;
+        super.onAccess(now);
+    }
+
+    @Override
+    public long getCost() {
+        return super.getCost() + LONG_SIZE_IN_BYTES;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!super.equals(o)) {
+            return false;
+        }
+
+        AbstractRecordWithHits<?> that = (AbstractRecordWithHits<?>) o;
+        return hits == that.hits;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = super.hashCode();
+        result = 31 * result + (int) (hits ^ (hits >>> 32));
+        return result;
+    }
+}
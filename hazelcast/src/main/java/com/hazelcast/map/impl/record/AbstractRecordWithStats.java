@@ -21,10 +21,13 @@ import com.hazelcast.util.Clock;
 import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
 
 /**
+ * Record which additionally tracks per-entry statistics: hits, last
+ * stored time and expiration time.
+ *
  * @param <V> type of {@link AbstractRecord}
  */
 abstract class AbstractRecordWithStats<V>
-        extends AbstractRecord<V> {
+        extends AbstractRecordWithHits<V> {
 
     private int lastStoredTime = NOT_AVAILABLE;
     private int expirationTime = NOT_AVAILABLE;
@@ -22,18 +22,34 @@ import com.hazelcast.core.PartitioningStrategy;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.spi.serialization.SerializationService;
 
+/**
+ * Creates {@link Data} records for {@link com.hazelcast.config.InMemoryFormat#BINARY} maps.
+ * <p>
+ * The record layout is chosen once, at construction time: records with
+ * statistics are created when the map statistics are enabled, otherwise
+ * records which only count the hits, unless the hits are not needed (see
+ * {@link Records#isHitsTrackingRequired(MapConfig, boolean)}) and the
+ * compact layout without them is used.
+ */
 public class DataRecordFactory implements RecordFactory<Data> {
 
     private final SerializationService serializationService;
     private final PartitioningStrategy partitionStrategy;
     private final CacheDeserializedValues cacheDeserializedValues;
     private final boolean statisticsEnabled;
+    private final boolean hitsTrackingEnabled;
 
     public DataRecordFactory(MapConfig config, SerializationService serializationService,
                              PartitioningStrategy partitionStrategy) {
+        this(config, serializationService, partitionStrategy, true);
+    }
+
+    public DataRecordFactory(MapConfig config, SerializationService serializationService,
+                             PartitioningStrategy partitionStrategy, boolean hitsTrackingEnabled) {
         this.serializationService = serializationService;
         this.partitionStrategy = partitionStrategy;
         this.statisticsEnabled = config.isStatisticsEnabled();
+        this.hitsTrackingEnabled = Records.isHitsTrackingRequired(config, hitsTrackingEnabled);
         this.cacheDeserializedValues = config.getCacheDeserializedValues();
     }
 
@@ -45,10 +61,18 @@ public class DataRecordFactory implements RecordFactory<Data> {
         Record<Data> record;
         switch (cacheDeserializedValues) {
             case NEVER:
-                record = statisticsEnabled ? new DataRecordWithStats(data) : new DataRecord(data);
+                if (statisticsEnabled) {
+                    record = new DataRecordWithStats(data);
+                } else {
+                    record = hitsTrackingEnabled ? new DataRecordWithHits(data) : new DataRecord(data);
+                }
                 break;
             default:
-                record = statisticsEnabled ? new CachedDataRecordWithStats(data) : new CachedDataRecord(data);
+                if (statisticsEnabled) {
+                    record = new CachedDataRecordWithStats(data);
+                } else {
+                    record = hitsTrackingEnabled ? new CachedDataRecordWithHits(data) : new CachedDataRecord(data);
+                }
         }
 
         return record;
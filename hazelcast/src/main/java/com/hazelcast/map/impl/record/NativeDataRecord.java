@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.internal.serialization.impl.NativeMemoryData;
+import com.hazelcast.nio.serialization.Data;
+
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.map.impl.record.AbstractRecord.EPOCH_TIME;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * A {@link Record} whose metadata and value live in a native memory block.
+ * <p>
+ * The on-heap part of the record is just the address of its native block and
+ * a reference to its native key. The value is exposed as an on-heap copy from
+ * {@link #getValue()} and the key from {@link #getKey()}, so no reference to
+ * native memory escapes the record; the native blocks can be freed as soon as
+ * the record is removed from its storage.
+ * <p>
+ * Records are created and disposed by the {@link NativeDataRecordFactory}.
+ */
+@SuppressWarnings("checkstyle:methodcount")
+class NativeDataRecord implements Record<Data> {
+
+    static final int VALUE_ADDRESS_OFFSET = 0;
+    static final int VERSION_OFFSET = 8;
+    static final int HITS_OFFSET = 16;
+    static final int TTL_OFFSET = 24;
+    static final int MAX_IDLE_OFFSET = 28;
+    static final int CREATION_TIME_OFFSET = 32;
+    static final int LAST_ACCESS_TIME_OFFSET = 36;
+    static final int LAST_UPDATE_TIME_OFFSET = 40;
+
+    static final int SIZE = 48;
+
+    protected final long address;
+
+    private NativeMemoryData key;
+
+    NativeDataRecord(long address) {
+        this.address = address;
+        MEM.putInt(address + CREATION_TIME_OFFSET, NOT_AVAILABLE);
+        MEM.putInt(address + LAST_ACCESS_TIME_OFFSET, NOT_AVAILABLE);
+        MEM.putInt(address + LAST_UPDATE_TIME_OFFSET, NOT_AVAILABLE);
+    }
+
+    /**
+     * @return the size of the native block of this record
+     */
+    long size() {
+        return SIZE;
+    }
+
+    long address() {
+        return address;
+    }
+
+    NativeMemoryData getNativeKey() {
+        return key;
+    }
+
+    long getValueAddress() {
+        return MEM.getLong(address + VALUE_ADDRESS_OFFSET);
+    }
+
+    void setValueAddress(long valueAddress) {
+        MEM.putLong(address + VALUE_ADDRESS_OFFSET, valueAddress);
+    }
+
+    @Override
+    public Data getKey() {
+        return key == null ? null : NativeMemoryData.toHeapData(key.address());
+    }
+
+    /**
+     * Only accepts a {@link NativeMemoryData} key allocated by the owning {@link NativeDataRecordFactory}.
+     */
+    @Override
+    public void setKey(Data key) {
+        if (!(key instanceof NativeMemoryData)) {
+            throw new IllegalArgumentException("Key of a native record should be a NativeMemoryData, found: " + key);
+        }
+        this.key = (NativeMemoryData) key;
+    }
+
+    @Override
+    public Data getValue() {
+        return NativeMemoryData.toHeapData(getValueAddress());
+    }
+
+    /**
+     * Only accepts a {@link NativeMemoryData} value allocated by the owning {@link NativeDataRecordFactory}.
+     * The block of the previous value is not freed, use {@link NativeDataRecordFactory#setValue(Record, Object)}
+     * to replace the value of a record.
+     */
+    @Override
+    public void setValue(Data value) {
+        if (!(value instanceof NativeMemoryData)) {
+            throw new IllegalArgumentException("Value of a native record should be a NativeMemoryData, found: " + value);
+        }
+        setValueAddress(((NativeMemoryData) value).address());
+    }
+
+    @Override
+    public void onAccess(long now) {
+        setHits(getHits() + 1);
+        MEM.putInt(address + LAST_ACCESS_TIME_OFFSET, stripBaseTime(now));
+    }
+
+    @Override
+    public void onUpdate(long now) {
+        setVersion(getVersion() + 1);
+        MEM.putInt(address + LAST_UPDATE_TIME_OFFSET, stripBaseTime(now));
+    }
+
+    @Override
+    public void onStore() {
+    }
+
+    /**
+     * Returns the native memory cost of this record, including the blocks of its key and value.
+     */
+    @Override
+    public long getCost() {
+        long cost = size();
+        long valueAddress = getValueAddress();
+        if (valueAddress != NULL_ADDRESS) {
+            cost += NativeMemoryData.blockSizeAt(valueAddress);
+        }
+        if (key != null) {
+            cost += key.size();
+        }
+        return cost;
+    }
+
+    @Override
+    public long getVersion() {
+        return MEM.getLong(address + VERSION_OFFSET);
+    }
+
+    @Override
+    public void setVersion(long version) {
+        MEM.putLong(address + VERSION_OFFSET, version);
+    }
+
+    @Override
+    public Object getCachedValueUnsafe() {
+        return Record.NOT_CACHED;
+    }
+
+    @Override
+    public boolean casCachedValue(Object expectedValue, Object newValue) {
+        return true;
+    }
+
+    @Override
+    public long getTtl() {
+        int ttl = MEM.getInt(address + TTL_OFFSET);
+        return ttl == Integer.MAX_VALUE ? Long.MAX_VALUE : SECONDS.toMillis(ttl);
+    }
+
+    @Override
+    public void setTtl(long ttl) {
+        MEM.putInt(address + TTL_OFFSET, toSeconds(ttl));
+    }
+
+    @Override
+    public long getMaxIdle() {
+        int maxIdle = MEM.getInt(address + MAX_IDLE_OFFSET);
+        return maxIdle == Integer.MAX_VALUE ? Long.MAX_VALUE : SECONDS.toMillis(maxIdle);
+    }
+
+    @Override
+    public void setMaxIdle(long maxIdle) {
+        MEM.putInt(address + MAX_IDLE_OFFSET, toSeconds(maxIdle));
+    }
+
+    @Override
+    public long getLastAccessTime() {
+        return recomputeWithBaseTime(MEM.getInt(address + LAST_ACCESS_TIME_OFFSET));
+    }
+
+    @Override
+    public void setLastAccessTime(long lastAccessTime) {
+        MEM.putInt(address + LAST_ACCESS_TIME_OFFSET, stripBaseTime(lastAccessTime));
+    }
+
+    @Override
+    public long getLastUpdateTime() {
+        return recomputeWithBaseTime(MEM.getInt(address + LAST_UPDATE_TIME_OFFSET));
+    }
+
+    @Override
+    public void setLastUpdateTime(long lastUpdateTime) {
+        MEM.putInt(address + LAST_UPDATE_TIME_OFFSET, stripBaseTime(lastUpdateTime));
+    }
+
+    @Override
+    public long getCreationTime() {
+        return recomputeWithBaseTime(MEM.getInt(address + CREATION_TIME_OFFSET));
+    }
+
+    @Override
+    public void setCreationTime(long creationTime) {
+        MEM.putInt(address + CREATION_TIME_OFFSET, stripBaseTime(creationTime));
+    }
+
+    @Override
+    public long getHits() {
+        return MEM.getLong(address + HITS_OFFSET);
+    }
+
+    @Override
+    public void setHits(long hits) {
+        MEM.putLong(address + HITS_OFFSET, hits);
+    }
+
+    @Override
+    public long getExpirationTime() {
+        return NOT_AVAILABLE;
+    }
+
+    @Override
+    public void setExpirationTime(long expirationTime) {
+    }
+
+    @Override
+    public long getLastStoredTime() {
+        return NOT_AVAILABLE;
+    }
+
+    @Override
+    public void setLastStoredTime(long lastStoredTime) {
+    }
+
+    @Override
+    public final long getSequence() {
+        return NOT_AVAILABLE;
+    }
+
+    @Override
+    public final void setSequence(long sequence) {
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return address == ((NativeDataRecord) o).address;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (address ^ (address >>> 32));
+    }
+
+    static long recomputeWithBaseTime(int value) {
+        if (value == NOT_AVAILABLE) {
+            return 0L;
+        }
+
+        long exploded = SECONDS.toMillis(value);
+        return exploded + EPOCH_TIME;
+    }
+
+    static int stripBaseTime(long value) {
+        int diff = NOT_AVAILABLE;
+        if (value > 0) {
+            diff = (int) MILLISECONDS.toSeconds(value - EPOCH_TIME);
+        }
+
+        return diff;
+    }
+
+    private static int toSeconds(long millis) {
+        long seconds = MILLISECONDS.toSeconds(millis);
+        if (seconds == 0 && millis != 0) {
+            seconds = 1;
+        }
+        return seconds > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) seconds;
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.core.PartitioningStrategy;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.serialization.impl.NativeMemoryData;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+
+import java.util.Arrays;
+
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+
+/**
+ * Creates {@link NativeDataRecord}s and manages the native memory blocks of their keys and values.
+ * <p>
+ * Blocks of removed records and replaced values are not freed immediately, since the operation
+ * which removed them may still read the record. They are collected and freed on the next call
+ * to {@link #disposeDeferredBlocks()}, which must happen on the partition thread owning the
+ * records, like all other calls to this factory.
+ */
+public class NativeDataRecordFactory implements RecordFactory<Data> {
+
+    private static final int INITIAL_DEFERRED_CAPACITY = 16;
+
+    private final MemoryAllocator malloc;
+    private final SerializationService serializationService;
+    private final PartitioningStrategy partitionStrategy;
+    private final boolean statisticsEnabled;
+
+    // (address, size) pairs of the blocks waiting to be freed
+    private long[] deferredBlocks = new long[INITIAL_DEFERRED_CAPACITY];
+    private int deferredBlockCount;
+
+    public NativeDataRecordFactory(MapConfig config, MemoryAllocator malloc, SerializationService serializationService,
+                                   PartitioningStrategy partitionStrategy) {
+        this.malloc = malloc;
+        this.serializationService = serializationService;
+        this.partitionStrategy = partitionStrategy;
+        this.statisticsEnabled = config.isStatisticsEnabled();
+    }
+
+    @Override
+    public Record<Data> newRecord(Object value) {
+        assert value != null : "value can not be null";
+
+        NativeMemoryData nativeValue = toNativeData(value);
+        long address = NULL_ADDRESS;
+        try {
+            NativeDataRecord record;
+            if (statisticsEnabled) {
+                address = malloc.allocate(NativeDataRecordWithStats.SIZE);
+                record = new NativeDataRecordWithStats(address);
+            } else {
+                address = malloc.allocate(NativeDataRecord.SIZE);
+                record = new NativeDataRecord(address);
+            }
+            record.setValueAddress(nativeValue.address());
+            return record;
+        } catch (NativeOutOfMemoryError e) {
+            malloc.free(nativeValue.address(), nativeValue.size());
+            if (address != NULL_ADDRESS) {
+                malloc.free(address, statisticsEnabled ? NativeDataRecordWithStats.SIZE : NativeDataRecord.SIZE);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void setValue(Record<Data> record, Object value) {
+        assert value != null : "value can not be null";
+
+        NativeDataRecord nativeRecord = (NativeDataRecord) record;
+        NativeMemoryData nativeValue = toNativeData(value);
+        long oldValueAddress = nativeRecord.getValueAddress();
+        nativeRecord.setValueAddress(nativeValue.address());
+        deferDataBlock(oldValueAddress);
+    }
+
+    /**
+     * Copies the given key into a new native block.
+     */
+    public NativeMemoryData toNativeKey(Data key) {
+        return NativeMemoryData.copyOf(key, malloc);
+    }
+
+    /**
+     * Returns the native key which was set on the record with {@link Record#setKey(Data)}.
+     */
+    public NativeMemoryData getNativeKey(Record record) {
+        return ((NativeDataRecord) record).getNativeKey();
+    }
+
+    /**
+     * Schedules the native blocks of the given record to be freed on the next
+     * call to {@link #disposeDeferredBlocks()}.
+     *
+     * @param record     the record to dispose
+     * @param disposeKey {@code true} if the native key of the record should also be disposed,
+     *                   {@code false} if it is still in use (e.g. by a replacing record)
+     */
+    public void dispose(Record record, boolean disposeKey) {
+        NativeDataRecord nativeRecord = (NativeDataRecord) record;
+        deferDataBlock(nativeRecord.getValueAddress());
+        if (disposeKey && nativeRecord.getNativeKey() != null) {
+            deferDataBlock(nativeRecord.getNativeKey().address());
+        }
+        deferBlock(nativeRecord.address(), nativeRecord.size());
+    }
+
+    /**
+     * Frees all native blocks previously scheduled for disposal.
+     */
+    public void disposeDeferredBlocks() {
+        for (int i = 0; i < deferredBlockCount; i += 2) {
+            malloc.free(deferredBlocks[i], deferredBlocks[i + 1]);
+        }
+        deferredBlockCount = 0;
+        if (deferredBlocks.length > INITIAL_DEFERRED_CAPACITY) {
+            deferredBlocks = new long[INITIAL_DEFERRED_CAPACITY];
+        }
+    }
+
+    private NativeMemoryData toNativeData(Object value) {
+        Data data = value instanceof Data ? (Data) value : serializationService.toData(value, partitionStrategy);
+        return NativeMemoryData.copyOf(data, malloc);
+    }
+
+    private void deferDataBlock(long address) {
+        if (address != NULL_ADDRESS) {
+            deferBlock(address, NativeMemoryData.blockSizeAt(address));
+        }
+    }
+
+    private void deferBlock(long address, long size) {
+        if (deferredBlockCount == deferredBlocks.length) {
+            deferredBlocks = Arrays.copyOf(deferredBlocks, deferredBlocks.length * 2);
+        }
+        deferredBlocks[deferredBlockCount++] = address;
+        deferredBlocks[deferredBlockCount++] = size;
+    }
+}
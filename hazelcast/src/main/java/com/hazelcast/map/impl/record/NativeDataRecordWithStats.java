@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.util.Clock;
+
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+
+/**
+ * {@link NativeDataRecord} which additionally keeps the last stored
+ * and expiration times in its native block.
+ */
+class NativeDataRecordWithStats extends NativeDataRecord {
+
+    static final int LAST_STORED_TIME_OFFSET = NativeDataRecord.SIZE;
+    static final int EXPIRATION_TIME_OFFSET = LAST_STORED_TIME_OFFSET + 4;
+
+    static final int SIZE = NativeDataRecord.SIZE + 8;
+
+    NativeDataRecordWithStats(long address) {
+        super(address);
+        MEM.putInt(address + LAST_STORED_TIME_OFFSET, NOT_AVAILABLE);
+        MEM.putInt(address + EXPIRATION_TIME_OFFSET, NOT_AVAILABLE);
+    }
+
+    @Override
+    long size() {
+        return SIZE;
+    }
+
+    @Override
+    public void onStore() {
+        setLastStoredTime(Clock.currentTimeMillis());
+    }
+
+    @Override
+    public long getExpirationTime() {
+        int expirationTime = MEM.getInt(address + EXPIRATION_TIME_OFFSET);
+        if (expirationTime == NOT_AVAILABLE) {
+            return 0L;
+        }
+
+        if (expirationTime == Integer.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+
+        return recomputeWithBaseTime(expirationTime);
+    }
+
+    @Override
+    public void setExpirationTime(long expirationTime) {
+        MEM.putInt(address + EXPIRATION_TIME_OFFSET, expirationTime == Long.MAX_VALUE
+                ? Integer.MAX_VALUE
+                : stripBaseTime(expirationTime));
+    }
+
+    @Override
+    public long getLastStoredTime() {
+        return recomputeWithBaseTime(MEM.getInt(address + LAST_STORED_TIME_OFFSET));
+    }
+
+    @Override
+    public void setLastStoredTime(long lastStoredTime) {
+        MEM.putInt(address + LAST_STORED_TIME_OFFSET, stripBaseTime(lastStoredTime));
+    }
+}
@@ -24,10 +24,16 @@ public class ObjectRecordFactory implements RecordFactory<Object> {
 
     private final SerializationService serializationService;
     private final boolean statisticsEnabled;
+    private final boolean hitsTrackingEnabled;
 
     public ObjectRecordFactory(MapConfig config, SerializationService serializationService) {
+        this(config, serializationService, true);
+    }
+
+    public ObjectRecordFactory(MapConfig config, SerializationService serializationService, boolean hitsTrackingEnabled) {
         this.serializationService = serializationService;
         this.statisticsEnabled = config.isStatisticsEnabled();
+        this.hitsTrackingEnabled = Records.isHitsTrackingRequired(config, hitsTrackingEnabled);
     }
 
     @Override
@@ -35,8 +41,10 @@ public class ObjectRecordFactory implements RecordFactory<Object> {
         assert value != null : "value can not be null";
 
         Object objectValue = serializationService.toObject(value);
-        Record<Object> record = statisticsEnabled ? new ObjectRecordWithStats(objectValue) : new ObjectRecord(objectValue);
-        return record;
+        if (statisticsEnabled) {
+            return new ObjectRecordWithStats(objectValue);
+        }
+        return hitsTrackingEnabled ? new ObjectRecordWithHits(objectValue) : new ObjectRecord(objectValue);
     }
 
     @Override
@@ -16,7 +16,15 @@
 
 package com.hazelcast.map.impl.record;
 
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.WanReplicationRef;
+import com.hazelcast.map.eviction.LRUEvictionPolicy;
+import com.hazelcast.map.eviction.MapEvictionPolicy;
+import com.hazelcast.map.eviction.RandomEvictionPolicy;
+import com.hazelcast.map.merge.HigherHitsMapMergePolicy;
 import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.merge.HigherHitsMergePolicy;
 import com.hazelcast.spi.serialization.SerializationService;
 
 import static com.hazelcast.map.impl.record.Record.NOT_CACHED;
@@ -41,6 +49,42 @@ public final class Records {
         record.setLastStoredTime(replicationInfo.getLastStoredTime());
     }
 
+    /**
+     * Decides whether the records of a map without statistics must count
+     * the hits of their entries.
+     * <p>
+     * The hits are counted unless the hit tracking is disabled with
+     * {@link com.hazelcast.spi.properties.GroupProperty#MAP_ENTRY_HITS_TRACKING_ENABLED}.
+     * Even then, they are still needed by the LFU and custom eviction
+     * policies and by the higher-hits split-brain and WAN merge policies.
+     *
+     * @param mapConfig           the config of the map
+     * @param hitsTrackingEnabled the value of the hit tracking property
+     * @return {@code true} if the records should count the hits, otherwise {@code false}
+     */
+    static boolean isHitsTrackingRequired(MapConfig mapConfig, boolean hitsTrackingEnabled) {
+        if (hitsTrackingEnabled || mapConfig.getEvictionPolicy() == EvictionPolicy.LFU) {
+            return true;
+        }
+
+        MapEvictionPolicy mapEvictionPolicy = mapConfig.getMapEvictionPolicy();
+        if (mapEvictionPolicy != null
+                && !(mapEvictionPolicy instanceof LRUEvictionPolicy)
+                && !(mapEvictionPolicy instanceof RandomEvictionPolicy)) {
+            return true;
+        }
+
+        WanReplicationRef wanReplicationRef = mapConfig.getWanReplicationRef();
+        return isHigherHitsMergePolicy(mapConfig.getMergePolicyConfig().getPolicy())
+                || wanReplicationRef != null && isHigherHitsMergePolicy(wanReplicationRef.getMergePolicy());
+    }
+
+    private static boolean isHigherHitsMergePolicy(String mergePolicy) {
+        return HigherHitsMergePolicy.class.getName().equals(mergePolicy)
+                || HigherHitsMergePolicy.class.getSimpleName().equals(mergePolicy)
+                || HigherHitsMapMergePolicy.class.getName().equals(mergePolicy);
+    }
+
     public static RecordInfo buildRecordInfo(Record record) {
         RecordInfo info = new RecordInfo();
 
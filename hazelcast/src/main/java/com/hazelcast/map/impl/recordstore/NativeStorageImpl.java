@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.internal.serialization.impl.NativeMemoryData;
+import com.hazelcast.map.impl.EntryCostEstimator;
+import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
+import com.hazelcast.map.impl.iterator.MapKeysWithCursor;
+import com.hazelcast.map.impl.record.NativeDataRecordFactory;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static com.hazelcast.config.InMemoryFormat.NATIVE;
+import static com.hazelcast.internal.util.ToHeapDataConverter.toHeapData;
+import static com.hazelcast.map.impl.OwnedEntryCostEstimatorFactory.createMapSizeEstimator;
+
+/**
+ * {@link Storage} implementation used for {@link com.hazelcast.config.InMemoryFormat#NATIVE NATIVE} maps.
+ * <p>
+ * Keys, values and record metadata are kept in native memory blocks allocated by a
+ * {@link NativeDataRecordFactory}; the on-heap part of an entry is reduced to the hash table
+ * node, the native key wrapper and the native record wrapper. The hash table itself is a
+ * {@link StorageSCHM}, so iteration, fetching by table index and eviction sampling behave
+ * exactly as with {@link StorageImpl}.
+ * <p>
+ * Keys returned from this storage are always copied on-heap. Native blocks of removed records
+ * and replaced values are freed on {@link #disposeDeferredBlocks()}.
+ *
+ * @param <R> the value type to be put in this storage.
+ */
+public class NativeStorageImpl<R extends Record> implements Storage<Data, R> {
+
+    private final NativeDataRecordFactory recordFactory;
+    private final StorageSCHM<R> records;
+
+    // not final for testing purposes.
+    private EntryCostEstimator<Data, Record> entryCostEstimator;
+
+    NativeStorageImpl(NativeDataRecordFactory recordFactory, SerializationService serializationService) {
+        this.recordFactory = recordFactory;
+        this.entryCostEstimator = createMapSizeEstimator(NATIVE);
+        this.records = new StorageSCHM<R>(serializationService);
+    }
+
+    @Override
+    public void clear(boolean isDuringShutdown) {
+        for (R record : records.values()) {
+            recordFactory.dispose(record, true);
+        }
+        records.clear();
+
+        entryCostEstimator.reset();
+    }
+
+    @Override
+    public Collection<R> values() {
+        return records.values();
+    }
+
+    @Override
+    public Iterator<R> mutationTolerantIterator() {
+        return records.values().iterator();
+    }
+
+    @Override
+    public void put(Data key, R record) {
+        R previousRecord = records.get(key);
+        if (previousRecord == record) {
+            return;
+        }
+
+        NativeMemoryData nativeKey = previousRecord == null
+                ? recordFactory.toNativeKey(key) : recordFactory.getNativeKey(previousRecord);
+        record.setKey(nativeKey);
+        records.put(nativeKey, record);
+
+        if (previousRecord == null) {
+            updateCostEstimate(entryCostEstimator.calculateEntryCost(nativeKey, record));
+        } else {
+            updateCostEstimate(-entryCostEstimator.calculateValueCost(previousRecord));
+            updateCostEstimate(entryCostEstimator.calculateValueCost(record));
+            recordFactory.dispose(previousRecord, false);
+        }
+    }
+
+    @Override
+    public void updateRecordValue(Data key, R record, Object value) {
+        updateCostEstimate(-entryCostEstimator.calculateValueCost(record));
+
+        recordFactory.setValue(record, value);
+
+        updateCostEstimate(entryCostEstimator.calculateValueCost(record));
+    }
+
+    @Override
+    public R get(Data key) {
+        return records.get(key);
+    }
+
+    @Override
+    public R getIfSameKey(Data key) {
+        R record = records.get(key);
+        if (record == null || !(key instanceof NativeMemoryData)) {
+            return null;
+        }
+        NativeMemoryData nativeKey = recordFactory.getNativeKey(record);
+        return nativeKey.address() == ((NativeMemoryData) key).address() ? record : null;
+    }
+
+    @Override
+    public int size() {
+        return records.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return records.isEmpty();
+    }
+
+    @Override
+    public void destroy(boolean isDuringShutdown) {
+        clear(isDuringShutdown);
+        disposeDeferredBlocks();
+    }
+
+    @Override
+    public EntryCostEstimator getEntryCostEstimator() {
+        return entryCostEstimator;
+    }
+
+    @Override
+    public boolean containsKey(Data key) {
+        return records.containsKey(key);
+    }
+
+    @Override
+    public void removeRecord(R record) {
+        if (record == null) {
+            return;
+        }
+
+        NativeMemoryData nativeKey = recordFactory.getNativeKey(record);
+        records.remove(nativeKey);
+
+        updateCostEstimate(-entryCostEstimator.calculateEntryCost(nativeKey, record));
+        recordFactory.dispose(record, true);
+    }
+
+    protected void updateCostEstimate(long entrySize) {
+        entryCostEstimator.adjustEstimateBy(entrySize);
+    }
+
+    @Override
+    public void setEntryCostEstimator(EntryCostEstimator entryCostEstimator) {
+        this.entryCostEstimator = entryCostEstimator;
+    }
+
+    @Override
+    public void disposeDeferredBlocks() {
+        recordFactory.disposeDeferredBlocks();
+    }
+
+    @Override
+    public Iterable<LazyEntryViewFromRecord> getRandomSamples(int sampleCount) {
+        return records.getRandomSamples(sampleCount);
+    }
+
+    @Override
+    public MapKeysWithCursor fetchKeys(int tableIndex, int size) {
+        List<Data> nativeKeys = new ArrayList<Data>(size);
+        int newTableIndex = records.fetchKeys(tableIndex, size, nativeKeys);
+        List<Data> keys = new ArrayList<Data>(nativeKeys.size());
+        for (Data nativeKey : nativeKeys) {
+            keys.add(toHeapData(nativeKey));
+        }
+        return new MapKeysWithCursor(keys, newTableIndex);
+    }
+
+    @Override
+    public MapEntriesWithCursor fetchEntries(int tableIndex, int size, SerializationService serializationService) {
+        List<Map.Entry<Data, R>> entries = new ArrayList<Map.Entry<Data, R>>(size);
+        int newTableIndex = records.fetchEntries(tableIndex, size, entries);
+        List<Map.Entry<Data, Data>> entriesData = new ArrayList<Map.Entry<Data, Data>>(entries.size());
+        for (Map.Entry<Data, R> entry : entries) {
+            R record = entry.getValue();
+            Data dataValue = serializationService.toData(record.getValue());
+            entriesData.add(new AbstractMap.SimpleEntry<Data, Data>(toHeapData(entry.getKey()), dataValue));
+        }
+        return new MapEntriesWithCursor(entriesData, newTableIndex);
+    }
+}
@@ -23,10 +23,20 @@ import com.hazelcast.query.impl.IndexHeapMemoryCostUtil;
  */
 public class GlobalIndexOperationStats implements IndexOperationStats {
 
+    private final boolean ordered;
+
     private long entryCountDelta;
 
     private long memoryCostDelta;
 
+    /**
+     * @param ordered {@code true} if the stats are collected for an ordered
+     *                index, {@code false} otherwise.
+     */
+    public GlobalIndexOperationStats(boolean ordered) {
+        this.ordered = ordered;
+    }
+
     @Override
     public long getEntryCountDelta() {
         return entryCountDelta;
@@ -39,11 +49,11 @@ public class GlobalIndexOperationStats implements IndexOperationStats {
 
     @Override
     public void onEntryAdded(Object replacedValue, Object addedValue) {
-        memoryCostDelta += IndexHeapMemoryCostUtil.estimateValueCost(addedValue);
+        memoryCostDelta += IndexHeapMemoryCostUtil.estimateValueCost(addedValue, ordered);
         if (replacedValue == null) {
             ++entryCountDelta;
         } else {
-            memoryCostDelta -= IndexHeapMemoryCostUtil.estimateValueCost(replacedValue);
+            memoryCostDelta -= IndexHeapMemoryCostUtil.estimateValueCost(replacedValue, ordered);
         }
     }
 
@@ -51,7 +61,7 @@ public class GlobalIndexOperationStats implements IndexOperationStats {
     public void onEntryRemoved(Object removedValue) {
         if (removedValue != null) {
             --entryCountDelta;
-            memoryCostDelta -= IndexHeapMemoryCostUtil.estimateValueCost(removedValue);
+            memoryCostDelta -= IndexHeapMemoryCostUtil.estimateValueCost(removedValue, ordered);
         }
     }
 
@@ -258,7 +258,7 @@ public class GlobalPerIndexStats implements PerIndexStats {
 
     @Override
     public IndexOperationStats createOperationStats() {
-        return new GlobalIndexOperationStats();
+        return new GlobalIndexOperationStats(ordered);
     }
 
 }
@@ -235,7 +235,7 @@ public class NearCacheStatsImpl implements NearCacheStats {
         return persistenceCount;
     }
 
-    public void addPersistence(long duration, int writtenBytes, int keyCount) {
+    public void addPersistence(long duration, long writtenBytes, int keyCount) {
         PERSISTENCE_COUNT.incrementAndGet(this);
         lastPersistenceTime = getNowInMillis();
         lastPersistenceDuration = duration;
@@ -17,9 +17,12 @@
 package com.hazelcast.nio;
 
 import com.hazelcast.internal.networking.OutboundFrame;
+import com.hazelcast.internal.networking.nio.ByteBufferPool;
 import com.hazelcast.internal.serialization.impl.HeapData;
 import com.hazelcast.spi.annotation.PrivateApi;
 
+import java.nio.ByteBuffer;
+
 import static com.hazelcast.nio.PacketIOHelper.HEADER_SIZE;
 
 /**
@@ -44,7 +47,7 @@ public final class Packet extends HeapData implements OutboundFrame {
     // Flags are dispatched against in a cascade:
     // 1. URGENT (bit 4)
     // 2. Packet type (bits 0, 2, 5)
-    // 3. Flags specific to a given packet type (bits 1, 6)
+    // 3. Flags specific to a given packet type (bits 1, 6, 7)
 
 
     // 1. URGENT flag
@@ -89,6 +92,10 @@ public final class Packet extends HeapData implements OutboundFrame {
      * Marks an Operation packet as Operation control (like invocation-heartbeats)
      */
     public static final int FLAG_OP_CONTROL = 1 << 6;
+    /**
+     * Marks an Operation packet as a bulk operation to be put into the bulk lane of the operation queue
+     */
+    public static final int FLAG_OP_BULK = 1 << 7;
 
 
     // 3.b Jet packet flags
@@ -108,6 +115,13 @@ public final class Packet extends HeapData implements OutboundFrame {
     private int partitionId;
     private transient Connection conn;
 
+    // when the payload is borrowed from a pool, the payload array is the array
+    // of the pooled buffer and it's larger than the payload itself
+    private transient ByteBufferPool payloadPool;
+    private transient ByteBuffer payloadBuffer;
+    private transient int payloadSize;
+    private transient long enqueueNanos;
+
     public Packet() {
     }
 
@@ -120,6 +134,14 @@ public final class Packet extends HeapData implements OutboundFrame {
         this.partitionId = partitionId;
     }
 
+    Packet(ByteBufferPool payloadPool, ByteBuffer payloadBuffer, int payloadSize, int partitionId) {
+        super(payloadBuffer.array());
+        this.partitionId = partitionId;
+        this.payloadPool = payloadPool;
+        this.payloadBuffer = payloadBuffer;
+        this.payloadSize = payloadSize;
+    }
+
     /**
      * Gets the Connection this Packet was send with.
      *
@@ -143,6 +165,26 @@ public final class Packet extends HeapData implements OutboundFrame {
         return this;
     }
 
+    /**
+     * Gets the time this Packet was put into an operation queue.
+     *
+     * @return the {@link System#nanoTime()} when the Packet was queued, or 0 if it wasn't recorded.
+     */
+    public long getEnqueueNanos() {
+        return enqueueNanos;
+    }
+
+    /**
+     * Sets the time this Packet was put into an operation queue.
+     * <p/>
+     * This is done on the reading side of the Packet to measure the time the Packet waits in the queue.
+     *
+     * @param enqueueNanos the {@link System#nanoTime()} when the Packet was queued.
+     */
+    public void setEnqueueNanos(long enqueueNanos) {
+        this.enqueueNanos = enqueueNanos;
+    }
+
     public Type getPacketType() {
         return Type.fromFlags(flags);
     }
@@ -212,6 +254,41 @@ public final class Packet extends HeapData implements OutboundFrame {
         return partitionId;
     }
 
+    /**
+     * Checks if the payload of this packet is read into a buffer borrowed from
+     * a pool. Such a packet has to be deserialized in place and the payload
+     * released using {@link #releasePayload()} as soon as it's no longer needed.
+     *
+     * @return {@code true} if the payload is pooled, {@code false} otherwise.
+     */
+    public boolean isPayloadPooled() {
+        return payloadBuffer != null;
+    }
+
+    /**
+     * Returns the pooled payload buffer of this packet to its pool. Afterwards
+     * the packet has no payload. Has no effect if the payload isn't pooled.
+     * <p>
+     * Nothing may refer to the payload array once it's released: the array is
+     * going to be overwritten by another packet.
+     */
+    public void releasePayload() {
+        ByteBuffer buffer = payloadBuffer;
+        if (buffer == null) {
+            return;
+        }
+
+        payloadBuffer = null;
+        payload = null;
+        payloadSize = 0;
+        payloadPool.release(buffer);
+    }
+
+    @Override
+    public int totalSize() {
+        return payloadBuffer != null ? payloadSize : super.totalSize();
+    }
+
     @Override
     public boolean isUrgent() {
         return isFlagRaised(FLAG_URGENT);
@@ -283,7 +360,8 @@ public final class Packet extends HeapData implements OutboundFrame {
             @Override
             public String describeFlags(char flags) {
                 return "[isResponse=" + isFlagRaised(flags, FLAG_OP_RESPONSE)
-                        + ", isOpControl=" + isFlagRaised(flags, FLAG_OP_CONTROL) + ']';
+                        + ", isOpControl=" + isFlagRaised(flags, FLAG_OP_CONTROL)
+                        + ", isBulk=" + isFlagRaised(flags, FLAG_OP_BULK) + ']';
             }
         },
         /**
@@ -16,6 +16,7 @@
 
 package com.hazelcast.nio;
 
+import com.hazelcast.internal.networking.nio.ByteBufferPool;
 import com.hazelcast.spi.annotation.PrivateApi;
 
 import java.nio.ByteBuffer;
@@ -23,6 +24,8 @@ import java.nio.ByteBuffer;
 import static com.hazelcast.nio.Bits.BYTE_SIZE_IN_BYTES;
 import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
 import static com.hazelcast.nio.Bits.SHORT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Packet.FLAG_OP_CONTROL;
+import static com.hazelcast.nio.Packet.FLAG_OP_RESPONSE;
 import static com.hazelcast.nio.Packet.VERSION;
 
 /**
@@ -36,6 +39,11 @@ import static com.hazelcast.nio.Packet.VERSION;
  * write at the same time, you need to have 2 instances.
  *
  * A {@link PacketIOHelper} is designed to be reused.
+ *
+ * A {@link PacketIOHelper} used for reading can be given a pool of payload buffers. The payloads of the operation
+ * packets large enough to be pooled are then read into buffers borrowed from the pool instead of into newly allocated
+ * arrays; see {@link Packet#releasePayload()}. Only the operation packets are pooled since their payload is
+ * deserialized at once by the operation thread; a response or an event can be held on to for an unbounded time.
  */
 @PrivateApi
 public class PacketIOHelper {
@@ -47,6 +55,21 @@ public class PacketIOHelper {
     private char flags;
     private int partitionId;
     private byte[] payload;
+    private ByteBuffer payloadBuffer;
+
+    private final ByteBufferPool payloadPool;
+
+    public PacketIOHelper() {
+        this(null);
+    }
+
+    /**
+     * @param payloadPool the pool to borrow the payload buffers of the read packets from, or {@code null} if
+     *                    the payloads shouldn't be pooled.
+     */
+    public PacketIOHelper(ByteBufferPool payloadPool) {
+        this.payloadPool = payloadPool;
+    }
 
     /**
      * Writes the packet data to the supplied {@code ByteBuffer}, up to the buffer's limit. If it returns {@code false},
@@ -57,15 +80,11 @@ public class PacketIOHelper {
      */
     public boolean writeTo(Packet packet, ByteBuffer dst) {
         if (!headerComplete) {
-            if (dst.remaining() < HEADER_SIZE) {
+            if (!writeHeaderTo(packet, dst)) {
                 return false;
             }
 
-            dst.put(VERSION);
-            dst.putChar(packet.getFlags());
-            dst.putInt(packet.getPartitionId());
             size = packet.totalSize();
-            dst.putInt(size);
             headerComplete = true;
         }
 
@@ -77,6 +96,26 @@ public class PacketIOHelper {
         }
     }
 
+    /**
+     * Writes only the header of the packet to the supplied {@code ByteBuffer}. The payload of the packet is expected to
+     * follow the header, written by other means, e.g. by a gathering write directly from the payload array.
+     *
+     * @param packet the packet to write the header of
+     * @param dst    the destination byte buffer
+     * @return {@code true} if the header got written; {@code false} if there is not enough space in the buffer.
+     */
+    public static boolean writeHeaderTo(Packet packet, ByteBuffer dst) {
+        if (dst.remaining() < HEADER_SIZE) {
+            return false;
+        }
+
+        dst.put(VERSION);
+        dst.putChar(packet.getFlags());
+        dst.putInt(packet.getPartitionId());
+        dst.putInt(packet.totalSize());
+        return true;
+    }
+
     private boolean writeValue(Packet packet, ByteBuffer dst) {
         if (size > 0) {
             // the number of bytes that can be written to the bb.
@@ -134,7 +173,10 @@ public class PacketIOHelper {
         }
 
         if (readValue(src)) {
-            Packet packet = new Packet(payload, partitionId).resetFlagsTo(flags);
+            Packet packet = payloadBuffer != null
+                    ? new Packet(payloadPool, payloadBuffer, size, partitionId)
+                    : new Packet(payload, partitionId);
+            packet.resetFlagsTo(flags);
             reset();
             return packet;
         } else {
@@ -145,12 +187,18 @@ public class PacketIOHelper {
     private void reset() {
         headerComplete = false;
         payload = null;
+        payloadBuffer = null;
         valueOffset = 0;
     }
 
     private boolean readValue(ByteBuffer src) {
         if (payload == null) {
-            payload = new byte[size];
+            if (isPayloadPooled()) {
+                payloadBuffer = payloadPool.acquire(size, false);
+                payload = payloadBuffer.array();
+            } else {
+                payload = new byte[size];
+            }
         }
 
         if (size > 0) {
@@ -180,4 +228,10 @@ public class PacketIOHelper {
         return true;
     }
 
+    private boolean isPayloadPooled() {
+        return payloadPool != null
+                && payloadPool.isPooled(size)
+                && Packet.Type.fromFlags(flags) == Packet.Type.OPERATION
+                && (flags & (FLAG_OP_RESPONSE | FLAG_OP_CONTROL)) == 0;
+    }
 }
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.nio.tcp;
+
+import com.hazelcast.internal.networking.HandlerStatus;
+import com.hazelcast.internal.networking.OutboundBuffers;
+import com.hazelcast.internal.networking.OutboundHandler;
+import com.hazelcast.nio.Packet;
+import com.hazelcast.nio.PacketIOHelper;
+import com.hazelcast.util.function.Supplier;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
+import static com.hazelcast.internal.networking.HandlerStatus.DIRTY;
+
+/**
+ * A {@link PacketEncoder} alternative which produces its output for a
+ * gathering write.
+ *
+ * The small packets are copied into the dst buffer, like the
+ * {@link PacketEncoder} does. Of the packets with the payload of at least the
+ * configured threshold only the header is copied into the dst buffer: the
+ * payload itself is written straight from the payload array of the packet.
+ * The output of a single {@link #onWrite()} is the sequence of the dst buffer
+ * segments interleaved with the payload buffers, which is written to the
+ * socket by the pipeline with a single system call.
+ *
+ * So the large payloads are neither copied into the dst buffer nor split
+ * into multiple writes because of the limited size of the dst buffer.
+ *
+ * @see PacketEncoder
+ */
+public class GatheringPacketEncoder extends OutboundHandler<Supplier<Packet>, ByteBuffer> implements OutboundBuffers {
+
+    /**
+     * The default minimum size of a payload to be written straight from the
+     * packet.
+     */
+    public static final int DEFAULT_DIRECT_WRITE_THRESHOLD = 1024;
+
+    // the limit of the buffers written by a single system call, well below IOV_MAX
+    static final int MAX_BUFFER_COUNT = 64;
+
+    private final PacketIOHelper packetWriter = new PacketIOHelper();
+    private final int directWriteThreshold;
+    private final ByteBuffer[] buffers = new ByteBuffer[MAX_BUFFER_COUNT];
+
+    private int bufferCount;
+    // the start of the dst segment not added to the buffers yet
+    private int segmentStart;
+    private Packet packet;
+    // true if the packet is partially written by the packetWriter
+    private boolean packetStarted;
+
+    public GatheringPacketEncoder() {
+        this(DEFAULT_DIRECT_WRITE_THRESHOLD);
+    }
+
+    public GatheringPacketEncoder(int directWriteThreshold) {
+        this.directWriteThreshold = directWriteThreshold;
+    }
+
+    @Override
+    public void handlerAdded() {
+        initDstBuffer();
+    }
+
+    @Override
+    public ByteBuffer[] buffers() {
+        return buffers;
+    }
+
+    @Override
+    public int bufferCount() {
+        return bufferCount;
+    }
+
+    @Override
+    public HandlerStatus onWrite() {
+        if (hasRemaining()) {
+            // the output of the previous call isn't flushed yet
+            return DIRTY;
+        }
+
+        Arrays.fill(buffers, 0, bufferCount, null);
+        bufferCount = 0;
+        segmentStart = 0;
+        dst.clear();
+        try {
+            for (; ; ) {
+                if (packet == null) {
+                    packet = src.get();
+
+                    if (packet == null) {
+                        // everything is processed, so we are done
+                        return CLEAN;
+                    }
+                }
+
+                // a dst segment and a payload buffer per packet at most
+                if (bufferCount + 2 > MAX_BUFFER_COUNT) {
+                    return DIRTY;
+                }
+
+                if (!packetStarted && packet.totalSize() >= directWriteThreshold) {
+                    if (!PacketIOHelper.writeHeaderTo(packet, dst)) {
+                        return DIRTY;
+                    }
+                    addSegment();
+                    // a pooled payload array may be larger than the payload
+                    buffers[bufferCount++] = ByteBuffer.wrap(packet.toByteArray(), 0, packet.totalSize());
+                    packet = null;
+                } else if (packetWriter.writeTo(packet, dst)) {
+                    // packet got written, lets see if another packet can be written
+                    packet = null;
+                    packetStarted = false;
+                } else {
+                    // the packet didn't get written completely, so we are done.
+                    packetStarted = true;
+                    return DIRTY;
+                }
+            }
+        } finally {
+            addSegment();
+        }
+    }
+
+    /**
+     * Adds the part of the dst buffer written since the last added segment to
+     * the buffers.
+     */
+    private void addSegment() {
+        int position = dst.position();
+        if (position == segmentStart) {
+            return;
+        }
+
+        ByteBuffer segment = dst.duplicate();
+        segment.limit(position);
+        segment.position(segmentStart);
+        buffers[bufferCount++] = segment;
+        segmentStart = position;
+    }
+
+    private boolean hasRemaining() {
+        for (int i = 0; i < bufferCount; i++) {
+            if (buffers[i].hasRemaining()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
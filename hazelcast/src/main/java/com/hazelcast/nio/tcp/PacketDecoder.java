@@ -18,6 +18,7 @@ package com.hazelcast.nio.tcp;
 
 import com.hazelcast.internal.networking.InboundHandler;
 import com.hazelcast.internal.networking.HandlerStatus;
+import com.hazelcast.internal.networking.nio.ByteBufferPool;
 import com.hazelcast.internal.networking.nio.InboundHandlerWithCounters;
 import com.hazelcast.nio.Packet;
 import com.hazelcast.nio.PacketIOHelper;
@@ -41,11 +42,20 @@ import static com.hazelcast.nio.Packet.FLAG_URGENT;
 public class PacketDecoder extends InboundHandlerWithCounters<ByteBuffer, Consumer<Packet>> {
 
     protected final TcpIpConnection connection;
-    private final PacketIOHelper packetReader = new PacketIOHelper();
+    private final PacketIOHelper packetReader;
 
     public PacketDecoder(TcpIpConnection connection, Consumer<Packet> dst) {
+        this(connection, dst, null);
+    }
+
+    /**
+     * @param payloadPool the pool of the payload buffers of the operation packets,
+     *                    or {@code null} if the payloads shouldn't be pooled.
+     */
+    public PacketDecoder(TcpIpConnection connection, Consumer<Packet> dst, ByteBufferPool payloadPool) {
         this.connection = connection;
         this.dst = dst;
+        this.packetReader = new PacketIOHelper(payloadPool);
     }
 
     @Override
@@ -25,6 +25,7 @@ import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.query.impl.getters.MultiResult;
 import com.hazelcast.query.impl.predicates.PredicateDataSerializerHook;
 
 import java.util.Collections;
@@ -46,6 +47,7 @@ public abstract class AbstractIndex implements InternalIndex {
     protected final IndexCopyBehavior copyBehavior;
 
     private final String attributeName;
+    private final String[] components;
     private final boolean ordered;
     private final PerIndexStats stats;
 
@@ -54,6 +56,7 @@ public abstract class AbstractIndex implements InternalIndex {
     public AbstractIndex(String attributeName, boolean ordered, InternalSerializationService ss, Extractors extractors,
                          IndexCopyBehavior copyBehavior, PerIndexStats stats) {
         this.attributeName = attributeName;
+        this.components = IndexUtils.getComponents(attributeName);
         this.ordered = ordered;
         this.ss = ss;
         this.extractors = extractors;
@@ -62,6 +65,22 @@ public abstract class AbstractIndex implements InternalIndex {
         this.stats = stats;
     }
 
+    /**
+     * Constructs a new unordered index backed by the given index store instead
+     * of the one {@link #createIndexStore created} by the index itself.
+     */
+    protected AbstractIndex(String attributeName, IndexStore indexStore, InternalSerializationService ss,
+                            Extractors extractors, IndexCopyBehavior copyBehavior, PerIndexStats stats) {
+        this.attributeName = attributeName;
+        this.components = IndexUtils.getComponents(attributeName);
+        this.ordered = false;
+        this.ss = ss;
+        this.extractors = extractors;
+        this.copyBehavior = copyBehavior;
+        this.indexStore = indexStore;
+        this.stats = stats;
+    }
+
     protected abstract IndexStore createIndexStore(boolean ordered, PerIndexStats stats);
 
     @Override
@@ -76,8 +95,8 @@ public abstract class AbstractIndex implements InternalIndex {
          * another thread can query over indexes without knowing the converter and
          * this causes to class cast exceptions.
          */
-        if (converter == null || converter == NULL_CONVERTER) {
-            converter = entry.getConverter(attributeName);
+        if (converter == null || converter == NULL_CONVERTER || isTransientComposite(converter)) {
+            converter = obtainConverter(entry);
         }
 
         Object newAttributeValue = extractAttributeValue(entry.getKeyData(), entry.getTargetObject(false));
@@ -101,8 +120,37 @@ public abstract class AbstractIndex implements InternalIndex {
         stats.onRemove(timestamp, operationStats, operationSource);
     }
 
+    private TypeConverter obtainConverter(QueryableEntry entry) {
+        if (components == null) {
+            return entry.getConverter(attributeName);
+        }
+
+        TypeConverter[] converters = new TypeConverter[components.length];
+        for (int i = 0; i < components.length; ++i) {
+            converters[i] = entry.getConverter(components[i]);
+        }
+        return new CompositeConverter(converters);
+    }
+
+    private static boolean isTransientComposite(TypeConverter converter) {
+        return converter instanceof CompositeConverter && ((CompositeConverter) converter).isTransient();
+    }
+
     private Object extractAttributeValue(Data key, Object value) {
-        return QueryableEntry.extractAttributeValue(extractors, ss, attributeName, key, value);
+        if (components == null) {
+            return QueryableEntry.extractAttributeValue(extractors, ss, attributeName, key, value);
+        }
+
+        Comparable[] values = new Comparable[components.length];
+        for (int i = 0; i < components.length; ++i) {
+            Object extracted = QueryableEntry.extractAttributeValue(extractors, ss, components[i], key, value);
+            if (extracted instanceof MultiResult) {
+                throw new IllegalStateException("Collection/array attributes are not supported by composite indexes: "
+                        + components[i]);
+            }
+            values[i] = extracted == null ? NULL : (Comparable) extracted;
+        }
+        return new CompositeValue(values);
     }
 
     @Override
@@ -141,6 +189,20 @@ public abstract class AbstractIndex implements InternalIndex {
         return result;
     }
 
+    @Override
+    public Set<QueryableEntry> getSubRecords(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+        long timestamp = stats.makeTimestamp();
+
+        if (converter == null) {
+            stats.onIndexHit(timestamp, 0);
+            return Collections.emptySet();
+        }
+
+        Set<QueryableEntry> result = indexStore.getSubRecords(convert(from), fromInclusive, convert(to), toInclusive);
+        stats.onIndexHit(timestamp, result.size());
+        return result;
+    }
+
     @Override
     public Set<QueryableEntry> getSubRecords(ComparisonType comparisonType, Comparable searchedAttributeValue) {
         long timestamp = stats.makeTimestamp();
@@ -205,6 +267,11 @@ public abstract class AbstractIndex implements InternalIndex {
         return attributeName;
     }
 
+    @Override
+    public String[] getComponents() {
+        return components;
+    }
+
     @Override
     public boolean isOrdered() {
         return ordered;
@@ -39,7 +39,7 @@ public abstract class BaseIndexStore implements IndexStore {
 
     private final CopyFunctor<Data, QueryableEntry> resultCopyFunctor;
 
-    private boolean multiResultHasToDetectDuplicates;
+    private volatile boolean multiResultHasToDetectDuplicates;
 
     BaseIndexStore(IndexCopyBehavior copyOn) {
         if (copyOn == IndexCopyBehavior.COPY_ON_WRITE || copyOn == IndexCopyBehavior.NEVER) {
@@ -76,6 +76,27 @@ public abstract class BaseIndexStore implements IndexStore {
      */
     abstract Object removeIndexInternal(Comparable oldValue, Data recordKey);
 
+    /**
+     * Invoked when the given record is indexed having an empty collection or
+     * array as the attribute value, so no values are associated with it.
+     *
+     * @param record the indexed record.
+     */
+    void newEmptyIndexInternal(QueryableEntry record) {
+        // do nothing
+    }
+
+    /**
+     * Invoked when a record identified by the given record key is removed
+     * from the index having an empty collection or array as the attribute
+     * value.
+     *
+     * @param recordKey the key of the removed record.
+     */
+    void removeEmptyIndexInternal(Data recordKey) {
+        // do nothing
+    }
+
     @Override
     public final void newIndex(Object newValue, QueryableEntry record, IndexOperationStats operationStats) {
         takeWriteLock();
@@ -90,6 +111,9 @@ public abstract class BaseIndexStore implements IndexStore {
         if (newValue instanceof MultiResult) {
             multiResultHasToDetectDuplicates = true;
             List<Object> results = ((MultiResult) newValue).getResults();
+            if (results.isEmpty()) {
+                newEmptyIndexInternal(record);
+            }
             for (Object o : results) {
                 Comparable sanitizedValue = sanitizeValue(o);
                 Object oldValue = newIndexInternal(sanitizedValue, record);
@@ -115,6 +139,9 @@ public abstract class BaseIndexStore implements IndexStore {
     private void unwrapAndRemoveFromIndex(Object oldValue, Data indexKey, IndexOperationStats operationStats) {
         if (oldValue instanceof MultiResult) {
             List<Object> results = ((MultiResult) oldValue).getResults();
+            if (results.isEmpty()) {
+                removeEmptyIndexInternal(indexKey);
+            }
             for (Object o : results) {
                 Comparable sanitizedValue = sanitizeValue(o);
                 Object removedValue = removeIndexInternal(sanitizedValue, indexKey);
@@ -177,6 +204,14 @@ public abstract class BaseIndexStore implements IndexStore {
 
     }
 
+    /**
+     * @return {@code true} if the same record may be associated with
+     * multiple values in this index store, {@code false} otherwise.
+     */
+    final boolean multiResultHasToDetectDuplicates() {
+        return multiResultHasToDetectDuplicates;
+    }
+
     final MultiResultSet createMultiResultSet() {
         return multiResultHasToDetectDuplicates ? new DuplicateDetectingMultiResult() : new FastMultiResultSet();
     }
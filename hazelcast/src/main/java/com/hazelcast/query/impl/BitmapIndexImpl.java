@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.monitor.impl.PerIndexStats;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.query.impl.bitmap.SparseBitSet;
+
+import java.util.Set;
+
+/**
+ * Provides implementation of on-heap bitmap indexes.
+ * <p>
+ * Bitmap indexes are unordered. They are selected per attribute using {@link
+ * com.hazelcast.config.MapIndexConfig#setBitmap} and are suited for attributes
+ * having a small number of distinct values, like statuses, regions or flags.
+ * The equality lookups on bitmap indexes always produce {@link BitmapResultSet
+ * bitmap result sets}, so they could be combined with each other by {@link
+ * com.hazelcast.query.impl.predicates.BitmapPredicate bitmap predicates}.
+ *
+ * @see BitmapIndexStore
+ */
+public class BitmapIndexImpl extends IndexImpl {
+
+    BitmapIndexImpl(String attributeName, EntryOrdinals ordinals, InternalSerializationService ss, Extractors extractors,
+                    IndexCopyBehavior copyBehavior, PerIndexStats stats) {
+        super(attributeName, new BitmapIndexStore(copyBehavior, ordinals), ss, extractors, copyBehavior, stats);
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable[] values) {
+        return toBitmap(super.getRecords(values));
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable value) {
+        return toBitmap(super.getRecords(value));
+    }
+
+    private Set<QueryableEntry> toBitmap(Set<QueryableEntry> result) {
+        if (result instanceof BitmapResultSet) {
+            return result;
+        }
+        // no values are known to the index yet, so the lookup was short-circuited
+        assert result.isEmpty();
+        BitmapIndexStore store = (BitmapIndexStore) indexStore;
+        return new BitmapResultSet(new SparseBitSet(), store.ordinals(), store, store.ordinals().epoch());
+    }
+
+}
@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.impl.bitmap.SparseBitSet;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Store indexes as compressed bitmaps of entry ordinals, one bitmap per
+ * distinct attribute value.
+ * <p>
+ * Intended for low-cardinality attributes: unlike {@link UnsortedIndexStore},
+ * which keeps a map of entries per distinct value, this store keeps a single
+ * {@link SparseBitSet} per value, and the result sets produced by it are
+ * {@link BitmapResultSet bitmaps} which could be combined with the results of
+ * other bitmap indexes of the same {@link Indexes} using bitwise operations
+ * before any entry is materialized. The returned bitmaps are snapshots, so the
+ * results are stable regardless of the configured {@link IndexCopyBehavior}.
+ */
+public class BitmapIndexStore extends BaseIndexStore {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final EntryOrdinals ordinals;
+    private final Map<Comparable, SparseBitSet> bitmaps = new HashMap<Comparable, SparseBitSet>();
+    private final SparseBitSet all = new SparseBitSet();
+
+    /**
+     * The number of values associated with each ordinal in this store;
+     * exceeds one only for collection and array attributes.
+     */
+    private int[] valueCounts = new int[INITIAL_CAPACITY];
+
+    BitmapIndexStore(IndexCopyBehavior copyOn, EntryOrdinals ordinals) {
+        super(copyOn);
+        this.ordinals = ordinals;
+    }
+
+    @Override
+    Object newIndexInternal(Comparable newValue, QueryableEntry record) {
+        int ordinal = acquire(record);
+        SparseBitSet bitmap = bitmaps.get(newValue);
+        if (bitmap == null) {
+            bitmap = new SparseBitSet();
+            bitmaps.put(newValue, bitmap);
+        }
+        return bitmap.add(ordinal) ? null : record;
+    }
+
+    @Override
+    Object removeIndexInternal(Comparable oldValue, Data recordKey) {
+        int ordinal = ordinalOf(recordKey);
+        if (ordinal < 0) {
+            return null;
+        }
+        QueryableEntry record = ordinals.entryAt(ordinal);
+
+        SparseBitSet bitmap = bitmaps.get(oldValue);
+        boolean removed = bitmap != null && bitmap.remove(ordinal);
+        if (removed && bitmap.isEmpty()) {
+            bitmaps.remove(oldValue);
+        }
+
+        release(ordinal, recordKey);
+        return removed ? record : null;
+    }
+
+    /**
+     * Entries having empty collections as attribute values are not associated
+     * with any value, but they still must be accounted for while computing
+     * the {@link BitmapResultSet#complement complements}.
+     */
+    @Override
+    void newEmptyIndexInternal(QueryableEntry record) {
+        acquire(record);
+    }
+
+    @Override
+    void removeEmptyIndexInternal(Data recordKey) {
+        int ordinal = ordinalOf(recordKey);
+        if (ordinal >= 0) {
+            release(ordinal, recordKey);
+        }
+    }
+
+    private int acquire(QueryableEntry record) {
+        int ordinal = ordinals.acquire(record);
+        if (ordinal >= valueCounts.length) {
+            valueCounts = Arrays.copyOf(valueCounts, Math.max(valueCounts.length * 2, ordinal + 1));
+        }
+        ++valueCounts[ordinal];
+        all.add(ordinal);
+        return ordinal;
+    }
+
+    /**
+     * @return the ordinal of the record having the given key or {@code -1} if
+     * the record is not indexed by this store.
+     */
+    private int ordinalOf(Data recordKey) {
+        int ordinal = ordinals.ordinalOf(recordKey);
+        if (ordinal < 0 || ordinal >= valueCounts.length || valueCounts[ordinal] == 0) {
+            return -1;
+        }
+        return ordinal;
+    }
+
+    private void release(int ordinal, Data recordKey) {
+        if (--valueCounts[ordinal] == 0) {
+            all.remove(ordinal);
+        }
+        // release the ordinal only after the bits are cleared, it may be
+        // reused for another entry right away
+        ordinals.release(recordKey, 1);
+    }
+
+    @Override
+    public void clear() {
+        takeWriteLock();
+        try {
+            for (int ordinal = all.nextSetBit(0); ordinal >= 0; ordinal = all.nextSetBit(ordinal + 1)) {
+                ordinals.release(ordinals.entryAt(ordinal).getKeyData(), valueCounts[ordinal]);
+            }
+            Arrays.fill(valueCounts, 0);
+            all.clear();
+            bitmaps.clear();
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable value) {
+        takeReadLock();
+        try {
+            SparseBitSet bitmap = bitmaps.get(value);
+            return newResultSet(bitmap == null ? new SparseBitSet() : bitmap.copy());
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Set<Comparable> values) {
+        takeReadLock();
+        try {
+            SparseBitSet result = new SparseBitSet();
+            for (Comparable value : values) {
+                SparseBitSet bitmap = bitmaps.get(value);
+                if (bitmap != null) {
+                    result = result.or(bitmap);
+                }
+            }
+            return newResultSet(result);
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getSubRecordsBetween(Comparable from, Comparable to) {
+        return getSubRecords(from, true, to, true);
+    }
+
+    @Override
+    public Set<QueryableEntry> getSubRecords(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+        takeReadLock();
+        try {
+            SparseBitSet result = new SparseBitSet();
+            for (Map.Entry<Comparable, SparseBitSet> entry : bitmaps.entrySet()) {
+                Comparable value = entry.getKey();
+                if (value instanceof IndexImpl.NullObject) {
+                    continue;
+                }
+                int fromOrder = value.compareTo(from);
+                int toOrder = value.compareTo(to);
+                if ((fromInclusive ? fromOrder >= 0 : fromOrder > 0) && (toInclusive ? toOrder <= 0 : toOrder < 0)) {
+                    result = result.or(entry.getValue());
+                }
+            }
+            return newResultSet(result);
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getSubRecords(ComparisonType comparisonType, Comparable searchedValue) {
+        takeReadLock();
+        try {
+            SparseBitSet result = new SparseBitSet();
+            for (Map.Entry<Comparable, SparseBitSet> entry : bitmaps.entrySet()) {
+                Comparable value = entry.getKey();
+                if (value instanceof IndexImpl.NullObject) {
+                    continue;
+                }
+                if (matches(comparisonType, value, searchedValue)) {
+                    result = result.or(entry.getValue());
+                }
+            }
+            return newResultSet(result);
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    /**
+     * @return a snapshot of the ordinals of all the entries indexed by this
+     * store, including the ones having null attribute values.
+     */
+    SparseBitSet all() {
+        takeReadLock();
+        try {
+            return all.copy();
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    EntryOrdinals ordinals() {
+        return ordinals;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static boolean matches(ComparisonType comparisonType, Comparable value, Comparable searchedValue) {
+        int order = value.compareTo(searchedValue);
+        switch (comparisonType) {
+            case LESSER:
+                return order < 0;
+            case LESSER_EQUAL:
+                return order <= 0;
+            case GREATER:
+                return order > 0;
+            case GREATER_EQUAL:
+                return order >= 0;
+            case NOT_EQUAL:
+                return order != 0;
+            default:
+                throw new IllegalArgumentException("Unrecognized comparisonType: " + comparisonType);
+        }
+    }
+
+    /**
+     * Called under the read lock: the ordinals present in the bitmaps of this
+     * store can't be released and reassigned while it is held, so all of them
+     * were assigned at or before the current epoch.
+     */
+    private BitmapResultSet newResultSet(SparseBitSet bitmap) {
+        return new BitmapResultSet(bitmap, ordinals, this, ordinals.epoch());
+    }
+
+    @Override
+    public String toString() {
+        return "BitmapIndexStore{"
+                + "values=" + bitmaps.size()
+                + '}';
+    }
+
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.query.impl.bitmap.SparseBitSet;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Result set backed by a bitmap of entry ordinals produced by a bitmap index.
+ * <p>
+ * The entries are materialized lazily while iterating. Bitmap result sets
+ * produced by the bitmap indexes of the same {@link Indexes} share the entry
+ * ordinals, so they could be combined using the bitwise {@link #and}, {@link
+ * #or} and {@link #complement} operations without touching the entries.
+ * <p>
+ * A result set remembers the {@link EntryOrdinals#epoch() epoch} its bitmap
+ * was taken at. The entries removed since then are skipped, and so are the
+ * ordinals reassigned to other keys since then, so the result never contains
+ * an entry which wasn't matched while the bitmap was taken. {@link #size()}
+ * and {@link #contains} are consistent with the iteration.
+ */
+public final class BitmapResultSet extends AbstractSet<QueryableEntry> {
+
+    private final SparseBitSet bitmap;
+    private final EntryOrdinals ordinals;
+    private final BitmapIndexStore store;
+    private final long epoch;
+
+    BitmapResultSet(SparseBitSet bitmap, EntryOrdinals ordinals, BitmapIndexStore store, long epoch) {
+        this.bitmap = bitmap;
+        this.ordinals = ordinals;
+        this.store = store;
+        this.epoch = epoch;
+    }
+
+    /**
+     * @return a new result set containing the entries present in both this
+     * result set and the given one.
+     */
+    public BitmapResultSet and(BitmapResultSet that) {
+        assert ordinals == that.ordinals;
+        return new BitmapResultSet(bitmap.and(that.bitmap), ordinals, store, Math.min(epoch, that.epoch));
+    }
+
+    /**
+     * @return a new result set containing the entries present in this result
+     * set or in the given one.
+     */
+    public BitmapResultSet or(BitmapResultSet that) {
+        assert ordinals == that.ordinals;
+        return new BitmapResultSet(bitmap.or(that.bitmap), ordinals, store, Math.min(epoch, that.epoch));
+    }
+
+    /**
+     * @return a new result set containing all the entries indexed by the
+     * bitmap index which produced this result set except the entries present
+     * in this result set. The entries indexed after this result set was
+     * produced are not included.
+     */
+    public BitmapResultSet complement() {
+        return new BitmapResultSet(store.all().andNot(bitmap), ordinals, store, epoch);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof QueryableEntry)) {
+            return false;
+        }
+        int ordinal = ordinals.ordinalOf(((QueryableEntry) o).getKeyData());
+        return ordinal >= 0 && bitmap.contains(ordinal) && ordinals.entryAt(ordinal, epoch) != null;
+    }
+
+    @Override
+    public Iterator<QueryableEntry> iterator() {
+        return new EntryIterator();
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (int ordinal = bitmap.nextSetBit(0); ordinal >= 0; ordinal = bitmap.nextSetBit(ordinal + 1)) {
+            if (ordinals.entryAt(ordinal, epoch) != null) {
+                ++size;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return bitmap.isEmpty() || !iterator().hasNext();
+    }
+
+    private final class EntryIterator implements Iterator<QueryableEntry> {
+
+        private int ordinal = -1;
+        private QueryableEntry next;
+
+        EntryIterator() {
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public QueryableEntry next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            QueryableEntry current = next;
+            advance();
+            return current;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        private void advance() {
+            next = null;
+            while (next == null) {
+                ordinal = bitmap.nextSetBit(ordinal + 1);
+                if (ordinal < 0) {
+                    return;
+                }
+                // the entry might have been removed since the bitmap was
+                // taken and the ordinal reassigned to another key
+                next = ordinals.entryAt(ordinal, epoch);
+            }
+        }
+
+    }
+
+}
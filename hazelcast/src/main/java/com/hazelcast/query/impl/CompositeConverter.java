@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.core.TypeConverter;
+
+import static com.hazelcast.query.impl.TypeConverters.NULL_CONVERTER;
+
+/**
+ * Converts {@link CompositeValue composite values} by converting each of their
+ * components using the converter of the corresponding index component.
+ */
+public class CompositeConverter implements TypeConverter {
+
+    private final TypeConverter[] converters;
+    private final boolean isTransient;
+
+    /**
+     * Constructs a new composite converter from the given component converters.
+     *
+     * @param converters the converters of the index components.
+     */
+    public CompositeConverter(TypeConverter[] converters) {
+        this.converters = converters;
+
+        boolean isTransient = false;
+        for (TypeConverter converter : converters) {
+            if (converter == null || converter == NULL_CONVERTER) {
+                isTransient = true;
+                break;
+            }
+        }
+        this.isTransient = isTransient;
+    }
+
+    /**
+     * Tells whether this converter is transient, i.e. the converter of at
+     * least one component is not known yet since no values except nulls were
+     * observed for the component.
+     *
+     * @return {@code true} if this converter is transient and should be
+     * reinitialized while saving the next entry, {@code false} otherwise.
+     */
+    public boolean isTransient() {
+        return isTransient;
+    }
+
+    @Override
+    public Comparable convert(Comparable value) {
+        if (!(value instanceof CompositeValue)) {
+            throw new IllegalArgumentException("Cannot convert [" + value + "] to composite");
+        }
+
+        Comparable[] components = ((CompositeValue) value).getComponents();
+        Comparable[] converted = new Comparable[components.length];
+        for (int i = 0; i < components.length; ++i) {
+            converted[i] = convertComponent(converters[i], components[i]);
+        }
+        return new CompositeValue(converted);
+    }
+
+    private static Comparable convertComponent(TypeConverter converter, Comparable component) {
+        if (component == CompositeValue.NEGATIVE_INFINITY || component == CompositeValue.POSITIVE_INFINITY
+                || component instanceof AbstractIndex.NullObject || converter == null) {
+            return component;
+        }
+        return converter.convert(component);
+    }
+
+}
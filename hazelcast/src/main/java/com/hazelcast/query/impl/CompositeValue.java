@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import java.util.Arrays;
+
+/**
+ * Represents a tuple of attribute values indexed by a composite index.
+ * <p>
+ * Composite values are ordered lexicographically component by component.
+ * In addition to the regular attribute values, a component may hold the
+ * {@link AbstractIndex#NULL null object}, which is ordered before any other
+ * value, or one of the {@link #NEGATIVE_INFINITY} and {@link #POSITIVE_INFINITY}
+ * special values, which are ordered before and after any other value
+ * correspondingly. The special values are never stored in indexes, they are
+ * used only to form the boundaries of range queries on composite indexes.
+ */
+public final class CompositeValue implements Comparable<CompositeValue> {
+
+    /**
+     * The special component value which is less than any other value.
+     */
+    public static final Comparable NEGATIVE_INFINITY = new SpecialValue(-1);
+
+    /**
+     * The special component value which is greater than any other value.
+     */
+    public static final Comparable POSITIVE_INFINITY = new SpecialValue(+1);
+
+    private final Comparable[] components;
+
+    /**
+     * Constructs a new composite value from the given components.
+     *
+     * @param components the components of the composite value; the array is
+     *                   not copied.
+     */
+    public CompositeValue(Comparable[] components) {
+        this.components = components;
+    }
+
+    /**
+     * Constructs a new composite value of the given width. The first
+     * components are taken from the given prefix, the next one is set to the
+     * given value and the rest are filled with the given filler.
+     *
+     * @param width  the width of the composite value.
+     * @param prefix the prefix components.
+     * @param value  the component value following the prefix.
+     * @param filler the value for the remaining components.
+     */
+    public CompositeValue(int width, Comparable[] prefix, Comparable value, Comparable filler) {
+        assert prefix.length < width;
+        components = new Comparable[width];
+        System.arraycopy(prefix, 0, components, 0, prefix.length);
+        components[prefix.length] = value;
+        Arrays.fill(components, prefix.length + 1, width, filler);
+    }
+
+    /**
+     * @return the components of this composite value; the returned array must
+     * not be modified.
+     */
+    public Comparable[] getComponents() {
+        return components;
+    }
+
+    @Override
+    public int compareTo(CompositeValue that) {
+        Comparable[] thoseComponents = that.components;
+        assert components.length == thoseComponents.length;
+
+        for (int i = 0; i < components.length; ++i) {
+            int order = compareComponents(components[i], thoseComponents[i]);
+            if (order != 0) {
+                return order;
+            }
+        }
+        return 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compareComponents(Comparable lhs, Comparable rhs) {
+        int lhsRank = rankOf(lhs);
+        int rhsRank = rankOf(rhs);
+        if (lhsRank != rhsRank) {
+            return lhsRank < rhsRank ? -1 : 1;
+        }
+        return lhsRank == 0 ? lhs.compareTo(rhs) : 0;
+    }
+
+    /**
+     * Orders the special values: -inf < null < regular values < +inf.
+     */
+    private static int rankOf(Comparable value) {
+        if (value instanceof SpecialValue) {
+            return ((SpecialValue) value).sign * 2;
+        }
+        return value instanceof AbstractIndex.NullObject ? -1 : 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return Arrays.equals(components, ((CompositeValue) o).components);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(components);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(components);
+    }
+
+    private static final class SpecialValue implements Comparable {
+
+        private final int sign;
+
+        SpecialValue(int sign) {
+            this.sign = sign;
+        }
+
+        @Override
+        public int compareTo(Object o) {
+            if (o instanceof SpecialValue) {
+                int thatSign = ((SpecialValue) o).sign;
+                return sign == thatSign ? 0 : (sign < thatSign ? -1 : 1);
+            }
+            return sign;
+        }
+
+        @Override
+        public String toString() {
+            return sign < 0 ? "-INF" : "+INF";
+        }
+
+    }
+
+}
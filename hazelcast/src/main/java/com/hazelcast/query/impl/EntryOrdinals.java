@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Assigns dense integer ordinals to the entries indexed by the bitmap indexes
+ * of an {@link Indexes} instance.
+ * <p>
+ * All the bitmap indexes of the same indexes instance share the ordinals,
+ * so the bitmaps produced by different indexes can be combined using bitwise
+ * operations. An ordinal stays assigned to an entry while at least one bitmap
+ * index references it; released ordinals are reused to keep the bitmaps
+ * dense.
+ * <p>
+ * Every assignment of an ordinal to a key is stamped with a new epoch. The
+ * query results remember the epoch they were produced at and ignore the
+ * ordinals assigned later: such an ordinal was released by the entry the
+ * result was produced for and now belongs to a different key.
+ * <p>
+ * Updates are serialized, while the ordinal-to-entry lookups performed while
+ * iterating query results don't take any locks.
+ */
+final class EntryOrdinals {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Map<Data, Slot> slots = new HashMap<Data, Slot>();
+
+    private int[] freeOrdinals = new int[INITIAL_CAPACITY];
+    private int freeCount;
+    private int nextOrdinal;
+
+    private volatile long epoch;
+    private volatile AtomicReferenceArray<Slot> assignments = new AtomicReferenceArray<Slot>(INITIAL_CAPACITY);
+
+    /**
+     * Obtains the ordinal of the given entry and adds a reference to it. The
+     * entry associated with the ordinal is replaced with the given one.
+     *
+     * @param entry the entry to obtain the ordinal for.
+     * @return the obtained ordinal.
+     */
+    synchronized int acquire(QueryableEntry entry) {
+        Data key = entry.getKeyData();
+        Slot slot = slots.get(key);
+        if (slot == null) {
+            slot = new Slot(freeCount > 0 ? freeOrdinals[--freeCount] : nextOrdinal++, epoch + 1);
+            slots.put(key, slot);
+            slot.entry = entry;
+
+            AtomicReferenceArray<Slot> assignments = this.assignments;
+            if (slot.ordinal >= assignments.length()) {
+                assignments = grow(assignments, slot.ordinal);
+            }
+            assignments.set(slot.ordinal, slot);
+            epoch = slot.epoch;
+        } else {
+            slot.entry = entry;
+        }
+        ++slot.references;
+        return slot.ordinal;
+    }
+
+    /**
+     * Removes the given number of references from the ordinal assigned to the
+     * entry having the given key. The ordinal is released once there are no
+     * references left.
+     *
+     * @param key        the key of the entry.
+     * @param references the number of references to remove.
+     */
+    synchronized void release(Data key, int references) {
+        Slot slot = slots.get(key);
+        assert slot != null && slot.references >= references;
+
+        slot.references -= references;
+        if (slot.references == 0) {
+            slots.remove(key);
+            assignments.set(slot.ordinal, null);
+            if (freeCount == freeOrdinals.length) {
+                freeOrdinals = Arrays.copyOf(freeOrdinals, freeCount * 2);
+            }
+            freeOrdinals[freeCount++] = slot.ordinal;
+        }
+    }
+
+    /**
+     * @return the ordinal assigned to the entry having the given key or
+     * {@code -1} if there is no ordinal assigned.
+     */
+    synchronized int ordinalOf(Data key) {
+        Slot slot = slots.get(key);
+        return slot == null ? -1 : slot.ordinal;
+    }
+
+    /**
+     * @return the epoch of the most recent ordinal assignment. The ordinals
+     * present in a bitmap taken after this call were assigned at or before
+     * the returned epoch.
+     */
+    long epoch() {
+        return epoch;
+    }
+
+    /**
+     * @return the entry currently associated with the given ordinal or {@code
+     * null} if the ordinal is not assigned.
+     */
+    QueryableEntry entryAt(int ordinal) {
+        Slot slot = slotAt(ordinal);
+        return slot == null ? null : slot.entry;
+    }
+
+    /**
+     * @return the entry associated with the given ordinal or {@code null} if
+     * the ordinal is not assigned or was reassigned to another key after the
+     * given epoch.
+     */
+    QueryableEntry entryAt(int ordinal, long epoch) {
+        Slot slot = slotAt(ordinal);
+        return slot == null || slot.epoch > epoch ? null : slot.entry;
+    }
+
+    private Slot slotAt(int ordinal) {
+        AtomicReferenceArray<Slot> assignments = this.assignments;
+        return ordinal < assignments.length() ? assignments.get(ordinal) : null;
+    }
+
+    private AtomicReferenceArray<Slot> grow(AtomicReferenceArray<Slot> assignments, int ordinal) {
+        int capacity = assignments.length();
+        while (capacity <= ordinal) {
+            capacity *= 2;
+        }
+
+        AtomicReferenceArray<Slot> grown = new AtomicReferenceArray<Slot>(capacity);
+        for (int i = 0; i < assignments.length(); ++i) {
+            grown.set(i, assignments.get(i));
+        }
+        this.assignments = grown;
+        return grown;
+    }
+
+    private static final class Slot {
+
+        final int ordinal;
+        final long epoch;
+        int references;
+        volatile QueryableEntry entry;
+
+        Slot(int ordinal, long epoch) {
+            this.ordinal = ordinal;
+            this.epoch = epoch;
+        }
+
+    }
+
+}
@@ -98,6 +98,11 @@ public class GlobalQueryContextWithStats extends QueryContext {
             return delegate.getAttributeName();
         }
 
+        @Override
+        public String[] getComponents() {
+            return delegate.getComponents();
+        }
+
         @Override
         public boolean isOrdered() {
             return delegate.isOrdered();
@@ -139,6 +144,14 @@ public class GlobalQueryContextWithStats extends QueryContext {
             return result;
         }
 
+        @Override
+        public Set<QueryableEntry> getSubRecords(Comparable from, boolean fromInclusive, Comparable to,
+                                                 boolean toInclusive) {
+            Set<QueryableEntry> result = delegate.getSubRecords(from, fromInclusive, to, toInclusive);
+            hasQueries = true;
+            return result;
+        }
+
         @Override
         public Set<QueryableEntry> getSubRecords(ComparisonType comparisonType, Comparable searchedValue) {
             Set<QueryableEntry> result = delegate.getSubRecords(comparisonType, searchedValue);
@@ -106,6 +106,20 @@ public interface Index {
      */
     Set<QueryableEntry> getSubRecordsBetween(Comparable from, Comparable to);
 
+    /**
+     * Produces a result set by performing a range query on this index with
+     * the given boundary inclusiveness.
+     *
+     * @param from          the beginning of the range.
+     * @param fromInclusive {@code true} if the beginning of the range is
+     *                      inclusive, {@code false} otherwise.
+     * @param to            the end of the range.
+     * @param toInclusive   {@code true} if the end of the range is inclusive,
+     *                      {@code false} otherwise.
+     * @return the produced result set.
+     */
+    Set<QueryableEntry> getSubRecords(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive);
+
     /**
      * Produces a result set containing entries whose attribute values are
      * satisfy the comparison of the given type with the given value.
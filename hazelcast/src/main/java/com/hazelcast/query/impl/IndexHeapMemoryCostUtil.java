@@ -39,12 +39,11 @@ public final class IndexHeapMemoryCostUtil {
     private static final int BASE_BIG_INTEGER_COST = 40 + BASE_ARRAY_COST;
     private static final int BASE_BIG_DECIMAL_COST = 40;
     private static final int BASE_CONCURRENT_HASH_MAP_COST = 64 + BASE_ARRAY_COST;
-    private static final int BASE_CONCURRENT_SKIP_LIST_MAP_COST = 48;
+    private static final int BASE_ORDERED_INDEX_TREE_COST = 48;
 
     private static final int DATE_COST = 24;
     private static final int SQL_TIMESTAMP_COST = 32;
     private static final int CONCURRENT_HASH_MAP_ENTRY_COST = 32;
-    private static final int CONCURRENT_SKIP_LIST_MAP_ENTRY_COST = 24;
     private static final int QUERY_ENTRY_COST = 32;
     private static final int CACHED_QUERYABLE_ENTRY_COST = 40;
 
@@ -63,6 +62,12 @@ public final class IndexHeapMemoryCostUtil {
         KNOWN_FINAL_CLASSES_COSTS.put(UUID.class, 32);
     }
 
+    // The cost of an ordered index tree slot: a long key, a value reference
+    // and an entry reference. Nodes are kept fully packed, the node objects,
+    // their array headers and the inner nodes add about 4 bytes per slot.
+
+    private static final int ORDERED_INDEX_TREE_ENTRY_COST = 20;
+
     // The costs below are very rough estimates, more precise answers require
     // expensive computations which we can't afford here.
 
@@ -119,6 +124,25 @@ public final class IndexHeapMemoryCostUtil {
         return ROUGH_UNKNOWN_CLASS_COST;
     }
 
+    /**
+     * Estimates the on-heap memory cost of the given value when it's stored
+     * in an index.
+     * <p>
+     * Ordered indexes keep numeric values as primitives, so the boxed values
+     * are not retained by them.
+     *
+     * @param value   the value to estimate the cost of.
+     * @param ordered {@code true} if the index storing the value is ordered,
+     *                {@code false} otherwise.
+     * @return the estimated value cost.
+     */
+    public static long estimateValueCost(Object value, boolean ordered) {
+        if (ordered && value instanceof Comparable && !SortedIndexTree.hasValues(SortedIndexTree.kindOf((Comparable) value))) {
+            return 0;
+        }
+        return estimateValueCost(value);
+    }
+
     /**
      * Estimates the on-heap memory cost of a map backing an index.
      *
@@ -135,7 +159,7 @@ public final class IndexHeapMemoryCostUtil {
     public static long estimateMapCost(long size, boolean ordered, boolean usesCachedQueryableEntries) {
         long mapCost;
         if (ordered) {
-            mapCost = BASE_CONCURRENT_SKIP_LIST_MAP_COST + size * CONCURRENT_SKIP_LIST_MAP_ENTRY_COST;
+            mapCost = BASE_ORDERED_INDEX_TREE_COST + size * ORDERED_INDEX_TREE_ENTRY_COST;
         } else {
             mapCost = BASE_CONCURRENT_HASH_MAP_COST + size * CONCURRENT_HASH_MAP_ENTRY_COST;
         }
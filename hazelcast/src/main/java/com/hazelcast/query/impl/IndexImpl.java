@@ -36,9 +36,14 @@ public class IndexImpl extends AbstractIndex {
         super(attributeName, ordered, ss, extractors, copyBehavior, stats);
     }
 
+    protected IndexImpl(String attributeName, IndexStore indexStore, InternalSerializationService ss, Extractors extractors,
+                        IndexCopyBehavior copyBehavior, PerIndexStats stats) {
+        super(attributeName, indexStore, ss, extractors, copyBehavior, stats);
+    }
+
     @Override
     protected IndexStore createIndexStore(boolean ordered, PerIndexStats stats) {
-        return ordered ? new SortedIndexStore(copyBehavior) : new UnsortedIndexStore(copyBehavior);
+        return ordered ? new OrderedIndexStore(copyBehavior) : new UnsortedIndexStore(copyBehavior);
     }
 
     @Override
@@ -33,6 +33,7 @@ public interface IndexStore {
     void destroy();
 
     Set<QueryableEntry> getSubRecordsBetween(Comparable from, Comparable to);
+    Set<QueryableEntry> getSubRecords(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive);
     Set<QueryableEntry> getSubRecords(ComparisonType comparisonType, Comparable searchedValue);
     Set<QueryableEntry> getRecords(Comparable value);
     Set<QueryableEntry> getRecords(Set<Comparable> values);
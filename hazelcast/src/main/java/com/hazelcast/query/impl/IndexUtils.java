@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.config.MapIndexConfig;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Provides utilities for dealing with index attribute names.
+ * <p>
+ * An index attribute name listing several comma-separated attributes, like
+ * {@code "region, status, createdAt"}, denotes a composite index built on the
+ * ordered tuple of the listed attributes.
+ */
+public final class IndexUtils {
+
+    private static final String COMPONENT_SEPARATOR = ",";
+    private static final String CANONICAL_COMPONENT_SEPARATOR = ", ";
+
+    private IndexUtils() {
+    }
+
+    /**
+     * Tells whether the given index attribute name denotes a composite index.
+     *
+     * @param attribute the index attribute name to check.
+     * @return {@code true} if the attribute name lists several attributes,
+     * {@code false} otherwise.
+     */
+    public static boolean isComposite(String attribute) {
+        return attribute.contains(COMPONENT_SEPARATOR);
+    }
+
+    /**
+     * Splits the given composite index attribute name into the names of its
+     * components.
+     *
+     * @param attribute the index attribute name to split.
+     * @return the trimmed component names or {@code null} if the given
+     * attribute name doesn't denote a composite index.
+     */
+    public static String[] getComponents(String attribute) {
+        if (!isComposite(attribute)) {
+            return null;
+        }
+
+        String[] components = attribute.split(COMPONENT_SEPARATOR, -1);
+        for (int i = 0; i < components.length; ++i) {
+            components[i] = components[i].trim();
+        }
+        return components;
+    }
+
+    /**
+     * Produces the canonical form of the given index attribute name, so
+     * {@code "a,b"} and {@code "a , b"} denote the same composite index.
+     * Non-composite attribute names are returned as is.
+     *
+     * @param attribute the index attribute name to canonicalize.
+     * @return the canonical index attribute name.
+     */
+    public static String canonicalizeAttribute(String attribute) {
+        String[] components = getComponents(attribute);
+        if (components == null) {
+            return attribute;
+        }
+        return canonicalName(components);
+    }
+
+    /**
+     * Collects the attributes of the bitmap indexes among the given index
+     * configs.
+     *
+     * @param indexConfigs the index configs to inspect.
+     * @return the attributes of the bitmap indexes.
+     */
+    public static List<String> getBitmapAttributes(Collection<MapIndexConfig> indexConfigs) {
+        List<String> attributes = new ArrayList<String>();
+        for (MapIndexConfig indexConfig : indexConfigs) {
+            if (indexConfig.isBitmap() && !indexConfig.isOrdered()) {
+                attributes.add(indexConfig.getAttribute());
+            }
+        }
+        return attributes;
+    }
+
+    private static String canonicalName(String[] components) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < components.length; ++i) {
+            if (i > 0) {
+                builder.append(CANONICAL_COMPONENT_SEPARATOR);
+            }
+            builder.append(components[i]);
+        }
+        return builder.toString();
+    }
+
+}
@@ -26,6 +26,10 @@ import com.hazelcast.query.Predicate;
 import com.hazelcast.query.impl.getters.Extractors;
 import com.hazelcast.spi.serialization.SerializationService;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -47,11 +51,14 @@ public class Indexes {
     private final IndexProvider indexProvider;
     private final IndexCopyBehavior indexCopyBehavior;
     private final QueryContextProvider queryContextProvider;
+    private final Set<String> bitmapAttributes;
     private final InternalSerializationService serializationService;
     private final ConcurrentMap<String, InternalIndex> mapIndexes = new ConcurrentHashMap<String, InternalIndex>(3);
     private final AtomicReference<InternalIndex[]> indexes = new AtomicReference<InternalIndex[]>(EMPTY_INDEX);
+    private final AtomicReference<InternalIndex[]> compositeIndexes = new AtomicReference<InternalIndex[]>(EMPTY_INDEX);
 
     private volatile boolean hasIndex;
+    private EntryOrdinals entryOrdinals;
 
     Indexes(InternalSerializationService serializationService,
                     IndexCopyBehavior indexCopyBehavior,
@@ -59,7 +66,8 @@ public class Indexes {
                     IndexProvider indexProvider,
                     boolean usesCachedQueryableEntries,
                     boolean statisticsEnabled,
-                    boolean global) {
+                    boolean global,
+                    Set<String> bitmapAttributes) {
 
         this.global = global;
         this.indexCopyBehavior = indexCopyBehavior;
@@ -69,6 +77,7 @@ public class Indexes {
         this.extractors = extractors == null ? Extractors.newBuilder(serializationService).build() : extractors;
         this.indexProvider = indexProvider == null ? new DefaultIndexProvider() : indexProvider;
         this.queryContextProvider = createQueryContextProvider(this, global, statisticsEnabled);
+        this.bitmapAttributes = bitmapAttributes;
     }
 
     private static QueryContextProvider createQueryContextProvider(Indexes indexes, boolean global, boolean statisticsEnabled) {
@@ -114,6 +123,11 @@ public class Indexes {
     /**
      * Obtains the existing index or creates a new one (if an index doesn't exist
      * yet) for the given attribute in this indexes instance.
+     * <p>
+     * The attribute may list several comma-separated attributes to obtain a
+     * composite index on them, see {@link IndexUtils}. Unordered indexes on
+     * the attributes configured as {@link Builder#bitmapAttributes bitmap} ones
+     * are created as bitmap indexes.
      *
      * @param attribute the attribute to index.
      * @param ordered   {@code true} if the new index should be ordered, {@code
@@ -121,17 +135,32 @@ public class Indexes {
      * @return the existing or created index.
      */
     public synchronized InternalIndex addOrGetIndex(String attribute, boolean ordered) {
+        attribute = IndexUtils.canonicalizeAttribute(attribute);
         InternalIndex index = mapIndexes.get(attribute);
         if (index != null) {
             return index;
         }
 
-        index = indexProvider.createIndex(attribute, ordered, extractors,
-                serializationService, indexCopyBehavior,
-                stats.createPerIndexStats(ordered, usesCachedQueryableEntries));
+        if (!ordered && bitmapAttributes.contains(attribute)) {
+            if (entryOrdinals == null) {
+                entryOrdinals = new EntryOrdinals();
+            }
+            index = new BitmapIndexImpl(attribute, entryOrdinals, serializationService, extractors, indexCopyBehavior,
+                    stats.createPerIndexStats(false, usesCachedQueryableEntries));
+        } else {
+            index = indexProvider.createIndex(attribute, ordered, extractors,
+                    serializationService, indexCopyBehavior,
+                    stats.createPerIndexStats(ordered, usesCachedQueryableEntries));
+        }
 
         mapIndexes.put(attribute, index);
         indexes.set(mapIndexes.values().toArray(EMPTY_INDEX));
+        if (index.getComponents() != null) {
+            InternalIndex[] oldCompositeIndexes = compositeIndexes.get();
+            InternalIndex[] newCompositeIndexes = Arrays.copyOf(oldCompositeIndexes, oldCompositeIndexes.length + 1);
+            newCompositeIndexes[oldCompositeIndexes.length] = index;
+            compositeIndexes.set(newCompositeIndexes);
+        }
         hasIndex = true;
         return index;
     }
@@ -143,6 +172,14 @@ public class Indexes {
         return indexes.get();
     }
 
+    /**
+     * Returns the composite indexes known to this indexes instance in the
+     * order of their creation.
+     */
+    public InternalIndex[] getCompositeIndexes() {
+        return compositeIndexes.get();
+    }
+
     /**
      * Destroys and then removes all the indexes from this indexes instance.
      */
@@ -152,7 +189,9 @@ public class Indexes {
         }
 
         indexes.set(EMPTY_INDEX);
+        compositeIndexes.set(EMPTY_INDEX);
         mapIndexes.clear();
+        entryOrdinals = null;
         hasIndex = false;
     }
 
@@ -222,7 +261,7 @@ public class Indexes {
      * @return Index for attribute or null if the index does not exist.
      */
     public InternalIndex getIndex(String attribute) {
-        return mapIndexes.get(attribute);
+        return mapIndexes.get(IndexUtils.canonicalizeAttribute(attribute));
     }
 
     /**
@@ -281,6 +320,7 @@ public class Indexes {
         private boolean usesCachedQueryableEntries;
         private Extractors extractors;
         private IndexProvider indexProvider;
+        private Set<String> bitmapAttributes = Collections.emptySet();
 
         private final IndexCopyBehavior indexCopyBehavior;
         private final InternalSerializationService serializationService;
@@ -339,12 +379,26 @@ public class Indexes {
             return this;
         }
 
+        /**
+         * @param bitmapAttributes the attributes to create bitmap indexes for,
+         *                         instead of regular unordered indexes
+         * @return this builder instance
+         */
+        public Builder bitmapAttributes(Collection<String> bitmapAttributes) {
+            Set<String> canonicalAttributes = new HashSet<String>(bitmapAttributes.size());
+            for (String attribute : bitmapAttributes) {
+                canonicalAttributes.add(IndexUtils.canonicalizeAttribute(attribute));
+            }
+            this.bitmapAttributes = canonicalAttributes;
+            return this;
+        }
+
         /**
          * @return a new instance of Indexes
          */
         public Indexes build() {
             return new Indexes(serializationService, indexCopyBehavior, extractors,
-                    indexProvider, usesCachedQueryableEntries, statsEnabled, global);
+                    indexProvider, usesCachedQueryableEntries, statsEnabled, global, bitmapAttributes);
         }
     }
 }
@@ -23,6 +23,14 @@ import com.hazelcast.monitor.impl.PerIndexStats;
  */
 public interface InternalIndex extends Index {
 
+    /**
+     * Returns the names of the attributes indexed by this index if it's a
+     * composite index, {@code null} otherwise.
+     *
+     * @see IndexUtils#getComponents
+     */
+    String[] getComponents();
+
     /**
      * Returns {@code true} if the given partition is indexed by this index,
      * {@code false} otherwise.
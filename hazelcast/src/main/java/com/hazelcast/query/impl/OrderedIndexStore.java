@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Store indexes rankly in a copy-on-write B+ tree.
+ * <p>
+ * Unlike {@link SortedIndexStore}, this store doesn't keep a map per distinct
+ * attribute value: the entries are kept directly in the tree slots and
+ * numeric attribute values are kept as primitives. Queries are served from a
+ * snapshot of the tree without taking the read lock, and the returned result
+ * sets stream the matching entries instead of copying them. Since snapshots
+ * are never modified, the results are stable regardless of the configured
+ * {@link IndexCopyBehavior}.
+ */
+public class OrderedIndexStore extends BaseIndexStore {
+
+    private final SortedIndexTree records = new SortedIndexTree();
+    private final SortedIndexTree recordsWithNullValue = new SortedIndexTree();
+
+    public OrderedIndexStore(IndexCopyBehavior copyOn) {
+        super(copyOn);
+    }
+
+    @Override
+    Object newIndexInternal(Comparable newValue, QueryableEntry record) {
+        return treeFor(newValue).put(newValue, record);
+    }
+
+    @Override
+    Object removeIndexInternal(Comparable oldValue, Data recordKey) {
+        return treeFor(oldValue).remove(oldValue, recordKey);
+    }
+
+    @Override
+    public void clear() {
+        takeWriteLock();
+        try {
+            recordsWithNullValue.clear();
+            records.clear();
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getSubRecordsBetween(Comparable from, Comparable to) {
+        return records.range(from, true, to, true, multiResultHasToDetectDuplicates());
+    }
+
+    @Override
+    public Set<QueryableEntry> getSubRecords(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+        return records.range(from, fromInclusive, to, toInclusive, multiResultHasToDetectDuplicates());
+    }
+
+    @Override
+    public Set<QueryableEntry> getSubRecords(ComparisonType comparisonType, Comparable searchedValue) {
+        boolean detectDuplicates = multiResultHasToDetectDuplicates();
+        switch (comparisonType) {
+            case LESSER:
+                return records.range(null, false, searchedValue, false, detectDuplicates);
+            case LESSER_EQUAL:
+                return records.range(null, false, searchedValue, true, detectDuplicates);
+            case GREATER:
+                return records.range(searchedValue, false, null, false, detectDuplicates);
+            case GREATER_EQUAL:
+                return records.range(searchedValue, true, null, false, detectDuplicates);
+            case NOT_EQUAL:
+                return records.allExcept(searchedValue, detectDuplicates);
+            default:
+                throw new IllegalArgumentException("Unrecognized comparisonType: " + comparisonType);
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable value) {
+        return treeFor(value).range(value, true, value, true, multiResultHasToDetectDuplicates());
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Set<Comparable> values) {
+        boolean detectDuplicates = multiResultHasToDetectDuplicates();
+
+        Set<Comparable> notNullValues = values;
+        Set<QueryableEntry> nullRecords = null;
+        for (Comparable value : values) {
+            if (value instanceof IndexImpl.NullObject) {
+                notNullValues = new HashSet<Comparable>(values);
+                notNullValues.remove(value);
+                nullRecords = recordsWithNullValue.range(null, false, null, false, detectDuplicates);
+                break;
+            }
+        }
+
+        Set<QueryableEntry> notNullRecords = records.matching(notNullValues, detectDuplicates);
+        if (nullRecords == null) {
+            return notNullRecords;
+        }
+
+        List<Set<QueryableEntry>> results = new ArrayList<Set<QueryableEntry>>(2);
+        results.add(nullRecords);
+        results.add(notNullRecords);
+        return new OrResultSet(results);
+    }
+
+    private SortedIndexTree treeFor(Comparable value) {
+        return value instanceof IndexImpl.NullObject ? recordsWithNullValue : records;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderedIndexStore{"
+                + "records=" + records.size()
+                + '}';
+    }
+
+}
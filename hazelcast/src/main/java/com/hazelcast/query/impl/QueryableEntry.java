@@ -57,6 +57,64 @@ public abstract class QueryableEntry<K, V> implements Extractable, Map.Entry<K,
         return extractAttributeType(attributeName);
     }
 
+    /**
+     * Tells whether the values of the given attribute are always extracted
+     * as single values, so they may be extracted using the primitive {@link
+     * #getLongAttributeValue}, {@link #getIntAttributeValue} and {@link
+     * #getDoubleAttributeValue} methods.
+     *
+     * @see Extractors#isSingleValued
+     */
+    public boolean isSingleValuedAttribute(String attributeName) {
+        if (isAttributeQueryConstant(attributeName)) {
+            return true;
+        }
+        boolean isKey = startsWithKeyConstant(attributeName);
+        return extractors.isSingleValued(getAttributeName(isKey, attributeName));
+    }
+
+    /**
+     * Extracts the value of the given single valued attribute as a primitive
+     * long, avoiding the boxing where possible.
+     *
+     * @see Extractors#extractLong
+     */
+    public long getLongAttributeValue(String attributeName) throws QueryException {
+        if (isAttributeQueryConstant(attributeName)) {
+            return (Long) extractAttributeValue(attributeName);
+        }
+        boolean isKey = startsWithKeyConstant(attributeName);
+        return extractors.extractLong(getTargetObject(isKey), getAttributeName(isKey, attributeName));
+    }
+
+    /**
+     * Extracts the value of the given single valued attribute as a primitive
+     * int, avoiding the boxing where possible.
+     *
+     * @see Extractors#extractInt
+     */
+    public int getIntAttributeValue(String attributeName) throws QueryException {
+        if (isAttributeQueryConstant(attributeName)) {
+            return (Integer) extractAttributeValue(attributeName);
+        }
+        boolean isKey = startsWithKeyConstant(attributeName);
+        return extractors.extractInt(getTargetObject(isKey), getAttributeName(isKey, attributeName));
+    }
+
+    /**
+     * Extracts the value of the given single valued attribute as a primitive
+     * double, avoiding the boxing where possible.
+     *
+     * @see Extractors#extractDouble
+     */
+    public double getDoubleAttributeValue(String attributeName) throws QueryException {
+        if (isAttributeQueryConstant(attributeName)) {
+            return (Double) extractAttributeValue(attributeName);
+        }
+        boolean isKey = startsWithKeyConstant(attributeName);
+        return extractors.extractDouble(getTargetObject(isKey), getAttributeName(isKey, attributeName));
+    }
+
     public abstract V getValue();
 
     public abstract K getKey();
@@ -130,6 +188,10 @@ public abstract class QueryableEntry<K, V> implements Extractable, Map.Entry<K,
         return null;
     }
 
+    private static boolean isAttributeQueryConstant(String attributeName) {
+        return KEY_ATTRIBUTE_NAME.value().equals(attributeName) || THIS_ATTRIBUTE_NAME.value().equals(attributeName);
+    }
+
     private static boolean startsWithKeyConstant(String attributeName) {
         return attributeName.startsWith(KEY_ATTRIBUTE_NAME.value());
     }
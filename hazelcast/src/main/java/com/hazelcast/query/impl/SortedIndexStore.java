@@ -90,6 +90,22 @@ public class SortedIndexStore extends BaseIndexStore {
         }
     }
 
+    @Override
+    public Set<QueryableEntry> getSubRecords(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+        takeReadLock();
+        try {
+            MultiResultSet results = createMultiResultSet();
+            SortedMap<Comparable, Map<Data, QueryableEntry>> subMap =
+                    recordMap.subMap(from, fromInclusive, to, toInclusive);
+            for (Map<Data, QueryableEntry> value : subMap.values()) {
+                copyToMultiResultSet(results, value);
+            }
+            return results;
+        } finally {
+            releaseReadLock();
+        }
+    }
+
     @Override
     public Set<QueryableEntry> getSubRecords(ComparisonType comparisonType, Comparable searchedValue) {
         takeReadLock();
@@ -0,0 +1,819 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Copy-on-write B+ tree backing the {@link OrderedIndexStore}.
+ * <p>
+ * Every slot of the tree holds an indexed entry together with the attribute
+ * value it is indexed by. Integral and floating point values are kept only
+ * as order-preserving {@code long} keys; strings are kept as a {@code long}
+ * prefix of their first characters plus the string itself to break the ties;
+ * other comparable values are kept as they are. Entries having equal
+ * attribute values are ordered by their key data, so every entry has a
+ * unique position in the tree.
+ * <p>
+ * Published nodes are never modified: a mutation copies the nodes on the path
+ * from the root to the affected leaf and publishes a new root. Readers work
+ * on a snapshot of the root and need no locking; mutations must be
+ * serialized by the caller. Inner nodes track the number of entries of their
+ * child subtrees, so the size of a range is known without visiting it.
+ */
+final class SortedIndexTree {
+
+    static final int NODE_CAPACITY = 32;
+
+    static final int KIND_NONE = 0;
+    static final int KIND_INTEGRAL = 1;
+    static final int KIND_FLOATING = 2;
+    static final int KIND_STRING = 3;
+    static final int KIND_OBJECT = 4;
+
+    private static final int MERGE_THRESHOLD = NODE_CAPACITY / 4;
+    private static final int STRING_PREFIX_CHARS = 4;
+    private static final int BITS_PER_CHAR = 16;
+
+    private static final Root EMPTY = new Root(null, KIND_NONE);
+    private static final int[] NO_RANGES = new int[0];
+
+    private volatile Root root = EMPTY;
+
+    // the state below is used only by the mutating thread
+    private Node splitSibling;
+    private QueryableEntry replacedEntry;
+    private QueryableEntry removedEntry;
+
+    /**
+     * Associates the given entry with the given attribute value replacing
+     * the entry having the same key and value, if any.
+     *
+     * @return the replaced entry or {@code null} if there was none.
+     * @throws ClassCastException if the value can't be compared with the
+     *                            values already stored in this tree.
+     */
+    QueryableEntry put(Comparable value, QueryableEntry entry) {
+        Root current = root;
+        int kind = current.node == null ? kindOf(value) : current.kind;
+        checkKind(value, kind);
+
+        long prefix = prefixOf(value, kind);
+        Comparable storedValue = hasValues(kind) ? value : null;
+
+        Node node;
+        if (current.node == null) {
+            node = new Leaf(new long[]{prefix}, storedValue == null ? null : new Comparable[]{storedValue},
+                    new QueryableEntry[]{entry});
+        } else {
+            node = insert(current.node, prefix, storedValue, entry);
+            Node sibling = splitSibling;
+            if (sibling != null) {
+                splitSibling = null;
+                node = new Inner(new Node[]{node, sibling});
+            }
+        }
+        root = new Root(node, kind);
+
+        QueryableEntry replaced = replacedEntry;
+        replacedEntry = null;
+        return replaced;
+    }
+
+    /**
+     * Removes the entry having the given key from the given attribute value.
+     *
+     * @return the removed entry or {@code null} if there was none.
+     */
+    QueryableEntry remove(Comparable value, Data keyData) {
+        Root current = root;
+        if (current.node == null || !isComparable(value, current.kind)) {
+            return null;
+        }
+
+        long prefix = prefixOf(value, current.kind);
+        Comparable storedValue = hasValues(current.kind) ? value : null;
+
+        Node node = remove(current.node, prefix, storedValue, keyData);
+        QueryableEntry removed = removedEntry;
+        if (removed == null) {
+            return null;
+        }
+        removedEntry = null;
+
+        while (node instanceof Inner && node.size() == 1) {
+            node = ((Inner) node).children[0];
+        }
+        root = node == null ? EMPTY : new Root(node, current.kind);
+        return removed;
+    }
+
+    void clear() {
+        root = EMPTY;
+    }
+
+    int size() {
+        Node node = root.node;
+        return node == null ? 0 : node.count();
+    }
+
+    /**
+     * Returns the entries having attribute values in the given range.
+     *
+     * @param from               the lower bound or {@code null} if unbounded.
+     * @param fromInclusive      {@code true} if the lower bound is inclusive.
+     * @param to                 the upper bound or {@code null} if unbounded.
+     * @param toInclusive        {@code true} if the upper bound is inclusive.
+     * @param detectDuplicates   {@code true} if the same entry may be indexed
+     *                           by multiple values.
+     * @return the lazy result set backed by the current snapshot of the tree.
+     */
+    Set<QueryableEntry> range(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive,
+                              boolean detectDuplicates) {
+        Root snapshot = root;
+        int lo = from == null ? 0 : rank(snapshot, from, !fromInclusive);
+        int hi = to == null ? snapshot.size() : rank(snapshot, to, toInclusive);
+        return new ResultSet(snapshot.node, lo < hi ? new int[]{lo, hi} : NO_RANGES, detectDuplicates);
+    }
+
+    /**
+     * Returns the entries having attribute values not equal to the given one.
+     */
+    Set<QueryableEntry> allExcept(Comparable value, boolean detectDuplicates) {
+        Root snapshot = root;
+        int size = snapshot.size();
+        if (size == 0 || !isComparable(value, snapshot.kind)) {
+            return new ResultSet(snapshot.node, size == 0 ? NO_RANGES : new int[]{0, size}, detectDuplicates);
+        }
+
+        int lo = rank(snapshot, value, false);
+        int hi = rank(snapshot, value, true);
+        int[] ranges = new int[]{0, lo, hi, size};
+        int count = 0;
+        for (int i = 0; i < ranges.length; i += 2) {
+            if (ranges[i] < ranges[i + 1]) {
+                ranges[count++] = ranges[i];
+                ranges[count++] = ranges[i + 1];
+            }
+        }
+        return new ResultSet(snapshot.node, Arrays.copyOf(ranges, count), detectDuplicates);
+    }
+
+    /**
+     * Returns the entries having attribute values equal to any of the given
+     * ones.
+     */
+    Set<QueryableEntry> matching(Set<Comparable> values, boolean detectDuplicates) {
+        Root snapshot = root;
+        int[] ranges = new int[values.size() * 2];
+        int count = 0;
+        for (Comparable value : values) {
+            int lo = rank(snapshot, value, false);
+            int hi = rank(snapshot, value, true);
+            if (lo < hi) {
+                ranges[count++] = lo;
+                ranges[count++] = hi;
+            }
+        }
+        return new ResultSet(snapshot.node, mergeRanges(ranges, count), detectDuplicates);
+    }
+
+    // the number of entries having values lower than (or equal to, if
+    // inclusive) the given one
+    private static int rank(Root snapshot, Comparable value, boolean inclusive) {
+        Node node = snapshot.node;
+        if (node == null) {
+            return 0;
+        }
+        checkKind(value, snapshot.kind);
+        long prefix = prefixOf(value, snapshot.kind);
+        Comparable boundValue = hasValues(snapshot.kind) ? value : null;
+
+        int rank = 0;
+        while (node instanceof Inner) {
+            Inner inner = (Inner) node;
+            int child = countBelow(inner, prefix, boundValue, inclusive) - 1;
+            if (child < 0) {
+                return rank;
+            }
+            for (int i = 0; i < child; ++i) {
+                rank += inner.counts[i];
+            }
+            node = inner.children[child];
+        }
+        return rank + countBelow(node, prefix, boundValue, inclusive);
+    }
+
+    // the number of slots of the node having keys lower than (or equal to,
+    // if inclusive) the given bound
+    private static int countBelow(Node node, long prefix, Comparable value, boolean inclusive) {
+        int low = 0;
+        int high = node.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compare(node.prefixes[mid], node.values == null ? null : node.values[mid], prefix, value);
+            if (cmp < 0 || inclusive && cmp == 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private Node insert(Node node, long prefix, Comparable value, QueryableEntry entry) {
+        Data keyData = entry.getKeyData();
+        if (node instanceof Leaf) {
+            int index = search(node, prefix, value, keyData);
+            if (index >= 0) {
+                replacedEntry = node.entries[index];
+                QueryableEntry[] entries = node.entries.clone();
+                entries[index] = entry;
+                return new Leaf(node.prefixes, node.values, entries);
+            }
+
+            index = -index - 1;
+            return newLeaf(insert(node.prefixes, index, prefix), insert(node.values, index, value),
+                    insert(node.entries, index, entry));
+        }
+
+        Inner inner = (Inner) node;
+        int index = childIndex(inner, prefix, value, keyData);
+        Node child = insert(inner.children[index], prefix, value, entry);
+        Node sibling = splitSibling;
+        splitSibling = null;
+
+        Node[] children = inner.children.clone();
+        children[index] = child;
+        if (sibling != null) {
+            children = insert(children, index + 1, sibling);
+        }
+        return newInner(children);
+    }
+
+    private Node remove(Node node, long prefix, Comparable value, Data keyData) {
+        if (node instanceof Leaf) {
+            int index = search(node, prefix, value, keyData);
+            if (index < 0) {
+                return node;
+            }
+            removedEntry = node.entries[index];
+            if (node.size() == 1) {
+                return null;
+            }
+            return new Leaf(remove(node.prefixes, index), remove(node.values, index), remove(node.entries, index));
+        }
+
+        Inner inner = (Inner) node;
+        int index = childIndex(inner, prefix, value, keyData);
+        Node child = remove(inner.children[index], prefix, value, keyData);
+        if (removedEntry == null) {
+            return node;
+        }
+
+        if (child == null) {
+            return inner.size() == 1 ? null : new Inner(remove(inner.children, index));
+        }
+
+        Node[] children = inner.children.clone();
+        children[index] = child;
+        if (child.size() < MERGE_THRESHOLD && children.length > 1) {
+            int left = index == 0 ? 0 : index - 1;
+            Node merged = concat(children[left], children[left + 1]);
+            if (merged != null) {
+                children[left] = merged;
+                children = remove(children, left + 1);
+            }
+        }
+        return new Inner(children);
+    }
+
+    private Node newLeaf(long[] prefixes, Comparable[] values, QueryableEntry[] entries) {
+        int size = prefixes.length;
+        if (size <= NODE_CAPACITY) {
+            return new Leaf(prefixes, values, entries);
+        }
+        int half = size >>> 1;
+        splitSibling = new Leaf(Arrays.copyOfRange(prefixes, half, size), copyOfRange(values, half, size),
+                Arrays.copyOfRange(entries, half, size));
+        return new Leaf(Arrays.copyOf(prefixes, half), copyOfRange(values, 0, half), Arrays.copyOf(entries, half));
+    }
+
+    private Node newInner(Node[] children) {
+        int size = children.length;
+        if (size <= NODE_CAPACITY) {
+            return new Inner(children);
+        }
+        int half = size >>> 1;
+        splitSibling = new Inner(Arrays.copyOfRange(children, half, size));
+        return new Inner(Arrays.copyOf(children, half));
+    }
+
+    // concatenates two sibling nodes if the result fits into a single node
+    private static Node concat(Node left, Node right) {
+        if (left.size() + right.size() > NODE_CAPACITY) {
+            return null;
+        }
+        if (left instanceof Leaf) {
+            return new Leaf(concat(left.prefixes, right.prefixes), concat(left.values, right.values),
+                    concat(left.entries, right.entries));
+        }
+        return new Inner(concat(((Inner) left).children, ((Inner) right).children));
+    }
+
+    // the index of the child whose subtree may contain the given key
+    private static int childIndex(Inner inner, long prefix, Comparable value, Data keyData) {
+        int low = 1;
+        int high = inner.size() - 1;
+        int index = 0;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (compare(inner, mid, prefix, value, keyData) <= 0) {
+                index = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return index;
+    }
+
+    // the index of the slot having the given key, or (-(insertion point) - 1)
+    private static int search(Node node, long prefix, Comparable value, Data keyData) {
+        int low = 0;
+        int high = node.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compare(node, mid, prefix, value, keyData);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static int compare(Node node, int index, long prefix, Comparable value, Data keyData) {
+        int cmp = compare(node.prefixes[index], node.values == null ? null : node.values[index], prefix, value);
+        return cmp != 0 ? cmp : compare(node.entries[index].getKeyData(), keyData);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compare(long prefix1, Comparable value1, long prefix2, Comparable value2) {
+        if (prefix1 != prefix2) {
+            return prefix1 < prefix2 ? -1 : 1;
+        }
+        return value1 == null ? 0 : value1.compareTo(value2);
+    }
+
+    private static int compare(Data keyData1, Data keyData2) {
+        int hash1 = keyData1.hashCode();
+        int hash2 = keyData2.hashCode();
+        if (hash1 != hash2) {
+            return hash1 < hash2 ? -1 : 1;
+        }
+
+        byte[] bytes1 = keyData1.toByteArray();
+        byte[] bytes2 = keyData2.toByteArray();
+        int length = Math.min(bytes1.length, bytes2.length);
+        for (int i = 0; i < length; ++i) {
+            if (bytes1[i] != bytes2[i]) {
+                return bytes1[i] < bytes2[i] ? -1 : 1;
+            }
+        }
+        return bytes1.length - bytes2.length;
+    }
+
+    static int kindOf(Comparable value) {
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return KIND_INTEGRAL;
+        }
+        if (value instanceof Double || value instanceof Float) {
+            return KIND_FLOATING;
+        }
+        if (value instanceof String) {
+            return KIND_STRING;
+        }
+        return KIND_OBJECT;
+    }
+
+    static boolean hasValues(int kind) {
+        return kind == KIND_STRING || kind == KIND_OBJECT;
+    }
+
+    private static boolean isComparable(Comparable value, int kind) {
+        return kind == KIND_OBJECT || kindOf(value) == kind;
+    }
+
+    private static void checkKind(Comparable value, int kind) {
+        if (!isComparable(value, kind)) {
+            throw new ClassCastException(value.getClass().getName() + " can't be compared with the values of the index");
+        }
+    }
+
+    static long prefixOf(Comparable value, int kind) {
+        switch (kind) {
+            case KIND_INTEGRAL:
+                return ((Number) value).longValue();
+            case KIND_FLOATING:
+                // flip the non-sign bits of the negative values to get the
+                // same order as Double.compareTo provides
+                long bits = Double.doubleToLongBits(((Number) value).doubleValue());
+                return bits ^ ((bits >> (Long.SIZE - 1)) & Long.MAX_VALUE);
+            case KIND_STRING:
+                String string = (String) value;
+                long prefix = 0;
+                for (int i = 0; i < STRING_PREFIX_CHARS; ++i) {
+                    prefix <<= BITS_PER_CHAR;
+                    if (i < string.length()) {
+                        prefix |= string.charAt(i);
+                    }
+                }
+                // make the signed comparison to be an unsigned one
+                return prefix ^ Long.MIN_VALUE;
+            default:
+                return 0;
+        }
+    }
+
+    private static int[] mergeRanges(int[] ranges, int length) {
+        if (length <= 2) {
+            return length == 0 ? NO_RANGES : Arrays.copyOf(ranges, length);
+        }
+
+        // sort the ranges by their lower bounds and merge the overlapping ones,
+        // the ranges of distinct values are disjoint but different value
+        // instances may still map to the same tree key
+        long[] packed = new long[length / 2];
+        for (int i = 0; i < packed.length; ++i) {
+            packed[i] = ((long) ranges[i * 2] << Integer.SIZE) | ranges[i * 2 + 1];
+        }
+        Arrays.sort(packed);
+
+        int[] merged = new int[length];
+        int count = 0;
+        for (long range : packed) {
+            int lo = (int) (range >>> Integer.SIZE);
+            int hi = (int) range;
+            if (count > 0 && lo <= merged[count - 1]) {
+                merged[count - 1] = Math.max(hi, merged[count - 1]);
+            } else {
+                merged[count++] = lo;
+                merged[count++] = hi;
+            }
+        }
+        return Arrays.copyOf(merged, count);
+    }
+
+    private static long[] insert(long[] array, int index, long element) {
+        long[] result = new long[array.length + 1];
+        System.arraycopy(array, 0, result, 0, index);
+        result[index] = element;
+        System.arraycopy(array, index, result, index + 1, array.length - index);
+        return result;
+    }
+
+    private static <T> T[] insert(T[] array, int index, T element) {
+        if (array == null) {
+            return null;
+        }
+        T[] result = Arrays.copyOf(array, array.length + 1);
+        result[index] = element;
+        System.arraycopy(array, index, result, index + 1, array.length - index);
+        return result;
+    }
+
+    private static long[] remove(long[] array, int index) {
+        long[] result = new long[array.length - 1];
+        System.arraycopy(array, 0, result, 0, index);
+        System.arraycopy(array, index + 1, result, index, result.length - index);
+        return result;
+    }
+
+    private static <T> T[] remove(T[] array, int index) {
+        if (array == null) {
+            return null;
+        }
+        T[] result = Arrays.copyOf(array, array.length - 1);
+        System.arraycopy(array, index + 1, result, index, result.length - index);
+        return result;
+    }
+
+    private static long[] concat(long[] first, long[] second) {
+        long[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    private static <T> T[] concat(T[] first, T[] second) {
+        if (first == null) {
+            return null;
+        }
+        T[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    private static <T> T[] copyOfRange(T[] array, int from, int to) {
+        return array == null ? null : Arrays.copyOfRange(array, from, to);
+    }
+
+    private static final class Root {
+
+        final Node node;
+        final int kind;
+
+        Root(Node node, int kind) {
+            this.node = node;
+            this.kind = kind;
+        }
+
+        int size() {
+            return node == null ? 0 : node.count();
+        }
+
+    }
+
+    /**
+     * Base class of the tree nodes. The slots of a leaf are the indexed
+     * entries, the slots of an inner node hold the lowest keys of its
+     * children.
+     */
+    abstract static class Node {
+
+        final long[] prefixes;
+        // null for the value kinds fully represented by the prefixes
+        final Comparable[] values;
+        final QueryableEntry[] entries;
+
+        Node(long[] prefixes, Comparable[] values, QueryableEntry[] entries) {
+            this.prefixes = prefixes;
+            this.values = values;
+            this.entries = entries;
+        }
+
+        final int size() {
+            return prefixes.length;
+        }
+
+        abstract int count();
+
+    }
+
+    static final class Leaf extends Node {
+
+        Leaf(long[] prefixes, Comparable[] values, QueryableEntry[] entries) {
+            super(prefixes, values, entries);
+        }
+
+        @Override
+        int count() {
+            return size();
+        }
+
+    }
+
+    static final class Inner extends Node {
+
+        final Node[] children;
+        final int[] counts;
+        final int count;
+
+        Inner(Node[] children) {
+            super(new long[children.length], children[0].values == null ? null : new Comparable[children.length],
+                    new QueryableEntry[children.length]);
+            this.children = children;
+            this.counts = new int[children.length];
+
+            int total = 0;
+            for (int i = 0; i < children.length; ++i) {
+                Node child = children[i];
+                prefixes[i] = child.prefixes[0];
+                if (values != null) {
+                    values[i] = child.values[0];
+                }
+                entries[i] = child.entries[0];
+                counts[i] = child.count();
+                total += counts[i];
+            }
+            this.count = total;
+        }
+
+        @Override
+        int count() {
+            return count;
+        }
+
+    }
+
+    /**
+     * Lazy result set iterating over the rank ranges of a tree snapshot.
+     */
+    private static final class ResultSet extends AbstractSet<QueryableEntry> {
+
+        private final Node root;
+        private final int[] ranges;
+        private final boolean detectDuplicates;
+
+        private int size = -1;
+        private Set<Data> keys;
+
+        ResultSet(Node root, int[] ranges, boolean detectDuplicates) {
+            this.root = root;
+            this.ranges = ranges;
+            this.detectDuplicates = detectDuplicates;
+        }
+
+        @Override
+        public Iterator<QueryableEntry> iterator() {
+            Iterator<QueryableEntry> iterator = new RangeIterator(root, ranges);
+            return detectDuplicates ? new DistinctIterator(iterator) : iterator;
+        }
+
+        @Override
+        public int size() {
+            if (size == -1) {
+                if (detectDuplicates) {
+                    int count = 0;
+                    for (Iterator<QueryableEntry> it = iterator(); it.hasNext(); it.next()) {
+                        ++count;
+                    }
+                    size = count;
+                } else {
+                    int count = 0;
+                    for (int i = 0; i < ranges.length; i += 2) {
+                        count += ranges[i + 1] - ranges[i];
+                    }
+                    size = count;
+                }
+            }
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (keys == null) {
+                Set<Data> keys = new HashSet<Data>();
+                for (QueryableEntry entry : this) {
+                    keys.add(entry.getKeyData());
+                }
+                this.keys = keys;
+            }
+            return keys.contains(((QueryableEntry) o).getKeyData());
+        }
+
+    }
+
+    /**
+     * Iterates over the entries of the given rank ranges of a tree.
+     */
+    private static final class RangeIterator implements Iterator<QueryableEntry> {
+
+        private final int[] ranges;
+        private final Node[] path;
+        private final int[] positions;
+
+        private int range;
+        private int remaining;
+
+        RangeIterator(Node root, int[] ranges) {
+            this.ranges = ranges;
+            int height = 0;
+            for (Node node = root; node != null; node = node instanceof Inner ? ((Inner) node).children[0] : null) {
+                ++height;
+            }
+            this.path = new Node[height];
+            this.positions = new int[height];
+            if (height > 0) {
+                path[0] = root;
+            }
+            if (ranges.length > 0) {
+                seek(ranges[0]);
+                remaining = ranges[1] - ranges[0];
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public QueryableEntry next() {
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+
+            int leafLevel = path.length - 1;
+            QueryableEntry entry = path[leafLevel].entries[positions[leafLevel]];
+            if (--remaining > 0) {
+                advance();
+            } else if (range + 2 < ranges.length) {
+                range += 2;
+                seek(ranges[range]);
+                remaining = ranges[range + 1] - ranges[range];
+            }
+            return entry;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        private void seek(int rank) {
+            int remainingRank = rank;
+            for (int level = 0; level < path.length - 1; ++level) {
+                Inner inner = (Inner) path[level];
+                int child = 0;
+                while (remainingRank >= inner.counts[child]) {
+                    remainingRank -= inner.counts[child];
+                    ++child;
+                }
+                positions[level] = child;
+                path[level + 1] = inner.children[child];
+            }
+            positions[path.length - 1] = remainingRank;
+        }
+
+        private void advance() {
+            int level = path.length - 1;
+            ++positions[level];
+            while (positions[level] == path[level].size()) {
+                --level;
+                ++positions[level];
+            }
+            while (level < path.length - 1) {
+                path[level + 1] = ((Inner) path[level]).children[positions[level]];
+                positions[++level] = 0;
+            }
+        }
+
+    }
+
+    /**
+     * Skips the entries already returned by the wrapped iterator.
+     */
+    private static final class DistinctIterator implements Iterator<QueryableEntry> {
+
+        private final Iterator<QueryableEntry> iterator;
+        private final Set<Data> seen = new HashSet<Data>();
+        private QueryableEntry next;
+
+        DistinctIterator(Iterator<QueryableEntry> iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && iterator.hasNext()) {
+                QueryableEntry entry = iterator.next();
+                if (seen.add(entry.getKeyData())) {
+                    next = entry;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public QueryableEntry next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            QueryableEntry entry = next;
+            next = null;
+            return entry;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+    }
+
+}
@@ -0,0 +1,626 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.bitmap;
+
+import java.util.Arrays;
+
+/**
+ * A compressed set of non-negative integers.
+ * <p>
+ * The integers are split into chunks of 2^16 values sharing the same high 16
+ * bits. Every non-empty chunk is kept in a container: sparse chunks holding
+ * up to {@link #ARRAY_CONTAINER_MAX_SIZE} values use a sorted array of the low
+ * 16 bits, dense chunks use a plain bitmap of 2^16 bits. This keeps both
+ * sparse and dense sets compact and makes the bitwise operations on them
+ * proportional to the number of containers rather than to the range of
+ * values.
+ * <p>
+ * Instances are not thread-safe. The bitwise operations never modify their
+ * operands and always produce new instances.
+ */
+@SuppressWarnings("checkstyle:methodcount")
+public final class SparseBitSet {
+
+    static final int ARRAY_CONTAINER_MAX_SIZE = 4096;
+
+    private static final int CHUNK_BITS = 16;
+    private static final int LOW_MASK = 0xFFFF;
+    private static final int WORD_BITS = 6;
+    private static final int WORD_MASK = 63;
+    private static final int BITMAP_WORDS = 1 << (CHUNK_BITS - WORD_BITS);
+    private static final int INITIAL_CAPACITY = 4;
+
+    private int[] keys;
+    private Container[] containers;
+    private int size;
+
+    /**
+     * Constructs a new empty set.
+     */
+    public SparseBitSet() {
+        this(INITIAL_CAPACITY);
+    }
+
+    private SparseBitSet(int capacity) {
+        keys = new int[capacity];
+        containers = new Container[capacity];
+    }
+
+    /**
+     * Adds the given value to this set.
+     *
+     * @param value the non-negative value to add.
+     * @return {@code true} if this set didn't contain the value, {@code false}
+     * otherwise.
+     */
+    public boolean add(int value) {
+        assert value >= 0;
+        int key = value >>> CHUNK_BITS;
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        if (index < 0) {
+            index = -index - 1;
+            insert(index, key, new ArrayContainer());
+        }
+
+        Container container = containers[index];
+        int cardinality = container.cardinality();
+        containers[index] = container.add((char) value);
+        return containers[index].cardinality() != cardinality;
+    }
+
+    /**
+     * Removes the given value from this set.
+     *
+     * @param value the non-negative value to remove.
+     * @return {@code true} if this set contained the value, {@code false}
+     * otherwise.
+     */
+    public boolean remove(int value) {
+        assert value >= 0;
+        int index = Arrays.binarySearch(keys, 0, size, value >>> CHUNK_BITS);
+        if (index < 0) {
+            return false;
+        }
+
+        Container container = containers[index];
+        int cardinality = container.cardinality();
+        Container updated = container.remove((char) value);
+        if (updated == null) {
+            delete(index);
+        } else {
+            containers[index] = updated;
+        }
+        return updated == null || updated.cardinality() != cardinality;
+    }
+
+    /**
+     * @return {@code true} if this set contains the given value, {@code false}
+     * otherwise.
+     */
+    public boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int index = Arrays.binarySearch(keys, 0, size, value >>> CHUNK_BITS);
+        return index >= 0 && containers[index].contains((char) value);
+    }
+
+    /**
+     * @return the number of values in this set.
+     */
+    public int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < size; ++i) {
+            cardinality += containers[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    /**
+     * @return {@code true} if this set is empty, {@code false} otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all the values from this set.
+     */
+    public void clear() {
+        Arrays.fill(containers, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * @return a deep copy of this set.
+     */
+    public SparseBitSet copy() {
+        SparseBitSet copy = new SparseBitSet(Math.max(size, INITIAL_CAPACITY));
+        for (int i = 0; i < size; ++i) {
+            copy.keys[i] = keys[i];
+            copy.containers[i] = containers[i].copy();
+        }
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * Returns the smallest value in this set which is greater than or equal to
+     * the given value.
+     *
+     * @param from the value to start the search from.
+     * @return the found value or {@code -1} if there is no such value.
+     */
+    public int nextSetBit(int from) {
+        if (from < 0) {
+            from = 0;
+        }
+        int key = from >>> CHUNK_BITS;
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        if (index >= 0) {
+            int low = containers[index].next(from & LOW_MASK);
+            if (low >= 0) {
+                return key << CHUNK_BITS | low;
+            }
+            ++index;
+        } else {
+            index = -index - 1;
+        }
+        return index < size ? keys[index] << CHUNK_BITS | containers[index].next(0) : -1;
+    }
+
+    /**
+     * @return a new set containing the values present in both this set and the
+     * given one.
+     */
+    public SparseBitSet and(SparseBitSet that) {
+        SparseBitSet result = new SparseBitSet(Math.max(Math.min(size, that.size), INITIAL_CAPACITY));
+        int i = 0;
+        int j = 0;
+        while (i < size && j < that.size) {
+            if (keys[i] < that.keys[j]) {
+                ++i;
+            } else if (keys[i] > that.keys[j]) {
+                ++j;
+            } else {
+                result.append(keys[i], containers[i].and(that.containers[j]));
+                ++i;
+                ++j;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return a new set containing the values present in this set or in the
+     * given one.
+     */
+    public SparseBitSet or(SparseBitSet that) {
+        SparseBitSet result = new SparseBitSet(Math.max(size + that.size, INITIAL_CAPACITY));
+        int i = 0;
+        int j = 0;
+        while (i < size || j < that.size) {
+            if (j == that.size || i < size && keys[i] < that.keys[j]) {
+                result.append(keys[i], containers[i].copy());
+                ++i;
+            } else if (i == size || keys[i] > that.keys[j]) {
+                result.append(that.keys[j], that.containers[j].copy());
+                ++j;
+            } else {
+                result.append(keys[i], containers[i].or(that.containers[j]));
+                ++i;
+                ++j;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return a new set containing the values present in this set and absent
+     * in the given one.
+     */
+    public SparseBitSet andNot(SparseBitSet that) {
+        SparseBitSet result = new SparseBitSet(Math.max(size, INITIAL_CAPACITY));
+        int j = 0;
+        for (int i = 0; i < size; ++i) {
+            while (j < that.size && that.keys[j] < keys[i]) {
+                ++j;
+            }
+            if (j < that.size && that.keys[j] == keys[i]) {
+                result.append(keys[i], containers[i].andNot(that.containers[j]));
+            } else {
+                result.append(keys[i], containers[i].copy());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("SparseBitSet{");
+        for (int value = nextSetBit(0); value >= 0; value = nextSetBit(value + 1)) {
+            if (builder.length() > "SparseBitSet{".length()) {
+                builder.append(", ");
+            }
+            builder.append(value);
+        }
+        return builder.append('}').toString();
+    }
+
+    private void append(int key, Container container) {
+        if (container != null) {
+            insert(size, key, container);
+        }
+    }
+
+    private void insert(int index, int key, Container container) {
+        if (size == keys.length) {
+            int capacity = keys.length * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            containers = Arrays.copyOf(containers, capacity);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        ++size;
+    }
+
+    private void delete(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+        containers[--size] = null;
+    }
+
+    /**
+     * Produces the most compact container for the given bitmap words.
+     */
+    private static Container compact(long[] words) {
+        int cardinality = 0;
+        for (long word : words) {
+            cardinality += Long.bitCount(word);
+        }
+        if (cardinality == 0) {
+            return null;
+        }
+        if (cardinality > ARRAY_CONTAINER_MAX_SIZE) {
+            return new BitmapContainer(words, cardinality);
+        }
+
+        char[] values = new char[cardinality];
+        int count = 0;
+        for (int i = 0; i < words.length; ++i) {
+            long word = words[i];
+            while (word != 0) {
+                values[count++] = (char) (i << WORD_BITS | Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return new ArrayContainer(values, cardinality);
+    }
+
+    /**
+     * Holds the low 16 bits of the values sharing the same high 16 bits.
+     */
+    private abstract static class Container {
+
+        abstract int cardinality();
+
+        abstract boolean contains(char value);
+
+        /**
+         * @return the container holding the result, may be this container.
+         */
+        abstract Container add(char value);
+
+        /**
+         * @return the container holding the result, may be this container;
+         * {@code null} if the result is empty.
+         */
+        abstract Container remove(char value);
+
+        /**
+         * @return the smallest value greater than or equal to the given one or
+         * {@code -1} if there is no such value.
+         */
+        abstract int next(int from);
+
+        abstract Container copy();
+
+        abstract long[] toWords();
+
+        /**
+         * @return a new container or {@code null} if the result is empty.
+         */
+        abstract Container and(Container that);
+
+        /**
+         * @return a new container.
+         */
+        abstract Container or(Container that);
+
+        /**
+         * @return a new container or {@code null} if the result is empty.
+         */
+        abstract Container andNot(Container that);
+
+    }
+
+    private static final class ArrayContainer extends Container {
+
+        private char[] values;
+        private int cardinality;
+
+        ArrayContainer() {
+            this.values = new char[INITIAL_CAPACITY];
+        }
+
+        ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        Container add(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_CONTAINER_MAX_SIZE) {
+                Container bitmap = new BitmapContainer(toWords(), cardinality);
+                return bitmap.add(value);
+            }
+
+            index = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(values.length * 2, ARRAY_CONTAINER_MAX_SIZE));
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = value;
+            ++cardinality;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index < 0) {
+                return this;
+            }
+            System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+            --cardinality;
+            return cardinality == 0 ? null : this;
+        }
+
+        @Override
+        int next(int from) {
+            int index = Arrays.binarySearch(values, 0, cardinality, (char) from);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            return index < cardinality ? values[index] : -1;
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(cardinality, 1)), cardinality);
+        }
+
+        @Override
+        long[] toWords() {
+            long[] words = new long[BITMAP_WORDS];
+            for (int i = 0; i < cardinality; ++i) {
+                char value = values[i];
+                words[value >>> WORD_BITS] |= 1L << (value & WORD_MASK);
+            }
+            return words;
+        }
+
+        @Override
+        Container and(Container that) {
+            char[] result = new char[cardinality];
+            int count = 0;
+            if (that instanceof ArrayContainer) {
+                ArrayContainer array = (ArrayContainer) that;
+                int i = 0;
+                int j = 0;
+                while (i < cardinality && j < array.cardinality) {
+                    if (values[i] < array.values[j]) {
+                        ++i;
+                    } else if (values[i] > array.values[j]) {
+                        ++j;
+                    } else {
+                        result[count++] = values[i];
+                        ++i;
+                        ++j;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; ++i) {
+                    if (that.contains(values[i])) {
+                        result[count++] = values[i];
+                    }
+                }
+            }
+            return count == 0 ? null : new ArrayContainer(result, count);
+        }
+
+        @Override
+        Container or(Container that) {
+            if (that instanceof BitmapContainer) {
+                return that.or(this);
+            }
+
+            ArrayContainer array = (ArrayContainer) that;
+            char[] result = new char[cardinality + array.cardinality];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < cardinality || j < array.cardinality) {
+                if (j == array.cardinality || i < cardinality && values[i] < array.values[j]) {
+                    result[count++] = values[i++];
+                } else if (i == cardinality || values[i] > array.values[j]) {
+                    result[count++] = array.values[j++];
+                } else {
+                    result[count++] = values[i];
+                    ++i;
+                    ++j;
+                }
+            }
+            if (count > ARRAY_CONTAINER_MAX_SIZE) {
+                return new ArrayContainer(result, count).toBitmap();
+            }
+            return new ArrayContainer(result, count);
+        }
+
+        @Override
+        Container andNot(Container that) {
+            char[] result = new char[cardinality];
+            int count = 0;
+            for (int i = 0; i < cardinality; ++i) {
+                if (!that.contains(values[i])) {
+                    result[count++] = values[i];
+                }
+            }
+            return count == 0 ? null : new ArrayContainer(result, count);
+        }
+
+        private Container toBitmap() {
+            return new BitmapContainer(toWords(), cardinality);
+        }
+
+    }
+
+    private static final class BitmapContainer extends Container {
+
+        private final long[] words;
+        private int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> WORD_BITS] & 1L << (value & WORD_MASK)) != 0;
+        }
+
+        @Override
+        Container add(char value) {
+            int index = value >>> WORD_BITS;
+            long word = words[index];
+            long updated = word | 1L << (value & WORD_MASK);
+            if (updated != word) {
+                words[index] = updated;
+                ++cardinality;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int index = value >>> WORD_BITS;
+            long word = words[index];
+            long updated = word & ~(1L << (value & WORD_MASK));
+            if (updated == word) {
+                return this;
+            }
+            words[index] = updated;
+            --cardinality;
+            // shrink with a gap to avoid flipping between the representations
+            return cardinality < ARRAY_CONTAINER_MAX_SIZE / 2 ? compact(words) : this;
+        }
+
+        @Override
+        int next(int from) {
+            int index = from >>> WORD_BITS;
+            long word = words[index] & -1L << (from & WORD_MASK);
+            while (true) {
+                if (word != 0) {
+                    return index << WORD_BITS | Long.numberOfTrailingZeros(word);
+                }
+                if (++index == BITMAP_WORDS) {
+                    return -1;
+                }
+                word = words[index];
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        long[] toWords() {
+            return words;
+        }
+
+        @Override
+        Container and(Container that) {
+            if (that instanceof ArrayContainer) {
+                return that.and(this);
+            }
+            long[] thoseWords = that.toWords();
+            long[] result = new long[BITMAP_WORDS];
+            for (int i = 0; i < BITMAP_WORDS; ++i) {
+                result[i] = words[i] & thoseWords[i];
+            }
+            return compact(result);
+        }
+
+        @Override
+        Container or(Container that) {
+            long[] thoseWords = that.toWords();
+            long[] result = new long[BITMAP_WORDS];
+            int count = 0;
+            for (int i = 0; i < BITMAP_WORDS; ++i) {
+                result[i] = words[i] | thoseWords[i];
+                count += Long.bitCount(result[i]);
+            }
+            return new BitmapContainer(result, count);
+        }
+
+        @Override
+        Container andNot(Container that) {
+            long[] thoseWords = that.toWords();
+            long[] result = new long[BITMAP_WORDS];
+            for (int i = 0; i < BITMAP_WORDS; ++i) {
+                result[i] = words[i] & ~thoseWords[i];
+            }
+            return compact(result);
+        }
+
+    }
+
+}
@@ -79,6 +79,101 @@ public final class Extractors {
         return null;
     }
 
+    /**
+     * Tells whether the values of the given attribute are always extracted
+     * as single values, so they may be extracted using the primitive {@link
+     * #extractLong}, {@link #extractInt} and {@link #extractDouble} methods.
+     * <p>
+     * Attributes having a custom {@link ValueExtractor} registered for them
+     * and attributes involving collection or array accessors are not single
+     * valued since they may produce a {@link MultiResult}.
+     *
+     * @param attributeName the attribute name to check.
+     * @return {@code true} if the attribute is single valued, {@code false}
+     * otherwise.
+     */
+    public boolean isSingleValued(String attributeName) {
+        return attributeName.indexOf('[') == -1 && !extractors.containsKey(attributeName);
+    }
+
+    /**
+     * Extracts the value of the given single valued attribute as a primitive
+     * long. The value is extracted without boxing if the getter for the
+     * attribute supports that, otherwise the extracted value is unboxed.
+     *
+     * @throws NullPointerException if the extracted value is {@code null}.
+     * @throws ClassCastException   if the extracted value is not a long.
+     * @see #isSingleValued
+     */
+    public long extractLong(Object target, String attributeName) {
+        Object targetObject = getTargetObject(target);
+        Object value = null;
+        if (targetObject != null) {
+            Getter getter = getGetter(targetObject, attributeName);
+            try {
+                if (getter.isPrimitive(long.class)) {
+                    return getter.getLong(targetObject);
+                }
+                value = getter.getValue(targetObject, attributeName);
+            } catch (Exception ex) {
+                throw new QueryException(ex);
+            }
+        }
+        return (Long) value;
+    }
+
+    /**
+     * Extracts the value of the given single valued attribute as a primitive
+     * int. The value is extracted without boxing if the getter for the
+     * attribute supports that, otherwise the extracted value is unboxed.
+     *
+     * @throws NullPointerException if the extracted value is {@code null}.
+     * @throws ClassCastException   if the extracted value is not an int.
+     * @see #isSingleValued
+     */
+    public int extractInt(Object target, String attributeName) {
+        Object targetObject = getTargetObject(target);
+        Object value = null;
+        if (targetObject != null) {
+            Getter getter = getGetter(targetObject, attributeName);
+            try {
+                if (getter.isPrimitive(int.class)) {
+                    return getter.getInt(targetObject);
+                }
+                value = getter.getValue(targetObject, attributeName);
+            } catch (Exception ex) {
+                throw new QueryException(ex);
+            }
+        }
+        return (Integer) value;
+    }
+
+    /**
+     * Extracts the value of the given single valued attribute as a primitive
+     * double. The value is extracted without boxing if the getter for the
+     * attribute supports that, otherwise the extracted value is unboxed.
+     *
+     * @throws NullPointerException if the extracted value is {@code null}.
+     * @throws ClassCastException   if the extracted value is not a double.
+     * @see #isSingleValued
+     */
+    public double extractDouble(Object target, String attributeName) {
+        Object targetObject = getTargetObject(target);
+        Object value = null;
+        if (targetObject != null) {
+            Getter getter = getGetter(targetObject, attributeName);
+            try {
+                if (getter.isPrimitive(double.class)) {
+                    return getter.getDouble(targetObject);
+                }
+                value = getter.getValue(targetObject, attributeName);
+            } catch (Exception ex) {
+                throw new QueryException(ex);
+            }
+        }
+        return (Double) value;
+    }
+
     /**
      * Returns the form of this data that is queryable.
      * Returns {@link Data} if {@code target} is
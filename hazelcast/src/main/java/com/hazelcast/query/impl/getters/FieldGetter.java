@@ -21,10 +21,12 @@ import java.lang.reflect.Field;
 
 public class FieldGetter extends AbstractMultiValueGetter {
     private final Field field;
+    private final boolean primitive;
 
     public FieldGetter(Getter parent, Field field, String modifierSuffix, Class resultType) {
         super(parent, modifierSuffix, field.getType(), resultType);
         this.field = field;
+        this.primitive = parent == null && getModifier() == DO_NOT_REDUCE && field.getType().isPrimitive();
     }
 
     @Override
@@ -36,6 +38,38 @@ public class FieldGetter extends AbstractMultiValueGetter {
         }
     }
 
+    @Override
+    boolean isPrimitive(Class type) {
+        return primitive && field.getType() == type;
+    }
+
+    @Override
+    long getLong(Object obj) throws IllegalAccessException {
+        try {
+            return field.getLong(obj);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(composeAttributeValueExtractionFailedMessage(field), e);
+        }
+    }
+
+    @Override
+    int getInt(Object obj) throws IllegalAccessException {
+        try {
+            return field.getInt(obj);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(composeAttributeValueExtractionFailedMessage(field), e);
+        }
+    }
+
+    @Override
+    double getDouble(Object obj) throws IllegalAccessException {
+        try {
+            return field.getDouble(obj);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(composeAttributeValueExtractionFailedMessage(field), e);
+        }
+    }
+
     @Override
     boolean isCacheable() {
         return true;
@@ -48,6 +48,43 @@ abstract class Getter {
      */
     abstract Class getReturnType();
 
+    /**
+     * Tells whether this getter is able to extract the value directly as a
+     * primitive of the given type, avoiding the boxing, using one of the
+     * {@link #getLong}, {@link #getInt} or {@link #getDouble} methods.
+     *
+     * @param type the primitive type to check against.
+     * @return {@code true} if the primitive extraction is supported for the
+     * given type, {@code false} otherwise.
+     */
+    boolean isPrimitive(Class type) {
+        return false;
+    }
+
+    /**
+     * Extracts the value as a primitive long, applicable only if {@link
+     * #isPrimitive} returns {@code true} for {@code long}.
+     */
+    long getLong(Object obj) throws Exception {
+        throw new UnsupportedOperationException("Primitive extraction unsupported by " + this);
+    }
+
+    /**
+     * Extracts the value as a primitive int, applicable only if {@link
+     * #isPrimitive} returns {@code true} for {@code int}.
+     */
+    int getInt(Object obj) throws Exception {
+        throw new UnsupportedOperationException("Primitive extraction unsupported by " + this);
+    }
+
+    /**
+     * Extracts the value as a primitive double, applicable only if {@link
+     * #isPrimitive} returns {@code true} for {@code double}.
+     */
+    double getDouble(Object obj) throws Exception {
+        throw new UnsupportedOperationException("Primitive extraction unsupported by " + this);
+    }
+
     /**
      * A getter instance may be re-used for all predicates that has the same target object
      * type and attribute path.
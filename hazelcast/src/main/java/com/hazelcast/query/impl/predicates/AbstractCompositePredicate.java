@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.IndexAwarePredicate;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.Index;
+import com.hazelcast.query.impl.QueryContext;
+
+import java.util.Map;
+
+/**
+ * Base class for the predicates produced by {@link CompositeIndexVisitor} to
+ * evaluate several predicates at once using a composite index.
+ * <p>
+ * Composite predicates are never sent over the wire; they are created while
+ * optimizing a query on the member executing it. If the composite index is
+ * not available for some reason, the predicates are evaluated entry by entry
+ * using the original predicates they are replacing.
+ */
+abstract class AbstractCompositePredicate implements IndexAwarePredicate {
+
+    final String indexName;
+    final Predicate[] predicates;
+
+    AbstractCompositePredicate(String indexName, Predicate[] predicates) {
+        this.indexName = indexName;
+        this.predicates = predicates;
+    }
+
+    @Override
+    public boolean apply(Map.Entry mapEntry) {
+        for (Predicate predicate : predicates) {
+            if (!predicate.apply(mapEntry)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isIndexed(QueryContext queryContext) {
+        return getIndex(queryContext) != null;
+    }
+
+    Index getIndex(QueryContext queryContext) {
+        return queryContext.getIndex(indexName);
+    }
+
+}
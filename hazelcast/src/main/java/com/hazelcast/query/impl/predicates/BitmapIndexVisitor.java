@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.BitmapIndexImpl;
+import com.hazelcast.query.impl.Indexes;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rewrites the equality, inequality and {@code in} predicates on the
+ * attributes having bitmap indexes, and their {@code and}, {@code or} and
+ * {@code not} combinations, into {@link BitmapPredicate}s evaluated using
+ * bitwise operations on the bitmaps produced by the indexes.
+ * <p>
+ * Given bitmap indexes on a and b:
+ * <ul>
+ * <li>(a = 1 and b in (2, 3) and c = 4) is rewritten as (bitmap(a = 1 and b
+ * in (2, 3)) and c = 4);
+ * <li>(a = 1 or b = 2) is rewritten as bitmap(a = 1 or b = 2), while (a = 1 or
+ * c = 4) is kept as is;
+ * <li>not(a = 1) and (a != 1) are rewritten as bitmap(not(a = 1)) if they are
+ * combined with other bitmap predicates.
+ * </ul>
+ * A conjunction is rewritten only if it has at least two bitmap operands,
+ * otherwise the regular index evaluation is as good.
+ */
+public class BitmapIndexVisitor extends AbstractVisitor {
+
+    private static final int MIN_AND_OPERANDS = 2;
+
+    @Override
+    public Predicate visit(AndPredicate andPredicate, Indexes indexes) {
+        Predicate[] originalPredicates = andPredicate.predicates;
+        List<BitmapPredicate> operands = null;
+        List<Predicate> rest = null;
+        for (Predicate predicate : originalPredicates) {
+            BitmapPredicate operand = toBitmap(predicate, indexes);
+            if (operand == null) {
+                if (rest == null) {
+                    rest = new ArrayList<Predicate>(originalPredicates.length);
+                }
+                rest.add(predicate);
+            } else {
+                if (operands == null) {
+                    operands = new ArrayList<BitmapPredicate>(originalPredicates.length);
+                }
+                operands.add(operand);
+            }
+        }
+        if (operands == null || operands.size() < MIN_AND_OPERANDS) {
+            return andPredicate;
+        }
+
+        BitmapPredicate bitmapPredicate = BitmapPredicate.and(operands.toArray(new BitmapPredicate[0]));
+        if (rest == null) {
+            return bitmapPredicate;
+        }
+        rest.add(bitmapPredicate);
+        return new AndPredicate(rest.toArray(new Predicate[0]));
+    }
+
+    @Override
+    public Predicate visit(OrPredicate orPredicate, Indexes indexes) {
+        Predicate[] originalPredicates = orPredicate.predicates;
+        BitmapPredicate[] operands = new BitmapPredicate[originalPredicates.length];
+        for (int i = 0; i < originalPredicates.length; ++i) {
+            BitmapPredicate operand = toBitmap(originalPredicates[i], indexes);
+            if (operand == null) {
+                return orPredicate;
+            }
+            operands[i] = operand;
+        }
+        return BitmapPredicate.or(operands);
+    }
+
+    @Override
+    public Predicate visit(NotPredicate notPredicate, Indexes indexes) {
+        BitmapPredicate operand = toBitmap(notPredicate.predicate, indexes);
+        return operand == null ? notPredicate : BitmapPredicate.not(operand);
+    }
+
+    /**
+     * @return the bitmap predicate equivalent to the given predicate or {@code
+     * null} if the given predicate can't be evaluated using bitmap indexes.
+     */
+    private static BitmapPredicate toBitmap(Predicate predicate, Indexes indexes) {
+        if (predicate instanceof BitmapPredicate) {
+            return (BitmapPredicate) predicate;
+        }
+
+        Class<? extends Predicate> predicateClass = predicate.getClass();
+        if (predicateClass == EqualPredicate.class || predicateClass == InPredicate.class) {
+            AbstractIndexAwarePredicate leaf = (AbstractIndexAwarePredicate) predicate;
+            return isBitmapIndexed(leaf.attributeName, indexes) ? BitmapPredicate.leaf(leaf) : null;
+        }
+        if (predicateClass == NotEqualPredicate.class) {
+            NotEqualPredicate notEqualPredicate = (NotEqualPredicate) predicate;
+            if (!isBitmapIndexed(notEqualPredicate.attributeName, indexes)) {
+                return null;
+            }
+            EqualPredicate equalPredicate = (EqualPredicate) notEqualPredicate.negate();
+            return BitmapPredicate.not(BitmapPredicate.leaf(equalPredicate));
+        }
+        return null;
+    }
+
+    private static boolean isBitmapIndexed(String attribute, Indexes indexes) {
+        return indexes.getIndex(attribute) instanceof BitmapIndexImpl;
+    }
+
+}
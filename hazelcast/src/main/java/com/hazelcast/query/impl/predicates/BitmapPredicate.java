@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.IndexAwarePredicate;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.BitmapResultSet;
+import com.hazelcast.query.impl.QueryContext;
+import com.hazelcast.query.impl.QueryableEntry;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Evaluates a boolean combination of equality and {@code in} predicates on
+ * bitmap indexes by combining the {@link BitmapResultSet bitmaps} produced by
+ * the indexes using bitwise operations, no entries are materialized until the
+ * final result is iterated.
+ * <p>
+ * Bitmap predicates are produced by {@link BitmapIndexVisitor} while
+ * optimizing a query on the member executing it and are never sent over the
+ * wire. If any of the indexes doesn't produce a bitmap for some reason, the
+ * predicate is evaluated entry by entry using the original predicates.
+ */
+public final class BitmapPredicate implements IndexAwarePredicate {
+
+    private enum Operator {
+        LEAF, AND, OR, NOT
+    }
+
+    private final Operator operator;
+    private final Predicate[] operands;
+
+    private BitmapPredicate(Operator operator, Predicate[] operands) {
+        this.operator = operator;
+        this.operands = operands;
+    }
+
+    /**
+     * @param predicate the equality or {@code in} predicate to evaluate on a
+     *                  bitmap index.
+     * @return a bitmap predicate evaluating the given predicate.
+     */
+    static BitmapPredicate leaf(IndexAwarePredicate predicate) {
+        return new BitmapPredicate(Operator.LEAF, new Predicate[]{predicate});
+    }
+
+    /**
+     * @return a bitmap predicate matching the entries matched by all the given
+     * bitmap predicates.
+     */
+    static BitmapPredicate and(BitmapPredicate[] predicates) {
+        return new BitmapPredicate(Operator.AND, predicates);
+    }
+
+    /**
+     * @return a bitmap predicate matching the entries matched by any of the
+     * given bitmap predicates.
+     */
+    static BitmapPredicate or(BitmapPredicate[] predicates) {
+        return new BitmapPredicate(Operator.OR, predicates);
+    }
+
+    /**
+     * @return a bitmap predicate matching the entries not matched by the given
+     * bitmap predicate.
+     */
+    static BitmapPredicate not(BitmapPredicate predicate) {
+        return new BitmapPredicate(Operator.NOT, new Predicate[]{predicate});
+    }
+
+    @Override
+    public boolean apply(Map.Entry mapEntry) {
+        switch (operator) {
+            case LEAF:
+                return operands[0].apply(mapEntry);
+            case AND:
+                for (Predicate operand : operands) {
+                    if (!operand.apply(mapEntry)) {
+                        return false;
+                    }
+                }
+                return true;
+            case OR:
+                for (Predicate operand : operands) {
+                    if (operand.apply(mapEntry)) {
+                        return true;
+                    }
+                }
+                return false;
+            case NOT:
+                return !operands[0].apply(mapEntry);
+            default:
+                throw new IllegalStateException("Unexpected operator: " + operator);
+        }
+    }
+
+    @Override
+    public boolean isIndexed(QueryContext queryContext) {
+        if (operator == Operator.LEAF) {
+            return ((IndexAwarePredicate) operands[0]).isIndexed(queryContext);
+        }
+        for (Predicate operand : operands) {
+            if (!((BitmapPredicate) operand).isIndexed(queryContext)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Set<QueryableEntry> filter(QueryContext queryContext) {
+        return evaluate(queryContext);
+    }
+
+    /**
+     * @return the bitmap of the matching entries or {@code null} if any of
+     * the indexes involved didn't produce a bitmap.
+     */
+    private BitmapResultSet evaluate(QueryContext queryContext) {
+        switch (operator) {
+            case LEAF:
+                Set<QueryableEntry> result = ((IndexAwarePredicate) operands[0]).filter(queryContext);
+                return result instanceof BitmapResultSet ? (BitmapResultSet) result : null;
+            case AND:
+            case OR:
+                BitmapResultSet combined = null;
+                for (Predicate operand : operands) {
+                    BitmapResultSet operandResult = ((BitmapPredicate) operand).evaluate(queryContext);
+                    if (operandResult == null) {
+                        return null;
+                    }
+                    if (combined == null) {
+                        combined = operandResult;
+                    } else {
+                        combined = operator == Operator.AND ? combined.and(operandResult) : combined.or(operandResult);
+                    }
+                }
+                return combined;
+            case NOT:
+                BitmapResultSet negated = ((BitmapPredicate) operands[0]).evaluate(queryContext);
+                return negated == null ? null : negated.complement();
+            default:
+                throw new IllegalStateException("Unexpected operator: " + operator);
+        }
+    }
+
+    @Override
+    public String toString() {
+        switch (operator) {
+            case LEAF:
+                return operands[0].toString();
+            case NOT:
+                return "NOT(" + operands[0] + ")";
+            default:
+                StringBuilder builder = new StringBuilder("(");
+                for (int i = 0; i < operands.length; ++i) {
+                    if (i > 0) {
+                        builder.append(' ').append(operator).append(' ');
+                    }
+                    builder.append(operands[i]);
+                }
+                return builder.append(')').toString();
+        }
+    }
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.CompositeValue;
+import com.hazelcast.query.impl.QueryContext;
+import com.hazelcast.query.impl.QueryableEntry;
+
+import java.util.Set;
+
+/**
+ * Performs a lookup of the given composite value on a composite index,
+ * replacing the equality predicates on all of the index components.
+ */
+public class CompositeEqualPredicate extends AbstractCompositePredicate {
+
+    final CompositeValue value;
+
+    CompositeEqualPredicate(String indexName, CompositeValue value, Predicate[] predicates) {
+        super(indexName, predicates);
+        this.value = value;
+    }
+
+    @Override
+    public Set<QueryableEntry> filter(QueryContext queryContext) {
+        return getIndex(queryContext).getRecords(value);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + indexName + ") = " + value;
+    }
+
+}
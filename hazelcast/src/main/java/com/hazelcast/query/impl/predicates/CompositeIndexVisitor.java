@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.AbstractIndex;
+import com.hazelcast.query.impl.CompositeValue;
+import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.query.impl.InternalIndex;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.hazelcast.query.impl.CompositeValue.NEGATIVE_INFINITY;
+import static com.hazelcast.query.impl.CompositeValue.POSITIVE_INFINITY;
+
+/**
+ * Rewrites the predicates of an AndPredicate matching a composite index into
+ * a single lookup on that index.
+ * <p>
+ * Given a composite index on (a, b, c):
+ * <ul>
+ * <li>(a = 1 and b = 2 and c = 3) is rewritten as a lookup of (1, 2, 3),
+ * this works for both ordered and unordered indexes;
+ * <li>(a = 1 and b = 2 and d = 4) is rewritten as a range query for the (1, 2)
+ * prefix on an ordered index, the predicate (d = 4) is kept as is;
+ * <li>(a = 1 and b > 2) and (a = 1 and b between 2 and 5) are rewritten as
+ * range queries on an ordered index.
+ * </ul>
+ * The index covering the largest number of predicates wins, the matching
+ * repeats until no more composite indexes could be applied to the remaining
+ * predicates. A composite index is used only if it covers at least two
+ * predicates, otherwise a regular index is a better fit.
+ * <p>
+ * When resulting AndPredicate contains only a single inner predicate then it
+ * returns only the inner predicate.
+ */
+public class CompositeIndexVisitor extends AbstractVisitor {
+
+    private static final int MIN_COVERED_PREDICATES = 2;
+
+    @Override
+    public Predicate visit(AndPredicate andPredicate, Indexes indexes) {
+        InternalIndex[] compositeIndexes = indexes.getCompositeIndexes();
+        Predicate[] originalPredicates = andPredicate.predicates;
+        if (compositeIndexes.length == 0 || originalPredicates.length < MIN_COVERED_PREDICATES) {
+            return andPredicate;
+        }
+
+        Map<String, EqualPredicate> equalities = null;
+        Map<String, AbstractIndexAwarePredicate> ranges = null;
+        for (Predicate predicate : originalPredicates) {
+            if (predicate.getClass() == EqualPredicate.class) {
+                EqualPredicate equalPredicate = (EqualPredicate) predicate;
+                equalities = putIfAbsent(equalities, equalPredicate.attributeName, equalPredicate);
+            } else if (predicate instanceof GreaterLessPredicate || predicate.getClass() == BetweenPredicate.class) {
+                AbstractIndexAwarePredicate rangePredicate = (AbstractIndexAwarePredicate) predicate;
+                ranges = putIfAbsent(ranges, rangePredicate.attributeName, rangePredicate);
+            }
+        }
+        if (equalities == null) {
+            return andPredicate;
+        }
+
+        List<Predicate> generated = null;
+        Map<Predicate, Predicate> covered = new IdentityHashMap<Predicate, Predicate>();
+        while (true) {
+            InternalIndex bestIndex = null;
+            int bestCoverage = MIN_COVERED_PREDICATES - 1;
+            for (InternalIndex index : compositeIndexes) {
+                int coverage = coverageOf(index, equalities, ranges);
+                if (coverage > bestCoverage) {
+                    bestIndex = index;
+                    bestCoverage = coverage;
+                }
+            }
+            if (bestIndex == null) {
+                break;
+            }
+
+            if (generated == null) {
+                generated = new ArrayList<Predicate>(1);
+            }
+            generated.add(generate(bestIndex, equalities, ranges, covered));
+        }
+
+        if (generated == null) {
+            return andPredicate;
+        }
+
+        Predicate[] newPredicates = new Predicate[originalPredicates.length - covered.size() + generated.size()];
+        int count = 0;
+        for (Predicate predicate : originalPredicates) {
+            if (!covered.containsKey(predicate)) {
+                newPredicates[count++] = predicate;
+            }
+        }
+        for (Predicate predicate : generated) {
+            newPredicates[count++] = predicate;
+        }
+        if (newPredicates.length == 1) {
+            return newPredicates[0];
+        }
+        return new AndPredicate(newPredicates);
+    }
+
+    private static <T> Map<String, T> putIfAbsent(Map<String, T> map, String attribute, T predicate) {
+        if (map == null) {
+            map = new HashMap<String, T>();
+        }
+        if (!map.containsKey(attribute)) {
+            map.put(attribute, predicate);
+        }
+        return map;
+    }
+
+    private static int coverageOf(InternalIndex index, Map<String, EqualPredicate> equalities,
+                                  Map<String, AbstractIndexAwarePredicate> ranges) {
+        String[] components = index.getComponents();
+        int prefixLength = prefixLengthOf(components, equalities);
+        if (prefixLength == components.length) {
+            return prefixLength;
+        }
+        if (!index.isOrdered() || prefixLength == 0) {
+            return 0;
+        }
+        return ranges != null && ranges.containsKey(components[prefixLength]) ? prefixLength + 1 : prefixLength;
+    }
+
+    private static int prefixLengthOf(String[] components, Map<String, EqualPredicate> equalities) {
+        int prefixLength = 0;
+        while (prefixLength < components.length && equalities.containsKey(components[prefixLength])) {
+            ++prefixLength;
+        }
+        return prefixLength;
+    }
+
+    private static Predicate generate(InternalIndex index, Map<String, EqualPredicate> equalities,
+                                      Map<String, AbstractIndexAwarePredicate> ranges, Map<Predicate, Predicate> covered) {
+        String[] components = index.getComponents();
+        int width = components.length;
+        int prefixLength = prefixLengthOf(components, equalities);
+
+        Comparable[] prefix = new Comparable[prefixLength];
+        Predicate[] predicates = new Predicate[prefixLength];
+        for (int i = 0; i < prefixLength; ++i) {
+            EqualPredicate equalPredicate = equalities.remove(components[i]);
+            Comparable value = equalPredicate.value;
+            prefix[i] = value == null ? AbstractIndex.NULL : value;
+            predicates[i] = equalPredicate;
+            covered.put(equalPredicate, equalPredicate);
+        }
+
+        String indexName = index.getAttributeName();
+        if (prefixLength == width) {
+            return new CompositeEqualPredicate(indexName, new CompositeValue(prefix), predicates);
+        }
+
+        AbstractIndexAwarePredicate rangePredicate = ranges == null ? null : ranges.remove(components[prefixLength]);
+        if (rangePredicate == null) {
+            CompositeValue from = new CompositeValue(width, prefix, NEGATIVE_INFINITY, NEGATIVE_INFINITY);
+            CompositeValue to = new CompositeValue(width, prefix, POSITIVE_INFINITY, POSITIVE_INFINITY);
+            return new CompositeRangePredicate(indexName, from, true, to, true, predicates);
+        }
+        covered.put(rangePredicate, rangePredicate);
+        predicates = appendTo(predicates, rangePredicate);
+
+        // nulls are never matched by range predicates, so the lower bound is
+        // exclusive null unless there is an explicit one
+        Comparable fromValue = AbstractIndex.NULL;
+        boolean fromInclusive = false;
+        Comparable toValue = POSITIVE_INFINITY;
+        boolean toInclusive = true;
+        if (rangePredicate instanceof BetweenPredicate) {
+            BetweenPredicate betweenPredicate = (BetweenPredicate) rangePredicate;
+            fromValue = betweenPredicate.from;
+            fromInclusive = true;
+            toValue = betweenPredicate.to;
+        } else {
+            GreaterLessPredicate greaterLessPredicate = (GreaterLessPredicate) rangePredicate;
+            if (greaterLessPredicate.less) {
+                toValue = greaterLessPredicate.value;
+                toInclusive = greaterLessPredicate.equal;
+            } else {
+                fromValue = greaterLessPredicate.value;
+                fromInclusive = greaterLessPredicate.equal;
+            }
+        }
+
+        // the trailing components are filled so that the bounds include or
+        // exclude all the entries sharing the bounding component value
+        CompositeValue from = new CompositeValue(width, prefix, fromValue,
+                fromInclusive ? NEGATIVE_INFINITY : POSITIVE_INFINITY);
+        CompositeValue to = new CompositeValue(width, prefix, toValue, toInclusive ? POSITIVE_INFINITY : NEGATIVE_INFINITY);
+        return new CompositeRangePredicate(indexName, from, fromInclusive, to, toInclusive, predicates);
+    }
+
+    private static Predicate[] appendTo(Predicate[] predicates, Predicate predicate) {
+        Predicate[] result = new Predicate[predicates.length + 1];
+        System.arraycopy(predicates, 0, result, 0, predicates.length);
+        result[predicates.length] = predicate;
+        return result;
+    }
+
+}
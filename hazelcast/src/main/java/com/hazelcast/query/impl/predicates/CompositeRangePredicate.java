@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.CompositeValue;
+import com.hazelcast.query.impl.QueryContext;
+import com.hazelcast.query.impl.QueryableEntry;
+
+import java.util.Set;
+
+/**
+ * Performs a range query on an ordered composite index, replacing the equality
+ * predicates on a prefix of the index components and, optionally, the range
+ * predicate on the component following the prefix.
+ */
+public class CompositeRangePredicate extends AbstractCompositePredicate {
+
+    final CompositeValue from;
+    final boolean fromInclusive;
+    final CompositeValue to;
+    final boolean toInclusive;
+
+    CompositeRangePredicate(String indexName, CompositeValue from, boolean fromInclusive, CompositeValue to,
+                            boolean toInclusive, Predicate[] predicates) {
+        super(indexName, predicates);
+        this.from = from;
+        this.fromInclusive = fromInclusive;
+        this.to = to;
+        this.toInclusive = toInclusive;
+    }
+
+    @Override
+    public Set<QueryableEntry> filter(QueryContext queryContext) {
+        return getIndex(queryContext).getSubRecords(from, fromInclusive, to, toInclusive);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + indexName + ") in " + (fromInclusive ? "[" : "(") + from + ", " + to + (toInclusive ? "]" : ")");
+    }
+
+}
@@ -84,6 +84,8 @@ public abstract class Operation implements DataSerializable {
     private transient Address callerAddress;
     private transient Connection connection;
     private transient OperationResponseHandler responseHandler;
+    // the System.nanoTime() when the operation was put into an operation queue, 0 if unknown
+    private transient long enqueueNanos;
 
     protected Operation() {
         setFlag(true, BITMASK_VALIDATE_TARGET);
@@ -474,6 +476,16 @@ public abstract class Operation implements DataSerializable {
         return this;
     }
 
+    // Accessed using OperationAccessor
+    final long getEnqueueNanos() {
+        return enqueueNanos;
+    }
+
+    // Accessed using OperationAccessor
+    final void setEnqueueNanos(long enqueueNanos) {
+        this.enqueueNanos = enqueueNanos;
+    }
+
     /**
      * Gets the call timeout in milliseconds. For example, if a call should start
      * execution within 60 seconds or it should be aborted otherwise, then the
@@ -79,4 +79,26 @@ public final class OperationAccessor {
         op.setCallTimeout(callTimeout);
     }
 
+    /**
+     * Gets the time the Operation was put into an operation queue.
+     *
+     * @param op the Operation to get the enqueue time of.
+     * @return the {@link System#nanoTime()} when the operation was queued, or 0
+     * if the time wasn't recorded.
+     */
+    public static long getEnqueueNanos(Operation op) {
+        return op.getEnqueueNanos();
+    }
+
+    /**
+     * Sets the time the Operation was put into an operation queue. Used to
+     * measure the time the operation waits in the queue.
+     *
+     * @param op the Operation that is updated for its enqueue time.
+     * @param enqueueNanos the {@link System#nanoTime()} when the operation was queued.
+     */
+    public static void setEnqueueNanos(Operation op, long enqueueNanos) {
+        op.setEnqueueNanos(enqueueNanos);
+    }
+
 }
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl;
+
+/**
+ * Marker interface for operations that process a lot of data at once, e.g.
+ * partition-wide entry processing, queries or bulk puts.
+ * <p/>
+ * When the bulk lane is enabled, the operation threads take such operations
+ * from a separate lane with a lower weight than the other operations, so a
+ * flood of bulk operations doesn't ruin the latency of the small operations
+ * queued behind them on the same thread.
+ *
+ * @see com.hazelcast.spi.properties.GroupProperty#OPERATION_BULK_LANE_ENABLED
+ * @since 3.12
+ */
+public interface BulkOperation {
+}
@@ -67,6 +67,8 @@ public final class SpiDataSerializerHook implements DataSerializerHook {
     public static final int UNMODIFIABLE_LAZY_LIST = 18;
     public static final int OPERATION_CONTROL = 19;
     public static final int DISTRIBUTED_OBJECT_NS = 20;
+    // encoded and decoded by the response handlers directly, never serialized as an object
+    public static final int RESPONSE_BATCH = 21;
 
     private static final DataSerializableFactory FACTORY = createFactoryInternal();
 
@@ -0,0 +1,302 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.util.concurrent.IdleStrategy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.hazelcast.util.Preconditions.checkNotNull;
+import static com.hazelcast.util.Preconditions.checkPositive;
+import static com.hazelcast.util.QuickMath.nextPowerOfTwo;
+import static java.util.concurrent.locks.LockSupport.park;
+import static java.util.concurrent.locks.LockSupport.unpark;
+
+/**
+ * A lock-free multi producer single consumer {@link OperationQueue} for the
+ * {@link PartitionOperationThread}.
+ * <p>
+ * Like the {@link com.hazelcast.internal.util.concurrent.MPSCQueue}, both the
+ * normal and the priority tasks are pushed by the producers on a stack using a
+ * single CAS. When the consumer runs out of the tasks, it takes the whole
+ * stack using a single atomic swap and reverses it into a private batch to
+ * restore the FIFO order. The tasks of the batch are then taken one by one
+ * without any contention with the producers, so a single wakeup of the
+ * consumer drains everything queued up until that moment.
+ * <p>
+ * In contrast to the {@link OperationQueueImpl}, a priority task doesn't need a
+ * trigger task to be inserted into the normal queue: before taking a normal
+ * task the consumer checks the priority stack, which is a plain volatile read
+ * as long as there are no priority tasks. The same goes for the bulk tasks,
+ * which have their own stack too.
+ * <p>
+ * If there is nothing to take, the consumer idles using the configured
+ * {@link IdleStrategy} or, if there is none, blocks till a producer wakes it
+ * up.
+ * <p>
+ * The queue supports a single consumer thread only, so it can't be shared by
+ * the {@link GenericOperationThread}s.
+ */
+public final class BatchingOperationQueue implements OperationQueue {
+
+    private static final int INITIAL_BATCH_CAPACITY = 512;
+
+    private final AtomicReference<Node> normalStack = new AtomicReference<Node>();
+    private final AtomicReference<Node> priorityStack = new AtomicReference<Node>();
+    private final AtomicReference<Node> bulkStack = new AtomicReference<Node>();
+    private final IdleStrategy idleStrategy;
+    private final int bulkRatio;
+
+    // accessed by the consumer thread only
+    private final Batch normalBatch = new Batch();
+    private final Batch priorityBatch = new Batch();
+    private final Batch bulkBatch = new Batch();
+    // the number of normal tasks taken since the last bulk task
+    private int normalStreak;
+
+    private Thread consumerThread;
+    private volatile boolean consumerBlocked;
+
+    /**
+     * Creates a new {@link BatchingOperationQueue} with the provided
+     * {@link IdleStrategy}.
+     *
+     * @param idleStrategy the idleStrategy. If null, the consumer will block.
+     */
+    public BatchingOperationQueue(IdleStrategy idleStrategy) {
+        this(idleStrategy, OperationQueueImpl.DEFAULT_BULK_RATIO);
+    }
+
+    /**
+     * Creates a new {@link BatchingOperationQueue} with the provided
+     * {@link IdleStrategy} and bulk ratio.
+     *
+     * @param idleStrategy the idleStrategy. If null, the consumer will block.
+     * @param bulkRatio    the number of normal tasks to take for every bulk
+     *                     task when both are pending.
+     */
+    public BatchingOperationQueue(IdleStrategy idleStrategy, int bulkRatio) {
+        this.idleStrategy = idleStrategy;
+        this.bulkRatio = checkPositive(bulkRatio, "bulkRatio should be positive");
+    }
+
+    /**
+     * Sets the consumer thread.
+     * <p>
+     * The consumer thread is needed for blocking, so that a producer knows
+     * which thread to wake up. This method should be called before the queue
+     * is safely published.
+     *
+     * @param consumerThread the consumer thread.
+     * @throws NullPointerException when consumerThread is null.
+     */
+    public void setConsumerThread(Thread consumerThread) {
+        this.consumerThread = checkNotNull(consumerThread, "consumerThread can't be null");
+    }
+
+    @Override
+    public void add(Object task, boolean priority) {
+        checkNotNull(task, "task can't be null");
+
+        push(priority ? priorityStack : normalStack, task);
+
+        if (consumerBlocked) {
+            unpark(consumerThread);
+        }
+    }
+
+    @Override
+    public void addBulk(Object task) {
+        checkNotNull(task, "task can't be null");
+
+        push(bulkStack, task);
+
+        if (consumerBlocked) {
+            unpark(consumerThread);
+        }
+    }
+
+    private static void push(AtomicReference<Node> stack, Object task) {
+        Node newHead = new Node(task);
+        for (; ; ) {
+            Node oldHead = stack.get();
+            newHead.next = oldHead;
+            newHead.size = oldHead == null ? 1 : oldHead.size + 1;
+            if (stack.compareAndSet(oldHead, newHead)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public Object take(boolean priorityOnly) throws InterruptedException {
+        for (long iteration = 0; ; iteration++) {
+            Object task = poll(priorityBatch, priorityStack);
+            if (task != null) {
+                return task;
+            }
+
+            if (!priorityOnly) {
+                task = pollNormalOrBulk();
+                if (task != null) {
+                    return task;
+                }
+            }
+
+            idle(iteration, priorityOnly);
+        }
+    }
+
+    private Object pollNormalOrBulk() {
+        Object task;
+        if (normalStreak >= bulkRatio) {
+            task = poll(bulkBatch, bulkStack);
+            if (task != null) {
+                normalStreak = 0;
+                return task;
+            }
+        }
+
+        task = poll(normalBatch, normalStack);
+        if (task != null) {
+            if (normalStreak < bulkRatio) {
+                normalStreak++;
+            }
+            return task;
+        }
+
+        // there are no normal tasks, so the bulk task doesn't need to wait for its turn
+        task = poll(bulkBatch, bulkStack);
+        if (task != null) {
+            normalStreak = 0;
+        }
+        return task;
+    }
+
+    private static Object poll(Batch batch, AtomicReference<Node> stack) {
+        Object task = batch.next();
+        if (task != null) {
+            return task;
+        }
+
+        // the read before the swap prevents needless writes to the contended
+        // stack reference when there is nothing to drain
+        if (stack.get() == null) {
+            return null;
+        }
+        batch.fill(stack.getAndSet(null));
+        return batch.next();
+    }
+
+    private void idle(long iteration, boolean priorityOnly) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+
+        if (idleStrategy != null) {
+            idleStrategy.idle(iteration);
+            return;
+        }
+
+        // the flag is published before the stacks are checked again, and a
+        // producer checks the flag after pushing a task: so either we see
+        // the task or the producer sees the flag and wakes us up
+        consumerBlocked = true;
+        try {
+            if (priorityStack.get() == null
+                    && (priorityOnly || (normalStack.get() == null && bulkStack.get() == null))) {
+                park();
+            }
+        } finally {
+            consumerBlocked = false;
+        }
+    }
+
+    @Override
+    public int normalSize() {
+        return stackSize(normalStack) + normalBatch.remaining.get() + bulkSize();
+    }
+
+    @Override
+    public int bulkSize() {
+        return stackSize(bulkStack) + bulkBatch.remaining.get();
+    }
+
+    @Override
+    public int prioritySize() {
+        return stackSize(priorityStack) + priorityBatch.remaining.get();
+    }
+
+    @Override
+    public int size() {
+        return normalSize() + prioritySize();
+    }
+
+    private static int stackSize(AtomicReference<Node> stack) {
+        Node head = stack.get();
+        return head == null ? 0 : head.size;
+    }
+
+    private static final class Node {
+        final Object task;
+        Node next;
+        int size;
+
+        Node(Object task) {
+            this.task = task;
+        }
+    }
+
+    /**
+     * The tasks drained from a stack in the FIFO order, owned by the consumer.
+     */
+    private static final class Batch {
+        // the number of the tasks not taken yet, read by the monitoring
+        final AtomicInteger remaining = new AtomicInteger();
+
+        Object[] tasks = new Object[INITIAL_BATCH_CAPACITY];
+        int index;
+        int size;
+
+        void fill(Node head) {
+            int count = head.size;
+            if (count > tasks.length) {
+                tasks = new Object[nextPowerOfTwo(count)];
+            }
+            for (int i = count - 1; i >= 0; i--) {
+                tasks[i] = head.task;
+                head = head.next;
+            }
+            index = 0;
+            size = count;
+            remaining.lazySet(count);
+        }
+
+        Object next() {
+            if (index == size) {
+                return null;
+            }
+            Object task = tasks[index];
+            // release the reference for the GC
+            tasks[index] = null;
+            index++;
+            remaining.lazySet(size - index);
+            return task;
+        }
+    }
+}
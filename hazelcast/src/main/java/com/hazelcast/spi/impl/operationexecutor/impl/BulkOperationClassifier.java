@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.impl.BulkOperation;
+import com.hazelcast.spi.properties.HazelcastProperties;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.hazelcast.spi.properties.GroupProperty.OPERATION_BULK_CLASSES;
+import static com.hazelcast.spi.properties.GroupProperty.OPERATION_BULK_LANE_ENABLED;
+
+/**
+ * Decides if an operation belongs to the bulk lane of the {@link OperationQueue}.
+ * <p/>
+ * An operation is a bulk operation if the bulk lane is enabled, the operation
+ * isn't urgent and it either implements {@link BulkOperation} or its class is
+ * listed in {@link com.hazelcast.spi.properties.GroupProperty#OPERATION_BULK_CLASSES}.
+ */
+public final class BulkOperationClassifier {
+
+    private final boolean enabled;
+    private final Set<String> bulkClassNames;
+
+    public BulkOperationClassifier(HazelcastProperties properties) {
+        this.enabled = properties.getBoolean(OPERATION_BULK_LANE_ENABLED);
+        this.bulkClassNames = parseClassNames(properties.getString(OPERATION_BULK_CLASSES));
+    }
+
+    private static Set<String> parseClassNames(String value) {
+        if (value == null) {
+            return Collections.emptySet();
+        }
+
+        Set<String> classNames = new HashSet<String>();
+        for (String className : value.split(",")) {
+            className = className.trim();
+            if (!className.isEmpty()) {
+                classNames.add(className);
+            }
+        }
+        return classNames;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isBulk(Operation op) {
+        if (!enabled || op.isUrgent()) {
+            return false;
+        }
+
+        return op instanceof BulkOperation
+                || (!bulkClassNames.isEmpty() && bulkClassNames.contains(op.getClass().getName()));
+    }
+}
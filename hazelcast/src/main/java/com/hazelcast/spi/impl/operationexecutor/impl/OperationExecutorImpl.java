@@ -46,8 +46,11 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 
 import static com.hazelcast.internal.metrics.ProbeLevel.MANDATORY;
+import static com.hazelcast.spi.OperationAccessor.setEnqueueNanos;
 import static com.hazelcast.spi.impl.operationservice.impl.InboundResponseHandlerSupplier.getIdleStrategy;
 import static com.hazelcast.spi.properties.GroupProperty.GENERIC_OPERATION_THREAD_COUNT;
+import static com.hazelcast.spi.properties.GroupProperty.OPERATION_BULK_LANE_RATIO;
+import static com.hazelcast.spi.properties.GroupProperty.OPERATION_LATENCY_HISTOGRAMS_ENABLED;
 import static com.hazelcast.spi.properties.GroupProperty.PARTITION_COUNT;
 import static com.hazelcast.spi.properties.GroupProperty.PARTITION_OPERATION_THREAD_COUNT;
 import static com.hazelcast.spi.properties.GroupProperty.PRIORITY_GENERIC_OPERATION_THREAD_COUNT;
@@ -61,7 +64,7 @@ import static java.util.concurrent.TimeUnit.SECONDS;
  * <li>partition specific operations to a specific partition-operation-thread (using a mod on the partition ID)</li>
  * <li>non specific operations to generic-operation-threads</li>
  * </ol>
- * The {@link #execute(Object, int, boolean)} accepts an Object instead of a runnable to prevent needing to
+ * The {@link #execute(Object, int, boolean, boolean)} accepts an Object instead of a runnable to prevent needing to
  * create wrapper runnables around tasks. This is done to reduce the amount of object litter and therefor
  * reduce pressure on the GC.
  * <p>
@@ -80,6 +83,13 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 public final class OperationExecutorImpl implements OperationExecutor, MetricsProvider {
     public static final HazelcastProperty IDLE_STRATEGY
             = new HazelcastProperty("hazelcast.operation.partitionthread.idlestrategy", "block");
+    /**
+     * If enabled, the partition threads use the lock-free
+     * {@link BatchingOperationQueue} which drains the queued up operations in
+     * batches and doesn't need trigger tasks for the priority operations.
+     */
+    public static final HazelcastProperty BATCHING_QUEUE_ENABLED
+            = new HazelcastProperty("hazelcast.operation.partitionthread.batchingqueue", false);
 
     private static final int TERMINATION_TIMEOUT_SECONDS = 3;
 
@@ -89,8 +99,7 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
     private final PartitionOperationThread[] partitionThreads;
     private final OperationRunner[] partitionOperationRunners;
 
-    private final OperationQueue genericQueue
-            = new OperationQueueImpl(new LinkedBlockingQueue<Object>(), new LinkedBlockingQueue<Object>());
+    private final OperationQueue genericQueue;
 
     // all operations that are not specific for a partition will be executed here, e.g. heartbeat or map.size()
     private final GenericOperationThread[] genericThreads;
@@ -99,6 +108,9 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
     private final Address thisAddress;
     private final OperationRunner adHocOperationRunner;
     private final int priorityThreadCount;
+    private final BulkOperationClassifier bulkClassifier;
+    // null if the latency tracking is disabled
+    private final OperationLatencyMetrics latencyMetrics;
 
     public OperationExecutorImpl(HazelcastProperties properties,
                                  LoggingService loggerService,
@@ -111,6 +123,9 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
         this.logger = loggerService.getLogger(OperationExecutorImpl.class);
 
         this.adHocOperationRunner = runnerFactory.createAdHocRunner();
+        this.bulkClassifier = new BulkOperationClassifier(properties);
+        this.genericQueue = new OperationQueueImpl(new LinkedBlockingQueue<Object>(), new LinkedBlockingQueue<Object>(),
+                properties.getInteger(OPERATION_BULK_LANE_RATIO));
 
         this.partitionOperationRunners = initPartitionOperationRunners(properties, runnerFactory);
         this.partitionThreads = initPartitionThreads(properties, hzName, nodeExtension, configClassLoader);
@@ -118,6 +133,20 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
         this.priorityThreadCount = properties.getInteger(PRIORITY_GENERIC_OPERATION_THREAD_COUNT);
         this.genericOperationRunners = initGenericOperationRunners(properties, runnerFactory);
         this.genericThreads = initGenericThreads(hzName, nodeExtension, configClassLoader);
+
+        this.latencyMetrics = properties.getBoolean(OPERATION_LATENCY_HISTOGRAMS_ENABLED)
+                ? initLatencyTracking() : null;
+    }
+
+    private OperationLatencyMetrics initLatencyTracking() {
+        OperationLatencyMetrics latencyMetrics = new OperationLatencyMetrics();
+        for (OperationThread thread : partitionThreads) {
+            thread.setLatencyTracker(new OperationLatencyTracker(latencyMetrics));
+        }
+        for (OperationThread thread : genericThreads) {
+            thread.setLatencyTracker(new OperationLatencyTracker(latencyMetrics));
+        }
+        return latencyMetrics;
     }
 
     private OperationRunner[] initPartitionOperationRunners(HazelcastProperties properties,
@@ -156,19 +185,33 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
         }
 
         IdleStrategy idleStrategy = getIdleStrategy(properties, IDLE_STRATEGY);
+        boolean batchingQueueEnabled = properties.getBoolean(BATCHING_QUEUE_ENABLED);
+        int bulkRatio = properties.getInteger(OPERATION_BULK_LANE_RATIO);
         PartitionOperationThread[] threads = new PartitionOperationThread[threadCount];
         for (int threadId = 0; threadId < threads.length; threadId++) {
             String threadName = createThreadPoolName(hzName, "partition-operation") + threadId;
-            // the normalQueue will be a blocking queue. We don't want to idle, because there are many operation threads.
-            MPSCQueue<Object> normalQueue = new MPSCQueue<Object>(idleStrategy);
 
-            OperationQueue operationQueue = new OperationQueueImpl(normalQueue, new ConcurrentLinkedQueue<Object>());
+            OperationQueue operationQueue;
+            MPSCQueue<Object> normalQueue = null;
+            BatchingOperationQueue batchingQueue = null;
+            if (batchingQueueEnabled) {
+                batchingQueue = new BatchingOperationQueue(idleStrategy, bulkRatio);
+                operationQueue = batchingQueue;
+            } else {
+                // the normalQueue will be a blocking queue. We don't want to idle, because there are many operation threads.
+                normalQueue = new MPSCQueue<Object>(idleStrategy);
+                operationQueue = new OperationQueueImpl(normalQueue, new ConcurrentLinkedQueue<Object>(), bulkRatio);
+            }
 
             PartitionOperationThread partitionThread = new PartitionOperationThread(threadName, threadId, operationQueue, logger,
                     nodeExtension, partitionOperationRunners, configClassLoader);
 
             threads[threadId] = partitionThread;
-            normalQueue.setConsumerThread(partitionThread);
+            if (batchingQueue != null) {
+                batchingQueue.setConsumerThread(partitionThread);
+            } else {
+                normalQueue.setConsumerThread(partitionThread);
+            }
         }
 
         // we need to assign the PartitionOperationThreads to all OperationRunners they own
@@ -225,6 +268,7 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
         registry.collectMetrics(adHocOperationRunner);
         registry.collectMetrics((Object[]) genericOperationRunners);
         registry.collectMetrics((Object[]) partitionOperationRunners);
+        registry.collectMetrics(latencyMetrics);
     }
 
     @SuppressFBWarnings("EI_EXPOSE_REP")
@@ -304,6 +348,16 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
         return size;
     }
 
+    @Probe(name = "bulkQueueSize")
+    private int getBulkQueueSize() {
+        int size = 0;
+        for (PartitionOperationThread partitionThread : partitionThreads) {
+            size += partitionThread.queue.bulkSize();
+        }
+        size += genericQueue.bulkSize();
+        return size;
+    }
+
     @Probe
     private int getGenericQueueSize() {
         return genericQueue.normalSize();
@@ -350,7 +404,7 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
     public void execute(Operation op) {
         checkNotNull(op, "op can't be null");
 
-        execute(op, op.getPartitionId(), op.isUrgent());
+        execute(op, op.getPartitionId(), op.isUrgent(), bulkClassifier.isBulk(op));
     }
 
     @Override
@@ -368,20 +422,36 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
     public void execute(PartitionSpecificRunnable task) {
         checkNotNull(task, "task can't be null");
 
-        execute(task, task.getPartitionId(), task instanceof UrgentSystemOperation);
+        execute(task, task.getPartitionId(), task instanceof UrgentSystemOperation, false);
     }
 
     @Override
     public void accept(Packet packet) {
-        execute(packet, packet.getPartitionId(), packet.isUrgent());
+        // the sender raises the bulk flag, but it's only honored if the bulk lane is enabled on this member too
+        boolean bulk = bulkClassifier.isEnabled() && packet.isFlagRaised(Packet.FLAG_OP_BULK);
+        execute(packet, packet.getPartitionId(), packet.isUrgent(), bulk);
     }
 
-    private void execute(Object task, int partitionId, boolean priority) {
-        if (partitionId < 0) {
-            genericQueue.add(task, priority);
+    private void execute(Object task, int partitionId, boolean priority, boolean bulk) {
+        if (latencyMetrics != null) {
+            markEnqueued(task);
+        }
+
+        OperationQueue queue = partitionId < 0
+                ? genericQueue
+                : partitionThreads[toPartitionThreadIndex(partitionId)].queue;
+        if (bulk && !priority) {
+            queue.addBulk(task);
         } else {
-            OperationThread partitionThread = partitionThreads[toPartitionThreadIndex(partitionId)];
-            partitionThread.queue.add(task, priority);
+            queue.add(task, priority);
+        }
+    }
+
+    private static void markEnqueued(Object task) {
+        if (task instanceof Operation) {
+            setEnqueueNanos((Operation) task, System.nanoTime());
+        } else if (task instanceof Packet) {
+            ((Packet) task).setEnqueueNanos(System.nanoTime());
         }
     }
 
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.internal.metrics.MetricsProvider;
+import com.hazelcast.internal.metrics.MetricsRegistry;
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.util.LatencyHistogram;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.hazelcast.internal.util.LatencyHistogram.BUCKET_COUNT;
+import static com.hazelcast.internal.util.LatencyHistogram.valueAtPercentile;
+
+/**
+ * Exposes the queue wait time and the execution time per operation class
+ * through the {@link MetricsRegistry}, e.g.
+ * {@code operation.latency[com.hazelcast.map.impl.operation.GetOperation].execution.p99Micros}.
+ * <p>
+ * The operation classes aren't known upfront; the metrics of a class are
+ * registered once the first operation of the class has been executed. The
+ * histograms of the operation threads are merged when the metrics are read.
+ */
+final class OperationLatencyMetrics implements MetricsProvider {
+
+    private static final double P50 = 0.5;
+    private static final double P90 = 0.9;
+    private static final double P99 = 0.99;
+    private static final double P999 = 0.999;
+
+    // guarded by this
+    private final Map<String, MergedLatency[]> latencies = new HashMap<String, MergedLatency[]>();
+    private MetricsRegistry registry;
+
+    @Override
+    public synchronized void provideMetrics(MetricsRegistry registry) {
+        this.registry = registry;
+        for (Map.Entry<String, MergedLatency[]> entry : latencies.entrySet()) {
+            register(entry.getKey(), entry.getValue());
+        }
+    }
+
+    synchronized void add(Class operationClass, LatencyHistogram queueLatency, LatencyHistogram executionLatency) {
+        String className = operationClass.getName();
+        MergedLatency[] merged = latencies.get(className);
+        if (merged == null) {
+            merged = new MergedLatency[]{new MergedLatency(), new MergedLatency()};
+            latencies.put(className, merged);
+            if (registry != null) {
+                register(className, merged);
+            }
+        }
+        merged[0].histograms.add(queueLatency);
+        merged[1].histograms.add(executionLatency);
+    }
+
+    // just for testing
+    synchronized MergedLatency[] latencies(Class operationClass) {
+        return latencies.get(operationClass.getName());
+    }
+
+    private void register(String className, MergedLatency[] merged) {
+        String prefix = "operation.latency[" + className + "]";
+        registry.scanAndRegister(merged[0], prefix + ".queue");
+        registry.scanAndRegister(merged[1], prefix + ".execution");
+    }
+
+    /**
+     * The latency of an operation class over all operation threads.
+     */
+    static final class MergedLatency {
+
+        final List<LatencyHistogram> histograms = new CopyOnWriteArrayList<LatencyHistogram>();
+
+        @Probe
+        long count() {
+            long count = 0;
+            for (LatencyHistogram histogram : histograms) {
+                count += histogram.count();
+            }
+            return count;
+        }
+
+        @Probe
+        long maxMicros() {
+            long max = 0;
+            for (LatencyHistogram histogram : histograms) {
+                max = Math.max(max, histogram.maxMicros());
+            }
+            return max;
+        }
+
+        @Probe
+        long meanMicros() {
+            long count = 0;
+            long total = 0;
+            for (LatencyHistogram histogram : histograms) {
+                count += histogram.count();
+                total += histogram.totalMicros();
+            }
+            return count == 0 ? 0 : total / count;
+        }
+
+        @Probe
+        long p50Micros() {
+            return percentile(P50);
+        }
+
+        @Probe
+        long p90Micros() {
+            return percentile(P90);
+        }
+
+        @Probe
+        long p99Micros() {
+            return percentile(P99);
+        }
+
+        @Probe
+        long p999Micros() {
+            return percentile(P999);
+        }
+
+        long percentile(double percentile) {
+            long[] counts = new long[BUCKET_COUNT];
+            for (LatencyHistogram histogram : histograms) {
+                histogram.addCountsTo(counts);
+            }
+            return Math.min(valueAtPercentile(counts, percentile), maxMicros());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.internal.util.LatencyHistogram;
+import com.hazelcast.spi.Operation;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.hazelcast.spi.OperationAccessor.getEnqueueNanos;
+import static com.hazelcast.spi.OperationAccessor.setEnqueueNanos;
+
+/**
+ * Records the queue wait time and the execution time of the operations
+ * executed by an {@link OperationThread}, both for all operations of the
+ * thread and per operation class.
+ * <p>
+ * A tracker is owned by a single operation thread, so the histograms don't
+ * need any synchronization on the write side. The per class histograms are
+ * also handed to the {@link OperationLatencyMetrics}, which merges the
+ * histograms of all threads for the metrics.
+ */
+public final class OperationLatencyTracker {
+
+    private static final int QUEUE = 0;
+    private static final int EXECUTION = 1;
+
+    private final LatencyHistogram queueLatency = new LatencyHistogram();
+    private final LatencyHistogram executionLatency = new LatencyHistogram();
+    private final OperationLatencyMetrics metrics;
+
+    // accessed by the owning thread only
+    private final Map<Class, LatencyHistogram[]> histogramsPerClass = new HashMap<Class, LatencyHistogram[]>();
+
+    OperationLatencyTracker(OperationLatencyMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    LatencyHistogram queueLatency() {
+        return queueLatency;
+    }
+
+    LatencyHistogram executionLatency() {
+        return executionLatency;
+    }
+
+    /**
+     * Records the latencies of an operation once it has been executed.
+     * <p>
+     * The queue wait time is only recorded if the operation was queued, see
+     * {@link com.hazelcast.spi.OperationAccessor#getEnqueueNanos(Operation)}.
+     *
+     * @param op         the executed operation.
+     * @param startNanos the {@link System#nanoTime()} when the execution started.
+     */
+    public void record(Operation op, long startNanos) {
+        long executionNanos = System.nanoTime() - startNanos;
+        LatencyHistogram[] histograms = histogramsFor(op.getClass());
+
+        executionLatency.recordValue(executionNanos);
+        histograms[EXECUTION].recordValue(executionNanos);
+
+        long enqueueNanos = getEnqueueNanos(op);
+        if (enqueueNanos != 0) {
+            long queueNanos = startNanos - enqueueNanos;
+            queueLatency.recordValue(queueNanos);
+            histograms[QUEUE].recordValue(queueNanos);
+            // the operation could be executed again without being queued again
+            setEnqueueNanos(op, 0);
+        }
+    }
+
+    private LatencyHistogram[] histogramsFor(Class operationClass) {
+        LatencyHistogram[] histograms = histogramsPerClass.get(operationClass);
+        if (histograms == null) {
+            histograms = new LatencyHistogram[]{new LatencyHistogram(), new LatencyHistogram()};
+            histogramsPerClass.put(operationClass, histograms);
+            metrics.add(operationClass, histograms[QUEUE], histograms[EXECUTION]);
+        }
+        return histograms;
+    }
+}
@@ -29,6 +29,12 @@ package com.hazelcast.spi.impl.operationexecutor.impl;
  * The ordering between normal tasks will always be FIFO. And the same goes for
  * the ordering between priority tasks, but there is no ordering guarantee between
  * priority and normal tasks.
+ *
+ * Next to the normal tasks, the queue has a lane for the bulk tasks. When both
+ * normal and bulk tasks are pending, a configured number of normal tasks is
+ * taken for every bulk task; a bulk task is taken right away when there are no
+ * normal tasks. The ordering between bulk tasks is FIFO, but there is no
+ * ordering guarantee between bulk and normal tasks.
  */
 public interface OperationQueue {
 
@@ -43,6 +49,16 @@ public interface OperationQueue {
      */
     void add(Object task, boolean priority);
 
+    /**
+     * Adds a task to the bulk lane of this queue.
+     *
+     * This method is thread safe.
+     *
+     * @param task the item to add
+     * @throws java.lang.NullPointerException if task is null
+     */
+    void addBulk(Object task);
+
     /**
      * Takes an item from this queue. If no item is available, the call blocks.
      *
@@ -64,10 +80,22 @@ public interface OperationQueue {
      * This method returns a best effort value and should only be used for
      * monitoring purposes.
      *
-     * @return the number of normal pending operations.
+     * @return the number of normal pending operations, including the bulk ones.
      */
     int normalSize();
 
+    /**
+     * returns the number of bulk operations pending.
+     *
+     * This method is thread safe.
+     *
+     * This method returns a best effort value and should only be used for
+     * monitoring purposes.
+     *
+     * @return the number of bulk pending operations.
+     */
+    int bulkSize();
+
     /**
      * returns the number of priority operations pending.
      *
@@ -22,9 +22,12 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 
 import static com.hazelcast.util.Preconditions.checkNotNull;
+import static com.hazelcast.util.Preconditions.checkPositive;
 
 public final class OperationQueueImpl implements OperationQueue {
 
+    static final int DEFAULT_BULK_RATIO = 8;
+
     static final Object TRIGGER_TASK = new Object() {
         public String toString() {
             return "triggerTask";
@@ -33,14 +36,32 @@ public final class OperationQueueImpl implements OperationQueue {
 
     private final BlockingQueue<Object> normalQueue;
     private final Queue<Object> priorityQueue;
+    private final Queue<Object> bulkQueue = new ConcurrentLinkedQueue<Object>();
+    private final int bulkRatio;
+
+    // the number of normal tasks taken since the last bulk task and the number of
+    // trigger tasks of the bulk tasks skipped since the last normal task. When the
+    // queue is shared by generic threads the updates are racy, which only makes the
+    // ratio between the normal and the bulk tasks approximate
+    private int normalStreak;
+    private int skippedTriggers;
 
     public OperationQueueImpl() {
         this(new LinkedBlockingQueue<Object>(), new ConcurrentLinkedQueue<Object>());
     }
 
     public OperationQueueImpl(BlockingQueue<Object> normalQueue, Queue<Object> priorityQueue) {
+        this(normalQueue, priorityQueue, DEFAULT_BULK_RATIO);
+    }
+
+    /**
+     * @param bulkRatio the number of normal tasks to take for every bulk task
+     *                  when both are pending.
+     */
+    public OperationQueueImpl(BlockingQueue<Object> normalQueue, Queue<Object> priorityQueue, int bulkRatio) {
         this.normalQueue = checkNotNull(normalQueue, "normalQueue");
         this.priorityQueue = checkNotNull(priorityQueue, "priorityQueue");
+        this.bulkRatio = checkPositive(bulkRatio, "bulkRatio should be positive");
     }
 
     @Override
@@ -48,6 +69,11 @@ public final class OperationQueueImpl implements OperationQueue {
         return normalQueue.size();
     }
 
+    @Override
+    public int bulkSize() {
+        return bulkQueue.size();
+    }
+
     @Override
     public int prioritySize() {
         return priorityQueue.size();
@@ -70,6 +96,14 @@ public final class OperationQueueImpl implements OperationQueue {
         }
     }
 
+    @Override
+    public void addBulk(Object task) {
+        checkNotNull(task, "task can't be null");
+
+        bulkQueue.add(task);
+        normalQueue.add(TRIGGER_TASK);
+    }
+
     @Override
     public Object take(boolean priorityOnly) throws InterruptedException {
         if (priorityOnly) {
@@ -82,11 +116,42 @@ public final class OperationQueueImpl implements OperationQueue {
                 return priorityItem;
             }
 
+            if (normalStreak >= bulkRatio) {
+                Object bulkItem = bulkQueue.poll();
+                if (bulkItem != null) {
+                    normalStreak = 0;
+                    return bulkItem;
+                }
+            }
+
             Object normalItem = normalQueue.take();
             if (normalItem == TRIGGER_TASK) {
+                if (bulkQueue.isEmpty()) {
+                    continue;
+                }
+
+                // the bulk task isn't due yet, so its trigger is moved to the back of the
+                // queue. Once all the tasks in the queue were skipped without finding a
+                // normal task, there is no normal work and the bulk task is taken.
+                skippedTriggers++;
+                if (skippedTriggers <= normalQueue.size()) {
+                    normalQueue.add(TRIGGER_TASK);
+                    continue;
+                }
+
+                Object bulkItem = bulkQueue.poll();
+                if (bulkItem != null) {
+                    normalStreak = 0;
+                    skippedTriggers = 0;
+                    return bulkItem;
+                }
                 continue;
             }
 
+            skippedTriggers = 0;
+            if (normalStreak < bulkRatio) {
+                normalStreak++;
+            }
             return normalItem;
         }
     }
@@ -72,6 +72,8 @@ public abstract class OperationThread extends HazelcastManagedThread implements
     private final NodeExtension nodeExtension;
     private final ILogger logger;
     private volatile boolean shutdown;
+    // set before the thread is started, null if the latency tracking is disabled
+    private OperationLatencyTracker latencyTracker;
 
     public OperationThread(String name,
                            int threadId,
@@ -95,6 +97,20 @@ public abstract class OperationThread extends HazelcastManagedThread implements
 
     public abstract OperationRunner operationRunner(int partitionId);
 
+    /**
+     * Returns the tracker recording the latencies of the operations executed
+     * by this thread. Should only be used by this thread.
+     *
+     * @return the tracker or {@code null} if the latency tracking is disabled.
+     */
+    public final OperationLatencyTracker getLatencyTracker() {
+        return latencyTracker;
+    }
+
+    final void setLatencyTracker(OperationLatencyTracker latencyTracker) {
+        this.latencyTracker = latencyTracker;
+    }
+
     @Override
     public final void run() {
         nodeExtension.onThreadStart(this);
@@ -187,7 +203,12 @@ public abstract class OperationThread extends HazelcastManagedThread implements
 
     @Override
     public void provideMetrics(MetricsRegistry registry) {
-        registry.scanAndRegister(this, "operation.thread[" + getName() + "]");
+        String prefix = "operation.thread[" + getName() + "]";
+        registry.scanAndRegister(this, prefix);
+        if (latencyTracker != null) {
+            registry.scanAndRegister(latencyTracker.queueLatency(), prefix + ".latency.queue");
+            registry.scanAndRegister(latencyTracker.executionLatency(), prefix + ".latency.execution");
+        }
     }
 
     public final void shutdown() {
@@ -60,4 +60,9 @@ public final class PartitionOperationThread extends OperationThread {
     int normalPendingCount() {
         return queue.normalSize();
     }
+
+    @Probe
+    int bulkPendingCount() {
+        return queue.bulkSize();
+    }
 }
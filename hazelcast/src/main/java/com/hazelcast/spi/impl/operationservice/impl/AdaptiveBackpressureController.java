@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.instance.Node;
+import com.hazelcast.internal.metrics.MetricsProvider;
+import com.hazelcast.internal.metrics.MetricsRegistry;
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.networking.OutboundFrame;
+import com.hazelcast.internal.networking.nio.NioChannel;
+import com.hazelcast.internal.util.counters.SwCounter;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.nio.ConnectionManager;
+import com.hazelcast.nio.tcp.TcpIpConnection;
+import com.hazelcast.nio.tcp.TcpIpConnectionManager;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
+import com.hazelcast.spi.impl.operationexecutor.OperationExecutor;
+import com.hazelcast.spi.impl.sequence.AbstractCallIdSequence;
+import com.hazelcast.spi.properties.HazelcastProperties;
+
+import java.util.Iterator;
+import java.util.Queue;
+
+import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
+import static com.hazelcast.spi.properties.GroupProperty.BACKPRESSURE_ADAPTIVE_MAX_WRITE_QUEUE_SIZE;
+import static com.hazelcast.spi.properties.GroupProperty.BACKPRESSURE_ADAPTIVE_TARGET_QUEUE_DELAY_MILLIS;
+import static com.hazelcast.spi.properties.GroupProperty.PARTITION_COUNT;
+import static java.lang.Math.max;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Adapts the number of concurrent invocations allowed by the
+ * {@link AbstractCallIdSequence} to the measured load of the member, so the
+ * {@code hazelcast.backpressure.*} limits don't need to be tuned for every
+ * workload.
+ * <p>
+ * The controller runs periodically and applies an AIMD (additive increase,
+ * multiplicative decrease) policy:
+ * <ul>
+ * <li>if the member is congested, the limit is lowered by
+ * {@link #DECREASE_FACTOR}, but not below 1 invocation per partition.</li>
+ * <li>otherwise, if the invocations in flight use at least half of the limit,
+ * the limit is raised by 1% of the maximum limit, but not above the maximum
+ * limit configured for the back pressure.</li>
+ * </ul>
+ * The member is considered congested if:
+ * <ul>
+ * <li>an operation had to wait in the queue of a partition thread for longer
+ * than the target queue delay. The queueing delay is measured by a probe task
+ * sent to every partition thread through its regular (non-urgent) queue on
+ * every run of the controller; a probe still waiting in the queue counts
+ * with the time it has waited so far.</li>
+ * <li>or the write queue of a connection exceeds the maximum write queue
+ * size. The write queues are counted up to the maximum only, so the cost of
+ * the check is bounded even if the queues are huge.</li>
+ * </ul>
+ */
+class AdaptiveBackpressureController implements Runnable, MetricsProvider {
+
+    static final long INTERVAL_MILLIS = 100;
+    static final double DECREASE_FACTOR = 0.9;
+    private static final int INCREASE_DIVISOR = 100;
+
+    private final Node node;
+    private final OperationExecutor operationExecutor;
+    private final AbstractCallIdSequence callIdSequence;
+    private final ILogger logger;
+    private final long targetQueueDelayNanos;
+    private final int maxWriteQueueSize;
+    private final int minConcurrencyLimit;
+    private final int maxConcurrencyLimit;
+    private final int increase;
+    private final QueueDelayProbe[] probes;
+
+    @Probe
+    private volatile long queueDelayMillis;
+    @Probe
+    private volatile int overloadedConnections;
+    @Probe
+    private final SwCounter decreaseCount = newSwCounter();
+    @Probe
+    private final SwCounter increaseCount = newSwCounter();
+
+    AdaptiveBackpressureController(Node node, OperationExecutor operationExecutor, AbstractCallIdSequence callIdSequence,
+                                   HazelcastProperties properties, ILogger logger) {
+        this.node = node;
+        this.operationExecutor = operationExecutor;
+        this.callIdSequence = callIdSequence;
+        this.logger = logger;
+        this.targetQueueDelayNanos = properties.getNanos(BACKPRESSURE_ADAPTIVE_TARGET_QUEUE_DELAY_MILLIS);
+        this.maxWriteQueueSize = properties.getInteger(BACKPRESSURE_ADAPTIVE_MAX_WRITE_QUEUE_SIZE);
+        int partitionCount = properties.getInteger(PARTITION_COUNT);
+        this.maxConcurrencyLimit = callIdSequence.getMaxConcurrentInvocations();
+        this.minConcurrencyLimit = Math.min(partitionCount + 1, maxConcurrencyLimit);
+        this.increase = max(1, maxConcurrencyLimit / INCREASE_DIVISOR);
+
+        // partition i is mapped to partition thread i for i < partitionThreadCount,
+        // so a probe for each of these partitions covers all partition threads
+        int probeCount = operationExecutor == null
+                ? 0 : Math.min(operationExecutor.getPartitionThreadCount(), partitionCount);
+        this.probes = new QueueDelayProbe[probeCount];
+        for (int partitionId = 0; partitionId < probeCount; partitionId++) {
+            probes[partitionId] = new QueueDelayProbe(partitionId);
+        }
+    }
+
+    @Override
+    public void provideMetrics(MetricsRegistry registry) {
+        registry.scanAndRegister(this, "operation.backpressure");
+    }
+
+    @Probe
+    private int concurrencyLimit() {
+        return callIdSequence.getConcurrencyLimit();
+    }
+
+    void start() {
+        node.getNodeEngine().getExecutionService()
+                .scheduleWithRepetition(this, INTERVAL_MILLIS, INTERVAL_MILLIS, MILLISECONDS);
+    }
+
+    @Override
+    public void run() {
+        try {
+            long queueDelayNanos = measureQueueDelayNanos();
+            int overloadedConnectionCount = countOverloadedConnections();
+            queueDelayMillis = NANOSECONDS.toMillis(queueDelayNanos);
+            overloadedConnections = overloadedConnectionCount;
+            adjust(queueDelayNanos, overloadedConnectionCount);
+        } catch (Throwable t) {
+            logger.severe("Failed to adjust the concurrency limit", t);
+        }
+    }
+
+    void adjust(long queueDelayNanos, int overloadedConnectionCount) {
+        int limit = callIdSequence.getConcurrencyLimit();
+        int newLimit;
+        if (queueDelayNanos > targetQueueDelayNanos || overloadedConnectionCount > 0) {
+            newLimit = max(minConcurrencyLimit, (int) (limit * DECREASE_FACTOR));
+            if (newLimit < limit) {
+                decreaseCount.inc();
+            }
+        } else if (callIdSequence.getConcurrentInvocations() >= limit / 2) {
+            newLimit = (int) Math.min(maxConcurrencyLimit, (long) limit + increase);
+            if (newLimit > limit) {
+                increaseCount.inc();
+            }
+        } else {
+            return;
+        }
+
+        if (newLimit != limit) {
+            callIdSequence.setConcurrencyLimit(newLimit);
+            if (logger.isFinestEnabled()) {
+                logger.finest("Concurrency limit changed from " + limit + " to " + newLimit
+                        + ", queueDelay: " + NANOSECONDS.toMillis(queueDelayNanos) + " ms"
+                        + ", overloadedConnections: " + overloadedConnectionCount);
+            }
+        }
+    }
+
+    private long measureQueueDelayNanos() {
+        long now = System.nanoTime();
+        long maxDelayNanos = 0;
+        for (QueueDelayProbe probe : probes) {
+            long delayNanos;
+            if (probe.pending) {
+                delayNanos = now - probe.submitNanos;
+            } else {
+                delayNanos = probe.delayNanos;
+                probe.submitNanos = now;
+                probe.pending = true;
+                operationExecutor.execute(probe);
+            }
+            maxDelayNanos = max(maxDelayNanos, delayNanos);
+        }
+        return maxDelayNanos;
+    }
+
+    private int countOverloadedConnections() {
+        ConnectionManager connectionManager = node.getConnectionManager();
+        if (!(connectionManager instanceof TcpIpConnectionManager)) {
+            return 0;
+        }
+
+        int count = 0;
+        for (TcpIpConnection connection : ((TcpIpConnectionManager) connectionManager).getActiveConnections()) {
+            if (!(connection.getChannel() instanceof NioChannel)) {
+                continue;
+            }
+            Queue<OutboundFrame> writeQueue = ((NioChannel) connection.getChannel()).outboundPipeline().writeQueue;
+            if (exceeds(writeQueue, maxWriteQueueSize)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // the size() of a ConcurrentLinkedQueue traverses the whole queue
+    private static boolean exceeds(Queue<OutboundFrame> queue, int maxSize) {
+        Iterator<OutboundFrame> it = queue.iterator();
+        for (int i = 0; i <= maxSize; i++) {
+            if (!it.hasNext()) {
+                return false;
+            }
+            it.next();
+        }
+        return true;
+    }
+
+    private static final class QueueDelayProbe implements PartitionSpecificRunnable {
+
+        private final int partitionId;
+        // written by the controller only while the probe isn't pending
+        private volatile long submitNanos;
+        private volatile long delayNanos;
+        private volatile boolean pending;
+
+        QueueDelayProbe(int partitionId) {
+            this.partitionId = partitionId;
+        }
+
+        @Override
+        public int getPartitionId() {
+            return partitionId;
+        }
+
+        @Override
+        public void run() {
+            delayNanos = System.nanoTime() - submitNanos;
+            pending = false;
+        }
+    }
+}
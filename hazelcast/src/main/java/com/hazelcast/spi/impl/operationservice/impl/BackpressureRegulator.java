@@ -27,6 +27,7 @@ import com.hazelcast.spi.properties.HazelcastProperties;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import static com.hazelcast.spi.properties.GroupProperty.BACKPRESSURE_ADAPTIVE_ENABLED;
 import static com.hazelcast.spi.properties.GroupProperty.BACKPRESSURE_BACKOFF_TIMEOUT_MILLIS;
 import static com.hazelcast.spi.properties.GroupProperty.BACKPRESSURE_ENABLED;
 import static com.hazelcast.spi.properties.GroupProperty.BACKPRESSURE_MAX_CONCURRENT_INVOCATIONS_PER_PARTITION;
@@ -73,6 +74,7 @@ class BackpressureRegulator {
     private final AtomicInteger syncCountdown = new AtomicInteger();
     private final boolean enabled;
     private final boolean disabled;
+    private final boolean adaptive;
     private final int syncWindow;
     private final int partitionCount;
     private final int maxConcurrentInvocations;
@@ -81,6 +83,7 @@ class BackpressureRegulator {
     BackpressureRegulator(HazelcastProperties properties, ILogger logger) {
         this.enabled = properties.getBoolean(BACKPRESSURE_ENABLED);
         this.disabled = !enabled;
+        this.adaptive = enabled && properties.getBoolean(BACKPRESSURE_ADAPTIVE_ENABLED);
         this.partitionCount = properties.getInteger(PARTITION_COUNT);
         this.syncWindow = getSyncWindow(properties);
         this.syncCountdown.set(syncWindow);
@@ -90,7 +93,8 @@ class BackpressureRegulator {
         if (enabled) {
             logger.info("Backpressure is enabled"
                     + ", maxConcurrentInvocations:" + maxConcurrentInvocations
-                    + ", syncWindow: " + syncWindow);
+                    + ", syncWindow: " + syncWindow
+                    + ", adaptive: " + adaptive);
 
             int backupTimeoutMillis = properties.getInteger(OPERATION_BACKUP_TIMEOUT_MILLIS);
             if (backupTimeoutMillis < MINUTES.toMillis(1)) {
@@ -143,6 +147,14 @@ class BackpressureRegulator {
         return enabled;
     }
 
+    /**
+     * Checks if the number of concurrent invocations should be adapted to the
+     * measured load by an {@link AdaptiveBackpressureController}.
+     */
+    boolean isAdaptive() {
+        return adaptive;
+    }
+
     int getMaxConcurrentInvocations() {
         if (enabled) {
             return maxConcurrentInvocations;
@@ -23,6 +23,7 @@ import com.hazelcast.internal.util.counters.SwCounter;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.nio.Address;
 import com.hazelcast.nio.Bits;
+import com.hazelcast.nio.BufferObjectDataInput;
 import com.hazelcast.nio.Packet;
 import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.spi.impl.operationservice.impl.responses.ErrorResponse;
@@ -32,12 +33,17 @@ import java.nio.ByteOrder;
 
 import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
 import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.IOUtil.closeResource;
 import static com.hazelcast.nio.Packet.FLAG_OP_RESPONSE;
 import static com.hazelcast.nio.Packet.Type.OPERATION;
 import static com.hazelcast.spi.impl.SpiDataSerializerHook.BACKUP_ACK_RESPONSE;
 import static com.hazelcast.spi.impl.SpiDataSerializerHook.CALL_TIMEOUT_RESPONSE;
 import static com.hazelcast.spi.impl.SpiDataSerializerHook.ERROR_RESPONSE;
 import static com.hazelcast.spi.impl.SpiDataSerializerHook.NORMAL_RESPONSE;
+import static com.hazelcast.spi.impl.SpiDataSerializerHook.RESPONSE_BATCH;
+import static com.hazelcast.spi.impl.operationservice.impl.OutboundResponseHandler.OFFSET_BATCH_RESPONSES;
+import static com.hazelcast.spi.impl.operationservice.impl.OutboundResponseHandler.OFFSET_BATCH_SIZE;
 import static com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse.OFFSET_BACKUP_ACKS;
 import static com.hazelcast.spi.impl.operationservice.impl.responses.Response.OFFSET_CALL_ID;
 import static com.hazelcast.spi.impl.operationservice.impl.responses.Response.OFFSET_TYPE_ID;
@@ -52,6 +58,9 @@ import static com.hazelcast.util.Preconditions.checkTrue;
  * InboundResponseHandlers are not thread-safe. So if there are multiple threads
  * processing responses, each thread needs to get its own instance. Only the backup
  * handling is thread-safe since backups can be completed locally by any thread.
+ *
+ * A response batch is unpacked in place: the backup acks and the values of the
+ * normal responses are read straight from the batch.
  */
 public final class InboundResponseHandler implements Consumer<Packet> {
 
@@ -60,6 +69,7 @@ public final class InboundResponseHandler implements Consumer<Packet> {
     final MwCounter responsesBackup = newMwCounter();
     final SwCounter responsesError = newSwCounter();
     final MwCounter responsesMissing = newMwCounter();
+    final SwCounter responsesBatch = newSwCounter();
     private final ILogger logger;
     private final InternalSerializationService serializationService;
     private final InvocationRegistry invocationRegistry;
@@ -100,6 +110,9 @@ public final class InboundResponseHandler implements Consumer<Packet> {
                     ErrorResponse errorResponse = serializationService.toObject(packet);
                     notifyErrorResponse(callId, errorResponse.getCause(), sender);
                     break;
+                case RESPONSE_BATCH:
+                    acceptBatch(bytes, sender);
+                    break;
                 default:
                     logger.severe("Unrecognized type: " + typeId + " packet:" + packet);
             }
@@ -108,6 +121,53 @@ public final class InboundResponseHandler implements Consumer<Packet> {
         }
     }
 
+    private void acceptBatch(byte[] bytes, Address sender) {
+        responsesBatch.inc();
+
+        BufferObjectDataInput in = serializationService.createObjectDataInput(bytes);
+        try {
+            int count = Bits.readInt(bytes, OFFSET_BATCH_SIZE, useBigEndian);
+            int offset = OFFSET_BATCH_RESPONSES;
+            for (int k = 0; k < count; k++) {
+                int length = Bits.readInt(bytes, offset, useBigEndian);
+                offset += INT_SIZE_IN_BYTES;
+
+                int typeId = Bits.readInt(bytes, offset + OFFSET_TYPE_ID, useBigEndian);
+                long callId = Bits.readLong(bytes, offset + OFFSET_CALL_ID, useBigEndian);
+                if (typeId == BACKUP_ACK_RESPONSE) {
+                    notifyBackupComplete(callId);
+                } else if (typeId == NORMAL_RESPONSE) {
+                    acceptBatchedNormalResponse(in, offset, callId, sender);
+                } else {
+                    logger.severe("Unrecognized type in response batch: " + typeId);
+                }
+                offset += length;
+            }
+        } finally {
+            closeResource(in);
+        }
+    }
+
+    /**
+     * Reads the value of a normal response straight from the response batch,
+     * so neither a packet nor a copy of the response is needed.
+     */
+    private void acceptBatchedNormalResponse(BufferObjectDataInput in, int offset, long callId, Address sender) {
+        Object value;
+        int backupAcks;
+        try {
+            in.position(offset + OFFSET_BACKUP_ACKS);
+            backupAcks = in.readByte();
+            boolean isData = in.readBoolean();
+            value = isData ? in.readData() : in.readObject();
+        } catch (Throwable e) {
+            // the invocation would wait for the response till it times out
+            notifyErrorResponse(callId, e, sender);
+            return;
+        }
+        notifyNormalResponse(callId, value, backupAcks, sender);
+    }
+
     public void notifyBackupComplete(long callId) {
         responsesBackup.inc();
 
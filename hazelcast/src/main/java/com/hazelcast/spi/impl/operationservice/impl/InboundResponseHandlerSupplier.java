@@ -182,6 +182,15 @@ public class InboundResponseHandlerSupplier implements MetricsProvider, Supplier
         return result;
     }
 
+    @Probe(name = "responses[batch]", level = MANDATORY)
+    long responsesBatch() {
+        long result = 0;
+        for (InboundResponseHandler handler : inboundResponseHandlers) {
+            result += handler.responsesBatch.get();
+        }
+        return result;
+    }
+
     @Probe(name = "responses[missing]", level = MANDATORY)
     long responsesMissing() {
         long result = 0;
@@ -23,16 +23,14 @@ import com.hazelcast.internal.metrics.MetricsProvider;
 import com.hazelcast.internal.metrics.MetricsRegistry;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.util.RuntimeAvailableProcessors;
+import com.hazelcast.internal.util.counters.Counter;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.spi.impl.sequence.CallIdSequence;
 
 import java.util.Iterator;
-import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
 import static com.hazelcast.internal.metrics.ProbeLevel.MANDATORY;
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
 import static com.hazelcast.spi.OperationAccessor.deactivate;
 import static com.hazelcast.spi.OperationAccessor.setCallId;
 
@@ -45,13 +43,13 @@ import static com.hazelcast.spi.OperationAccessor.setCallId;
  * {@link com.hazelcast.spi.impl.operationservice.impl.responses.Response} comes in, the
  * appropriate invocation can be looked up.
  * <p>
+ * The invocations are stored in an {@link InvocationTable}, so neither the registration nor the lookup boxes the
+ * call ID or allocates a map entry.
+ * <p>
  * Some ideas:
  * <ul>
- * <li>Use a ringbuffer to store all invocations instead of a CHM. The call ID can be used as sequence ID for this
- * ringbuffer. It can be that you run in slots that have not been released; if that happens, just keep increasing
- * the sequence (although you now get sequence-gaps).</li>
- * <li>Pre-allocate all invocations. Because the ringbuffer has a fixed capacity, pre-allocation should be easy. Also
- * the PartitionInvocation and TargetInvocation can be folded into Invocation.</li>
+ * <li>Pre-allocate all invocations. Also the PartitionInvocation and TargetInvocation can be folded into
+ * Invocation.</li>
  * </ul>
  */
 public class InvocationRegistry implements Iterable<Invocation>, MetricsProvider {
@@ -60,14 +58,13 @@ public class InvocationRegistry implements Iterable<Invocation>, MetricsProvider
     private static final int CORE_SIZE_FACTOR = 4;
     private static final int CONCURRENCY_LEVEL = 16;
 
-    private static final int INITIAL_CAPACITY = 1000;
-    private static final float LOAD_FACTOR = 0.75f;
     private static final double HUNDRED_PERCENT = 100d;
 
-    @Probe(name = "invocations.pending", level = MANDATORY)
-    private final ConcurrentMap<Long, Invocation> invocations;
+    private final InvocationTable invocations;
     private final ILogger logger;
     private final CallIdSequence callIdSequence;
+    @Probe(name = "invocations.overloaded")
+    private final Counter overloadedCount = newMwCounter();
 
     private volatile boolean alive = true;
 
@@ -79,7 +76,7 @@ public class InvocationRegistry implements Iterable<Invocation>, MetricsProvider
         boolean reallyMultiCore = coreSize >= CORE_SIZE_CHECK;
         int concurrencyLevel = reallyMultiCore ? coreSize * CORE_SIZE_FACTOR : CONCURRENCY_LEVEL;
 
-        this.invocations = new ConcurrentHashMap<Long, Invocation>(INITIAL_CAPACITY, LOAD_FACTOR, concurrencyLevel);
+        this.invocations = new InvocationTable(concurrencyLevel);
     }
 
     @Override
@@ -87,6 +84,11 @@ public class InvocationRegistry implements Iterable<Invocation>, MetricsProvider
         registry.scanAndRegister(this, "operation");
     }
 
+    @Probe(name = "invocations.pending", level = MANDATORY)
+    private int invocationsPending() {
+        return invocations.size();
+    }
+
     @Probe(name = "invocations.usedPercentage")
     private double invocationsUsedPercentage() {
         int maxConcurrentInvocations = callIdSequence.getMaxConcurrentInvocations();
@@ -114,6 +116,7 @@ public class InvocationRegistry implements Iterable<Invocation>, MetricsProvider
         try {
             callId = force ? callIdSequence.forceNext() : callIdSequence.next();
         } catch (HazelcastOverloadException e) {
+            overloadedCount.inc();
             throw new HazelcastOverloadException("Failed to start invocation due to overload: " + invocation, e);
         }
         try {
@@ -123,7 +126,7 @@ public class InvocationRegistry implements Iterable<Invocation>, MetricsProvider
             callIdSequence.complete();
             throw e;
         }
-        invocations.put(callId, invocation);
+        invocations.put(invocation);
         if (!alive) {
             invocation.notifyError(new HazelcastInstanceNotActiveException());
             return false;
@@ -142,7 +145,7 @@ public class InvocationRegistry implements Iterable<Invocation>, MetricsProvider
         if (!deactivate(invocation.op)) {
             return false;
         }
-        invocations.remove(invocation.op.getCallId());
+        invocations.remove(invocation);
         callIdSequence.complete();
         return true;
     }
@@ -158,16 +161,7 @@ public class InvocationRegistry implements Iterable<Invocation>, MetricsProvider
 
     @Override
     public Iterator<Invocation> iterator() {
-        return invocations.values().iterator();
-    }
-
-    /**
-     * Intention to expose the entry set is to mutate it.
-     *
-     * @return set of invocations in this registry
-     */
-    public Set<Map.Entry<Long, Invocation>> entrySet() {
-        return invocations.entrySet();
+        return invocations.iterator();
     }
 
     /**
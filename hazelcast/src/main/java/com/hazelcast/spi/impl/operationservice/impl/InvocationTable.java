@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.hazelcast.util.HashUtil.fastLongMix;
+import static com.hazelcast.util.QuickMath.nextPowerOfTwo;
+
+/**
+ * A concurrent open addressing hash table of the registered
+ * {@link Invocation}s keyed by their call IDs.
+ * <p>
+ * Unlike a {@code ConcurrentMap<Long, Invocation>}, the table neither boxes
+ * the call IDs nor allocates a node per entry: the slots refer to the
+ * invocations directly and the key of a slot is the call ID of the operation
+ * of its invocation, which doesn't change while the invocation is registered.
+ * <p>
+ * The table is split into segments to reduce the contention of the writers.
+ * Within a segment, the writes are serialized using the segment's monitor and
+ * the reads are lock-free: a slot is only ever changed from empty to an
+ * invocation, from an invocation to a tombstone, or from a tombstone to an
+ * invocation, so a reader probing the slots can't miss an invocation
+ * registered before the read has started. When a segment runs out of the
+ * empty slots, it's rehashed into a new array of slots which drops the
+ * tombstones; the readers still probing the old array aren't affected.
+ * <p>
+ * The iteration is weakly consistent, like the iteration of a
+ * {@code ConcurrentHashMap}.
+ */
+final class InvocationTable implements Iterable<Invocation> {
+
+    private static final int MIN_SEGMENT_CAPACITY = 64;
+    // the rehash is triggered when half of the slots of a segment are used;
+    // the segment is then resized so that a quarter of the slots is used
+    private static final int USED_SLOTS_FACTOR = 2;
+    private static final int LIVE_SLOTS_FACTOR = 4;
+
+    private static final Object TOMBSTONE = new Object();
+
+    private final Segment[] segments;
+    private final int segmentMask;
+
+    InvocationTable(int concurrencyLevel) {
+        int segmentCount = nextPowerOfTwo(concurrencyLevel);
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment();
+        }
+        this.segmentMask = segmentCount - 1;
+    }
+
+    /**
+     * Adds an invocation to the table using the current call ID of its
+     * operation as the key. The call ID must not be in the table already.
+     *
+     * @param invocation the invocation to add.
+     */
+    void put(Invocation invocation) {
+        long hash = fastLongMix(invocation.op.getCallId());
+        segmentFor(hash).put(invocation, (int) hash);
+    }
+
+    /**
+     * Removes an invocation from the table.
+     *
+     * @param invocation the invocation to remove.
+     * @return {@code true} if the invocation was removed, {@code false} if
+     * it wasn't in the table.
+     */
+    boolean remove(Invocation invocation) {
+        long hash = fastLongMix(invocation.op.getCallId());
+        return segmentFor(hash).remove(invocation, (int) hash);
+    }
+
+    /**
+     * Gets the invocation for the given call ID.
+     *
+     * @param callId the call ID.
+     * @return the invocation or {@code null} if there is no invocation with
+     * the call ID.
+     */
+    Invocation get(long callId) {
+        long hash = fastLongMix(callId);
+        AtomicReferenceArray<Object> slots = segmentFor(hash).slots;
+        int mask = slots.length() - 1;
+        int index = (int) hash & mask;
+        for (int probes = 0; probes <= mask; probes++) {
+            Object slot = slots.get(index);
+            if (slot == null) {
+                return null;
+            }
+            if (slot != TOMBSTONE && ((Invocation) slot).op.getCallId() == callId) {
+                return (Invocation) slot;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    @Override
+    public Iterator<Invocation> iterator() {
+        return new InvocationIterator();
+    }
+
+    private Segment segmentFor(long hash) {
+        // the high bits select the segment, the low bits the slot
+        return segments[(int) (hash >>> Integer.SIZE) & segmentMask];
+    }
+
+    private static final class Segment {
+
+        volatile AtomicReferenceArray<Object> slots = new AtomicReferenceArray<Object>(MIN_SEGMENT_CAPACITY);
+        // the number of the invocations
+        volatile int size;
+        // the number of the invocations and the tombstones, guarded by this
+        private int used;
+
+        synchronized void put(Invocation invocation, int hash) {
+            if ((used + 1) * USED_SLOTS_FACTOR > slots.length()) {
+                rehash();
+            }
+
+            AtomicReferenceArray<Object> slots = this.slots;
+            int mask = slots.length() - 1;
+            int index = hash & mask;
+            for (; ; ) {
+                Object slot = slots.get(index);
+                if (slot == null) {
+                    used++;
+                    break;
+                }
+                if (slot == TOMBSTONE) {
+                    break;
+                }
+                index = (index + 1) & mask;
+            }
+            slots.set(index, invocation);
+            size++;
+        }
+
+        synchronized boolean remove(Invocation invocation, int hash) {
+            AtomicReferenceArray<Object> slots = this.slots;
+            int mask = slots.length() - 1;
+            int index = hash & mask;
+            for (int probes = 0; probes <= mask; probes++) {
+                Object slot = slots.get(index);
+                if (slot == null) {
+                    return false;
+                }
+                if (slot == invocation) {
+                    slots.set(index, TOMBSTONE);
+                    size--;
+                    return true;
+                }
+                index = (index + 1) & mask;
+            }
+            return false;
+        }
+
+        private void rehash() {
+            AtomicReferenceArray<Object> oldSlots = slots;
+            int capacity = Math.max(MIN_SEGMENT_CAPACITY, nextPowerOfTwo((size + 1) * LIVE_SLOTS_FACTOR));
+            AtomicReferenceArray<Object> newSlots = new AtomicReferenceArray<Object>(capacity);
+            int mask = capacity - 1;
+            for (int i = 0; i < oldSlots.length(); i++) {
+                Object slot = oldSlots.get(i);
+                if (slot == null || slot == TOMBSTONE) {
+                    continue;
+                }
+                int index = (int) fastLongMix(((Invocation) slot).op.getCallId()) & mask;
+                while (newSlots.get(index) != null) {
+                    index = (index + 1) & mask;
+                }
+                newSlots.set(index, slot);
+            }
+            used = size;
+            slots = newSlots;
+        }
+    }
+
+    private final class InvocationIterator implements Iterator<Invocation> {
+
+        private int segmentIndex;
+        private AtomicReferenceArray<Object> slots = segments[0].slots;
+        private int slotIndex = -1;
+        private Invocation next;
+
+        InvocationIterator() {
+            advance();
+        }
+
+        private void advance() {
+            next = null;
+            for (; ; ) {
+                slotIndex++;
+                if (slotIndex == slots.length()) {
+                    segmentIndex++;
+                    if (segmentIndex == segments.length) {
+                        return;
+                    }
+                    slots = segments[segmentIndex].slots;
+                    slotIndex = 0;
+                }
+                Object slot = slots.get(slotIndex);
+                if (slot != null && slot != TOMBSTONE) {
+                    next = (Invocation) slot;
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Invocation next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Invocation invocation = next;
+            advance();
+            return invocation;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
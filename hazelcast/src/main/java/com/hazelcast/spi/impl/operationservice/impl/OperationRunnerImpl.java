@@ -57,6 +57,8 @@ import com.hazelcast.spi.exception.WrongTargetException;
 import com.hazelcast.spi.impl.AllowedDuringPassiveState;
 import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.spi.impl.operationexecutor.OperationRunner;
+import com.hazelcast.spi.impl.operationexecutor.impl.OperationLatencyTracker;
+import com.hazelcast.spi.impl.operationexecutor.impl.OperationThread;
 import com.hazelcast.spi.impl.operationservice.impl.operations.Backup;
 import com.hazelcast.spi.impl.operationservice.impl.responses.CallTimeoutResponse;
 import com.hazelcast.spi.impl.operationservice.impl.responses.ErrorResponse;
@@ -75,6 +77,7 @@ import static com.hazelcast.spi.CallStatus.OFFLOAD_ORDINAL;
 import static com.hazelcast.spi.CallStatus.WAIT_ORDINAL;
 import static com.hazelcast.spi.OperationAccessor.setCallerAddress;
 import static com.hazelcast.spi.OperationAccessor.setConnection;
+import static com.hazelcast.spi.OperationAccessor.setEnqueueNanos;
 import static com.hazelcast.spi.impl.OperationResponseHandlerFactory.createEmptyResponseHandler;
 import static com.hazelcast.spi.impl.operationutil.Operations.isJoinOperation;
 import static com.hazelcast.spi.impl.operationutil.Operations.isMigrationOperation;
@@ -177,6 +180,9 @@ class OperationRunnerImpl extends OperationRunner implements MetricsProvider {
     public void run(Operation op) {
         executedOperationsCounter.inc();
 
+        OperationLatencyTracker latencyTracker = latencyTracker();
+        long startNanos = latencyTracker == null ? 0 : System.nanoTime();
+
         boolean publishCurrentTask = publishCurrentTask();
 
         if (publishCurrentTask) {
@@ -203,9 +209,18 @@ class OperationRunnerImpl extends OperationRunner implements MetricsProvider {
             if (publishCurrentTask) {
                 currentTask = null;
             }
+            if (latencyTracker != null) {
+                latencyTracker.record(op, startNanos);
+            }
         }
     }
 
+    // the tracker of the current thread, so the histograms are only written by their own thread
+    private static OperationLatencyTracker latencyTracker() {
+        Thread thread = Thread.currentThread();
+        return thread instanceof OperationThread ? ((OperationThread) thread).getLatencyTracker() : null;
+    }
+
     private void call(Operation op) throws Exception {
         CallStatus callStatus = op.call();
 
@@ -405,6 +420,8 @@ class OperationRunnerImpl extends OperationRunner implements MetricsProvider {
             setConnection(op, connection);
             setCallerUuidIfNotSet(caller, op);
             setOperationResponseHandler(op);
+            // the time the packet waited in the queue is accounted to the operation
+            setEnqueueNanos(op, packet.getEnqueueNanos());
 
             if (!ensureValidMember(op)) {
                 return;
@@ -424,6 +441,8 @@ class OperationRunnerImpl extends OperationRunner implements MetricsProvider {
             if (publishCurrentTask) {
                 currentTask = null;
             }
+            // the operation doesn't refer to the payload once it's deserialized
+            packet.releasePayload();
         }
     }
 
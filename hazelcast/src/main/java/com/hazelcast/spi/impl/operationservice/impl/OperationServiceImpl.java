@@ -48,6 +48,8 @@ import com.hazelcast.spi.impl.operationexecutor.impl.OperationExecutorImpl;
 import com.hazelcast.spi.impl.operationexecutor.slowoperationdetector.SlowOperationDetector;
 import com.hazelcast.spi.impl.operationservice.InternalOperationService;
 import com.hazelcast.spi.impl.operationservice.PartitionTaskFactory;
+import com.hazelcast.spi.impl.sequence.AbstractCallIdSequence;
+import com.hazelcast.spi.impl.sequence.CallIdSequence;
 import com.hazelcast.spi.properties.GroupProperty;
 
 import java.util.ArrayList;
@@ -128,6 +130,7 @@ public final class OperationServiceImpl implements InternalOperationService, Met
     volatile Invocation.Context invocationContext;
 
     private final InvocationMonitor invocationMonitor;
+    private final AdaptiveBackpressureController backpressureController;
     private final SlowOperationDetector slowOperationDetector;
     private final InboundResponseHandlerSupplier inboundResponseHandlerSupplier;
     private final InternalSerializationService serializationService;
@@ -150,10 +153,11 @@ public final class OperationServiceImpl implements InternalOperationService, Met
                 node.getProperties(), node.getLogger(BackpressureRegulator.class));
 
         this.outboundResponseHandler = new OutboundResponseHandler(thisAddress, serializationService, node,
-                node.getLogger(OutboundResponseHandler.class));
+                node.getLogger(OutboundResponseHandler.class),
+                node.getProperties().getBoolean(GroupProperty.RESPONSE_BATCHING_ENABLED));
 
-        this.invocationRegistry = new InvocationRegistry(
-                node.getLogger(OperationServiceImpl.class), backpressureRegulator.newCallIdSequence());
+        CallIdSequence callIdSequence = backpressureRegulator.newCallIdSequence();
+        this.invocationRegistry = new InvocationRegistry(node.getLogger(OperationServiceImpl.class), callIdSequence);
 
         this.invocationMonitor = new InvocationMonitor(
                 nodeEngine, thisAddress, node.getProperties(), invocationRegistry,
@@ -172,6 +176,11 @@ public final class OperationServiceImpl implements InternalOperationService, Met
                 node.getProperties(), node.loggingService, thisAddress, new OperationRunnerFactoryImpl(this),
                 node.getNodeExtension(), hzName, configClassLoader);
 
+        this.backpressureController = backpressureRegulator.isAdaptive()
+                ? new AdaptiveBackpressureController(node, operationExecutor, (AbstractCallIdSequence) callIdSequence,
+                node.getProperties(), node.getLogger(AdaptiveBackpressureController.class))
+                : null;
+
         this.slowOperationDetector = new SlowOperationDetector(node.loggingService,
                 operationExecutor.getGenericOperationRunners(), operationExecutor.getPartitionOperationRunners(),
                 node.getProperties(), hzName);
@@ -442,6 +451,7 @@ public final class OperationServiceImpl implements InternalOperationService, Met
 
     public void onMemberLeft(MemberImpl member) {
         invocationMonitor.onMemberLeft(member);
+        outboundResponseHandler.onMemberLeft(member.getAddress());
     }
 
     public void reset() {
@@ -452,7 +462,8 @@ public final class OperationServiceImpl implements InternalOperationService, Met
     @Override
     public void provideMetrics(MetricsRegistry registry) {
         registry.scanAndRegister(this, "operation");
-        registry.collectMetrics(invocationRegistry, invocationMonitor, inboundResponseHandlerSupplier, operationExecutor);
+        registry.collectMetrics(invocationRegistry, invocationMonitor, inboundResponseHandlerSupplier, operationExecutor,
+                backpressureController);
     }
 
     public void start() {
@@ -464,6 +475,9 @@ public final class OperationServiceImpl implements InternalOperationService, Met
         operationExecutor.start();
         inboundResponseHandlerSupplier.start();
         slowOperationDetector.start();
+        if (backpressureController != null) {
+            backpressureController.start();
+        }
     }
 
     private void initInvocationContext() {
@@ -22,7 +22,9 @@ import com.hazelcast.nio.Address;
 import com.hazelcast.nio.Connection;
 import com.hazelcast.nio.Packet;
 import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.impl.operationexecutor.impl.BulkOperationClassifier;
 
+import static com.hazelcast.nio.Packet.FLAG_OP_BULK;
 import static com.hazelcast.nio.Packet.FLAG_URGENT;
 import static com.hazelcast.util.Preconditions.checkNotNull;
 
@@ -33,11 +35,13 @@ public class OutboundOperationHandler {
     private final Address thisAddress;
     private final InternalSerializationService serializationService;
     private final Node node;
+    private final BulkOperationClassifier bulkClassifier;
 
     public OutboundOperationHandler(Node node, Address thisAddress, InternalSerializationService serializationService) {
         this.node = node;
         this.thisAddress = thisAddress;
         this.serializationService = serializationService;
+        this.bulkClassifier = new BulkOperationClassifier(node.getProperties());
     }
 
     public boolean send(Operation op, Address target) {
@@ -58,6 +62,8 @@ public class OutboundOperationHandler {
 
         if (op.isUrgent()) {
             packet.raiseFlags(FLAG_URGENT);
+        } else if (bulkClassifier.isBulk(op)) {
+            packet.raiseFlags(FLAG_OP_BULK);
         }
 
         return node.getConnectionManager().transmit(packet, connection);
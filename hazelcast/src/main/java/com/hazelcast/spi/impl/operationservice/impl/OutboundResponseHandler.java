@@ -17,6 +17,7 @@
 package com.hazelcast.spi.impl.operationservice.impl;
 
 import com.hazelcast.instance.Node;
+import com.hazelcast.internal.cluster.ClusterService;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.nio.Address;
@@ -30,6 +31,13 @@ import com.hazelcast.spi.impl.operationservice.impl.responses.CallTimeoutRespons
 import com.hazelcast.spi.impl.operationservice.impl.responses.ErrorResponse;
 import com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse;
 import com.hazelcast.spi.impl.operationservice.impl.responses.Response;
+import com.hazelcast.util.ConstructorFunction;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.hazelcast.internal.serialization.impl.SerializationConstants.CONSTANT_TYPE_DATA_SERIALIZABLE;
 import static com.hazelcast.internal.serialization.impl.SerializationConstants.CONSTANT_TYPE_NULL;
@@ -40,8 +48,10 @@ import static com.hazelcast.nio.Bits.writeLong;
 import static com.hazelcast.nio.Packet.FLAG_OP_RESPONSE;
 import static com.hazelcast.nio.Packet.FLAG_URGENT;
 import static com.hazelcast.nio.Packet.Type.OPERATION;
+import static com.hazelcast.spi.ExecutionService.ASYNC_EXECUTOR;
 import static com.hazelcast.spi.impl.SpiDataSerializerHook.BACKUP_ACK_RESPONSE;
 import static com.hazelcast.spi.impl.SpiDataSerializerHook.NORMAL_RESPONSE;
+import static com.hazelcast.spi.impl.SpiDataSerializerHook.RESPONSE_BATCH;
 import static com.hazelcast.spi.impl.operationservice.impl.responses.BackupAckResponse.BACKUP_RESPONSE_SIZE_IN_BYTES;
 import static com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse.OFFSET_BACKUP_ACKS;
 import static com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse.OFFSET_DATA_LENGTH;
@@ -54,6 +64,9 @@ import static com.hazelcast.spi.impl.operationservice.impl.responses.Response.OF
 import static com.hazelcast.spi.impl.operationservice.impl.responses.Response.OFFSET_TYPE_FACTORY_ID;
 import static com.hazelcast.spi.impl.operationservice.impl.responses.Response.OFFSET_TYPE_ID;
 import static com.hazelcast.spi.impl.operationservice.impl.responses.Response.OFFSET_URGENT;
+import static com.hazelcast.spi.impl.operationservice.impl.responses.Response.RESPONSE_SIZE_IN_BYTES;
+import static com.hazelcast.util.ConcurrencyUtil.getOrPutIfAbsent;
+import static com.hazelcast.internal.cluster.Versions.V3_12;
 import static com.hazelcast.util.Preconditions.checkNotNull;
 import static java.nio.ByteOrder.BIG_ENDIAN;
 
@@ -61,9 +74,50 @@ import static java.nio.ByteOrder.BIG_ENDIAN;
  * An {@link OperationResponseHandler} that is used for a remotely executed Operation. So when a calling member
  * sends an Operation to the receiving member, the receiving member attaches this OutboundResponseHandler
  * to that operation so that the response is returned to the right machine.
+ * <p>
+ * If the batching is enabled, the backup acks and the small non-urgent
+ * responses sent to the same member concurrently are coalesced into a single
+ * response batch packet. There is no batching window: a thread sending a
+ * response adds it to the pending responses of the target and, unless another
+ * thread is sending the pending responses already, sends a batch of them. So a
+ * response is never delayed, the responses are only batched if they pile up
+ * while another batch is being sent. A batch of a single response is sent as
+ * a regular response packet. The responses which don't fit into that batch are
+ * sent by a task on the async executor.
+ * <p>
+ * A response which is batched may be handed over to another thread for
+ * sending, so {@code true} returned for it means that the response has been
+ * accepted for sending, not that it has been transmitted. A batch which can't
+ * be transmitted is logged by the thread sending it. The pending responses of
+ * a member are discarded once the member leaves the cluster.
  */
 public final class OutboundResponseHandler implements OperationResponseHandler {
 
+    /**
+     * The offset of the number of responses in a response batch.
+     */
+    static final int OFFSET_BATCH_SIZE = RESPONSE_SIZE_IN_BYTES;
+    /**
+     * The offset of the first response in a response batch. Every response
+     * is prefixed by its length.
+     */
+    static final int OFFSET_BATCH_RESPONSES = OFFSET_BATCH_SIZE + INT_SIZE_IN_BYTES;
+
+    // larger responses are sent right away, batching them isn't worth the copy
+    private static final int MAX_BATCHED_RESPONSE_SIZE = 1024;
+    private static final int MAX_BATCH_SIZE = 128;
+
+    private final ConstructorFunction<Address, PendingResponses> pendingResponsesConstructor =
+            new ConstructorFunction<Address, PendingResponses>() {
+                @Override
+                public PendingResponses createNew(Address target) {
+                    return new PendingResponses(target);
+                }
+            };
+
+    private final ConcurrentMap<Address, PendingResponses> pendingResponsesMap
+            = new ConcurrentHashMap<Address, PendingResponses>();
+    private final boolean batchingEnabled;
     private final Address thisAddress;
     private final InternalSerializationService serializationService;
     private final boolean useBigEndian;
@@ -76,6 +130,15 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
                             InternalSerializationService serializationService,
                             Node node,
                             ILogger logger) {
+        this(thisAddress, serializationService, node, logger, false);
+    }
+
+    OutboundResponseHandler(Address thisAddress,
+                            InternalSerializationService serializationService,
+                            Node node,
+                            ILogger logger,
+                            boolean batchingEnabled) {
+        this.batchingEnabled = batchingEnabled;
         this.thisAddress = thisAddress;
         this.serializationService = serializationService;
         this.useBigEndian = serializationService.getByteOrder() == BIG_ENDIAN;
@@ -122,15 +185,25 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
         return transmit(target, packet);
     }
 
+    /**
+     * Sends a normal response to the given target.
+     *
+     * @return {@code true} if the response has been transmitted or queued to
+     * be sent with a batch, {@code false} if it couldn't be transmitted.
+     */
     private boolean sendNormalResponse(Address target, long callId, int backupAcks, boolean urgent, Object value) {
         checkTarget(target);
 
-        Packet packet = toNormalResponsePacket(callId, (byte) backupAcks, urgent, value);
+        byte[] bytes = toNormalResponseBytes(callId, (byte) backupAcks, urgent, value);
 
-        return transmit(target, packet);
+        return transmit(target, bytes, urgent);
     }
 
     Packet toNormalResponsePacket(long callId, int backupAcks, boolean urgent, Object value) {
+        return newResponsePacket(toNormalResponseBytes(callId, backupAcks, urgent, value), urgent);
+    }
+
+    private byte[] toNormalResponseBytes(long callId, int backupAcks, boolean urgent, Object value) {
         byte[] bytes;
         boolean isData = value instanceof Data;
         if (isData) {
@@ -164,23 +237,54 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
         bytes[OFFSET_IS_DATA] = (byte) (isData ? 1 : 0);
         //the remaining part of the byte array is already filled, so we are done.
 
-        return newResponsePacket(bytes, urgent);
+        return bytes;
     }
 
     public void sendBackupAck(Address target, long callId, boolean urgent) {
         checkTarget(target);
 
-        Packet packet = toBackupAckPacket(callId, urgent);
+        byte[] bytes = toBackupAckBytes(callId, urgent);
 
-        transmit(target, packet);
+        transmit(target, bytes, urgent);
     }
 
     Packet toBackupAckPacket(long callId, boolean urgent) {
+        return newResponsePacket(toBackupAckBytes(callId, urgent), urgent);
+    }
+
+    private byte[] toBackupAckBytes(long callId, boolean urgent) {
         byte[] bytes = new byte[BACKUP_RESPONSE_SIZE_IN_BYTES];
 
         writeResponsePrologueBytes(bytes, BACKUP_ACK_RESPONSE, callId, urgent);
 
-        return newResponsePacket(bytes, urgent);
+        return bytes;
+    }
+
+    /**
+     * Creates a response batch packet out of the given responses.
+     *
+     * @param responses the response bytes.
+     * @param count     the number of the responses.
+     * @return the created packet.
+     */
+    Packet toResponseBatchPacket(byte[][] responses, int count) {
+        int length = OFFSET_BATCH_RESPONSES;
+        for (int k = 0; k < count; k++) {
+            length += INT_SIZE_IN_BYTES + responses[k].length;
+        }
+
+        byte[] bytes = new byte[length];
+        writeResponsePrologueBytes(bytes, RESPONSE_BATCH, 0, false);
+        writeInt(bytes, OFFSET_BATCH_SIZE, count, useBigEndian);
+        int offset = OFFSET_BATCH_RESPONSES;
+        for (int k = 0; k < count; k++) {
+            byte[] response = responses[k];
+            writeInt(bytes, offset, response.length, useBigEndian);
+            offset += INT_SIZE_IN_BYTES;
+            System.arraycopy(response, 0, bytes, offset, response.length);
+            offset += response.length;
+        }
+        return newResponsePacket(bytes, false);
     }
 
     private void writeResponsePrologueBytes(byte[] bytes, int typeId, long callId, boolean urgent) {
@@ -211,6 +315,58 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
         return packet;
     }
 
+    /**
+     * Transmits the given response bytes to the target right away or queues
+     * them to be sent with a batch.
+     *
+     * @return {@code true} if the response has been transmitted or queued,
+     * {@code false} if it couldn't be transmitted.
+     */
+    private boolean transmit(Address target, byte[] bytes, boolean urgent) {
+        ClusterService clusterService = node.getClusterService();
+        if (!batchingEnabled || urgent || bytes.length > MAX_BATCHED_RESPONSE_SIZE
+                || !clusterService.getClusterVersion().isGreaterOrEqual(V3_12)) {
+            return transmit(target, newResponsePacket(bytes, urgent));
+        }
+
+        PendingResponses pendingResponses = getOrPutIfAbsent(pendingResponsesMap, target, pendingResponsesConstructor);
+        boolean accepted = pendingResponses.send(bytes);
+        if (clusterService.getMember(target) == null) {
+            // the member has left while the pending responses were (re)created
+            // for it, they would never be removed otherwise
+            discardPendingResponses(target, pendingResponses);
+        }
+        return accepted;
+    }
+
+    /**
+     * Discards the responses waiting to be sent to the member which has left
+     * the cluster.
+     *
+     * @param address the address of the member which has left.
+     */
+    void onMemberLeft(Address address) {
+        PendingResponses pendingResponses = pendingResponsesMap.get(address);
+        if (pendingResponses != null) {
+            discardPendingResponses(address, pendingResponses);
+        }
+    }
+
+    private void discardPendingResponses(Address target, PendingResponses pendingResponses) {
+        if (!pendingResponsesMap.remove(target, pendingResponses)) {
+            return;
+        }
+        int discarded = pendingResponses.discard();
+        if (discarded > 0 && logger.isFineEnabled()) {
+            logger.fine("Discarded " + discarded + " pending responses to " + target + " which has left the cluster");
+        }
+    }
+
+    // for testing
+    int pendingResponsesMemberCount() {
+        return pendingResponsesMap.size();
+    }
+
     private boolean transmit(Address target, Packet packet) {
         ConnectionManager connectionManager = node.getConnectionManager();
         return connectionManager.transmit(packet, target);
@@ -223,4 +379,126 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
             throw new IllegalArgumentException("Target is this node! -> " + target);
         }
     }
+
+    /**
+     * The responses waiting to be sent to a single member.
+     * <p>
+     * A thread sending a response sends at most a single batch, so that
+     * e.g. a partition thread doesn't end up sending the responses of the
+     * other threads for as long as they keep coming. The responses left
+     * over by it are sent by a drain task on the async executor.
+     */
+    private final class PendingResponses implements Runnable {
+
+        private final Address target;
+        private final Queue<byte[]> responses = new ConcurrentLinkedQueue<byte[]>();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private final AtomicBoolean drainScheduled = new AtomicBoolean();
+        // accessed only by the thread which has set the sending flag
+        private final byte[][] batch = new byte[MAX_BATCH_SIZE][];
+
+        PendingResponses(Address target) {
+            this.target = target;
+        }
+
+        /**
+         * Sends the given response with a batch of the pending responses or,
+         * if another thread is sending a batch already, queues it to be sent
+         * by that thread or the drain task.
+         *
+         * @return {@code false} if the batch sent by this thread couldn't be
+         * transmitted, {@code true} otherwise.
+         */
+        boolean send(byte[] response) {
+            responses.offer(response);
+            if (!sending.compareAndSet(false, true)) {
+                // the thread which has set the sending flag checks the
+                // pending responses again once it clears the flag, a failure
+                // to transmit them is logged by it
+                return true;
+            }
+
+            boolean sent;
+            try {
+                sent = sendBatch(false);
+            } finally {
+                sending.set(false);
+            }
+            if (!responses.isEmpty()) {
+                scheduleDrain();
+            }
+            return sent;
+        }
+
+        @Override
+        public void run() {
+            drainScheduled.set(false);
+            // the responses added while we are sending are not sent by the
+            // threads which have added them, so we have to check again once
+            // the sending flag is cleared
+            while (!responses.isEmpty() && sending.compareAndSet(false, true)) {
+                try {
+                    sendBatch(true);
+                } finally {
+                    sending.set(false);
+                }
+            }
+        }
+
+        /**
+         * Removes the responses not sent yet.
+         *
+         * @return the number of the removed responses.
+         */
+        int discard() {
+            int count = 0;
+            while (responses.poll() != null) {
+                count++;
+            }
+            return count;
+        }
+
+        private void scheduleDrain() {
+            if (drainScheduled.compareAndSet(false, true)) {
+                node.getNodeEngine().getExecutionService().execute(ASYNC_EXECUTOR, this);
+            }
+        }
+
+        /**
+         * Sends a batch of the pending responses.
+         *
+         * @param drain {@code true} if the batch is sent by the drain task,
+         *              so none of its responses belongs to the caller.
+         * @return {@code true} if the batch has been transmitted or there was
+         * nothing to send.
+         */
+        private boolean sendBatch(boolean drain) {
+            int count = 0;
+            byte[] response;
+            while (count < MAX_BATCH_SIZE && (response = responses.poll()) != null) {
+                batch[count++] = response;
+            }
+            if (count == 0) {
+                return true;
+            }
+
+            Packet packet;
+            if (count == 1) {
+                packet = newResponsePacket(batch[0], false);
+            } else {
+                packet = toResponseBatchPacket(batch, count);
+            }
+
+            for (int k = 0; k < count; k++) {
+                batch[k] = null;
+            }
+            boolean sent = transmit(target, packet);
+            if (!sent && (drain || count > 1)) {
+                // the other responses of the batch were queued by the threads
+                // which have been told they were accepted
+                logger.warning("Cannot send a batch of " + count + " responses to " + target);
+            }
+            return sent;
+        }
+    }
 }
@@ -43,11 +43,16 @@ public abstract class AbstractCallIdSequence implements CallIdSequence {
 
     private final int maxConcurrentInvocations;
 
+    // the number of concurrent invocations currently allowed; it's equal to the
+    // maxConcurrentInvocations unless lowered by an adaptive backpressure controller
+    private volatile int concurrencyLimit;
+
     public AbstractCallIdSequence(int maxConcurrentInvocations) {
         checkPositive(maxConcurrentInvocations,
                 "maxConcurrentInvocations should be a positive number. maxConcurrentInvocations=" + maxConcurrentInvocations);
 
         this.maxConcurrentInvocations = maxConcurrentInvocations;
+        this.concurrencyLimit = maxConcurrentInvocations;
     }
 
     @Override
@@ -70,6 +75,38 @@ public abstract class AbstractCallIdSequence implements CallIdSequence {
         return maxConcurrentInvocations;
     }
 
+    /**
+     * Returns the number of concurrent invocations currently allowed.
+     *
+     * @return the concurrency limit.
+     */
+    public int getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    /**
+     * Sets the number of concurrent invocations allowed. The limit is capped by
+     * the {@link #getMaxConcurrentInvocations() maxConcurrentInvocations}.
+     * Lowering the limit doesn't affect the invocations already in flight.
+     *
+     * @param concurrencyLimit the new concurrency limit.
+     * @throws IllegalArgumentException if the limit isn't positive.
+     */
+    public void setConcurrencyLimit(int concurrencyLimit) {
+        checkPositive(concurrencyLimit, "concurrencyLimit should be a positive number. concurrencyLimit=" + concurrencyLimit);
+
+        this.concurrencyLimit = Math.min(concurrencyLimit, maxConcurrentInvocations);
+    }
+
+    /**
+     * Returns the number of the invocations in flight.
+     *
+     * @return the number of the concurrent invocations.
+     */
+    public int getConcurrentInvocations() {
+        return (int) (longs.get(INDEX_HEAD) - longs.get(INDEX_TAIL));
+    }
+
     @Override
     public void complete() {
         long newTail = longs.incrementAndGet(INDEX_TAIL);
@@ -85,7 +122,7 @@ public abstract class AbstractCallIdSequence implements CallIdSequence {
     }
 
     protected boolean hasSpace() {
-        return longs.get(INDEX_HEAD) - longs.get(INDEX_TAIL) < maxConcurrentInvocations;
+        return longs.get(INDEX_HEAD) - longs.get(INDEX_TAIL) < concurrencyLimit;
     }
 
 }
@@ -96,6 +96,54 @@ public final class GroupProperty {
     public static final HazelcastProperty PRIORITY_GENERIC_OPERATION_THREAD_COUNT
             = new HazelcastProperty("hazelcast.operation.priority.generic.thread.count", 1);
 
+    /**
+     * If enabled, the operations implementing {@link com.hazelcast.spi.impl.BulkOperation}, e.g. partition-wide entry
+     * processing, queries and putAll operations, and the operations listed in {@link #OPERATION_BULK_CLASSES} are queued
+     * in a separate bulk lane of the partition and generic operation queues. When both lanes have pending operations, the
+     * operation threads take {@link #OPERATION_BULK_LANE_RATIO} regular operations for every bulk operation, so the small
+     * operations don't have to wait behind a flood of bulk operations. The urgent operations keep precedence over both.
+     * <p/>
+     * Note that a regular operation may overtake a bulk operation sent earlier to the same partition, the operations of
+     * a partition are executed in the order they were sent only within each of the lanes.
+     * <p/>
+     * The default is false.
+     */
+    public static final HazelcastProperty OPERATION_BULK_LANE_ENABLED
+            = new HazelcastProperty("hazelcast.operation.bulk.lane.enabled", false);
+
+    /**
+     * The number of regular operations an operation thread takes for every bulk operation when both the regular and the
+     * bulk lane of its queue have pending operations. See {@link #OPERATION_BULK_LANE_ENABLED}.
+     * <p/>
+     * The default is 8.
+     */
+    public static final HazelcastProperty OPERATION_BULK_LANE_RATIO
+            = new HazelcastProperty("hazelcast.operation.bulk.lane.ratio", 8);
+
+    /**
+     * A comma separated list of the fully qualified class names of the operations to put into the bulk lane in addition
+     * to the operations implementing {@link com.hazelcast.spi.impl.BulkOperation}. See
+     * {@link #OPERATION_BULK_LANE_ENABLED}.
+     * <p/>
+     * The default is empty.
+     */
+    public static final HazelcastProperty OPERATION_BULK_CLASSES
+            = new HazelcastProperty("hazelcast.operation.bulk.classes", "");
+
+    /**
+     * If enabled, the operation threads record the time the operations wait in the queue and the time they take to
+     * execute into latency histograms, per operation thread and per operation class. The count, mean, max, p50, p90, p99
+     * and p999 of the histograms are exposed as metrics, e.g.
+     * {@code operation.latency[com.hazelcast.map.impl.operation.GetOperation].execution.p99Micros}, so they also show up
+     * in the output of the {@link com.hazelcast.internal.diagnostics.MetricsPlugin}.
+     * <p/>
+     * The overhead is a few {@link System#nanoTime()} calls per operation.
+     * <p/>
+     * The default is false.
+     */
+    public static final HazelcastProperty OPERATION_LATENCY_HISTOGRAMS_ENABLED
+            = new HazelcastProperty("hazelcast.operation.latency.histograms.enabled", false);
+
     /**
      * The number of threads that process responses.
      * <p>
@@ -108,6 +156,22 @@ public final class GroupProperty {
     public static final HazelcastProperty RESPONSE_THREAD_COUNT
             = new HazelcastProperty("hazelcast.operation.response.thread.count", 2);
 
+    /**
+     * If enabled, the backup acks and the small responses sent concurrently
+     * to the same member are coalesced into a single packet. The responses
+     * are never delayed for the sake of batching; they are only batched if
+     * they pile up while another response is being sent, e.g. under a high
+     * write throughput with synchronous backups. This reduces the number of
+     * packets the members have to send, receive and hand over to the
+     * response threads.
+     * <p>
+     * The batching is used only if the cluster version is 3.12 or higher.
+     * <p>
+     * The default is false.
+     */
+    public static final HazelcastProperty RESPONSE_BATCHING_ENABLED
+            = new HazelcastProperty("hazelcast.operation.response.batching.enabled", false);
+
     /**
      * The number of threads that the client engine has available for processing requests that are not partition specific.
      * Most of the requests, such as {@code map.put} and {@code map.get}, are partition specific and will use a
@@ -229,6 +293,77 @@ public final class GroupProperty {
     public static final HazelcastProperty IO_BALANCER_INTERVAL_SECONDS
             = new HazelcastProperty("hazelcast.io.balancer.interval.seconds", 20, SECONDS);
 
+    /**
+     * If enabled, a thread writing a packet to a connection with nothing
+     * pending writes it to the socket directly, e.g. a partition thread
+     * sending a response, instead of handing it over to an output thread.
+     * This saves a thread handover and a selector wakeup per packet, which
+     * dominate the latency of small operations like map get/put. If the
+     * packet can't be written completely, the output thread takes over.
+     * <p/>
+     * The default is false.
+     */
+    public static final HazelcastProperty IO_WRITE_THROUGH_ENABLED
+            = new HazelcastProperty("hazelcast.io.write.through.enabled", false);
+
+    /**
+     * If enabled, the packets sent to other members are written to the socket
+     * using gathering writes: the payloads of large packets are written
+     * straight from the packets instead of being copied into the socket send
+     * buffer first, and the writes aren't limited by the size of the send
+     * buffer. This reduces the CPU usage of the members sending many large
+     * packets, e.g. backups and events.
+     * <p/>
+     * The default is false.
+     */
+    public static final HazelcastProperty IO_GATHERING_WRITE_ENABLED
+            = new HazelcastProperty("hazelcast.io.gathering.write.enabled", false);
+
+    /**
+     * If enabled, the connections borrow their receive and send buffers from
+     * a pool shared by all the connections of the member only while they have
+     * data in flight, instead of holding on to their own buffers for their
+     * whole lifetime. This reduces the memory held by members with many
+     * mostly idle connections, e.g. thousands of clients.
+     * <p/>
+     * The default is false.
+     */
+    public static final HazelcastProperty IO_BUFFER_POOL_ENABLED
+            = new HazelcastProperty("hazelcast.io.buffer.pool.enabled", false);
+
+    /**
+     * The maximum total size in MB of the idle buffers kept by the pool when
+     * {@link #IO_BUFFER_POOL_ENABLED} is set. The buffers released over the
+     * limit are left to the garbage collector.
+     * <p/>
+     * The default is 64 MB.
+     */
+    public static final HazelcastProperty IO_BUFFER_POOL_MAX_SIZE
+            = new HazelcastProperty("hazelcast.io.buffer.pool.max.size", 64);
+
+    /**
+     * If enabled, the payloads of the incoming operation packets of at least
+     * 4 KB are read into buffers borrowed from a pool instead of into newly
+     * allocated arrays. The operation is deserialized straight from the pooled
+     * buffer, which is returned to the pool as soon as the operation is
+     * constructed. This reduces the allocation rate and the GC pressure caused
+     * by large operations, e.g. putAll operations.
+     * <p/>
+     * The default is false.
+     */
+    public static final HazelcastProperty IO_PAYLOAD_POOL_ENABLED
+            = new HazelcastProperty("hazelcast.io.payload.pool.enabled", false);
+
+    /**
+     * The maximum total size in MB of the idle payload buffers kept by the
+     * pool when {@link #IO_PAYLOAD_POOL_ENABLED} is set. The buffers released
+     * over the limit are left to the garbage collector.
+     * <p/>
+     * The default is 64 MB.
+     */
+    public static final HazelcastProperty IO_PAYLOAD_POOL_MAX_SIZE
+            = new HazelcastProperty("hazelcast.io.payload.pool.max.size", 64);
+
     @SuppressWarnings("checkstyle:constantname")
     public static final HazelcastProperty PREFER_IPv4_STACK
             = new HazelcastProperty("hazelcast.prefer.ipv4.stack", true);
@@ -587,6 +722,27 @@ public final class GroupProperty {
     public static final HazelcastProperty MAP_LOAD_ALL_PUBLISHES_ADDED_EVENT
             = new HazelcastProperty("hazelcast.map.loadAll.publishes.added.event", false);
 
+    /**
+     * Controls whether the IMap records count the hits of their entries
+     * when the map statistics are disabled. When this property is set to
+     * false, the maps which don't need the hit counts use a compact record
+     * layout without them, which saves 8 bytes per entry. For these maps
+     * {@link com.hazelcast.core.EntryView#getHits()} returns 0, the hit
+     * counts are not replicated and the merge policies, including custom
+     * {@link com.hazelcast.spi.merge.SplitBrainMergePolicy} implementations,
+     * see 0 hits for the entries.
+     * <p>
+     * The hits are always counted for the maps with statistics enabled,
+     * the LFU or a custom eviction policy, or a higher-hits split-brain or
+     * WAN merge policy.
+     * <p>
+     * Default: true
+     *
+     * @since 3.12
+     */
+    public static final HazelcastProperty MAP_ENTRY_HITS_TRACKING_ENABLED
+            = new HazelcastProperty("hazelcast.map.entry.hits.tracking.enabled", true);
+
     public static final HazelcastProperty LOGGING_TYPE
             = new HazelcastProperty("hazelcast.logging.type", "jdk");
 
@@ -799,6 +955,43 @@ public final class GroupProperty {
     public static final HazelcastProperty BACKPRESSURE_MAX_CONCURRENT_INVOCATIONS_PER_PARTITION
             = new HazelcastProperty("hazelcast.backpressure.max.concurrent.invocations.per.partition", 100);
 
+    /**
+     * If enabled, the number of concurrent invocations allowed by the back pressure isn't fixed, but adapted to the
+     * measured load of the member: it's lowered multiplicatively while the operations queue on the partition threads
+     * for longer than {@link #BACKPRESSURE_ADAPTIVE_TARGET_QUEUE_DELAY_MILLIS} or while the write queue of a connection
+     * exceeds {@link #BACKPRESSURE_ADAPTIVE_MAX_WRITE_QUEUE_SIZE}, and raised additively again once the load is gone.
+     * The limit never exceeds the limit given by {@link #BACKPRESSURE_MAX_CONCURRENT_INVOCATIONS_PER_PARTITION} and
+     * never drops below 1 invocation per partition.
+     * <p/>
+     * This property only has meaning when backpressure is enabled.
+     * <p/>
+     * The default is false.
+     */
+    public static final HazelcastProperty BACKPRESSURE_ADAPTIVE_ENABLED
+            = new HazelcastProperty("hazelcast.backpressure.adaptive.enabled", false);
+
+    /**
+     * The queueing delay of the operations on the partition threads in millis above which the adaptive back pressure
+     * lowers the number of concurrent invocations allowed.
+     * <p/>
+     * This property only has meaning when adaptive backpressure is enabled.
+     * <p/>
+     * The default is 20 millis.
+     */
+    public static final HazelcastProperty BACKPRESSURE_ADAPTIVE_TARGET_QUEUE_DELAY_MILLIS
+            = new HazelcastProperty("hazelcast.backpressure.adaptive.target.queue.delay.millis", 20, MILLISECONDS);
+
+    /**
+     * The number of pending frames in the write queue of a connection above which the adaptive back pressure lowers the
+     * number of concurrent invocations allowed.
+     * <p/>
+     * This property only has meaning when adaptive backpressure is enabled.
+     * <p/>
+     * The default is 10000.
+     */
+    public static final HazelcastProperty BACKPRESSURE_ADAPTIVE_MAX_WRITE_QUEUE_SIZE
+            = new HazelcastProperty("hazelcast.backpressure.adaptive.max.write.queue.size", 10000);
+
     /**
      * Run Query Evaluations for multiple partitions in parallel.
      * <p/>
@@ -813,6 +1006,39 @@ public final class GroupProperty {
     public static final HazelcastProperty QUERY_PREDICATE_PARALLEL_EVALUATION
             = new HazelcastProperty("hazelcast.query.predicate.parallel.evaluation", false);
 
+    /**
+     * Balance the parallel query evaluation using the work stealing between the partition chunks.
+     * <p/>
+     * Applicable only if {@link #QUERY_PREDICATE_PARALLEL_EVALUATION} is enabled. By default, every partition is
+     * evaluated by a single thread, so a single large partition of a skewed map may dominate the query latency.
+     * When enabled, the partitions are scanned in chunks of {@link #QUERY_PREDICATE_PARALLEL_EVALUATION_CHUNK_SIZE}
+     * entries and the threads which have no partitions left to scan steal the chunks of the partitions which are still
+     * being scanned.
+     * <p/>
+     * The default is false.
+     */
+    public static final HazelcastProperty QUERY_PREDICATE_PARALLEL_EVALUATION_WORK_STEALING
+            = new HazelcastProperty("hazelcast.query.predicate.parallel.evaluation.work.stealing", false);
+
+    /**
+     * The maximum number of threads evaluating a single query when the
+     * {@link #QUERY_PREDICATE_PARALLEL_EVALUATION_WORK_STEALING work stealing} is enabled, including the thread
+     * running the query operation.
+     * <p/>
+     * The default is -1, which means the number of available processors.
+     */
+    public static final HazelcastProperty QUERY_PREDICATE_PARALLEL_EVALUATION_PARALLELISM
+            = new HazelcastProperty("hazelcast.query.predicate.parallel.evaluation.parallelism", -1);
+
+    /**
+     * The number of entries in a single partition chunk scanned when the
+     * {@link #QUERY_PREDICATE_PARALLEL_EVALUATION_WORK_STEALING work stealing} is enabled.
+     * <p/>
+     * The default is 1000.
+     */
+    public static final HazelcastProperty QUERY_PREDICATE_PARALLEL_EVALUATION_CHUNK_SIZE
+            = new HazelcastProperty("hazelcast.query.predicate.parallel.evaluation.chunk.size", 1000);
+
     /**
      * Run aggregation accumulation for multiple entries in parallel.
      * <p/>
@@ -860,6 +1086,19 @@ public final class GroupProperty {
     public static final HazelcastProperty QUERY_MAX_LOCAL_PARTITION_LIMIT_FOR_PRE_CHECK
             = new HazelcastProperty("hazelcast.query.max.local.partition.limit.for.precheck", 3);
 
+    /**
+     * Maximum number of partitions scanned by a single query operation sent to a member.
+     * <p/>
+     * By default, a member scans all its partitions for a query and sends the whole result in a single response, so
+     * the member has to hold the full result of a large query in memory at once. When this property is set, the
+     * partitions of a member are requested in chunks of the given size, one chunk after another, and every response is
+     * merged into the final result as soon as it arrives. Queries answered by a global index are not chunked.
+     * <p/>
+     * The feature can be disabled by setting its value to <tt>-1</tt> (which is the default value).
+     */
+    public static final HazelcastProperty QUERY_PARTITION_CHUNK_SIZE
+            = new HazelcastProperty("hazelcast.query.partition.chunk.size", -1);
+
     /**
      * Type of Query Optimizer.
      * Valid Values:
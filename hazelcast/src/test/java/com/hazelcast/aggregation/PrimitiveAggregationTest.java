@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.aggregation;
+
+import com.hazelcast.aggregation.impl.AbstractAggregator;
+import com.hazelcast.config.MapAttributeConfig;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.extractor.ValueCollector;
+import com.hazelcast.query.extractor.ValueExtractor;
+import com.hazelcast.query.impl.QueryEntry;
+import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static com.hazelcast.aggregation.TestSamples.createExtractableEntryWithValue;
+import static com.hazelcast.aggregation.TestSamples.sampleValueContainers;
+import static com.hazelcast.aggregation.ValueContainer.ValueType.DOUBLE;
+import static com.hazelcast.aggregation.ValueContainer.ValueType.INTEGER;
+import static com.hazelcast.aggregation.ValueContainer.ValueType.LONG;
+import static com.hazelcast.aggregation.ValueContainer.ValueType.NUMBER;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Checks that the batched accumulation of the entries, which extracts the
+ * numeric attribute values as primitives, produces the same results as the
+ * accumulation of the entries one by one.
+ */
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class PrimitiveAggregationTest {
+
+    private static final double ERROR = 1e-8;
+
+    private final InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+
+    @Test(timeout = TimeoutInMillis.MINUTE)
+    public void testLongSum() {
+        List<QueryableEntry> entries = entries(LONG);
+        Aggregator<Map.Entry, Long> expected = accumulate(Aggregators.<Map.Entry>longSum("longValue"), entries);
+        Aggregator<Map.Entry, Long> actual = accumulateAll(Aggregators.<Map.Entry>longSum("longValue"), entries);
+
+        assertThat(actual.aggregate(), is(equalTo(expected.aggregate())));
+    }
+
+    @Test(timeout = TimeoutInMillis.MINUTE)
+    public void testLongAvg() {
+        List<QueryableEntry> entries = entries(LONG);
+        Aggregator<Map.Entry, Double> expected = accumulate(Aggregators.<Map.Entry>longAvg("longValue"), entries);
+        Aggregator<Map.Entry, Double> actual = accumulateAll(Aggregators.<Map.Entry>longAvg("longValue"), entries);
+
+        assertThat(actual.aggregate(), is(closeTo(expected.aggregate(), ERROR)));
+    }
+
+    @Test(timeout = TimeoutInMillis.MINUTE)
+    public void testIntegerSum() {
+        List<QueryableEntry> entries = entries(INTEGER);
+        Aggregator<Map.Entry, Long> expected = accumulate(Aggregators.<Map.Entry>integerSum("intValue"), entries);
+        Aggregator<Map.Entry, Long> actual = accumulateAll(Aggregators.<Map.Entry>integerSum("intValue"), entries);
+
+        assertThat(actual.aggregate(), is(equalTo(expected.aggregate())));
+    }
+
+    @Test(timeout = TimeoutInMillis.MINUTE)
+    public void testIntegerAvg() {
+        List<QueryableEntry> entries = entries(INTEGER);
+        Aggregator<Map.Entry, Double> expected = accumulate(Aggregators.<Map.Entry>integerAvg("intValue"), entries);
+        Aggregator<Map.Entry, Double> actual = accumulateAll(Aggregators.<Map.Entry>integerAvg("intValue"), entries);
+
+        assertThat(actual.aggregate(), is(closeTo(expected.aggregate(), ERROR)));
+    }
+
+    @Test(timeout = TimeoutInMillis.MINUTE)
+    public void testDoubleSum() {
+        List<QueryableEntry> entries = entries(DOUBLE);
+        Aggregator<Map.Entry, Double> expected = accumulate(Aggregators.<Map.Entry>doubleSum("doubleValue"), entries);
+        Aggregator<Map.Entry, Double> actual = accumulateAll(Aggregators.<Map.Entry>doubleSum("doubleValue"), entries);
+
+        assertThat(actual.aggregate(), is(closeTo(expected.aggregate(), ERROR)));
+    }
+
+    @Test(timeout = TimeoutInMillis.MINUTE)
+    public void testDoubleAvg() {
+        List<QueryableEntry> entries = entries(DOUBLE);
+        Aggregator<Map.Entry, Double> expected = accumulate(Aggregators.<Map.Entry>doubleAvg("doubleValue"), entries);
+        Aggregator<Map.Entry, Double> actual = accumulateAll(Aggregators.<Map.Entry>doubleAvg("doubleValue"), entries);
+
+        assertThat(actual.aggregate(), is(closeTo(expected.aggregate(), ERROR)));
+    }
+
+    @Test(timeout = TimeoutInMillis.MINUTE)
+    public void testLongSum_boxedAttribute() {
+        List<QueryableEntry> entries = new ArrayList<QueryableEntry>();
+        for (ValueContainer container : sampleValueContainers(NUMBER)) {
+            if (container.numberValue instanceof Long) {
+                entries.add(entry(container));
+            }
+        }
+        Aggregator<Map.Entry, Long> expected = accumulate(Aggregators.<Map.Entry>longSum("numberValue"), entries);
+        Aggregator<Map.Entry, Long> actual = accumulateAll(Aggregators.<Map.Entry>longSum("numberValue"), entries);
+
+        assertThat(actual.aggregate(), is(equalTo(expected.aggregate())));
+    }
+
+    @Test(timeout = TimeoutInMillis.MINUTE)
+    public void testCount() {
+        List<QueryableEntry> entries = entries(LONG);
+        Aggregator<Map.Entry, Long> actual = accumulateAll(Aggregators.<Map.Entry>count(), entries);
+
+        assertThat(actual.aggregate(), is(equalTo((long) entries.size())));
+    }
+
+    @Test(timeout = TimeoutInMillis.MINUTE, expected = NullPointerException.class)
+    public void testLongSum_withNull() {
+        List<QueryableEntry> entries = Collections.singletonList(entry(new ValueContainer()));
+        accumulateAll(Aggregators.<Map.Entry>longSum("numberValue"), entries);
+    }
+
+    @Test(timeout = TimeoutInMillis.MINUTE, expected = ClassCastException.class)
+    public void testLongSum_typeMismatch() {
+        List<QueryableEntry> entries = entries(INTEGER);
+        accumulateAll(Aggregators.<Map.Entry>longSum("intValue"), entries);
+    }
+
+    @Test(timeout = TimeoutInMillis.MINUTE)
+    public void testLongSum_whenAttributeMultiValuedForSomeEntries_thenThoseAccumulatedOneByOne() {
+        // the custom extractor yields the long value twice
+        MapAttributeConfig attributeConfig = new MapAttributeConfig("longValue", TwiceLongValueExtractor.class.getName());
+        Extractors customExtractors = Extractors.newBuilder(ss)
+                .setMapAttributeConfigs(Collections.singletonList(attributeConfig))
+                .build();
+        Extractors defaultExtractors = Extractors.newBuilder(ss).build();
+
+        List<QueryableEntry> entries = new ArrayList<QueryableEntry>();
+        List<ValueContainer> containers = sampleValueContainers(LONG);
+        for (int i = 0; i < containers.size(); i++) {
+            Extractors extractors = i % 2 == 0 ? defaultExtractors : customExtractors;
+            entries.add(new QueryEntry(ss, ss.toData(i), containers.get(i), extractors));
+        }
+        Aggregator<Map.Entry, Long> expected = accumulate(Aggregators.<Map.Entry>longSum("longValue"), entries);
+        Aggregator<Map.Entry, Long> actual = accumulateAll(Aggregators.<Map.Entry>longSum("longValue"), entries);
+
+        assertThat(actual.aggregate(), is(equalTo(expected.aggregate())));
+    }
+
+    private List<QueryableEntry> entries(ValueContainer.ValueType valueType) {
+        List<QueryableEntry> entries = new ArrayList<QueryableEntry>();
+        for (ValueContainer container : sampleValueContainers(valueType)) {
+            entries.add(entry(container));
+        }
+        return entries;
+    }
+
+    private QueryableEntry entry(ValueContainer container) {
+        return (QueryableEntry) createExtractableEntryWithValue(container, ss);
+    }
+
+    private static <R> Aggregator<Map.Entry, R> accumulate(Aggregator<Map.Entry, R> aggregator,
+                                                           List<QueryableEntry> entries) {
+        for (QueryableEntry entry : entries) {
+            aggregator.accumulate(entry);
+        }
+        return aggregator;
+    }
+
+    private static <R> Aggregator<Map.Entry, R> accumulateAll(Aggregator<Map.Entry, R> aggregator,
+                                                              List<QueryableEntry> entries) {
+        ((AbstractAggregator) aggregator).accumulateAll(entries);
+        return aggregator;
+    }
+
+    public static final class TwiceLongValueExtractor extends ValueExtractor<ValueContainer, Object> {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void extract(ValueContainer target, Object argument, ValueCollector collector) {
+            collector.addObject(target.longValue);
+            collector.addObject(target.longValue);
+        }
+    }
+
+}
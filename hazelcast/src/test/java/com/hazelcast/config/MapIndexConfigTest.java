@@ -48,6 +48,21 @@ public class MapIndexConfigTest {
         assertEquals("__key#value", validateIndexAttribute("__key#value"));
     }
 
+    @Test
+    public void testValidation_withCompositeAttribute() {
+        assertEquals("a, b,c", validateIndexAttribute("a, b,c"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testValidation_withEmptyCompositeComponent() {
+        validateIndexAttribute("a, ,c");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testValidation_withDuplicateCompositeComponent() {
+        validateIndexAttribute("a, b, a");
+    }
+
     @Test
     public void testEqualsAndHashCode() {
         assumeDifferentHashCodes();
@@ -2325,6 +2325,25 @@ public class XMLConfigBuilderTest extends HazelcastTestSupport {
         assertIndexEqual("age", true, mapConfig.getMapIndexConfigs().get(1));
     }
 
+    @Test
+    public void testBitmapIndexConfig() {
+        String xml = HAZELCAST_START_TAG
+                + "   <map name=\"people\">\n"
+                + "       <indexes>\n"
+                + "           <index bitmap=\"true\">status</index>\n"
+                + "           <index>name</index>\n"
+                + "       </indexes>"
+                + "   </map>"
+                + HAZELCAST_END_TAG;
+
+        Config config = buildConfig(xml);
+        MapConfig mapConfig = config.getMapConfig("people");
+
+        assertIndexEqual("status", false, mapConfig.getMapIndexConfigs().get(0));
+        assertTrue(mapConfig.getMapIndexConfigs().get(0).isBitmap());
+        assertFalse(mapConfig.getMapIndexConfigs().get(1).isBitmap());
+    }
+
     private static void assertIndexEqual(String expectedAttribute, boolean expectedOrdered, MapIndexConfig indexConfig) {
         assertEquals(expectedAttribute, indexConfig.getAttribute());
         assertEquals(expectedOrdered, indexConfig.isOrdered());
@@ -22,6 +22,7 @@ import com.hazelcast.config.Config;
 import com.hazelcast.config.EvictionConfig;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MapIndexConfig;
 import com.hazelcast.config.NativeMemoryConfig;
 import com.hazelcast.map.merge.MergePolicyProvider;
 import com.hazelcast.spi.NodeEngine;
@@ -105,6 +106,30 @@ public class ConfigValidatorTest extends HazelcastTestSupport {
         checkMapConfig(mapConfig, mapMergePolicyProvider);
     }
 
+    @Test
+    public void checkMapConfig_withBitmapIndex() {
+        MapConfig mapConfig = getMapConfig(BINARY)
+                .addMapIndexConfig(new MapIndexConfig("status", false).setBitmap(true));
+
+        checkMapConfig(mapConfig, mapMergePolicyProvider);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void checkMapConfig_withOrderedBitmapIndex() {
+        MapConfig mapConfig = getMapConfig(BINARY)
+                .addMapIndexConfig(new MapIndexConfig("status", true).setBitmap(true));
+
+        checkMapConfig(mapConfig, mapMergePolicyProvider);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void checkMapConfig_withCompositeBitmapIndex() {
+        MapConfig mapConfig = getMapConfig(BINARY)
+                .addMapIndexConfig(new MapIndexConfig("status, region", false).setBitmap(true));
+
+        checkMapConfig(mapConfig, mapMergePolicyProvider);
+    }
+
     private MapConfig getMapConfig(InMemoryFormat inMemoryFormat) {
         return new MapConfig()
                 .setInMemoryFormat(inMemoryFormat);
@@ -49,6 +49,8 @@ import static com.hazelcast.internal.nearcache.NearCacheTestUtils.createNearCach
 import static com.hazelcast.internal.nearcache.NearCacheTestUtils.getNearCacheKey;
 import static com.hazelcast.internal.nearcache.NearCacheTestUtils.getRecordFromNearCache;
 import static com.hazelcast.internal.nearcache.NearCacheTestUtils.getValueFromNearCache;
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.LONG_SIZE_IN_BYTES;
 import static com.hazelcast.nio.IOUtil.copy;
 import static com.hazelcast.nio.IOUtil.deleteQuietly;
 import static com.hazelcast.nio.IOUtil.getFileFromResources;
@@ -451,11 +453,16 @@ public abstract class AbstractNearCachePreloaderTest<NK, NV> extends HazelcastTe
         assertEqualsFormat("Expected %d Near Cache keys to be stored, but was %d (%s)",
                 keyCount, context.stats.getLastPersistenceKeyCount(), context.stats);
         if (keyCount > 0) {
-            assertTrue(format("Expected the NearCache lastPersistenceWrittenBytes to be > 0 (%s)", context.stats),
-                    context.stats.getLastPersistenceWrittenBytes() > 0);
+            // the key set didn't change since the previous persistence, so nothing has been appended
+            assertEquals(format("Expected the NearCache lastPersistenceWrittenBytes to be 0 (%s)", context.stats),
+                    0, context.stats.getLastPersistenceWrittenBytes());
             assertTrue(format("Expected the Near Cache store file %s to exist (%s)",
                     defaultStoreFile.getAbsolutePath(), context.stats),
                     defaultStoreFile.exists());
+            // each key is stored with its length and hash
+            assertTrue(format("Expected the Near Cache store file %s to contain %d keys (%s)",
+                    defaultStoreFile.getAbsolutePath(), keyCount, context.stats),
+                    defaultStoreFile.length() > keyCount * (INT_SIZE_IN_BYTES + LONG_SIZE_IN_BYTES));
         } else {
             assertEquals(format("Expected the NearCache lastPersistenceWrittenBytes to be 0 (%s)", context.stats),
                     0, context.stats.getLastPersistenceWrittenBytes());
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.nativememory;
+
+import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.internal.memory.impl.StandardMemoryManager;
+import com.hazelcast.internal.nearcache.NearCacheRecord;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.config.EvictionConfig.MaxSizePolicy.ENTRY_COUNT;
+import static com.hazelcast.internal.nearcache.NearCacheRecord.NOT_RESERVED;
+import static com.hazelcast.internal.nearcache.impl.nativememory.NativeMemoryNearCacheRecordStore.SEGMENT_COUNT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class NativeMemoryNearCacheRecordStoreTest {
+
+    private InternalSerializationService serializationService;
+    private StandardMemoryManager memoryManager;
+    private NativeMemoryNearCacheRecordStore<Data, String> store;
+    private long emptyStoreMemory;
+
+    @Before
+    public void setUp() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        memoryManager = new StandardMemoryManager(1 << 20);
+        store = createStore(new NearCacheConfig().setInMemoryFormat(InMemoryFormat.NATIVE));
+        emptyStoreMemory = memoryManager.getUsedMemory();
+    }
+
+    @After
+    public void tearDown() {
+        store.destroy();
+        memoryManager.dispose();
+        serializationService.dispose();
+    }
+
+    @Test
+    public void testPutAndGet() {
+        Data key = serializationService.toData("key");
+        store.put(key, key, "value", null);
+
+        assertEquals("value", store.get(key));
+        assertEquals(1, store.size());
+        assertEquals(1, store.getNearCacheStats().getOwnedEntryCount());
+        assertTrue(store.getNearCacheStats().getOwnedEntryMemoryCost() > 0);
+        assertTrue(memoryManager.getUsedMemory() > emptyStoreMemory);
+    }
+
+    @Test
+    public void testGetRecord_returnsHeapCopy() {
+        Data key = serializationService.toData("key");
+        store.put(key, key, "value", null);
+
+        NearCacheRecord record = store.getRecord(key);
+        store.invalidate(key);
+
+        assertEquals("value", serializationService.toObject(record.getValue()));
+    }
+
+    @Test
+    public void testPut_whenOverwritten_thenOldValueReleased() {
+        Data key = serializationService.toData("key");
+        store.put(key, key, "value", null);
+        long usedMemory = memoryManager.getUsedMemory();
+        long memoryCost = store.getNearCacheStats().getOwnedEntryMemoryCost();
+
+        store.put(key, key, "other", null);
+
+        assertEquals("other", store.get(key));
+        assertEquals(1, store.size());
+        assertEquals(usedMemory, memoryManager.getUsedMemory());
+        assertEquals(memoryCost, store.getNearCacheStats().getOwnedEntryMemoryCost());
+    }
+
+    @Test
+    public void testInvalidate_releasesMemory() {
+        Data key = serializationService.toData("key");
+        store.put(key, key, "value", null);
+
+        store.invalidate(key);
+
+        assertNull(store.get(key));
+        assertEquals(0, store.size());
+        assertEquals(0, store.getNearCacheStats().getOwnedEntryMemoryCost());
+        assertEquals(emptyStoreMemory, memoryManager.getUsedMemory());
+    }
+
+    @Test
+    public void testReserveAndPublish() {
+        Data key = serializationService.toData("key");
+
+        long reservationId = store.tryReserveForUpdate(key, key);
+        assertNotEquals(NOT_RESERVED, reservationId);
+        assertEquals(NOT_RESERVED, store.tryReserveForUpdate(key, key));
+        assertNull(store.get(key));
+
+        assertEquals("value", store.tryPublishReserved(key, "value", reservationId, true));
+        assertEquals("value", store.get(key));
+    }
+
+    @Test
+    public void testClear() {
+        for (int i = 0; i < 100; i++) {
+            Data key = serializationService.toData(i);
+            store.put(key, key, "value-" + i, null);
+        }
+
+        store.clear();
+
+        assertEquals(0, store.size());
+        assertEquals(0, store.getNearCacheStats().getOwnedEntryCount());
+        assertEquals(0, store.getNearCacheStats().getOwnedEntryMemoryCost());
+        assertEquals(emptyStoreMemory, memoryManager.getUsedMemory());
+    }
+
+    @Test
+    public void testEviction_withEntryCount() {
+        store.destroy();
+        EvictionConfig evictionConfig = new EvictionConfig().setMaximumSizePolicy(ENTRY_COUNT).setSize(100);
+        store = createStore(new NearCacheConfig()
+                .setInMemoryFormat(InMemoryFormat.NATIVE)
+                .setEvictionConfig(evictionConfig));
+
+        for (int i = 0; i < 1000; i++) {
+            Data key = serializationService.toData(i);
+            store.put(key, key, "value-" + i, null);
+        }
+
+        int maxSizePerSegment = (100 + SEGMENT_COUNT - 1) / SEGMENT_COUNT;
+        assertTrue(store.size() <= maxSizePerSegment * SEGMENT_COUNT);
+        assertTrue(store.getNearCacheStats().getEvictions() > 0);
+    }
+
+    @Test
+    public void testPut_whenOutOfNativeMemory_thenEntriesEvicted() {
+        store.destroy();
+        memoryManager.dispose();
+        memoryManager = new StandardMemoryManager(1 << 16);
+        store = createStore(new NearCacheConfig().setInMemoryFormat(InMemoryFormat.NATIVE));
+
+        String value = new String(new char[100]);
+        for (int i = 0; i < 10000; i++) {
+            Data key = serializationService.toData(i);
+            store.put(key, key, value, null);
+        }
+
+        assertTrue(store.size() > 0);
+        assertTrue(store.size() < 10000);
+        assertTrue(memoryManager.getUsedMemory() <= memoryManager.getMaxMemory());
+    }
+
+    @Test
+    public void testDestroy_releasesAllMemory() {
+        for (int i = 0; i < 100; i++) {
+            Data key = serializationService.toData(i);
+            store.put(key, key, "value-" + i, null);
+        }
+
+        store.destroy();
+
+        assertEquals(0, memoryManager.getUsedMemory());
+    }
+
+    private NativeMemoryNearCacheRecordStore<Data, String> createStore(NearCacheConfig nearCacheConfig) {
+        NativeMemoryNearCacheRecordStore<Data, String> store = new NativeMemoryNearCacheRecordStore<Data, String>(
+                "test", nearCacheConfig, serializationService, getClass().getClassLoader(), memoryManager);
+        store.initialize();
+        return store;
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.preloader;
+
+import com.hazelcast.config.NearCachePreloaderConfig;
+import com.hazelcast.internal.adapter.DataStructureAdapter;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.monitor.impl.NearCacheStatsImpl;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.nio.IOUtil.closeResource;
+import static com.hazelcast.nio.IOUtil.delete;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Matchers.anySetOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class NearCachePreloaderTest extends HazelcastTestSupport {
+
+    private static final int HEADER_SIZE = 2 * INT_SIZE_IN_BYTES;
+    private static final int RECORD_HEADER_SIZE = INT_SIZE_IN_BYTES + LONG_SIZE_IN_BYTES;
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+
+    private File directory;
+    private File storeFile;
+    private NearCachePreloaderConfig preloaderConfig;
+    private NearCacheStatsImpl stats;
+    private NearCachePreloader<Integer> preloader;
+
+    @Before
+    public void setUp() {
+        String nearCacheName = randomName();
+        directory = new File(randomName());
+        directory.mkdirs();
+        storeFile = new File(directory, "nearCache-" + nearCacheName + ".store");
+        preloaderConfig = new NearCachePreloaderConfig()
+                .setEnabled(true)
+                .setDirectory(directory.getAbsolutePath());
+        stats = new NearCacheStatsImpl();
+        preloader = newPreloader(nearCacheName);
+    }
+
+    @After
+    public void tearDown() {
+        preloader.destroy();
+        delete(directory);
+    }
+
+    @Test
+    public void testStoreKeys_thenAllKeysWritten() {
+        preloader.storeKeys(keys(0, 10).iterator());
+
+        assertEquals(10, stats.getLastPersistenceKeyCount());
+        assertEquals(10 * recordSize(0), stats.getLastPersistenceWrittenBytes());
+        assertEquals(HEADER_SIZE + 10 * recordSize(0), storeFile.length());
+        assertEquals(keys(0, 10), reload());
+    }
+
+    @Test
+    public void testStoreKeys_whenKeysAdded_thenOnlyAddedKeysAppended() {
+        preloader.storeKeys(keys(0, 10).iterator());
+        long fileLength = storeFile.length();
+
+        preloader.storeKeys(keys(0, 15).iterator());
+
+        assertEquals(15, stats.getLastPersistenceKeyCount());
+        assertEquals(5 * recordSize(0), stats.getLastPersistenceWrittenBytes());
+        assertEquals(fileLength + 5 * recordSize(0), storeFile.length());
+        assertEquals(keys(0, 15), reload());
+    }
+
+    @Test
+    public void testStoreKeys_whenKeySetUnchanged_thenNothingAppended() {
+        preloader.storeKeys(keys(0, 10).iterator());
+        long fileLength = storeFile.length();
+
+        preloader.storeKeys(keys(0, 10).iterator());
+
+        assertEquals(10, stats.getLastPersistenceKeyCount());
+        assertEquals(0, stats.getLastPersistenceWrittenBytes());
+        assertEquals(fileLength, storeFile.length());
+    }
+
+    @Test
+    public void testStoreKeys_whenKeysRemoved_thenRemovalRecordsAppended() {
+        preloader.storeKeys(keys(0, 10).iterator());
+        long fileLength = storeFile.length();
+
+        preloader.storeKeys(keys(0, 7).iterator());
+
+        assertEquals(7, stats.getLastPersistenceKeyCount());
+        assertEquals(3 * RECORD_HEADER_SIZE, stats.getLastPersistenceWrittenBytes());
+        assertEquals(fileLength + 3 * RECORD_HEADER_SIZE, storeFile.length());
+        assertEquals(keys(0, 7), reload());
+    }
+
+    @Test
+    public void testStoreKeys_whenAllKeysRemoved_thenStoreFileDeleted() {
+        preloader.storeKeys(keys(0, 10).iterator());
+
+        preloader.storeKeys(Collections.<Integer>emptyList().iterator());
+
+        assertEquals(0, stats.getLastPersistenceKeyCount());
+        assertFalse(storeFile.exists());
+    }
+
+    @Test
+    public void testStoreKeys_whenLogExceedsCompactionFactor_thenKeySetRewritten() {
+        // 10 records
+        preloader.storeKeys(keys(0, 10).iterator());
+        // 5 removal and 5 key records
+        preloader.storeKeys(keys(5, 15).iterator());
+        // 5 removal and 5 key records, the log contains 30 records for 10 keys
+        preloader.storeKeys(keys(10, 20).iterator());
+        assertEquals(HEADER_SIZE + 20 * recordSize(0) + 10 * RECORD_HEADER_SIZE, storeFile.length());
+
+        preloader.storeKeys(keys(10, 20).iterator());
+
+        assertEquals(10, stats.getLastPersistenceKeyCount());
+        assertEquals(10 * recordSize(0), stats.getLastPersistenceWrittenBytes());
+        assertEquals(HEADER_SIZE + 10 * recordSize(0), storeFile.length());
+        assertEquals(keys(10, 20), reload());
+    }
+
+    @Test
+    public void testStoreKeys_whenTooManyKeysToRemember_thenKeySetRewritten() {
+        preloader.setMaxRememberedKeyCount(10);
+        preloader.storeKeys(keys(0, 20).iterator());
+
+        preloader.storeKeys(keys(0, 25).iterator());
+
+        assertEquals(25, stats.getLastPersistenceKeyCount());
+        assertEquals(25 * recordSize(0), stats.getLastPersistenceWrittenBytes());
+        assertEquals(HEADER_SIZE + 25 * recordSize(0), storeFile.length());
+        assertEquals(keys(0, 25), reload());
+    }
+
+    @Test
+    public void testLoadKeys_whenTailTruncated_thenPartialRecordCutOffByNextStore() throws Exception {
+        preloader.storeKeys(keys(0, 10).iterator());
+        preloader.storeKeys(keys(0, 15).iterator());
+        long fileLength = storeFile.length();
+
+        // simulates a crash while the last record was written
+        truncate(storeFile, fileLength - 2);
+        assertEquals(keys(0, 14), reload());
+
+        // the reloaded preloader appends the missing key after the last complete record
+        preloader.storeKeys(keys(0, 15).iterator());
+
+        assertEquals(recordSize(0), stats.getLastPersistenceWrittenBytes());
+        assertEquals(fileLength, storeFile.length());
+        assertEquals(keys(0, 15), reload());
+    }
+
+    @Test
+    public void testLoadKeys_withInterleavedLengthFieldFile() throws Exception {
+        writeInterleavedLengthFieldFile(storeFile, keys(0, 10));
+
+        assertEquals(keys(0, 10), reload());
+
+        // the next store replaces the legacy file with an append-only log
+        preloader.storeKeys(keys(0, 10).iterator());
+
+        assertEquals(10 * recordSize(0), stats.getLastPersistenceWrittenBytes());
+        assertEquals(HEADER_SIZE + 10 * recordSize(0), storeFile.length());
+        assertEquals(keys(0, 10), reload());
+    }
+
+    private NearCachePreloader<Integer> newPreloader(String nearCacheName) {
+        return new NearCachePreloader<Integer>(nearCacheName, preloaderConfig, stats, serializationService);
+    }
+
+    /**
+     * Replaces the pre-loader with a new one and returns the keys it loads.
+     */
+    private Set<Integer> reload() {
+        String nearCacheName = storeFile.getName().substring("nearCache-".length(),
+                storeFile.getName().length() - ".store".length());
+        preloader.destroy();
+        preloader = newPreloader(nearCacheName);
+
+        final Set<Integer> loadedKeys = new HashSet<Integer>();
+        @SuppressWarnings("unchecked")
+        DataStructureAdapter<Object, ?> adapter = mock(DataStructureAdapter.class);
+        when(adapter.getAll(anySetOf(Object.class))).thenAnswer(new Answer<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object answer(InvocationOnMock invocation) {
+                loadedKeys.addAll((Set<Integer>) invocation.getArguments()[0]);
+                return null;
+            }
+        });
+        preloader.loadKeys(adapter);
+        return loadedKeys;
+    }
+
+    private int recordSize(int key) {
+        return RECORD_HEADER_SIZE + serializationService.toData(key).totalSize();
+    }
+
+    private void writeInterleavedLengthFieldFile(File file, Set<Integer> keys) throws IOException {
+        DataOutputStream out = new DataOutputStream(new FileOutputStream(file));
+        try {
+            out.writeInt(0xEA3CAC4E);
+            // INTERLEAVED_LENGTH_FIELD
+            out.writeInt(0);
+            for (Integer key : keys) {
+                Data data = serializationService.toData(key);
+                out.writeInt(data.totalSize());
+                out.write(data.toByteArray());
+            }
+        } finally {
+            closeResource(out);
+        }
+    }
+
+    private static void truncate(File file, long length) throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            randomAccessFile.setLength(length);
+        } finally {
+            closeResource(randomAccessFile);
+        }
+    }
+
+    private static Set<Integer> keys(int from, int to) {
+        Set<Integer> keys = new HashSet<Integer>();
+        for (int i = from; i < to; i++) {
+            keys.add(i);
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.store;
+
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.internal.nearcache.NearCacheRecord;
+import com.hazelcast.internal.nearcache.impl.invalidation.MetaDataContainer;
+import com.hazelcast.internal.nearcache.impl.invalidation.StaleReadDetector;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.UUID;
+
+import static com.hazelcast.internal.nearcache.NearCacheRecord.NOT_RESERVED;
+import static com.hazelcast.internal.nearcache.impl.invalidation.StaleReadDetector.ALWAYS_FRESH;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ReservationFreeReadsTest {
+
+    private static final int KEY = 23;
+    private static final int OTHER_KEY = 42;
+    private static final int VALUE = 2342;
+
+    private final MetaDataContainer metaData = new MetaDataContainer();
+
+    private SerializationService serializationService;
+    private NearCacheDataRecordStore<Object, Object> store;
+    private Data keyData;
+
+    @Before
+    public void setUp() {
+        NearCacheConfig config = new NearCacheConfig()
+                .setInMemoryFormat(InMemoryFormat.BINARY)
+                .setInvalidateOnChange(true);
+
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        keyData = serializationService.toData(KEY);
+        metaData.setUuid(UUID.randomUUID());
+        metaData.setSequence(5);
+
+        store = new NearCacheDataRecordStore<Object, Object>("name", config, serializationService,
+                getClass().getClassLoader());
+        store.setReservationFreeReads(true);
+        store.setStaleReadDetector(new SinglePartitionStaleReadDetector());
+        store.initialize();
+    }
+
+    @After
+    public void tearDown() {
+        store.destroy();
+    }
+
+    @Test
+    public void testPublish_withoutReservedRecord() {
+        long token = store.tryReserveForUpdate(KEY, keyData);
+
+        assertNotEquals(NOT_RESERVED, token);
+        assertEquals(0, store.size());
+
+        assertEquals(VALUE, store.tryPublishReserved(KEY, VALUE, token, true));
+        assertEquals(VALUE, store.get(KEY));
+        assertEquals(1, store.getNearCacheStats().getOwnedEntryCount());
+
+        NearCacheRecord record = store.getRecord(KEY);
+        assertEquals(5, record.getInvalidationSequence());
+        assertTrue(record.hasSameUuid(metaData.getUuid()));
+    }
+
+    @Test
+    public void testConcurrentLoadsOfSameKey() {
+        long token1 = store.tryReserveForUpdate(KEY, keyData);
+        long token2 = store.tryReserveForUpdate(KEY, keyData);
+
+        assertNotEquals(NOT_RESERVED, token2);
+        assertEquals(VALUE, store.tryPublishReserved(KEY, VALUE, token1, true));
+        assertEquals(VALUE, store.tryPublishReserved(KEY, VALUE, token2, true));
+        assertEquals(1, store.size());
+        assertEquals(1, store.getNearCacheStats().getOwnedEntryCount());
+    }
+
+    @Test
+    public void testPublish_whenKeyOfPartitionInvalidated_thenRejected() {
+        long token = store.tryReserveForUpdate(KEY, keyData);
+
+        store.invalidate(OTHER_KEY);
+
+        assertNull(store.tryPublishReserved(KEY, VALUE, token, true));
+        assertNull(store.get(KEY));
+        assertEquals(0, store.getNearCacheStats().getOwnedEntryCount());
+    }
+
+    @Test
+    public void testPublish_whenCleared_thenRejected() {
+        long token = store.tryReserveForUpdate(KEY, keyData);
+
+        store.clear();
+
+        assertNull(store.tryPublishReserved(KEY, VALUE, token, true));
+        assertNull(store.get(KEY));
+    }
+
+    @Test
+    public void testPublish_whenPartitionRepaired_thenRejected() {
+        long token = store.tryReserveForUpdate(KEY, keyData);
+
+        metaData.incrementInvalidationEpoch();
+
+        assertNull(store.tryPublishReserved(KEY, VALUE, token, true));
+        assertNull(store.get(KEY));
+    }
+
+    @Test
+    public void testReserve_whenInvalidationsDisabled_thenReservationUsed() {
+        store.setStaleReadDetector(ALWAYS_FRESH);
+
+        long reservationId = store.tryReserveForUpdate(KEY, keyData);
+
+        assertNotEquals(NOT_RESERVED, reservationId);
+        assertEquals(NOT_RESERVED, store.tryReserveForUpdate(KEY, keyData));
+        assertEquals(VALUE, store.tryPublishReserved(KEY, VALUE, reservationId, true));
+    }
+
+    private class SinglePartitionStaleReadDetector implements StaleReadDetector {
+
+        @Override
+        public boolean isStaleRead(Object key, NearCacheRecord record) {
+            return !record.hasSameUuid(metaData.getUuid())
+                    || record.getInvalidationSequence() < metaData.getStaleSequence();
+        }
+
+        @Override
+        public int getPartitionId(Object key) {
+            return 0;
+        }
+
+        @Override
+        public MetaDataContainer getMetaDataContainer(int partitionId) {
+            return metaData;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking.nio;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.nio.ByteBuffer;
+
+import static com.hazelcast.internal.networking.nio.ByteBufferPool.MIN_CAPACITY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ByteBufferPoolTest {
+
+    private ByteBufferPool pool = new ByteBufferPool(1024 * 1024);
+
+    @Test
+    public void isPooled() {
+        assertFalse(pool.isPooled(3));
+        assertFalse(pool.isPooled(MIN_CAPACITY - 1));
+        assertTrue(pool.isPooled(MIN_CAPACITY));
+        assertTrue(pool.isPooled(128 * 1024));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void acquire_whenCapacityNotPooled() {
+        pool.acquire(MIN_CAPACITY - 1, true);
+    }
+
+    @Test
+    public void acquire_roundsUpToSizeClass() {
+        ByteBuffer buffer = pool.acquire(100 * 1000, true);
+
+        assertEquals(128 * 1024, buffer.capacity());
+        assertTrue(buffer.isDirect());
+        assertEquals(0, buffer.position());
+        assertEquals(buffer.capacity(), buffer.limit());
+    }
+
+    @Test
+    public void acquire_whenReleased_thenReusedCleared() {
+        ByteBuffer buffer = pool.acquire(MIN_CAPACITY, false);
+        buffer.putInt(1).flip();
+        pool.release(buffer);
+
+        ByteBuffer reused = pool.acquire(MIN_CAPACITY, false);
+
+        assertSame(buffer, reused);
+        assertEquals(0, reused.position());
+        assertEquals(reused.capacity(), reused.limit());
+    }
+
+    @Test
+    public void acquire_whenReleasedOtherSizeClassOrKind_thenAllocated() {
+        ByteBuffer buffer = pool.acquire(MIN_CAPACITY, true);
+        pool.release(buffer);
+
+        assertNotSame(buffer, pool.acquire(MIN_CAPACITY, false));
+        assertNotSame(buffer, pool.acquire(2 * MIN_CAPACITY, true));
+        assertSame(buffer, pool.acquire(MIN_CAPACITY, true));
+    }
+
+    @Test
+    public void release_whenNotSizeClassCapacity_thenDiscarded() {
+        ByteBuffer buffer = ByteBuffer.allocate(MIN_CAPACITY + 1);
+        pool.release(buffer);
+
+        assertNotSame(buffer, pool.acquire(MIN_CAPACITY + 1, false));
+    }
+
+    @Test
+    public void release_whenNotAcquiredButSizeClassCapacity_thenPooled() {
+        ByteBuffer buffer = ByteBuffer.allocate(MIN_CAPACITY);
+        pool.release(buffer);
+
+        assertSame(buffer, pool.acquire(MIN_CAPACITY, false));
+    }
+
+    @Test
+    public void release_whenMaxPooledBytesExceeded_thenDiscarded() {
+        pool = new ByteBufferPool(MIN_CAPACITY);
+        ByteBuffer buffer1 = pool.acquire(MIN_CAPACITY, true);
+        ByteBuffer buffer2 = pool.acquire(MIN_CAPACITY, true);
+        pool.release(buffer1);
+        pool.release(buffer2);
+
+        assertSame(buffer1, pool.acquire(MIN_CAPACITY, true));
+        ByteBuffer buffer3 = pool.acquire(MIN_CAPACITY, true);
+        assertNotSame(buffer1, buffer3);
+        assertNotSame(buffer2, buffer3);
+    }
+}
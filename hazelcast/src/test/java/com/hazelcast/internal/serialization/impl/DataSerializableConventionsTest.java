@@ -26,6 +26,9 @@ import com.hazelcast.nio.serialization.DataSerializableFactory;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.nio.serialization.SerializableByConvention;
 import com.hazelcast.query.impl.SkipIndexPredicate;
+import com.hazelcast.query.impl.predicates.BitmapPredicate;
+import com.hazelcast.query.impl.predicates.CompositeEqualPredicate;
+import com.hazelcast.query.impl.predicates.CompositeRangePredicate;
 import com.hazelcast.spi.AbstractLocalOperation;
 import com.hazelcast.spi.annotation.PrivateApi;
 import com.hazelcast.test.HazelcastParallelClassRunner;
@@ -340,6 +343,9 @@ public class DataSerializableConventionsTest {
         whiteList.add(PermissionCollection.class);
         whiteList.add(WanMapEntryView.class);
         whiteList.add(SkipIndexPredicate.class);
+        whiteList.add(CompositeEqualPredicate.class);
+        whiteList.add(CompositeRangePredicate.class);
+        whiteList.add(BitmapPredicate.class);
         return whiteList;
     }
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl;
+
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.memory.impl.StandardMemoryManager;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class NativeMemoryDataTest {
+
+    private InternalSerializationService serializationService;
+    private StandardMemoryManager memoryManager;
+    private MemoryAllocator malloc;
+
+    @Before
+    public void setUp() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        memoryManager = new StandardMemoryManager(1 << 20);
+        malloc = memoryManager.getAllocator();
+    }
+
+    @After
+    public void tearDown() {
+        memoryManager.dispose();
+        serializationService.dispose();
+    }
+
+    @Test
+    public void testCopyOf_isCompatibleWithHeapData() {
+        Data heapData = serializationService.toData("value");
+        NativeMemoryData nativeData = NativeMemoryData.copyOf(heapData, malloc);
+
+        assertEquals(heapData.getType(), nativeData.getType());
+        assertEquals(heapData.totalSize(), nativeData.totalSize());
+        assertEquals(heapData.dataSize(), nativeData.dataSize());
+        assertEquals(heapData.getPartitionHash(), nativeData.getPartitionHash());
+        assertEquals(heapData.hashCode(), nativeData.hashCode());
+        assertEquals(heapData.hash64(), nativeData.hash64());
+        assertArrayEquals(heapData.toByteArray(), nativeData.toByteArray());
+        assertEquals(heapData, nativeData);
+    }
+
+    @Test
+    public void testToHeapData() {
+        Data heapData = serializationService.toData(42L);
+        NativeMemoryData nativeData = NativeMemoryData.copyOf(heapData, malloc);
+
+        HeapData copy = NativeMemoryData.toHeapData(nativeData.address());
+
+        assertEquals(heapData, copy);
+        assertEquals(42L, (long) serializationService.<Long>toObject(copy));
+    }
+
+    @Test
+    public void testEquals_whenDifferentPayload() {
+        NativeMemoryData data1 = NativeMemoryData.copyOf(serializationService.toData("value1"), malloc);
+        NativeMemoryData data2 = NativeMemoryData.copyOf(serializationService.toData("value2"), malloc);
+
+        assertNotEquals(data1, data2);
+    }
+
+    @Test
+    public void testMemoryIsAccounted() {
+        Data heapData = serializationService.toData("value");
+        NativeMemoryData nativeData = NativeMemoryData.copyOf(heapData, malloc);
+
+        assertEquals(nativeData.size(), memoryManager.getUsedMemory());
+        assertEquals(NativeMemoryData.blockSize(heapData.totalSize()), nativeData.size());
+
+        malloc.free(nativeData.address(), nativeData.size());
+        assertEquals(0, memoryManager.getUsedMemory());
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.internal.util.LatencyHistogram.BUCKET_COUNT;
+import static com.hazelcast.internal.util.LatencyHistogram.bucketIndex;
+import static com.hazelcast.internal.util.LatencyHistogram.highestEquivalentValue;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class LatencyHistogramTest {
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    @Test
+    public void whenEmpty() {
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.maxMicros());
+        assertEquals(0, histogram.meanMicros());
+        assertEquals(0, histogram.p99Micros());
+    }
+
+    @Test
+    public void bucketIndex_isContinuousAndMonotonic() {
+        int previous = -1;
+        for (long micros = 0; micros < 100000; micros++) {
+            int index = bucketIndex(micros);
+            assertTrue(index == previous || index == previous + 1);
+            assertTrue(micros <= highestEquivalentValue(index));
+            previous = index;
+        }
+    }
+
+    @Test
+    public void bucketIndex_whenHugeValue_thenLastBucket() {
+        assertEquals(BUCKET_COUNT - 1, bucketIndex(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void highestEquivalentValue_withinPrecision() {
+        for (long micros = 1; micros < 10000000; micros += 997) {
+            long value = highestEquivalentValue(bucketIndex(micros));
+            assertTrue(value >= micros);
+            assertTrue("micros: " + micros + " value: " + value, value <= micros + micros / LatencyHistogram.SUB_BUCKET_COUNT);
+        }
+    }
+
+    @Test
+    public void recordValue() {
+        for (int k = 1; k <= 1000; k++) {
+            histogram.recordValue(MICROSECONDS.toNanos(k));
+        }
+
+        assertEquals(1000, histogram.count());
+        assertEquals(1000, histogram.maxMicros());
+        assertEquals(500, histogram.meanMicros());
+        assertWithinPrecision(500, histogram.p50Micros());
+        assertWithinPrecision(900, histogram.p90Micros());
+        assertWithinPrecision(990, histogram.p99Micros());
+        assertWithinPrecision(999, histogram.p999Micros());
+    }
+
+    @Test
+    public void recordValue_whenOutlier_thenOnlyTailAffected() {
+        for (int k = 0; k < 999; k++) {
+            histogram.recordValue(MICROSECONDS.toNanos(10));
+        }
+        histogram.recordValue(SECONDS.toNanos(1));
+
+        assertEquals(10, histogram.p50Micros());
+        assertEquals(10, histogram.p99Micros());
+        assertEquals(SECONDS.toMicros(1), histogram.maxMicros());
+        assertEquals(SECONDS.toMicros(1), histogram.valueAtPercentile(1));
+    }
+
+    @Test
+    public void recordValue_whenNegative_thenRecordedAsZero() {
+        histogram.recordValue(-1);
+
+        assertEquals(1, histogram.count());
+        assertEquals(0, histogram.maxMicros());
+    }
+
+    @Test
+    public void valueAtPercentile_whenMergedCounts() {
+        LatencyHistogram other = new LatencyHistogram();
+        for (int k = 0; k < 100; k++) {
+            histogram.recordValue(MICROSECONDS.toNanos(1));
+            other.recordValue(MICROSECONDS.toNanos(1000));
+        }
+
+        long[] counts = new long[BUCKET_COUNT];
+        histogram.addCountsTo(counts);
+        other.addCountsTo(counts);
+
+        assertEquals(1, LatencyHistogram.valueAtPercentile(counts, 0.5));
+        assertWithinPrecision(1000, LatencyHistogram.valueAtPercentile(counts, 0.51));
+    }
+
+    private static void assertWithinPrecision(long expected, long actual) {
+        assertTrue("expected: " + expected + " actual: " + actual,
+                actual >= expected && actual <= expected + expected / LatencyHistogram.SUB_BUCKET_COUNT);
+    }
+}
@@ -30,18 +30,23 @@ import static org.mockito.Mockito.mock;
 
 public abstract class AbstractInvalidatorTest extends HazelcastTestSupport {
 
-    private Invalidator invalidator;
+    protected NodeEngineImpl nodeEngineImpl;
+    protected Invalidator invalidator;
     private Data key;
 
     @Before
     public void setUp() {
-        Config config = getBaseConfig();
+        Config config = createConfig();
         HazelcastInstance hz = createHazelcastInstance(config);
-        NodeEngineImpl nodeEngineImpl = getNodeEngineImpl(hz);
+        nodeEngineImpl = getNodeEngineImpl(hz);
         invalidator = createInvalidator(nodeEngineImpl);
         key = mock(Data.class);
     }
 
+    protected Config createConfig() {
+        return getBaseConfig();
+    }
+
     public abstract Invalidator createInvalidator(NodeEngineImpl nodeEngine);
 
     @Test(expected = NullPointerException.class)
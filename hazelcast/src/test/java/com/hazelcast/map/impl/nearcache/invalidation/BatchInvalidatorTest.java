@@ -16,24 +16,77 @@
 
 package com.hazelcast.map.impl.nearcache.invalidation;
 
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.internal.nearcache.impl.invalidation.BatchInvalidator;
 import com.hazelcast.internal.nearcache.impl.invalidation.Invalidator;
+import com.hazelcast.internal.nearcache.impl.invalidation.MetaDataGenerator;
 import com.hazelcast.map.impl.MapService;
+import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.test.HazelcastParallelClassRunner;
 import com.hazelcast.test.annotation.ParallelTest;
 import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
+import static com.hazelcast.internal.nearcache.NearCacheTestUtils.getBaseConfig;
 import static com.hazelcast.internal.nearcache.impl.invalidation.InvalidationUtils.TRUE_FILTER;
+import static org.junit.Assert.assertEquals;
 
 @RunWith(HazelcastParallelClassRunner.class)
 @Category({QuickTest.class, ParallelTest.class})
 public class BatchInvalidatorTest extends AbstractInvalidatorTest {
 
+    @Override
+    protected Config createConfig() {
+        return getBaseConfig()
+                .setProperty(BatchInvalidator.BATCH_CLEAR_THRESHOLD.getName(), "1");
+    }
+
     @Override
     public Invalidator createInvalidator(NodeEngineImpl nodeEngine) {
         return new BatchInvalidator(MapService.SERVICE_NAME, 100, 10, TRUE_FILTER, nodeEngine);
     }
+
+    @Test
+    public void testInvalidate_whenSameKeyInvalidatedInBatch_thenCoalesced() {
+        Data key = nodeEngineImpl.getSerializationService().toData("key");
+        int partitionId = nodeEngineImpl.getPartitionService().getPartitionId(key);
+
+        // the 100th invalidation fills the batch, which is sent immediately
+        for (int i = 0; i < 100; i++) {
+            invalidator.invalidateKey(key, "mapName", i % 2 == 0 ? "sourceUuid" : "otherSourceUuid");
+        }
+
+        assertEquals(1, invalidator.getMetaDataGenerator().currentSequence("mapName", partitionId));
+    }
+
+    @Test
+    public void testInvalidate_whenPartitionExceedsClearThreshold_thenBatchEscalatedToClear() {
+        HazelcastInstance hz = nodeEngineImpl.getHazelcastInstance();
+        int partitionCount = nodeEngineImpl.getPartitionService().getPartitionCount();
+        int clearPartitionId = nodeEngineImpl.getPartitionService().getPartitionId("mapName");
+        int partitionId = (clearPartitionId + 1) % partitionCount;
+
+        // two distinct keys of the same partition fill the batch, so the partition exceeds the threshold
+        Data key = nodeEngineImpl.getSerializationService().toData(generateKeyForPartition(hz, partitionId));
+        Data otherKey;
+        do {
+            otherKey = nodeEngineImpl.getSerializationService().toData(generateKeyForPartition(hz, partitionId));
+        } while (otherKey.equals(key));
+        for (int i = 0; i < 100; i++) {
+            invalidator.invalidateKey(i % 2 == 0 ? key : otherKey, "mapName", "sourceUuid");
+        }
+
+        MetaDataGenerator metaDataGenerator = invalidator.getMetaDataGenerator();
+        long sequenceSum = 0;
+        for (int i = 0; i < partitionCount; i++) {
+            sequenceSum += metaDataGenerator.currentSequence("mapName", i);
+        }
+        assertEquals(0, metaDataGenerator.currentSequence("mapName", partitionId));
+        assertEquals(1, metaDataGenerator.currentSequence("mapName", clearPartitionId));
+        assertEquals(1, sequenceSum);
+    }
 }
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.BufferObjectDataInput;
+import com.hazelcast.nio.BufferObjectDataOutput;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ColumnarQueryResultRowsTest {
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+
+    @Test
+    public void testAddAndGet() {
+        ColumnarQueryResultRows rows = new ColumnarQueryResultRows();
+        List<QueryResultRow> expected = populate(rows, 0, 1000);
+
+        assertEquals(expected, rows);
+        assertEquals(expected.get(500), rows.get(500));
+    }
+
+    @Test
+    public void testNullKeysAndValues() {
+        ColumnarQueryResultRows rows = new ColumnarQueryResultRows();
+        rows.add(null, toData("value"));
+        rows.add(toData("key"), null);
+
+        assertNull(rows.get(0).getKey());
+        assertEquals(toData("value"), rows.get(0).getValue());
+        assertEquals(toData("key"), rows.get(1).getKey());
+        assertNull(rows.get(1).getValue());
+    }
+
+    @Test
+    public void testRemove() {
+        ColumnarQueryResultRows rows = new ColumnarQueryResultRows();
+        List<QueryResultRow> expected = populate(rows, 0, 100);
+
+        rows.remove(0);
+        expected.remove(0);
+        rows.remove(50);
+        expected.remove(50);
+        for (Iterator<QueryResultRow> iterator = rows.iterator(); iterator.hasNext(); ) {
+            if (toObject(iterator.next().getKey()) % 3 == 0) {
+                iterator.remove();
+            }
+        }
+        for (Iterator<QueryResultRow> iterator = expected.iterator(); iterator.hasNext(); ) {
+            if (toObject(iterator.next().getKey()) % 3 == 0) {
+                iterator.remove();
+            }
+        }
+        rows.remove(rows.size() - 1);
+        expected.remove(expected.size() - 1);
+
+        assertEquals(expected, rows);
+    }
+
+    @Test
+    public void testAppendAll() {
+        ColumnarQueryResultRows rows = new ColumnarQueryResultRows();
+        List<QueryResultRow> expected = populate(rows, 0, 10);
+
+        ColumnarQueryResultRows other = new ColumnarQueryResultRows();
+        expected.addAll(populate(other, 10, 500));
+        rows.appendAll(other);
+        rows.appendAll(new ColumnarQueryResultRows());
+
+        assertEquals(expected, rows);
+        assertEquals(490, other.size());
+    }
+
+    @Test
+    public void testSerialization() throws IOException {
+        ColumnarQueryResultRows rows = new ColumnarQueryResultRows();
+        List<QueryResultRow> expected = populate(rows, 0, 300);
+        rows.add(null, toData("value"));
+        expected.add(new QueryResultRow(null, toData("value")));
+
+        BufferObjectDataOutput out = serializationService.createObjectDataOutput();
+        rows.writeData(out);
+        BufferObjectDataInput in = serializationService.createObjectDataInput(out.toByteArray());
+        ColumnarQueryResultRows actual = new ColumnarQueryResultRows();
+        actual.readData(in);
+
+        assertEquals(expected, actual);
+    }
+
+    private List<QueryResultRow> populate(ColumnarQueryResultRows rows, int from, int to) {
+        List<QueryResultRow> expected = new ArrayList<QueryResultRow>();
+        for (int i = from; i < to; ++i) {
+            QueryResultRow row = new QueryResultRow(toData(i), toData("value" + i));
+            rows.add(row);
+            expected.add(row);
+        }
+        return expected;
+    }
+
+    private Data toData(Object object) {
+        return serializationService.toData(object);
+    }
+
+    private int toObject(Data data) {
+        return (Integer) serializationService.toObject(data);
+    }
+
+}
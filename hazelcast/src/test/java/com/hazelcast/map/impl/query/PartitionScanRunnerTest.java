@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.aggregation.Aggregators;
+import com.hazelcast.core.IMap;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.query.impl.QueryEntry;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class PartitionScanRunnerTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    private IMap<Integer, Integer> map;
+
+    @Before
+    public void setup() {
+        map = createHazelcastInstance().getMap(randomMapName());
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            map.put(i, i);
+        }
+    }
+
+    @Test
+    public void testQuery_withReusedEntries() {
+        Predicate<Integer, Integer> predicate = Predicates.greaterEqual("this", 500);
+
+        Set<Integer> expected = new HashSet<Integer>();
+        for (int i = 500; i < ENTRY_COUNT; ++i) {
+            expected.add(i);
+        }
+        assertEquals(expected, map.keySet(predicate));
+        assertEquals(expected, new HashSet<Integer>(map.values(predicate)));
+
+        Set<Map.Entry<Integer, Integer>> entries = map.entrySet(predicate);
+        assertEquals(expected.size(), entries.size());
+        for (Map.Entry<Integer, Integer> entry : entries) {
+            assertEquals(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Test
+    public void testAggregation_withReusedEntries() {
+        Predicate<Integer, Integer> predicate = Predicates.lessThan("this", 500);
+
+        assertEquals(500L, (long) map.aggregate(Aggregators.<Map.Entry<Integer, Integer>>count(), predicate));
+        assertEquals(500, map.aggregate(Aggregators.<Map.Entry<Integer, Integer>, Map.Entry<Integer, Integer>>distinct(), predicate).size());
+    }
+
+    @Test
+    public void testAggregation_retainingEntries() {
+        Predicate<Integer, Integer> predicate = Predicates.lessThan("this", 500);
+
+        Map.Entry<Integer, Integer> max = map.aggregate(Aggregators.<Map.Entry<Integer, Integer>>maxBy("this"), predicate);
+        assertEquals(499, (int) max.getKey());
+        assertEquals(499, (int) max.getValue());
+
+        Collection<Map.Entry<Integer, Integer>> collected = map.aggregate(new CollectingAggregator(), predicate);
+        Set<Integer> keys = new HashSet<Integer>();
+        for (Map.Entry<Integer, Integer> entry : collected) {
+            assertEquals(entry.getKey(), entry.getValue());
+            keys.add(entry.getKey());
+        }
+        assertEquals(500, keys.size());
+    }
+
+    @Test
+    public void testAggregation_inBatches() {
+        Predicate<Integer, Integer> predicate = Predicates.lessThan("this", 500);
+
+        assertEquals(124750L, (long) map.aggregate(Aggregators.<Map.Entry<Integer, Integer>>integerSum("this"), predicate));
+        assertEquals(249.5, map.aggregate(Aggregators.<Map.Entry<Integer, Integer>>integerAvg("this"), predicate), 0.0);
+    }
+
+    @Test
+    public void testAggregationResult_whenMoreEntriesThanBatchSize_thenAllAccumulated() {
+        InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+        Extractors extractors = Extractors.newBuilder(ss).build();
+        AggregationResult result = new AggregationResult(Aggregators.integerSum("this"), ss);
+
+        long expected = 0;
+        for (int i = 0; i < 2 * AggregationResult.BATCH_SIZE + 10; i++) {
+            result.add(new QueryEntry(ss, ss.toData(i), i, extractors));
+            expected += i;
+        }
+
+        assertEquals(expected, (long) result.<Long>getAggregator().aggregate());
+    }
+
+    @Test
+    public void testRetainsEntries() {
+        assertFalse(new AggregationResult(Aggregators.count(), null).retainsEntries());
+        assertTrue(new AggregationResult(Aggregators.integerSum("this"), null).retainsEntries());
+        assertTrue(new AggregationResult(Aggregators.maxBy("this"), null).retainsEntries());
+        assertTrue(new AggregationResult(Aggregators.minBy("this"), null).retainsEntries());
+        assertTrue(new AggregationResult(new CollectingAggregator(), null).retainsEntries());
+    }
+
+    private static class CollectingAggregator
+            extends Aggregator<Map.Entry<Integer, Integer>, Collection<Map.Entry<Integer, Integer>>> {
+
+        private final List<Map.Entry<Integer, Integer>> entries = new ArrayList<Map.Entry<Integer, Integer>>();
+
+        @Override
+        public void accumulate(Map.Entry<Integer, Integer> input) {
+            entries.add(input);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void combine(Aggregator aggregator) {
+            entries.addAll(((CollectingAggregator) aggregator).entries);
+        }
+
+        @Override
+        public Collection<Map.Entry<Integer, Integer>> aggregate() {
+            return entries;
+        }
+
+    }
+
+}
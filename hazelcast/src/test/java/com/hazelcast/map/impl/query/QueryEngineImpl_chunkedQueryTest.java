@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.aggregation.Aggregators;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.nio.Address;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.query.TruePredicate;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Future;
+
+import static com.hazelcast.spi.properties.GroupProperty.PARTITION_COUNT;
+import static com.hazelcast.spi.properties.GroupProperty.QUERY_PARTITION_CHUNK_SIZE;
+import static com.hazelcast.util.IterationType.ENTRY;
+import static com.hazelcast.util.IterationType.KEY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class QueryEngineImpl_chunkedQueryTest extends HazelcastTestSupport {
+
+    private static final int PARTITION_COUNT_VALUE = 101;
+    private static final int CHUNK_SIZE = 10;
+
+    private IMap<Integer, Integer> map;
+    private ChunkRecordingQueryEngine queryEngine;
+
+    @Before
+    public void setup() {
+        Config config = getConfig()
+                .setProperty(PARTITION_COUNT.getName(), String.valueOf(PARTITION_COUNT_VALUE))
+                .setProperty(QUERY_PARTITION_CHUNK_SIZE.getName(), String.valueOf(CHUNK_SIZE));
+        HazelcastInstance[] instances = createHazelcastInstanceFactory(2).newInstances(config);
+        map = instances[0].getMap(randomName());
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i % 10);
+        }
+
+        MapService mapService = getNodeEngineImpl(instances[0]).getService(MapService.SERVICE_NAME);
+        queryEngine = new ChunkRecordingQueryEngine(mapService.getMapServiceContext());
+    }
+
+    @Test
+    public void testPartitionScan_isRequestedInChunks() {
+        Query query = Query.of().mapName(map.getName()).predicate(TruePredicate.INSTANCE).iterationType(ENTRY).build();
+        QueryResult result = (QueryResult) queryEngine.execute(query, Target.ALL_NODES);
+
+        assertEquals(1000, result.size());
+        assertEquals(PARTITION_COUNT_VALUE, result.getPartitionIds().size());
+
+        Set<Integer> requestedPartitions = new HashSet<Integer>();
+        for (List<Integer> chunk : queryEngine.chunks) {
+            assertTrue(chunk.size() <= CHUNK_SIZE);
+            for (int partitionId : chunk) {
+                assertTrue("partition " + partitionId + " requested twice", requestedPartitions.add(partitionId));
+            }
+        }
+        assertEquals(PARTITION_COUNT_VALUE, requestedPartitions.size());
+    }
+
+    @Test
+    public void testPartitionScan_onLocalPartitions() {
+        Query query = Query.of().mapName(map.getName()).predicate(Predicates.equal("this", 3)).iterationType(KEY).build();
+        QueryResult result = (QueryResult) queryEngine.execute(query, Target.LOCAL_NODE);
+
+        int expected = 0;
+        for (Integer key : map.localKeySet()) {
+            if (key % 10 == 3) {
+                expected++;
+            }
+        }
+        assertEquals(expected, result.size());
+        assertTrue(queryEngine.chunks.size() > 1);
+    }
+
+    @Test
+    public void testGlobalIndexQuery_isNotChunked() {
+        map.addIndex("this", false);
+
+        Query query = Query.of().mapName(map.getName()).predicate(Predicates.equal("this", 3)).iterationType(KEY).build();
+        QueryResult result = (QueryResult) queryEngine.execute(query, Target.ALL_NODES);
+
+        assertEquals(100, result.size());
+        // every member answers all its partitions with the first chunk
+        assertEquals(2, queryEngine.chunks.size());
+    }
+
+    @Test
+    public void testAggregation_throughProxy() {
+        long count = map.aggregate(Aggregators.<Map.Entry<Integer, Integer>>count(), Predicates.equal("this", 3));
+        assertEquals(100, count);
+    }
+
+    private static class ChunkRecordingQueryEngine extends QueryEngineImpl {
+
+        private final List<List<Integer>> chunks = new ArrayList<List<Integer>>();
+
+        ChunkRecordingQueryEngine(MapServiceContext mapServiceContext) {
+            super(mapServiceContext);
+        }
+
+        @Override
+        protected Future<Result> dispatchQueryChunkOnQueryThread(Query query, List<Integer> partitionIds, Address address) {
+            chunks.add(partitionIds);
+            return super.dispatchQueryChunkOnQueryThread(query, partitionIds, address);
+        }
+    }
+}
@@ -29,8 +29,13 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
+import java.util.Arrays;
+import java.util.Collections;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastParallelClassRunner.class)
 @Category({QuickTest.class, ParallelTest.class})
@@ -58,6 +63,31 @@ public class QueryResultTest extends HazelcastTestSupport {
         assertEquals(row, actual.iterator().next());
     }
 
+    @Test
+    public void serialization_ofCombinedResult() {
+        QueryResult expected = new QueryResult(IterationType.VALUE, null, null, 100, false);
+        expected.setPartitionIds(Collections.singletonList(0));
+        QueryResult other = new QueryResult(IterationType.VALUE, null, null, 100, false);
+        other.setPartitionIds(Collections.singletonList(1));
+        for (int i = 0; i < 10; ++i) {
+            expected.addRow(new QueryResultRow(null, serializationService.toData("row" + i)));
+            other.addRow(new QueryResultRow(null, serializationService.toData("other" + i)));
+        }
+        expected.combine(other);
+
+        QueryResult actual = clone(expected);
+
+        assertEquals(20, actual.size());
+        assertEquals(expected.getRows(), actual.getRows());
+        assertEquals(Arrays.asList(0, 1), actual.getPartitionIds());
+    }
+
+    @Test
+    public void retainsEntries_onlyWhenOrderAndLimitExpected() {
+        assertFalse(new QueryResult(IterationType.ENTRY, null, serializationService, 100, false).retainsEntries());
+        assertTrue(new QueryResult(IterationType.ENTRY, null, serializationService, 100, true).retainsEntries());
+    }
+
     private QueryResult clone(QueryResult result) {
         Data data = serializationService.toData(result);
         return serializationService.toObject(data);
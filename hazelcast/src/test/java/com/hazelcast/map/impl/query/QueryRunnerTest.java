@@ -32,6 +32,7 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
+import static java.util.Collections.singletonList;
 import static org.junit.Assert.assertEquals;
 
 @RunWith(HazelcastSerialClassRunner.class)
@@ -92,6 +93,36 @@ public class QueryRunnerTest extends HazelcastTestSupport {
         assertEquals(map.get(key), toObject(result.getRows().iterator().next().getValue()));
     }
 
+    @Test
+    public void runFullQuery_onPartitionChunk() {
+        String otherKey = generateKeyForPartition(instance, partitionId + 1);
+        map.put(otherKey, value);
+
+        Predicate predicate = Predicates.equal("this", value);
+        Query query = Query.of().mapName(map.getName()).predicate(predicate).iterationType(IterationType.KEY).build();
+        QueryResult result = (QueryResult) queryRunner.runIndexOrPartitionScanQueryOnOwnedPartitions(query,
+                singletonList(partitionId));
+
+        assertEquals(singletonList(partitionId), result.getPartitionIds());
+        assertEquals(1, result.getRows().size());
+        assertEquals(key, toObject(result.getRows().iterator().next().getKey()));
+    }
+
+    @Test
+    public void runFullQuery_onPartitionChunk_whenGlobalIndexUsed_thenAllOwnedPartitionsCovered() {
+        map.addIndex("this", false);
+        String otherKey = generateKeyForPartition(instance, partitionId + 1);
+        map.put(otherKey, value);
+
+        Predicate predicate = Predicates.equal("this", value);
+        Query query = Query.of().mapName(map.getName()).predicate(predicate).iterationType(IterationType.KEY).build();
+        QueryResult result = (QueryResult) queryRunner.runIndexOrPartitionScanQueryOnOwnedPartitions(query,
+                singletonList(partitionId));
+
+        assertEquals(getPartitionService(instance).getPartitionCount(), result.getPartitionIds().size());
+        assertEquals(2, result.getRows().size());
+    }
+
     private QueryRunner getQueryRunner() {
         MapService mapService = getNodeEngineImpl(instance).getService(MapService.SERVICE_NAME);
         return mapService.getMapServiceContext().getMapQueryRunner("");
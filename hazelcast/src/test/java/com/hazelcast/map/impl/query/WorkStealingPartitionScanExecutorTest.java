@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.aggregation.Aggregators;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.IMap;
+import com.hazelcast.query.PagingPredicate;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class WorkStealingPartitionScanExecutorTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 5000;
+
+    private IMap<Integer, Integer> map;
+
+    @Before
+    public void setup() {
+        Config config = getConfig();
+        config.setProperty(GroupProperty.PARTITION_COUNT.getName(), "3");
+        config.setProperty(GroupProperty.QUERY_PREDICATE_PARALLEL_EVALUATION.getName(), "true");
+        config.setProperty(GroupProperty.QUERY_PREDICATE_PARALLEL_EVALUATION_WORK_STEALING.getName(), "true");
+        config.setProperty(GroupProperty.QUERY_PREDICATE_PARALLEL_EVALUATION_PARALLELISM.getName(), "4");
+        config.setProperty(GroupProperty.QUERY_PREDICATE_PARALLEL_EVALUATION_CHUNK_SIZE.getName(), "17");
+
+        map = createHazelcastInstance(config).getMap(randomMapName());
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            map.put(i, i);
+        }
+    }
+
+    @Test
+    public void testQuery() {
+        Predicate<Integer, Integer> predicate = Predicates.greaterEqual("this", 1000);
+
+        Set<Integer> expected = new HashSet<Integer>();
+        for (int i = 1000; i < ENTRY_COUNT; ++i) {
+            expected.add(i);
+        }
+        assertEquals(expected, map.keySet(predicate));
+        assertEquals(expected, new HashSet<Integer>(map.values(predicate)));
+
+        Set<Map.Entry<Integer, Integer>> entries = map.entrySet(predicate);
+        assertEquals(expected.size(), entries.size());
+        for (Map.Entry<Integer, Integer> entry : entries) {
+            assertEquals(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Test
+    public void testQuery_whenMapResizedConcurrently() throws Exception {
+        final AtomicBoolean stop = new AtomicBoolean();
+        Future mutator = spawn(new Runnable() {
+            @Override
+            public void run() {
+                // grows and shrinks the record stores, the stable entries are not touched
+                while (!stop.get()) {
+                    for (int i = ENTRY_COUNT; i < 3 * ENTRY_COUNT; ++i) {
+                        map.set(i, i);
+                    }
+                    for (int i = ENTRY_COUNT; i < 3 * ENTRY_COUNT; ++i) {
+                        map.delete(i);
+                    }
+                }
+            }
+        });
+
+        Set<Integer> expected = new HashSet<Integer>();
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            expected.add(i);
+        }
+        try {
+            for (int i = 0; i < 20; ++i) {
+                // no stable entry is skipped or returned twice
+                List<Integer> values = new ArrayList<Integer>(map.values(Predicates.lessThan("this", ENTRY_COUNT)));
+                assertEquals(ENTRY_COUNT, values.size());
+                assertEquals(expected, new HashSet<Integer>(values));
+            }
+        } finally {
+            stop.set(true);
+        }
+        mutator.get();
+    }
+
+    @Test
+    public void testQuery_matchingNothing() {
+        assertEquals(0, map.keySet(Predicates.lessThan("this", 0)).size());
+    }
+
+    @Test
+    public void testAggregation() {
+        long expected = 0;
+        for (int i = 0; i < 2500; ++i) {
+            expected += i;
+        }
+        assertEquals(expected, (long) map.aggregate(Aggregators.<Map.Entry<Integer, Integer>>integerSum(),
+                Predicates.lessThan("this", 2500)));
+        assertEquals(ENTRY_COUNT, (long) map.aggregate(Aggregators.<Map.Entry<Integer, Integer>>count()));
+    }
+
+    @Test
+    public void testPaging() {
+        PagingPredicate<Integer, Integer> predicate = new PagingPredicate<Integer, Integer>(
+                Predicates.greaterEqual("this", 100), 50);
+
+        List<Integer> expected = new ArrayList<Integer>();
+        List<Integer> actual = new ArrayList<Integer>();
+        for (int page = 0; page < 3; ++page) {
+            for (int i = 0; i < 50; ++i) {
+                expected.add(100 + page * 50 + i);
+            }
+            actual.addAll(map.values(predicate));
+            predicate.nextPage();
+        }
+        assertEquals(expected, actual);
+    }
+
+}
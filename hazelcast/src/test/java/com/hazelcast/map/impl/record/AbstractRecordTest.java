@@ -44,7 +44,6 @@ public class AbstractRecordTest {
     private ObjectRecord recordOtherVersion;
     private ObjectRecord recordOtherTtl;
     private ObjectRecord recordOtherCreationTime;
-    private ObjectRecord recordOtherHits;
     private ObjectRecord recordOtherLastAccessTime;
     private ObjectRecord recordOtherLastUpdateTime;
 
@@ -69,10 +68,6 @@ public class AbstractRecordTest {
         recordOtherCreationTime.setKey(KEY);
         recordOtherCreationTime.setCreationTime(Clock.currentTimeMillis());
 
-        recordOtherHits = new ObjectRecord(VALUE);
-        recordOtherHits.setKey(KEY);
-        recordOtherHits.setHits(23);
-
         recordOtherLastAccessTime = new ObjectRecord(VALUE);
         recordOtherLastAccessTime.setKey(KEY);
         recordOtherLastAccessTime.setLastAccessTime(Clock.currentTimeMillis());
@@ -96,6 +91,14 @@ public class AbstractRecordTest {
         assertEquals(AbstractRecord.NOT_AVAILABLE, record.getSequence());
     }
 
+    @Test
+    public void testSetHits_doesNothing() {
+        record.setHits(23);
+        record.onAccess(Clock.currentTimeMillis());
+
+        assertEquals(0, record.getHits());
+    }
+
     @Test
     public void testEquals() {
         assertEquals(record, record);
@@ -107,7 +110,6 @@ public class AbstractRecordTest {
         assertNotEquals(record, recordOtherVersion);
         assertNotEquals(record, recordOtherTtl);
         assertNotEquals(record, recordOtherCreationTime);
-        assertNotEquals(record, recordOtherHits);
         assertNotEquals(record, recordOtherLastAccessTime);
         assertNotEquals(record, recordOtherLastUpdateTime);
     }
@@ -121,7 +123,6 @@ public class AbstractRecordTest {
         assertNotEquals(record.hashCode(), recordOtherVersion.hashCode());
         assertNotEquals(record.hashCode(), recordOtherTtl.hashCode());
         assertNotEquals(record.hashCode(), recordOtherCreationTime.hashCode());
-        assertNotEquals(record.hashCode(), recordOtherHits.hashCode());
         assertNotEquals(record.hashCode(), recordOtherLastAccessTime.hashCode());
         assertNotEquals(record.hashCode(), recordOtherLastUpdateTime.hashCode());
     }
@@ -17,14 +17,23 @@
 package com.hazelcast.map.impl.record;
 
 import com.hazelcast.config.CacheDeserializedValues;
+import com.hazelcast.config.EvictionPolicy;
 import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.WanReplicationRef;
+import com.hazelcast.map.eviction.LRUEvictionPolicy;
 import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.merge.HigherHitsMergePolicy;
 import com.hazelcast.test.HazelcastParallelClassRunner;
 import com.hazelcast.test.annotation.ParallelTest;
 import com.hazelcast.test.annotation.QuickTest;
+import com.hazelcast.util.Clock;
+import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
 @RunWith(HazelcastParallelClassRunner.class)
 @Category({QuickTest.class, ParallelTest.class})
 public class DataRecordFactoryTest extends AbstractRecordFactoryTest<Data> {
@@ -38,9 +47,86 @@ public class DataRecordFactoryTest extends AbstractRecordFactoryTest<Data> {
         factory = new DataRecordFactory(mapConfig, serializationService, partitioningStrategy);
     }
 
+    @Test
+    public void testNewRecord_withHitsTrackingDisabled() {
+        newRecordFactoryWithHitsTrackingDisabled(new MapConfig().setStatisticsEnabled(false));
+
+        assertEquals(DataRecord.class, newRecord(factory, data1, object1).getClass());
+    }
+
+    @Test
+    public void testNewRecord_withHitsTrackingDisabledAndStatisticsEnabled() {
+        newRecordFactoryWithHitsTrackingDisabled(new MapConfig().setStatisticsEnabled(true));
+
+        assertInstanceOf(DataRecordWithStats.class, newRecord(factory, data1, object1));
+    }
+
+    @Test
+    public void testNewRecord_withHitsTrackingDisabledAndLFUEviction() {
+        MapConfig mapConfig = new MapConfig()
+                .setStatisticsEnabled(false)
+                .setEvictionPolicy(EvictionPolicy.LFU);
+        newRecordFactoryWithHitsTrackingDisabled(mapConfig);
+
+        assertInstanceOf(DataRecordWithHits.class, newRecord(factory, data1, object1));
+    }
+
+    @Test
+    public void testNewRecord_withHitsTrackingDisabledAndLRUEviction() {
+        MapConfig mapConfig = new MapConfig()
+                .setStatisticsEnabled(false)
+                .setMapEvictionPolicy(new LRUEvictionPolicy());
+        newRecordFactoryWithHitsTrackingDisabled(mapConfig);
+
+        assertEquals(DataRecord.class, newRecord(factory, data1, object1).getClass());
+    }
+
+    @Test
+    public void testNewRecord_withHitsTrackingDisabledAndHigherHitsMergePolicy() {
+        MapConfig mapConfig = new MapConfig().setStatisticsEnabled(false);
+        mapConfig.getMergePolicyConfig().setPolicy(HigherHitsMergePolicy.class.getSimpleName());
+        newRecordFactoryWithHitsTrackingDisabled(mapConfig);
+
+        assertInstanceOf(DataRecordWithHits.class, newRecord(factory, data1, object1));
+    }
+
+    @Test
+    public void testNewRecord_withHitsTrackingDisabledAndHigherHitsWanMergePolicy() {
+        MapConfig mapConfig = new MapConfig().setStatisticsEnabled(false)
+                .setWanReplicationRef(new WanReplicationRef().setMergePolicy(HigherHitsMergePolicy.class.getName()));
+        newRecordFactoryWithHitsTrackingDisabled(mapConfig);
+
+        assertInstanceOf(DataRecordWithHits.class, newRecord(factory, data1, object1));
+    }
+
+    @Test
+    public void testNewRecord_withHitsTrackingEnabled_countsHits() {
+        newRecordFactory(false, CacheDeserializedValues.NEVER);
+        Record<Data> record = newRecord(factory, data1, object1);
+
+        record.onAccess(Clock.currentTimeMillis());
+
+        assertEquals(1, record.getHits());
+    }
+
+    @Test
+    public void testNewRecord_withCompactLayout_costsLessThanRecordWithHits() {
+        newRecordFactoryWithHitsTrackingDisabled(new MapConfig().setStatisticsEnabled(false));
+        Record<Data> compactRecord = newRecord(factory, data1, object1);
+        newRecordFactory(false, CacheDeserializedValues.NEVER);
+        Record<Data> recordWithHits = newRecord(factory, data1, object1);
+
+        assertTrue(compactRecord.getCost() < recordWithHits.getCost());
+    }
+
+    private void newRecordFactoryWithHitsTrackingDisabled(MapConfig mapConfig) {
+        mapConfig.setCacheDeserializedValues(CacheDeserializedValues.NEVER);
+        factory = new DataRecordFactory(mapConfig, serializationService, partitioningStrategy, false);
+    }
+
     @Override
     Class<?> getRecordClass() {
-        return DataRecord.class;
+        return DataRecordWithHits.class;
     }
 
     @Override
@@ -50,7 +136,7 @@ public class DataRecordFactoryTest extends AbstractRecordFactoryTest<Data> {
 
     @Override
     Class<?> getCachedRecordClass() {
-        return CachedDataRecord.class;
+        return CachedDataRecordWithHits.class;
     }
 
     @Override
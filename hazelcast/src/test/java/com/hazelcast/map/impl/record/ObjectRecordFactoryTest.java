@@ -22,9 +22,12 @@ import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.test.HazelcastParallelClassRunner;
 import com.hazelcast.test.annotation.ParallelTest;
 import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
+import static org.junit.Assert.assertEquals;
+
 @RunWith(HazelcastParallelClassRunner.class)
 @Category({QuickTest.class, ParallelTest.class})
 public class ObjectRecordFactoryTest extends AbstractRecordFactoryTest<Object> {
@@ -38,9 +41,16 @@ public class ObjectRecordFactoryTest extends AbstractRecordFactoryTest<Object> {
         factory = new ObjectRecordFactory(mapConfig, serializationService);
     }
 
+    @Test
+    public void testNewRecord_withHitsTrackingDisabled() {
+        factory = new ObjectRecordFactory(new MapConfig().setStatisticsEnabled(false), serializationService, false);
+
+        assertEquals(ObjectRecord.class, newRecord(factory, data1, object1).getClass());
+    }
+
     @Override
     Class<?> getRecordClass() {
-        return ObjectRecord.class;
+        return ObjectRecordWithHits.class;
     }
 
     @Override
@@ -50,7 +60,7 @@ public class ObjectRecordFactoryTest extends AbstractRecordFactoryTest<Object> {
 
     @Override
     Class<?> getCachedRecordClass() {
-        return ObjectRecord.class;
+        return ObjectRecordWithHits.class;
     }
 
     @Override
@@ -31,6 +31,8 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
+import static org.junit.Assert.assertEquals;
+
 /**
  * Uses basic map functionality with different configuration than existing ones.
  * Actually, it tests {@link ObjectRecord#getValue()} and {@link ObjectRecord#setValue(Object)}.
@@ -65,4 +67,13 @@ public class ObjectRecordTest extends HazelcastTestSupport {
         map.put(1, new SampleTestObjects.Employee("tom", 24, true, 10));
         assertSizeEventually(1, map);
     }
+
+    @Test
+    public void testGetHits_withStatisticsDisabled() {
+        map.put(1, new SampleTestObjects.Employee("alex", 26, true, 25));
+        map.get(1);
+        map.get(1);
+
+        assertEquals(2, map.getEntryView(1).getHits());
+    }
 }
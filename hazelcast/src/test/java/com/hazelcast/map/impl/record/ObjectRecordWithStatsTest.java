@@ -39,6 +39,7 @@ public class ObjectRecordWithStatsTest {
 
     private ObjectRecordWithStats record;
     private ObjectRecordWithStats recordSameAttributes;
+    private ObjectRecordWithStats recordOtherHits;
     private ObjectRecordWithStats recordOtherLastStoredTime;
     private ObjectRecordWithStats recordOtherExpirationTime;
     private ObjectRecordWithStats recordOtherKeyAndValue;
@@ -57,6 +58,10 @@ public class ObjectRecordWithStatsTest {
         recordSameAttributes.setKey(key);
         recordSameAttributes.setValue(VALUE);
 
+        recordOtherHits = new ObjectRecordWithStats(VALUE);
+        recordOtherHits.setKey(key);
+        recordOtherHits.setHits(23);
+
         recordOtherLastStoredTime = new ObjectRecordWithStats(VALUE);
         recordOtherLastStoredTime.setKey(key);
         recordOtherLastStoredTime.onStore();
@@ -87,6 +92,13 @@ public class ObjectRecordWithStatsTest {
         assertEquals(0, record.getCost());
     }
 
+    @Test
+    public void testOnAccess_incrementsHits() {
+        record.onAccess(Clock.currentTimeMillis());
+
+        assertEquals(1, record.getHits());
+    }
+
     @Test
     public void testEquals() {
         assertEquals(record, record);
@@ -96,6 +108,7 @@ public class ObjectRecordWithStatsTest {
         assertNotEquals(record, new Object());
 
         assertNotEquals(record, dataRecord);
+        assertNotEquals(record, recordOtherHits);
         assertNotEquals(record, recordOtherLastStoredTime);
         assertNotEquals(record, recordOtherExpirationTime);
         assertNotEquals(record, recordOtherKeyAndValue);
@@ -108,6 +121,7 @@ public class ObjectRecordWithStatsTest {
 
         assumeDifferentHashCodes();
         assertNotEquals(record.hashCode(), dataRecord.hashCode());
+        assertNotEquals(record.hashCode(), recordOtherHits.hashCode());
         assertNotEquals(record.hashCode(), recordOtherLastStoredTime.hashCode());
         assertNotEquals(record.hashCode(), recordOtherExpirationTime.hashCode());
         assertNotEquals(record.hashCode(), recordOtherKeyAndValue.hashCode());
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.core.PartitioningStrategy;
+import com.hazelcast.internal.memory.impl.StandardMemoryManager;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.map.impl.record.NativeDataRecordFactory;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class NativeStorageImplTest {
+
+    private InternalSerializationService serializationService;
+    private StandardMemoryManager memoryManager;
+    private NativeDataRecordFactory recordFactory;
+    private NativeStorageImpl<Record<Data>> storage;
+
+    @Before
+    public void setUp() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        memoryManager = new StandardMemoryManager(1 << 20);
+        MapConfig mapConfig = new MapConfig().setInMemoryFormat(InMemoryFormat.NATIVE);
+        recordFactory = new NativeDataRecordFactory(mapConfig, memoryManager.getAllocator(), serializationService,
+                mock(PartitioningStrategy.class));
+        storage = new NativeStorageImpl<Record<Data>>(recordFactory, serializationService);
+    }
+
+    @After
+    public void tearDown() {
+        storage.destroy(false);
+        memoryManager.dispose();
+        serializationService.dispose();
+    }
+
+    @Test
+    public void testPutAndGet() {
+        Data key = serializationService.toData("key");
+        storage.put(key, recordFactory.newRecord("value"));
+
+        Record<Data> record = storage.get(key);
+        assertEquals("value", serializationService.toObject(record.getValue()));
+        assertTrue(record.getKey() instanceof HeapData);
+        assertEquals(key, record.getKey());
+        assertEquals(1, storage.size());
+        assertTrue(storage.getEntryCostEstimator().getEstimate() > 0);
+    }
+
+    @Test
+    public void testUpdateRecordValue() {
+        Data key = serializationService.toData("key");
+        storage.put(key, recordFactory.newRecord("value"));
+
+        Record<Data> record = storage.get(key);
+        storage.updateRecordValue(key, record, serializationService.toData("newValue"));
+        storage.disposeDeferredBlocks();
+
+        assertEquals("newValue", serializationService.toObject(storage.get(key).getValue()));
+    }
+
+    @Test
+    public void testPut_whenKeyExists_previousRecordDisposed() {
+        Data key = serializationService.toData("key");
+        storage.put(key, recordFactory.newRecord("value"));
+        long usedAfterFirstPut = memoryManager.getUsedMemory();
+
+        storage.put(key, recordFactory.newRecord("value"));
+        storage.disposeDeferredBlocks();
+
+        assertEquals(usedAfterFirstPut, memoryManager.getUsedMemory());
+        assertEquals(1, storage.size());
+    }
+
+    @Test
+    public void testRemoveRecord_releasesMemory() {
+        Data key = serializationService.toData("key");
+        storage.put(key, recordFactory.newRecord("value"));
+
+        storage.removeRecord(storage.get(key));
+        storage.disposeDeferredBlocks();
+
+        assertNull(storage.get(key));
+        assertEquals(0, memoryManager.getUsedMemory());
+        assertEquals(0, storage.getEntryCostEstimator().getEstimate());
+    }
+
+    @Test
+    public void testClear_releasesMemory() {
+        for (int i = 0; i < 100; i++) {
+            storage.put(serializationService.toData(i), recordFactory.newRecord(i));
+        }
+
+        storage.clear(false);
+        storage.disposeDeferredBlocks();
+
+        assertTrue(storage.isEmpty());
+        assertEquals(0, memoryManager.getUsedMemory());
+    }
+}
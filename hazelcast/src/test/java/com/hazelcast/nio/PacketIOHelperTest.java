@@ -16,6 +16,7 @@
 
 package com.hazelcast.nio;
 
+import com.hazelcast.internal.networking.nio.ByteBufferPool;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.SerializationServiceBuilder;
 import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
@@ -37,13 +38,16 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Random;
 
+import static com.hazelcast.nio.Packet.FLAG_OP_RESPONSE;
 import static com.hazelcast.nio.serialization.SerializationConcurrencyTest.FACTORY_ID;
 import static com.hazelcast.nio.serialization.SerializationConcurrencyTest.Person;
 import static com.hazelcast.nio.serialization.SerializationConcurrencyTest.PortableAddress;
 import static com.hazelcast.nio.serialization.SerializationConcurrencyTest.PortablePerson;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -186,6 +190,48 @@ public class PacketIOHelperTest extends HazelcastTestSupport {
         assertPacketEquals(originalPacket, clonedPacket);
     }
 
+    @Test
+    public void readFrom_whenOperationPayloadPooled() {
+        ByteBufferPool payloadPool = new ByteBufferPool(1024 * 1024);
+        packetReader = new PacketIOHelper(payloadPool);
+        InternalSerializationService ss = createSerializationServiceBuilder().build();
+        String value = generateRandomString(10000);
+        Packet originalPacket = new Packet(ss.toBytes(value)).setPacketType(Packet.Type.OPERATION);
+
+        ByteBuffer bb = ByteBuffer.allocate(originalPacket.getFrameLength());
+        assertTrue(packetWriter.writeTo(originalPacket, bb));
+        bb.flip();
+        Packet clonedPacket = packetReader.readFrom(bb);
+
+        assertNotNull(clonedPacket);
+        assertTrue(clonedPacket.isPayloadPooled());
+        assertEquals(originalPacket.totalSize(), clonedPacket.totalSize());
+        assertEquals(originalPacket, clonedPacket);
+        assertEquals(value, ss.toObject(clonedPacket));
+
+        byte[] payload = clonedPacket.toByteArray();
+        clonedPacket.releasePayload();
+        assertFalse(clonedPacket.isPayloadPooled());
+        assertSame(payload, payloadPool.acquire(originalPacket.totalSize(), false).array());
+    }
+
+    @Test
+    public void readFrom_whenResponse_thenPayloadNotPooled() {
+        packetReader = new PacketIOHelper(new ByteBufferPool(1024 * 1024));
+        Packet originalPacket = new Packet(generateRandomString(10000).getBytes())
+                .setPacketType(Packet.Type.OPERATION)
+                .raiseFlags(FLAG_OP_RESPONSE);
+
+        ByteBuffer bb = ByteBuffer.allocate(originalPacket.getFrameLength());
+        assertTrue(packetWriter.writeTo(originalPacket, bb));
+        bb.flip();
+        Packet clonedPacket = packetReader.readFrom(bb);
+
+        assertNotNull(clonedPacket);
+        assertFalse(clonedPacket.isPayloadPooled());
+        assertPacketEquals(originalPacket, clonedPacket);
+    }
+
     private static void assertPacketEquals(Packet originalPacket, Packet clonedPacket) {
         assertEquals(originalPacket.getFlags(), clonedPacket.getFlags());
         assertArrayEquals(originalPacket.toByteArray(), clonedPacket.toByteArray());
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.nio.tcp;
+
+import com.hazelcast.internal.networking.HandlerStatus;
+import com.hazelcast.internal.networking.nio.ByteBufferPool;
+import com.hazelcast.nio.Packet;
+import com.hazelcast.nio.PacketIOHelper;
+import com.hazelcast.nio.tcp.PacketEncoderTest.PacketSupplier;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
+import static com.hazelcast.internal.networking.HandlerStatus.DIRTY;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class GatheringPacketEncoderTest extends HazelcastTestSupport {
+
+    private static final int THRESHOLD = 100;
+
+    private GatheringPacketEncoder encoder;
+    private PacketSupplier src;
+
+    @Before
+    public void setup() {
+        encoder = new GatheringPacketEncoder(THRESHOLD);
+        src = new PacketSupplier();
+        ByteBuffer dst = ByteBuffer.allocate(1000);
+        dst.flip();
+        encoder.dst(dst);
+        encoder.src(src);
+    }
+
+    @Test
+    public void whenSmallAndLargePackets_thenLargePayloadsNotCopied() {
+        List<Packet> packets = new ArrayList<Packet>();
+        packets.add(packet(10, 1));
+        packets.add(packet(5000, 2));
+        packets.add(packet(20, 3));
+        packets.add(packet(THRESHOLD, 4));
+        src.queue.addAll(packets);
+
+        HandlerStatus result = encoder.onWrite();
+
+        assertEquals(CLEAN, result);
+        // [small + header] [large] [small + header] [large]
+        assertEquals(4, encoder.bufferCount());
+        assertSame(packets.get(1).toByteArray(), encoder.buffers()[1].array());
+        assertEquals(packets, readAll(drain(Integer.MAX_VALUE)));
+    }
+
+    @Test
+    public void whenOutputNotFlushed_thenDirty() {
+        Packet packet = packet(5000, 1);
+        src.queue.add(packet);
+        assertEquals(CLEAN, encoder.onWrite());
+
+        ByteBuffer written = drain(100);
+        src.queue.add(packet(10, 2));
+
+        assertEquals(DIRTY, encoder.onWrite());
+        ByteBuffer rest = drain(Integer.MAX_VALUE);
+
+        List<Packet> packets = readAll(concat(written, rest));
+        assertEquals(1, packets.size());
+        assertArrayEquals(packet.toByteArray(), packets.get(0).toByteArray());
+
+        // the pending packet is written once the output is flushed
+        assertEquals(CLEAN, encoder.onWrite());
+        assertEquals(packet(10, 2), readAll(drain(Integer.MAX_VALUE)).get(0));
+    }
+
+    @Test
+    public void whenSmallPacketDoesNotFit_thenContinuedOnNextWrite() {
+        Packet small = packet(THRESHOLD - 1, 1);
+        for (int i = 0; i < 20; i++) {
+            src.queue.add(small);
+        }
+
+        List<Packet> packets = new ArrayList<Packet>();
+        ByteBuffer all = ByteBuffer.allocate(0);
+        HandlerStatus status;
+        do {
+            status = encoder.onWrite();
+            all = concat(all, drain(Integer.MAX_VALUE));
+        } while (status == DIRTY);
+
+        packets.addAll(readAll(all));
+        assertEquals(20, packets.size());
+        for (Packet packet : packets) {
+            assertEquals(small, packet);
+        }
+    }
+
+    @Test
+    public void whenManyLargePackets_thenBufferCountLimited() {
+        int count = GatheringPacketEncoder.MAX_BUFFER_COUNT;
+        for (int i = 0; i < count; i++) {
+            src.queue.add(packet(THRESHOLD * 2, i));
+        }
+
+        assertEquals(DIRTY, encoder.onWrite());
+        List<Packet> packets = new ArrayList<Packet>(readAll(drain(Integer.MAX_VALUE)));
+        assertEquals(CLEAN, encoder.onWrite());
+        packets.addAll(readAll(drain(Integer.MAX_VALUE)));
+
+        assertEquals(count, packets.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, packets.get(i).getPartitionId());
+        }
+    }
+
+    @Test
+    public void whenPooledPayloadArrayLargerThanPayload_thenOnlyPayloadWritten() {
+        Packet original = packet(5000, 1).setPacketType(Packet.Type.OPERATION);
+        ByteBuffer frame = ByteBuffer.allocate(original.getFrameLength());
+        new PacketIOHelper().writeTo(original, frame);
+        frame.flip();
+        Packet pooled = new PacketIOHelper(new ByteBufferPool(1 << 20)).readFrom(frame);
+        assertTrue(pooled.toByteArray().length > pooled.totalSize());
+
+        src.queue.add(pooled);
+        src.queue.add(packet(10, 2));
+        assertEquals(CLEAN, encoder.onWrite());
+
+        assertEquals(original.totalSize(), encoder.buffers()[1].remaining());
+        List<Packet> packets = readAll(drain(Integer.MAX_VALUE));
+        assertEquals(2, packets.size());
+        assertArrayEquals(original.toByteArray(), packets.get(0).toByteArray());
+        assertEquals(packet(10, 2), packets.get(1));
+    }
+
+    private static Packet packet(int payloadSize, int partitionId) {
+        byte[] payload = new byte[payloadSize];
+        for (int i = 0; i < payloadSize; i++) {
+            payload[i] = (byte) (i + partitionId);
+        }
+        return new Packet(payload, partitionId);
+    }
+
+    /**
+     * Consumes up to the given number of bytes from the output of the
+     * encoder, like a gathering write would do.
+     */
+    private ByteBuffer drain(int maxBytes) {
+        ByteBuffer result = ByteBuffer.allocate(1 << 16);
+        for (int i = 0; i < encoder.bufferCount() && result.position() < maxBytes; i++) {
+            ByteBuffer buffer = encoder.buffers()[i];
+            while (buffer.hasRemaining() && result.position() < maxBytes) {
+                result.put(buffer.get());
+            }
+        }
+        result.flip();
+        return result;
+    }
+
+    private static ByteBuffer concat(ByteBuffer first, ByteBuffer second) {
+        ByteBuffer result = ByteBuffer.allocate(first.remaining() + second.remaining());
+        result.put(first).put(second);
+        result.flip();
+        return result;
+    }
+
+    private static List<Packet> readAll(ByteBuffer src) {
+        PacketIOHelper reader = new PacketIOHelper();
+        List<Packet> packets = new ArrayList<Packet>();
+        Packet packet;
+        while ((packet = reader.readFrom(src)) != null) {
+            packets.add(packet);
+        }
+        return packets;
+    }
+}
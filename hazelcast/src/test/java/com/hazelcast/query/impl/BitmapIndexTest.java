@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.SampleTestObjects.Employee;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.query.impl.predicates.AndPredicate;
+import com.hazelcast.query.impl.predicates.BitmapPredicate;
+import com.hazelcast.query.impl.predicates.RuleBasedQueryOptimizer;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import static com.hazelcast.instance.TestUtil.toData;
+import static com.hazelcast.query.Predicates.and;
+import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.greaterThan;
+import static com.hazelcast.query.Predicates.in;
+import static com.hazelcast.query.Predicates.not;
+import static com.hazelcast.query.Predicates.notEqual;
+import static com.hazelcast.query.Predicates.or;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class BitmapIndexTest {
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+    private final RuleBasedQueryOptimizer optimizer = new RuleBasedQueryOptimizer();
+
+    private List<QueryEntry> entries;
+    private Indexes indexes;
+
+    @Before
+    public void before() {
+        entries = new ArrayList<QueryEntry>();
+        for (int i = 0; i < 500; ++i) {
+            String name = i % 7 == 0 ? null : "name" + i % 5;
+            Employee employee = new Employee(name, i % 10, i % 2 == 0, i % 13);
+            entries.add(new QueryEntry(serializationService, toData(i), employee, newExtractors()));
+        }
+
+        indexes = Indexes.newBuilder(serializationService, IndexCopyBehavior.COPY_ON_READ)
+                .bitmapAttributes(Arrays.asList("name", "age", "active"))
+                .build();
+        indexes.addOrGetIndex("name", false);
+        indexes.addOrGetIndex("age", false);
+        indexes.addOrGetIndex("active", false);
+        indexes.addOrGetIndex("salary", false);
+        for (QueryEntry entry : entries) {
+            indexes.saveEntryIndex(entry, null, Index.OperationSource.USER);
+        }
+    }
+
+    @Test
+    public void testBitmapIndexesAreCreatedForConfiguredAttributes() {
+        assertTrue(indexes.getIndex("age") instanceof BitmapIndexImpl);
+        assertFalse(indexes.getIndex("salary") instanceof BitmapIndexImpl);
+
+        Indexes other = Indexes.newBuilder(serializationService, IndexCopyBehavior.COPY_ON_READ)
+                .bitmapAttributes(Arrays.asList("age"))
+                .build();
+        assertFalse(other.addOrGetIndex("age", true) instanceof BitmapIndexImpl);
+    }
+
+    @Test
+    public void testEqualityLookupProducesBitmap() {
+        assertTrue(indexes.getIndex("age").getRecords(3) instanceof BitmapResultSet);
+        assertTrue(indexes.getIndex("age").getRecords(new Comparable[]{3, 4}) instanceof BitmapResultSet);
+        assertQuery(equal("age", 3));
+        assertQuery(equal("name", null));
+    }
+
+    @Test
+    public void testConjunction() {
+        Predicate optimized = optimizer.optimize(and(equal("age", 4), equal("active", true)), indexes);
+        assertTrue(optimized instanceof BitmapPredicate);
+
+        assertQuery(and(equal("age", 4), equal("active", true)));
+        assertQuery(and(equal("age", 4), equal("active", false)));
+        assertQuery(and(in("age", 1, 2, 3), equal("active", true), equal("name", "name2")));
+    }
+
+    @Test
+    public void testConjunction_withNonBitmapPredicates() {
+        Predicate predicate = and(equal("age", 4), equal("active", true), greaterThan("salary", 5));
+        Predicate optimized = optimizer.optimize(predicate, indexes);
+        assertTrue(optimized instanceof AndPredicate);
+        assertQuery(predicate);
+    }
+
+    @Test
+    public void testSingleBitmapOperand_isNotRewritten() {
+        Predicate predicate = and(equal("age", 4), greaterThan("salary", 5));
+        assertSame(predicate, optimizer.optimize(predicate, indexes));
+    }
+
+    @Test
+    public void testDisjunction() {
+        Predicate optimized = optimizer.optimize(or(equal("age", 4), equal("active", true)), indexes);
+        assertTrue(optimized instanceof BitmapPredicate);
+
+        assertQuery(or(equal("age", 4), equal("active", true)));
+        assertQuery(or(equal("name", null), and(equal("age", 1), equal("active", false))));
+        assertQuery(or(equal("age", 4), greaterThan("salary", 5)));
+    }
+
+    @Test
+    public void testNegation() {
+        assertQuery(not(and(equal("age", 4), equal("active", true))));
+        assertQuery(not(or(equal("age", 4), equal("name", "name1"))));
+        assertQuery(and(notEqual("age", 4), equal("active", true)));
+        assertQuery(and(notEqual("name", null), notEqual("age", 2)));
+        assertQuery(and(not(in("age", 1, 2)), equal("name", null)));
+    }
+
+    @Test
+    public void testQueryAfterUpdatesAndRemovals() {
+        for (int i = 0; i < entries.size(); i += 3) {
+            QueryEntry entry = entries.get(i);
+            indexes.removeEntryIndex(entry.getKeyData(), entry.getValue(), Index.OperationSource.USER);
+        }
+        for (int i = 1; i < entries.size(); i += 3) {
+            QueryEntry entry = entries.get(i);
+            Employee employee = new Employee("name" + i % 3, i % 4, i % 3 == 0, i % 7);
+            QueryEntry updated = new QueryEntry(serializationService, entry.getKeyData(), employee, newExtractors());
+            indexes.saveEntryIndex(updated, entry.getValue(), Index.OperationSource.USER);
+            entries.set(i, updated);
+        }
+        List<QueryEntry> remaining = new ArrayList<QueryEntry>();
+        for (int i = 0; i < entries.size(); ++i) {
+            if (i % 3 != 0) {
+                remaining.add(entries.get(i));
+            }
+        }
+        entries = remaining;
+
+        assertQuery(equal("age", 2));
+        assertQuery(and(equal("age", 2), equal("active", true)));
+        assertQuery(or(equal("age", 2), equal("name", "name1")));
+        assertQuery(and(notEqual("age", 2), equal("active", false)));
+    }
+
+    @Test
+    public void testResultSet_whenOrdinalIsReusedDuringIteration_thenNewEntryIsNotReturned() {
+        BitmapResultSet result = (BitmapResultSet) indexes.getIndex("age").getRecords(3);
+        Iterator<QueryableEntry> iterator = result.iterator();
+        QueryableEntry first = iterator.next();
+
+        // remove a matching entry not returned yet and insert another key,
+        // the released ordinal is reused for it right away
+        QueryEntry removed = entries.get(43);
+        assertEquals(3, ((Employee) removed.getValue()).getAge());
+        indexes.removeEntryIndex(removed.getKeyData(), removed.getValue(), Index.OperationSource.USER);
+        QueryEntry inserted = new QueryEntry(serializationService, toData(1000), new Employee("name0", 4, true, 0),
+                newExtractors());
+        indexes.saveEntryIndex(inserted, null, Index.OperationSource.USER);
+
+        Set<QueryableEntry> iterated = new HashSet<QueryableEntry>();
+        iterated.add(first);
+        while (iterator.hasNext()) {
+            iterated.add(iterator.next());
+        }
+
+        Set<QueryableEntry> expected = new HashSet<QueryableEntry>();
+        for (QueryEntry entry : entries) {
+            if (((Employee) entry.getValue()).getAge() == 3 && entry != removed) {
+                expected.add(entry);
+            }
+        }
+        assertEquals(expected, iterated);
+        assertEquals(expected, new HashSet<QueryableEntry>(result));
+        assertEquals(expected.size(), result.size());
+        assertFalse(result.contains(inserted));
+        assertFalse(result.contains(removed));
+        assertFalse(result.complement().contains(inserted));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void assertQuery(Predicate predicate) {
+        Set<QueryableEntry> expected = new HashSet<QueryableEntry>();
+        for (QueryEntry entry : entries) {
+            if (predicate.apply(entry)) {
+                expected.add(entry);
+            }
+        }
+
+        Predicate optimized = optimizer.optimize(predicate, indexes);
+        Set<QueryableEntry> result = indexes.query(optimized);
+        assertNotNull(result);
+        assertEquals(expected, new HashSet<QueryableEntry>(result));
+        assertEquals(expected.size(), result.size());
+        for (QueryEntry entry : entries) {
+            assertEquals(predicate.apply(entry), optimized.apply(entry));
+        }
+    }
+
+    private Extractors newExtractors() {
+        return Extractors.newBuilder(serializationService).build();
+    }
+
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.SampleTestObjects.Employee;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.query.impl.predicates.AndPredicate;
+import com.hazelcast.query.impl.predicates.CompositeEqualPredicate;
+import com.hazelcast.query.impl.predicates.CompositeRangePredicate;
+import com.hazelcast.query.impl.predicates.EqualPredicate;
+import com.hazelcast.query.impl.predicates.RuleBasedQueryOptimizer;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.hazelcast.instance.TestUtil.toData;
+import static com.hazelcast.query.Predicates.and;
+import static com.hazelcast.query.Predicates.between;
+import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.greaterEqual;
+import static com.hazelcast.query.Predicates.greaterThan;
+import static com.hazelcast.query.Predicates.lessEqual;
+import static com.hazelcast.query.Predicates.lessThan;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class CompositeIndexTest {
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+    private final RuleBasedQueryOptimizer optimizer = new RuleBasedQueryOptimizer();
+
+    private List<QueryEntry> entries;
+
+    @Before
+    public void before() {
+        entries = new ArrayList<QueryEntry>();
+        for (int i = 0; i < 500; ++i) {
+            String name = i % 7 == 0 ? null : "name" + i % 5;
+            Employee employee = new Employee(name, i % 10, i % 2 == 0, i % 13);
+            entries.add(new QueryEntry(serializationService, toData(i), employee, newExtractors()));
+        }
+    }
+
+    @Test
+    public void testAttributeNameIsCanonicalized() {
+        Indexes indexes = newIndexes();
+        InternalIndex index = indexes.addOrGetIndex("age,active ,salary", true);
+
+        assertEquals("age, active, salary", index.getAttributeName());
+        assertSame(index, indexes.addOrGetIndex(" age, active, salary", false));
+        assertSame(index, indexes.getIndex("age ,active,salary"));
+        assertEquals(1, indexes.getCompositeIndexes().length);
+    }
+
+    @Test
+    public void testFullEquality_onUnorderedIndex() {
+        Indexes indexes = populate("age, active", false);
+
+        Predicate optimized = optimizer.optimize(and(equal("active", true), equal("age", 4)), indexes);
+        assertTrue(optimized instanceof CompositeEqualPredicate);
+        assertQuery(indexes, and(equal("active", true), equal("age", 4)));
+        assertQuery(indexes, and(equal("active", false), equal("age", 4)));
+    }
+
+    @Test
+    public void testPrefix_isNotRewrittenForUnorderedIndex() {
+        Indexes indexes = populate("age, active, salary", false);
+
+        Predicate predicate = and(equal("age", 4), equal("active", true));
+        assertSame(predicate, optimizer.optimize(predicate, indexes));
+    }
+
+    @Test
+    public void testPrefixAndRange_onOrderedIndex() {
+        Indexes indexes = populate("age, active, salary", true);
+
+        Predicate optimized = optimizer.optimize(and(equal("age", 4), equal("active", true), greaterThan("salary", 5)),
+                indexes);
+        assertTrue(optimized instanceof CompositeRangePredicate);
+
+        assertQuery(indexes, and(equal("age", 4), equal("active", true)));
+        assertQuery(indexes, and(equal("age", 4), equal("active", true), greaterThan("salary", 5)));
+        assertQuery(indexes, and(equal("age", 4), equal("active", true), greaterEqual("salary", 5)));
+        assertQuery(indexes, and(equal("age", 4), equal("active", true), lessThan("salary", 5)));
+        assertQuery(indexes, and(equal("age", 4), equal("active", true), lessEqual("salary", 5)));
+        assertQuery(indexes, and(equal("age", 4), equal("active", true), between("salary", 3, 9)));
+        assertQuery(indexes, and(equal("age", 4), greaterThan("active", false)));
+        assertQuery(indexes, and(equal("age", 4), equal("active", true), equal("salary", 4)));
+        assertQuery(indexes, and(equal("age", 4), equal("active", true), equal("salary", 4.0)));
+    }
+
+    @Test
+    public void testRangeOnLastComponent_onOrderedIndex() {
+        Indexes indexes = populate("age, salary", true);
+
+        assertQuery(indexes, and(equal("age", 3), greaterThan("salary", 5)));
+        assertQuery(indexes, and(equal("age", 3), greaterEqual("salary", 5)));
+        assertQuery(indexes, and(equal("age", 3), lessThan("salary", 5)));
+        assertQuery(indexes, and(equal("age", 3), lessEqual("salary", 5)));
+        assertQuery(indexes, and(equal("age", 3), between("salary", 5, 7)));
+    }
+
+    @Test
+    public void testNullComponents() {
+        Indexes indexes = populate("name, age", true);
+
+        assertQuery(indexes, and(equal("name", null), equal("age", 7)));
+        assertQuery(indexes, and(equal("name", "name2"), equal("age", 7)));
+        assertQuery(indexes, and(equal("name", "name2"), lessThan("age", 7)));
+    }
+
+    @Test
+    public void testUncoveredPredicates_areKept() {
+        Indexes indexes = populate("age, active", true);
+
+        Predicate predicate = and(equal("age", 4), equal("active", true), equal("name", "name4"));
+        Predicate optimized = optimizer.optimize(predicate, indexes);
+        assertTrue(optimized instanceof AndPredicate);
+        assertQuery(indexes, predicate);
+    }
+
+    @Test
+    public void testWidestIndexWins() {
+        Indexes indexes = populate("age, active", true);
+        indexes.addOrGetIndex("age, active, salary", false);
+        for (QueryEntry entry : entries) {
+            indexes.getIndex("age, active, salary").saveEntryIndex(entry, null, Index.OperationSource.USER);
+        }
+
+        Predicate predicate = and(equal("age", 4), equal("active", true), equal("salary", 4));
+        Predicate optimized = optimizer.optimize(predicate, indexes);
+        assertTrue(optimized instanceof CompositeEqualPredicate);
+        assertQuery(indexes, predicate);
+    }
+
+    @Test
+    public void testNotEqual_isNotRewritten() {
+        Indexes indexes = populate("age, active", false);
+
+        Predicate predicate = and(equal("age", 4), ((EqualPredicate) equal("active", true)).negate());
+        assertSame(predicate, optimizer.optimize(predicate, indexes));
+    }
+
+    private Indexes populate(String attribute, boolean ordered) {
+        Indexes indexes = newIndexes();
+        indexes.addOrGetIndex(attribute, ordered);
+        for (QueryEntry entry : entries) {
+            indexes.saveEntryIndex(entry, null, Index.OperationSource.USER);
+        }
+        return indexes;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void assertQuery(Indexes indexes, Predicate predicate) {
+        Set<QueryableEntry> expected = new HashSet<QueryableEntry>();
+        for (QueryEntry entry : entries) {
+            if (predicate.apply(entry)) {
+                expected.add(entry);
+            }
+        }
+
+        Predicate optimized = optimizer.optimize(predicate, indexes);
+        Set<QueryableEntry> result = indexes.query(optimized);
+        assertNotNull(result);
+        assertEquals(expected, new HashSet<QueryableEntry>(result));
+        for (QueryEntry entry : entries) {
+            assertEquals(predicate.apply(entry), optimized.apply(entry));
+        }
+    }
+
+    private Indexes newIndexes() {
+        return Indexes.newBuilder(serializationService, IndexCopyBehavior.COPY_ON_READ).build();
+    }
+
+    private Extractors newExtractors() {
+        return Extractors.newBuilder(serializationService).build();
+    }
+
+}
@@ -37,6 +37,7 @@ import org.junit.runners.Parameterized.UseParametersRunnerFactory;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 
 import static org.junit.Assert.assertEquals;
 
@@ -62,7 +63,8 @@ public class IndexJsonTest {
     @Test
     public void testJsonIndex() {
         InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
-        Indexes is = new Indexes(ss, copyBehavior, Extractors.newBuilder(ss).build(), new DefaultIndexProvider(), true, true, true);
+        Indexes is = new Indexes(ss, copyBehavior, Extractors.newBuilder(ss).build(), new DefaultIndexProvider(), true, true, true,
+                Collections.<String>emptySet());
         Index numberIndex = is.addOrGetIndex("age", false);
         Index boolIndex = is.addOrGetIndex("active", false);
         Index stringIndex = is.addOrGetIndex("name", false);
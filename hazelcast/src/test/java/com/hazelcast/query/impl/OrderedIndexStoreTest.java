@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.hazelcast.monitor.impl.IndexOperationStats.EMPTY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class OrderedIndexStoreTest {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    private InternalSerializationService ss;
+    private Extractors extractors;
+    private OrderedIndexStore store;
+
+    @Before
+    public void setUp() {
+        ss = new DefaultSerializationServiceBuilder().build();
+        extractors = Extractors.newBuilder(ss).build();
+        store = new OrderedIndexStore(IndexCopyBehavior.COPY_ON_READ);
+    }
+
+    @Test
+    public void testRangeQueries_onIntegers() {
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            store.newIndex(i % 100, entry(i, i % 100), EMPTY);
+        }
+
+        assertKeys(store.getRecords(42), 42, 10);
+        assertKeys(store.getSubRecordsBetween(10, 19), 10, 100);
+        assertKeys(store.getSubRecords(ComparisonType.LESSER, 10), 0, 100);
+        assertKeys(store.getSubRecords(ComparisonType.LESSER_EQUAL, 10), 10, 110);
+        assertKeys(store.getSubRecords(ComparisonType.GREATER, 89), 90, 100);
+        assertKeys(store.getSubRecords(ComparisonType.GREATER_EQUAL, 89), 89, 110);
+        assertEquals(ENTRY_COUNT - 10, store.getSubRecords(ComparisonType.NOT_EQUAL, 50).size());
+        assertEquals(30, store.getRecords(new HashSet<Comparable>(Arrays.<Comparable>asList(1, 2, 3))).size());
+    }
+
+    @Test
+    public void testRangeQueries_onStringsSharingPrefix() {
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            store.newIndex("value-" + (char) ('a' + i % 26), entry(i, i), EMPTY);
+        }
+
+        assertEquals(39, store.getRecords("value-c").size());
+        assertEquals(3 * 39, store.getSubRecordsBetween("value-a", "value-c").size());
+        assertEquals(2 * 39, store.getSubRecords(ComparisonType.LESSER, "value-c").size());
+        assertEquals(ENTRY_COUNT - 2 * 39, store.getSubRecords(ComparisonType.GREATER_EQUAL, "value-c").size());
+    }
+
+    @Test
+    public void testRangeQueries_onDoubles() {
+        store.newIndex(-1.5, entry(0, 0), EMPTY);
+        store.newIndex(-0.0, entry(1, 1), EMPTY);
+        store.newIndex(0.0, entry(2, 2), EMPTY);
+        store.newIndex(2.5, entry(3, 3), EMPTY);
+        store.newIndex(Double.NaN, entry(4, 4), EMPTY);
+
+        assertEquals(2, store.getSubRecords(ComparisonType.LESSER, 0.0).size());
+        assertEquals(1, store.getSubRecords(ComparisonType.GREATER, 2.5).size());
+        assertEquals(3, store.getSubRecordsBetween(-1.5, 0.0).size());
+    }
+
+    @Test
+    public void testNewIndex_whenSameKeyAndValue_thenReplaced() {
+        QueryableEntry entry = entry(1, 1);
+        store.newIndex(10, entry, EMPTY);
+
+        Object replaced = store.newIndexInternal(10, entry(1, 2));
+
+        assertSame(entry, replaced);
+        assertEquals(1, store.getRecords(10).size());
+    }
+
+    @Test
+    public void testRemoveIndex() {
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            store.newIndex(i, entry(i, i), EMPTY);
+        }
+        for (int i = 0; i < ENTRY_COUNT; i += 2) {
+            store.removeIndex(i, ss.toData(i), EMPTY);
+        }
+
+        assertEquals(ENTRY_COUNT / 2, store.getSubRecords(ComparisonType.GREATER_EQUAL, 0).size());
+        assertEquals(0, store.getRecords(10).size());
+        assertEquals(1, store.getRecords(11).size());
+        assertNull(store.removeIndexInternal(10, ss.toData(10)));
+    }
+
+    @Test
+    public void testNullValues() {
+        store.newIndex(null, entry(1, 1), EMPTY);
+        store.newIndex(5, entry(2, 2), EMPTY);
+
+        assertEquals(1, store.getRecords(AbstractIndex.NULL).size());
+        assertEquals(1, store.getSubRecords(ComparisonType.GREATER_EQUAL, 0).size());
+
+        Set<Comparable> values = new HashSet<Comparable>(Arrays.<Comparable>asList(AbstractIndex.NULL, 5));
+        assertEquals(2, store.getRecords(values).size());
+    }
+
+    @Test
+    public void testResults_areNotAffectedByLaterUpdates() {
+        for (int i = 0; i < 100; ++i) {
+            store.newIndex(i, entry(i, i), EMPTY);
+        }
+
+        Set<QueryableEntry> result = store.getSubRecords(ComparisonType.GREATER_EQUAL, 0);
+        store.clear();
+
+        int count = 0;
+        for (QueryableEntry ignored : result) {
+            ++count;
+        }
+        assertEquals(100, count);
+        assertTrue(store.getSubRecords(ComparisonType.GREATER_EQUAL, 0).isEmpty());
+    }
+
+    private QueryableEntry entry(int key, int value) {
+        return new QueryEntry(ss, ss.toData(key), value, extractors);
+    }
+
+    private void assertKeys(Set<QueryableEntry> result, int firstKey, int expectedSize) {
+        assertEquals(expectedSize, result.size());
+        Data expectedKey = ss.toData(firstKey);
+        boolean found = false;
+        for (QueryableEntry entry : result) {
+            found |= expectedKey.equals(entry.getKeyData());
+        }
+        assertTrue(found);
+    }
+}
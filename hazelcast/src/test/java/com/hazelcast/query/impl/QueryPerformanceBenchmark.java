@@ -16,6 +16,7 @@
 
 package com.hazelcast.query.impl;
 
+import com.hazelcast.aggregation.Aggregators;
 import com.hazelcast.config.Config;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.MapAttributeConfig;
@@ -45,6 +46,7 @@ import org.openjdk.jmh.runner.options.OptionsBuilder;
 import org.openjdk.jmh.runner.options.TimeValue;
 import org.openjdk.jmh.runner.options.VerboseMode;
 
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import static com.hazelcast.query.impl.extractor.specification.ComplexTestDataStructure.finger;
@@ -72,11 +74,11 @@ public class QueryPerformanceBenchmark extends HazelcastTestSupport {
         // object map
         MapAttributeConfig nameWithExtractor = new MapAttributeConfig()
                 .setName("nameWithExtractor")
-                .setExtractor("com.hazelcast.query.impl.QueryPerformanceTest$NameExtractor");
+                .setExtractor("com.hazelcast.query.impl.QueryPerformanceBenchmark$NameExtractor");
 
         MapAttributeConfig limbNameWithExtractor = new MapAttributeConfig()
                 .setName("limbNameWithExtractor")
-                .setExtractor("com.hazelcast.query.impl.QueryPerformanceTest$LimbNameExtractor");
+                .setExtractor("com.hazelcast.query.impl.QueryPerformanceBenchmark$LimbNameExtractor");
 
         MapConfig objectMapConfig = new MapConfig()
                 .setName("objectMap")
@@ -91,11 +93,11 @@ public class QueryPerformanceBenchmark extends HazelcastTestSupport {
         // portable map
         MapAttributeConfig portableNameWithExtractor = new MapAttributeConfig()
                 .setName("nameWithExtractor")
-                .setExtractor("com.hazelcast.query.impl.QueryPerformanceTest$PortableNameExtractor");
+                .setExtractor("com.hazelcast.query.impl.QueryPerformanceBenchmark$PortableNameExtractor");
 
         MapAttributeConfig portableLimbNameWithExtractor = new MapAttributeConfig()
                 .setName("limbNameWithExtractor")
-                .setExtractor("com.hazelcast.query.impl.QueryPerformanceTest$PortableLimbNameExtractor");
+                .setExtractor("com.hazelcast.query.impl.QueryPerformanceBenchmark$PortableLimbNameExtractor");
 
         MapConfig portableMapConfig = new MapConfig()
                 .setName("portableMapWithExtractor")
@@ -195,6 +197,27 @@ public class QueryPerformanceBenchmark extends HazelcastTestSupport {
         return objectMapWithExtractor.values(Predicates.equal("limbNameWithExtractor", "Ferrari"));
     }
 
+    @Benchmark
+    public Object query_object_fullScan_allMatching() {
+        return objectMap.values(Predicates.equal("name", "Bond"));
+    }
+
+    @Benchmark
+    public Object query_portable_fullScan_allMatching() {
+        return portableMap.values(Predicates.equal("name", "Bond"));
+    }
+
+    @Benchmark
+    public Object aggregate_object_fullScan_allMatching() {
+        return objectMap.aggregate(Aggregators.<Map.Entry<String, Person>>count(), Predicates.equal("name", "Bond"));
+    }
+
+    @Benchmark
+    public Object aggregate_portable_fullScan_allMatching() {
+        return portableMap.aggregate(Aggregators.<Map.Entry<String, PersonPortable>>count(),
+                Predicates.equal("name", "Bond"));
+    }
+
     public static void main(String[] args) throws RunnerException {
         Options opt = new OptionsBuilder()
                 .include(QueryPerformanceBenchmark.class.getSimpleName())
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.bitmap;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class SparseBitSetTest {
+
+    private final Random random = new Random(42);
+
+    @Test
+    public void testEmpty() {
+        SparseBitSet set = new SparseBitSet();
+        assertTrue(set.isEmpty());
+        assertEquals(0, set.cardinality());
+        assertEquals(-1, set.nextSetBit(0));
+        assertFalse(set.contains(0));
+        assertFalse(set.remove(0));
+    }
+
+    @Test
+    public void testAddRemove() {
+        SparseBitSet set = new SparseBitSet();
+        assertTrue(set.add(5));
+        assertFalse(set.add(5));
+        assertTrue(set.add(1 << 20));
+        assertTrue(set.contains(5));
+        assertTrue(set.contains(1 << 20));
+        assertEquals(2, set.cardinality());
+        assertEquals(5, set.nextSetBit(0));
+        assertEquals(1 << 20, set.nextSetBit(6));
+
+        assertTrue(set.remove(5));
+        assertFalse(set.remove(5));
+        assertEquals(1, set.cardinality());
+        set.clear();
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    public void testSparse() {
+        verifyAgainstBitSet(1 << 22, 1000);
+    }
+
+    @Test
+    public void testDense() {
+        // forces the conversions between the array and bitmap containers
+        verifyAgainstBitSet(1 << 17, 100000);
+    }
+
+    private void verifyAgainstBitSet(int range, int operations) {
+        SparseBitSet lhs = new SparseBitSet();
+        SparseBitSet rhs = new SparseBitSet();
+        BitSet expectedLhs = new BitSet();
+        BitSet expectedRhs = new BitSet();
+
+        for (int i = 0; i < operations; ++i) {
+            int value = random.nextInt(range);
+            if (random.nextInt(4) == 0) {
+                assertEquals(expectedLhs.get(value), lhs.remove(value));
+                expectedLhs.clear(value);
+            } else {
+                assertEquals(!expectedLhs.get(value), lhs.add(value));
+                expectedLhs.set(value);
+            }
+            value = random.nextInt(range);
+            rhs.add(value);
+            expectedRhs.set(value);
+        }
+        assertSameBits(expectedLhs, lhs);
+        assertSameBits(expectedRhs, rhs);
+
+        BitSet expected = (BitSet) expectedLhs.clone();
+        expected.and(expectedRhs);
+        assertSameBits(expected, lhs.and(rhs));
+
+        expected = (BitSet) expectedLhs.clone();
+        expected.or(expectedRhs);
+        assertSameBits(expected, lhs.or(rhs));
+
+        expected = (BitSet) expectedLhs.clone();
+        expected.andNot(expectedRhs);
+        assertSameBits(expected, lhs.andNot(rhs));
+
+        assertSameBits(expectedLhs, lhs.copy());
+    }
+
+    private static void assertSameBits(BitSet expected, SparseBitSet actual) {
+        assertEquals(expected.cardinality(), actual.cardinality());
+        int count = 0;
+        for (int i = actual.nextSetBit(0); i >= 0; i = actual.nextSetBit(i + 1)) {
+            assertTrue(expected.get(i));
+            assertTrue(actual.contains(i));
+            ++count;
+        }
+        assertEquals(expected.cardinality(), count);
+    }
+
+}
@@ -40,7 +40,9 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(Parameterized.class)
 @UseParametersRunnerFactory(HazelcastParametersRunnerFactory.class)
@@ -133,6 +135,63 @@ public class ExtractorsTest {
         assertThat((Integer) power, equalTo(550));
     }
 
+    @Test
+    public void extractInt_reflection_primitiveField() {
+        // GIVEN
+        Extractors extractors = createExtractors(null);
+
+        // WHEN
+        int power = extractors.extractInt(bond.car, "power");
+
+        // THEN
+        assertThat(power, equalTo(550));
+        assertTrue(extractors.getGetter(bond.car, "power").isPrimitive(int.class));
+        assertFalse(extractors.getGetter(bond.car, "power").isPrimitive(long.class));
+    }
+
+    @Test
+    public void extractInt_reflection_nestedField() {
+        // WHEN
+        int power = createExtractors(null).extractInt(bond, "car.power");
+
+        // THEN
+        assertThat(power, equalTo(550));
+    }
+
+    @Test
+    public void extractInt_extractor() {
+        // GIVEN
+        MapAttributeConfig config
+                = new MapAttributeConfig("gimmePower", "com.hazelcast.query.impl.getters.ExtractorsTest$PowerExtractor");
+        Extractors extractors = createExtractors(config);
+
+        // WHEN
+        int power = extractors.extractInt(bond, "gimmePower");
+
+        // THEN
+        assertThat(power, equalTo(550));
+        assertFalse(extractors.isSingleValued("gimmePower"));
+    }
+
+    @Test(expected = ClassCastException.class)
+    public void extractLong_typeMismatch() {
+        createExtractors(null).extractLong(bond, "car.power");
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void extractLong_nullTarget() {
+        createExtractors(null).extractLong(null, "car.power");
+    }
+
+    @Test
+    public void isSingleValued() {
+        Extractors extractors = createExtractors(null);
+
+        assertTrue(extractors.isSingleValued("car.power"));
+        assertFalse(extractors.isSingleValued("cars[any].power"));
+        assertFalse(extractors.isSingleValued("cars[0].power"));
+    }
+
     @Test
     public void extract_nullTarget() {
         // WHEN
@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.QuickTest;
+import com.hazelcast.util.concurrent.BackoffIdleStrategy;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.Future;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class BatchingOperationQueueTest extends HazelcastTestSupport {
+
+    private BatchingOperationQueue operationQueue;
+
+    @Before
+    public void setup() {
+        operationQueue = new BatchingOperationQueue(null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void add_whenNull() {
+        operationQueue.add(null, false);
+    }
+
+    @Test
+    public void add_whenPriority() {
+        operationQueue.add("task", true);
+
+        assertEquals(1, operationQueue.prioritySize());
+        assertEquals(0, operationQueue.normalSize());
+        assertEquals(1, operationQueue.size());
+    }
+
+    @Test
+    public void add_whenNormal() {
+        operationQueue.add("task", false);
+
+        assertEquals(0, operationQueue.prioritySize());
+        assertEquals(1, operationQueue.normalSize());
+        assertEquals(1, operationQueue.size());
+    }
+
+    @Test
+    public void take_whenRegularItemAvailable() throws InterruptedException {
+        operationQueue.add("task1", false);
+        operationQueue.add("task2", false);
+        operationQueue.add("task3", false);
+
+        assertSame("task1", operationQueue.take(false));
+        assertEquals(2, operationQueue.normalSize());
+        assertSame("task2", operationQueue.take(false));
+        assertSame("task3", operationQueue.take(false));
+
+        assertEquals(0, operationQueue.size());
+    }
+
+    @Test
+    public void take_priorityIsRetrievedFirst() throws InterruptedException {
+        operationQueue.add("priority1", true);
+        operationQueue.add("normal1", false);
+        operationQueue.add("normal2", false);
+        operationQueue.add("priority2", true);
+        operationQueue.add("normal3", false);
+
+        assertSame("priority1", operationQueue.take(false));
+        assertSame("priority2", operationQueue.take(false));
+        assertSame("normal1", operationQueue.take(false));
+        assertSame("normal2", operationQueue.take(false));
+        assertSame("normal3", operationQueue.take(false));
+        assertEquals(0, operationQueue.size());
+    }
+
+    @Test
+    public void take_whenPriorityAddedWhileDrainingBatch_thenPriorityTakenFirst() throws InterruptedException {
+        operationQueue.add("normal1", false);
+        operationQueue.add("normal2", false);
+
+        assertSame("normal1", operationQueue.take(false));
+        operationQueue.add("priority", true);
+
+        assertSame("priority", operationQueue.take(false));
+        assertSame("normal2", operationQueue.take(false));
+    }
+
+    @Test
+    public void take_whenPriorityOnly_thenNormalItemsIgnored() throws InterruptedException {
+        operationQueue.add("normal", false);
+        operationQueue.add("priority", true);
+
+        assertSame("priority", operationQueue.take(true));
+        assertEquals(1, operationQueue.normalSize());
+        assertEquals(0, operationQueue.prioritySize());
+    }
+
+    @Test
+    public void take_whenBatchLargerThanInitialCapacity() throws InterruptedException {
+        int count = 10000;
+        for (int i = 0; i < count; i++) {
+            operationQueue.add(i, false);
+        }
+
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, operationQueue.take(false));
+        }
+        assertEquals(0, operationQueue.size());
+    }
+
+    @Test
+    public void addBulk() {
+        operationQueue.addBulk("task");
+
+        assertEquals(1, operationQueue.bulkSize());
+        assertEquals(1, operationQueue.normalSize());
+        assertEquals(0, operationQueue.prioritySize());
+    }
+
+    @Test
+    public void take_whenOnlyBulkItemsAvailable() throws InterruptedException {
+        operationQueue.addBulk("bulk1");
+        operationQueue.addBulk("bulk2");
+
+        assertSame("bulk1", operationQueue.take(false));
+        assertSame("bulk2", operationQueue.take(false));
+        assertEquals(0, operationQueue.size());
+    }
+
+    @Test
+    public void take_whenBulkAndNormalItemsAvailable_thenBulkItemTakenAfterRatioNormalItems() throws InterruptedException {
+        operationQueue = new BatchingOperationQueue(null, 2);
+        operationQueue.setConsumerThread(Thread.currentThread());
+
+        operationQueue.addBulk("bulk1");
+        operationQueue.addBulk("bulk2");
+        for (int i = 0; i < 5; i++) {
+            operationQueue.add("normal" + i, false);
+        }
+
+        assertEquals("normal0", operationQueue.take(false));
+        assertEquals("normal1", operationQueue.take(false));
+        assertEquals("bulk1", operationQueue.take(false));
+        assertEquals("normal2", operationQueue.take(false));
+        assertEquals("normal3", operationQueue.take(false));
+        assertEquals("bulk2", operationQueue.take(false));
+        assertEquals("normal4", operationQueue.take(false));
+        assertEquals(0, operationQueue.size());
+    }
+
+    @Test
+    public void take_whenBulkAndPriorityItemsAvailable_thenPriorityFirst() throws InterruptedException {
+        operationQueue.addBulk("bulk");
+        operationQueue.add("priority", true);
+
+        assertSame("priority", operationQueue.take(false));
+        assertSame("bulk", operationQueue.take(false));
+    }
+
+    @Test
+    public void take_whenPriorityOnly_thenBulkItemsIgnored() throws InterruptedException {
+        operationQueue.addBulk("bulk");
+        operationQueue.add("priority", true);
+
+        assertSame("priority", operationQueue.take(true));
+        assertEquals(1, operationQueue.bulkSize());
+    }
+
+    @Test
+    public void take_whenNoItemAvailable_thenBlockTillBulkItemAvailable() throws InterruptedException {
+        operationQueue.setConsumerThread(Thread.currentThread());
+        spawn(new Runnable() {
+            @Override
+            public void run() {
+                sleepSeconds(2);
+                operationQueue.addBulk("bulk");
+            }
+        });
+
+        assertSame("bulk", operationQueue.take(false));
+    }
+
+    @Test
+    public void take_whenNoItemAvailable_thenBlockTillItemAvailable() throws InterruptedException {
+        // the test body doesn't run on the thread which runs the @Before methods
+        operationQueue.setConsumerThread(Thread.currentThread());
+        spawn(new Runnable() {
+            @Override
+            public void run() {
+                sleepSeconds(2);
+                operationQueue.add("task", false);
+            }
+        });
+
+        assertSame("task", operationQueue.take(false));
+    }
+
+    @Test(expected = InterruptedException.class)
+    public void take_whenInterrupted() throws InterruptedException {
+        Thread.currentThread().interrupt();
+        operationQueue.take(false);
+    }
+
+    @Test
+    public void take_withIdleStrategy_andMultipleProducers() throws Exception {
+        operationQueue = new BatchingOperationQueue(
+                new BackoffIdleStrategy(10, 10, MICROSECONDS.toNanos(1), MICROSECONDS.toNanos(100)));
+        operationQueue.setConsumerThread(Thread.currentThread());
+
+        final int producerCount = 4;
+        final int tasksPerProducer = 50000;
+        Future[] producers = new Future[producerCount];
+        for (int k = 0; k < producerCount; k++) {
+            final int producer = k;
+            producers[k] = spawn(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < tasksPerProducer; i++) {
+                        operationQueue.add(new long[]{producer, i}, i % 100 == 0);
+                    }
+                }
+            });
+        }
+
+        long[] lastNormal = new long[producerCount];
+        long[] lastPriority = new long[producerCount];
+        for (int k = 0; k < producerCount; k++) {
+            lastNormal[k] = -1;
+            lastPriority[k] = -1;
+        }
+        for (int i = 0; i < producerCount * tasksPerProducer; i++) {
+            long[] task = (long[]) operationQueue.take(false);
+            int producer = (int) task[0];
+            long[] last = task[1] % 100 == 0 ? lastPriority : lastNormal;
+            // FIFO per producer among the tasks of the same kind
+            assertTrue(task[1] > last[producer]);
+            last[producer] = task[1];
+        }
+
+        for (Future producer : producers) {
+            producer.get(ASSERT_TRUE_EVENTUALLY_TIMEOUT, SECONDS);
+        }
+        assertEquals(0, operationQueue.size());
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.impl.operationexecutor.impl.OperationExecutorImpl_AbstractTest.DummyOperation;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.spi.OperationAccessor.getEnqueueNanos;
+import static com.hazelcast.spi.OperationAccessor.setEnqueueNanos;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class OperationLatencyTrackerTest {
+
+    private final OperationLatencyMetrics metrics = new OperationLatencyMetrics();
+    private final OperationLatencyTracker tracker = new OperationLatencyTracker(metrics);
+
+    @Test
+    public void record_whenQueued() {
+        Operation op = new DummyOperation(0);
+        long startNanos = System.nanoTime();
+        setEnqueueNanos(op, startNanos - MILLISECONDS.toNanos(5));
+
+        tracker.record(op, startNanos);
+
+        assertEquals(1, tracker.executionLatency().count());
+        assertEquals(1, tracker.queueLatency().count());
+        assertTrue(tracker.queueLatency().maxMicros() >= MILLISECONDS.toMicros(5));
+        // a second execution of the same operation isn't queued
+        assertEquals(0, getEnqueueNanos(op));
+    }
+
+    @Test
+    public void record_whenNotQueued_thenNoQueueLatency() {
+        tracker.record(new DummyOperation(0), System.nanoTime());
+
+        assertEquals(1, tracker.executionLatency().count());
+        assertEquals(0, tracker.queueLatency().count());
+    }
+
+    @Test
+    public void record_histogramsOfThreadsMergedPerOperationClass() {
+        OperationLatencyTracker otherTracker = new OperationLatencyTracker(metrics);
+        long startNanos = System.nanoTime();
+        for (int k = 0; k < 10; k++) {
+            Operation op = new DummyOperation(0);
+            setEnqueueNanos(op, startNanos - MICROSECONDS.toNanos(100));
+            tracker.record(op, startNanos);
+
+            Operation otherOp = new DummyOperation(1);
+            setEnqueueNanos(otherOp, startNanos - MICROSECONDS.toNanos(100));
+            otherTracker.record(otherOp, startNanos);
+        }
+
+        OperationLatencyMetrics.MergedLatency[] merged = metrics.latencies(DummyOperation.class);
+        assertEquals(20, merged[0].count());
+        assertEquals(20, merged[1].count());
+        assertTrue(merged[0].p50Micros() >= 100);
+    }
+}
@@ -32,6 +32,7 @@ import java.util.concurrent.ArrayBlockingQueue;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastSerialClassRunner.class)
 @Category(QuickTest.class)
@@ -217,6 +218,78 @@ public class OperationQueueImplTest extends HazelcastTestSupport {
         //assertContent(normalQueue, OperationQueueImpl.TRIGGER_TASK);
     }
 
+    // ================== bulk =====================
+
+    @Test(expected = NullPointerException.class)
+    public void addBulk_whenNull() {
+        operationQueue.addBulk(null);
+    }
+
+    @Test
+    public void addBulk() {
+        Object task = new Object();
+        operationQueue.addBulk(task);
+
+        assertEquals(1, operationQueue.bulkSize());
+        assertEquals(1, operationQueue.normalSize());
+        assertEquals(0, operationQueue.prioritySize());
+        assertContent(normalQueue, OperationQueueImpl.TRIGGER_TASK);
+    }
+
+    @Test
+    public void take_whenOnlyBulkItemsAvailable() throws InterruptedException {
+        Object bulkTask1 = "bulkTask1";
+        Object bulkTask2 = "bulkTask2";
+
+        operationQueue.addBulk(bulkTask1);
+        operationQueue.addBulk(bulkTask2);
+
+        assertSame(bulkTask1, operationQueue.take(false));
+        assertSame(bulkTask2, operationQueue.take(false));
+        assertEquals(0, operationQueue.bulkSize());
+    }
+
+    @Test
+    public void take_whenBulkAndNormalItemsAvailable_thenBulkItemTakenAfterRatioNormalItems() throws InterruptedException {
+        operationQueue = new OperationQueueImpl(normalQueue, priorityQueue, 2);
+        Object bulkTask1 = "bulkTask1";
+        Object bulkTask2 = "bulkTask2";
+
+        operationQueue.addBulk(bulkTask1);
+        operationQueue.addBulk(bulkTask2);
+        for (int i = 0; i < 6; i++) {
+            operationQueue.add("normalTask" + i, false);
+        }
+
+        assertSame(bulkTask1, takeFirstNonNormal(2));
+        assertSame(bulkTask2, takeFirstNonNormal(2));
+        for (int i = 4; i < 6; i++) {
+            assertEquals("normalTask" + i, operationQueue.take(false));
+        }
+        assertEquals(0, operationQueue.bulkSize());
+    }
+
+    @Test
+    public void take_whenBulkAndPriorityItemsAvailable_thenPriorityFirst() throws InterruptedException {
+        Object bulkTask = "bulkTask";
+        Object priorityTask = "priorityTask";
+
+        operationQueue.addBulk(bulkTask);
+        operationQueue.add(priorityTask, true);
+
+        assertSame(priorityTask, operationQueue.take(false));
+        assertSame(bulkTask, operationQueue.take(false));
+    }
+
+    // takes the expected number of normal tasks and returns the task taken after them
+    private Object takeFirstNonNormal(int expectedNormalCount) throws InterruptedException {
+        for (int i = 0; i < expectedNormalCount; i++) {
+            Object task = operationQueue.take(false);
+            assertTrue("expected a normal task, but found " + task, task.toString().startsWith("normalTask"));
+        }
+        return operationQueue.take(false);
+    }
+
     public void assertEmpty(Queue<Object> q) {
         assertEquals("expecting an empty operationQueue, but the operationQueue is:" + q, 0, q.size());
     }
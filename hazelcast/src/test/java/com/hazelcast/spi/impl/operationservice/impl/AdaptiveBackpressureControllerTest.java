@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.spi.impl.sequence.CallIdSequenceWithBackpressure;
+import com.hazelcast.spi.properties.HazelcastProperties;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.spi.properties.GroupProperty.BACKPRESSURE_ADAPTIVE_TARGET_QUEUE_DELAY_MILLIS;
+import static com.hazelcast.spi.properties.GroupProperty.PARTITION_COUNT;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class AdaptiveBackpressureControllerTest extends HazelcastTestSupport {
+
+    private static final int MAX_CONCURRENT_INVOCATIONS = 1000;
+    private static final int PARTITION_COUNT_VALUE = 99;
+    private static final long TARGET_QUEUE_DELAY_MILLIS = 20;
+
+    private CallIdSequenceWithBackpressure callIdSequence;
+    private AdaptiveBackpressureController controller;
+
+    @Before
+    public void setup() {
+        Config config = new Config()
+                .setProperty(PARTITION_COUNT.getName(), String.valueOf(PARTITION_COUNT_VALUE))
+                .setProperty(BACKPRESSURE_ADAPTIVE_TARGET_QUEUE_DELAY_MILLIS.getName(),
+                        String.valueOf(TARGET_QUEUE_DELAY_MILLIS));
+        callIdSequence = new CallIdSequenceWithBackpressure(MAX_CONCURRENT_INVOCATIONS, 1000);
+        controller = new AdaptiveBackpressureController(null, null, callIdSequence,
+                new HazelcastProperties(config), mock(ILogger.class));
+    }
+
+    @Test
+    public void adjust_whenQueueDelayAboveTarget_thenLimitDecreased() {
+        controller.adjust(MILLISECONDS.toNanos(TARGET_QUEUE_DELAY_MILLIS + 1), 0);
+
+        assertEquals(900, callIdSequence.getConcurrencyLimit());
+    }
+
+    @Test
+    public void adjust_whenWriteQueueOverloaded_thenLimitDecreased() {
+        controller.adjust(0, 1);
+
+        assertEquals(900, callIdSequence.getConcurrencyLimit());
+    }
+
+    @Test
+    public void adjust_whenCongestedRepeatedly_thenLimitNotBelowOneInvocationPerPartition() {
+        for (int i = 0; i < 100; i++) {
+            controller.adjust(0, 1);
+        }
+
+        assertEquals(PARTITION_COUNT_VALUE + 1, callIdSequence.getConcurrencyLimit());
+    }
+
+    @Test
+    public void adjust_whenNotCongestedAndLimitUsed_thenLimitIncreased() {
+        callIdSequence.setConcurrencyLimit(500);
+        for (int i = 0; i < 250; i++) {
+            callIdSequence.next();
+        }
+
+        controller.adjust(0, 0);
+
+        assertEquals(510, callIdSequence.getConcurrencyLimit());
+    }
+
+    @Test
+    public void adjust_whenNotCongestedAndLimitNotUsed_thenLimitUnchanged() {
+        callIdSequence.setConcurrencyLimit(500);
+        for (int i = 0; i < 249; i++) {
+            callIdSequence.next();
+        }
+
+        controller.adjust(0, 0);
+
+        assertEquals(500, callIdSequence.getConcurrencyLimit());
+    }
+
+    @Test
+    public void adjust_whenNotCongested_thenLimitNotAboveMaxConcurrentInvocations() {
+        for (int i = 0; i < MAX_CONCURRENT_INVOCATIONS; i++) {
+            callIdSequence.next();
+        }
+
+        controller.adjust(0, 0);
+
+        assertEquals(MAX_CONCURRENT_INVOCATIONS, callIdSequence.getConcurrencyLimit());
+    }
+}
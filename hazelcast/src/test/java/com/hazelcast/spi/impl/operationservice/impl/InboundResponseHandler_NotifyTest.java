@@ -19,6 +19,9 @@ package com.hazelcast.spi.impl.operationservice.impl;
 import com.hazelcast.config.Config;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.OperationTimeoutException;
+import com.hazelcast.nio.Connection;
+import com.hazelcast.nio.Packet;
+import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.spi.Operation;
 import com.hazelcast.test.AssertTask;
 import com.hazelcast.test.ExpectedRuntimeException;
@@ -40,11 +43,13 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
 
 @RunWith(HazelcastParallelClassRunner.class)
 @Category({QuickTest.class, ParallelTest.class})
 public class InboundResponseHandler_NotifyTest extends HazelcastTestSupport {
 
+    private HazelcastInstance instance;
     private InvocationRegistry invocationRegistry;
     private OperationServiceImpl operationService;
     private InboundResponseHandler inboundResponseHandler;
@@ -54,10 +59,10 @@ public class InboundResponseHandler_NotifyTest extends HazelcastTestSupport {
         Config config = new Config();
         config.setProperty(BACKPRESSURE_ENABLED.getName(), "false");
         config.setProperty(OPERATION_CALL_TIMEOUT_MILLIS.getName(), "20000");
-        HazelcastInstance local = createHazelcastInstance(config);
-        warmUpPartitions(local);
+        instance = createHazelcastInstance(config);
+        warmUpPartitions(instance);
 
-        operationService = getOperationServiceImpl(local);
+        operationService = getOperationServiceImpl(instance);
         invocationRegistry = operationService.invocationRegistry;
         inboundResponseHandler = operationService.getBackupHandler();
     }
@@ -221,6 +226,43 @@ public class InboundResponseHandler_NotifyTest extends HazelcastTestSupport {
         assertInvocationDeregisteredEventually(callId);
     }
 
+    // ==================== responseBatch =====================
+
+    @Test
+    public void responseBatch_whenNormalResponseAndBackupAck() {
+        Invocation invocation = newInvocation();
+        invocationRegistry.register(invocation);
+        Invocation otherInvocation = newInvocation();
+        invocationRegistry.register(otherInvocation);
+        Invocation dataInvocation = newInvocation();
+        invocationRegistry.register(dataInvocation);
+
+        long callId = invocation.op.getCallId();
+        long otherCallId = otherInvocation.op.getCallId();
+        long dataCallId = dataInvocation.op.getCallId();
+        OutboundResponseHandler outboundResponseHandler = operationService.getOutboundResponseHandler();
+        Data data = getSerializationService(instance).toData("baz");
+        // the batched responses carry a data value too
+        byte[][] responses = new byte[][]{
+                outboundResponseHandler.toBackupAckPacket(callId, false).toByteArray(),
+                outboundResponseHandler.toNormalResponsePacket(otherCallId, 0, false, "bar").toByteArray(),
+                outboundResponseHandler.toNormalResponsePacket(dataCallId, 0, false, data).toByteArray(),
+                outboundResponseHandler.toNormalResponsePacket(callId, 1, false, "foo").toByteArray(),
+        };
+        Packet batch = outboundResponseHandler.toResponseBatchPacket(responses, responses.length);
+        batch.setConn(mock(Connection.class));
+
+        inboundResponseHandler.accept(batch);
+
+        assertEquals("foo", invocation.future.join());
+        assertEquals("bar", otherInvocation.future.join());
+        assertEquals(data, dataInvocation.future.join());
+        assertInvocationDeregisteredEventually(callId);
+        assertInvocationDeregisteredEventually(otherCallId);
+        assertInvocationDeregisteredEventually(dataCallId);
+        assertEquals(1, inboundResponseHandler.responsesBatch.get());
+    }
+
     private void assertInvocationDeregisteredEventually(final long callId) {
         assertTrueEventually(new AssertTask() {
             @Override
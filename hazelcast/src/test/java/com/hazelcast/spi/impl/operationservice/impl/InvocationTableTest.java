@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.spi.Operation;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.spi.OperationAccessor.setCallId;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class InvocationTableTest extends HazelcastTestSupport {
+
+    private final AtomicLong callIds = new AtomicLong();
+    private final InvocationTable table = new InvocationTable(4);
+
+    @Test
+    public void get_whenEmpty() {
+        assertNull(table.get(1));
+        assertEquals(0, table.size());
+        assertFalse(table.iterator().hasNext());
+    }
+
+    @Test
+    public void putAndGet() {
+        Invocation invocation = newInvocation();
+        table.put(invocation);
+
+        assertSame(invocation, table.get(invocation.op.getCallId()));
+        assertNull(table.get(invocation.op.getCallId() + 1));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    public void remove() {
+        Invocation invocation = newInvocation();
+        table.put(invocation);
+
+        assertTrue(table.remove(invocation));
+        assertFalse(table.remove(invocation));
+        assertNull(table.get(invocation.op.getCallId()));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    public void remove_whenNotPut() {
+        table.put(newInvocation());
+
+        assertFalse(table.remove(newInvocation()));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    public void putAndRemove_whenManyInvocations_thenTableResized() {
+        List<Invocation> invocations = new ArrayList<Invocation>();
+        for (int i = 0; i < 10000; i++) {
+            Invocation invocation = newInvocation();
+            invocations.add(invocation);
+            table.put(invocation);
+        }
+        // remove every other invocation to leave the tombstones behind
+        for (int i = 0; i < invocations.size(); i += 2) {
+            assertTrue(table.remove(invocations.get(i)));
+        }
+        for (int i = 0; i < 10000; i++) {
+            Invocation invocation = newInvocation();
+            invocations.add(invocation);
+            table.put(invocation);
+        }
+
+        assertEquals(15000, table.size());
+        for (int i = 0; i < invocations.size(); i++) {
+            Invocation invocation = invocations.get(i);
+            if (i < 10000 && i % 2 == 0) {
+                assertNull(table.get(invocation.op.getCallId()));
+            } else {
+                assertSame(invocation, table.get(invocation.op.getCallId()));
+            }
+        }
+    }
+
+    @Test
+    public void iterator() {
+        Set<Invocation> expected = new HashSet<Invocation>();
+        for (int i = 0; i < 1000; i++) {
+            Invocation invocation = newInvocation();
+            table.put(invocation);
+            if (i % 3 == 0) {
+                table.remove(invocation);
+            } else {
+                expected.add(invocation);
+            }
+        }
+
+        Set<Invocation> actual = new HashSet<Invocation>();
+        for (Invocation invocation : table) {
+            assertTrue(actual.add(invocation));
+        }
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void get_whenConcurrentlyModified_thenRegisteredInvocationsFound() throws Exception {
+        final AtomicBoolean stop = new AtomicBoolean();
+        List<Future> futures = new ArrayList<Future>();
+        for (int k = 0; k < 4; k++) {
+            futures.add(spawn(new Runnable() {
+                @Override
+                public void run() {
+                    while (!stop.get()) {
+                        Invocation invocation = newInvocation();
+                        table.put(invocation);
+                        assertSame(invocation, table.get(invocation.op.getCallId()));
+                        assertTrue(table.remove(invocation));
+                        assertNull(table.get(invocation.op.getCallId()));
+                    }
+                }
+            }));
+        }
+
+        // long living invocations mixed with the short living ones
+        List<Invocation> invocations = new ArrayList<Invocation>();
+        for (int i = 0; i < 1000; i++) {
+            Invocation invocation = newInvocation();
+            invocations.add(invocation);
+            table.put(invocation);
+        }
+        for (Invocation invocation : invocations) {
+            assertSame(invocation, table.get(invocation.op.getCallId()));
+        }
+
+        sleepSeconds(1);
+        stop.set(true);
+        for (Future future : futures) {
+            future.get();
+        }
+        assertEquals(invocations.size(), table.size());
+    }
+
+    private Invocation newInvocation() {
+        Operation op = new DummyOperation();
+        setCallId(op, callIds.incrementAndGet());
+        Invocation.Context context = new Invocation.Context(null, null, null, null, null,
+                1000, null, null, null, null, null, null, null, null, null, null, null, null);
+        return new PartitionInvocation(context, op, 0, 0, 0, false, false);
+    }
+}
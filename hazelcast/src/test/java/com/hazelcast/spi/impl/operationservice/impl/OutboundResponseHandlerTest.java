@@ -16,26 +16,35 @@
 
 package com.hazelcast.spi.impl.operationservice.impl;
 
+import com.hazelcast.instance.MemberImpl;
 import com.hazelcast.instance.Node;
+import com.hazelcast.internal.cluster.impl.ClusterServiceImpl;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
 import com.hazelcast.internal.serialization.impl.HeapData;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.Logger;
 import com.hazelcast.nio.Address;
+import com.hazelcast.nio.Bits;
 import com.hazelcast.nio.ConnectionManager;
 import com.hazelcast.nio.Packet;
 import com.hazelcast.nio.serialization.Portable;
 import com.hazelcast.nio.serialization.PortableReader;
 import com.hazelcast.nio.serialization.PortableWriter;
+import com.hazelcast.spi.ExecutionService;
 import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.impl.SpiDataSerializerHook;
+import com.hazelcast.spi.impl.executionservice.InternalExecutionService;
 import com.hazelcast.spi.impl.operationservice.impl.responses.BackupAckResponse;
 import com.hazelcast.spi.impl.operationservice.impl.responses.CallTimeoutResponse;
 import com.hazelcast.spi.impl.operationservice.impl.responses.ErrorResponse;
 import com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse;
+import com.hazelcast.spi.impl.operationservice.impl.responses.Response;
 import com.hazelcast.test.HazelcastParametersRunnerFactory;
 import com.hazelcast.test.annotation.ParallelTest;
 import com.hazelcast.test.annotation.QuickTest;
+import com.hazelcast.version.MemberVersion;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -45,17 +54,25 @@ import org.junit.runners.Parameterized.Parameter;
 import org.junit.runners.Parameterized.Parameters;
 import org.junit.runners.Parameterized.UseParametersRunnerFactory;
 import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 import java.io.IOException;
 import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
 
+import static com.hazelcast.internal.cluster.Versions.CURRENT_CLUSTER_VERSION;
 import static com.hazelcast.spi.OperationAccessor.setCallId;
 import static com.hazelcast.spi.OperationAccessor.setCallerAddress;
 import static java.nio.ByteOrder.BIG_ENDIAN;
 import static java.nio.ByteOrder.LITTLE_ENDIAN;
 import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.atMost;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(Parameterized.class)
@@ -69,6 +86,7 @@ public class OutboundResponseHandlerTest {
     private OutboundResponseHandler handler;
     private InternalSerializationService serializationService;
     private ILogger logger = Logger.getLogger(OutboundResponseHandlerTest.class);
+    private Address thisAddress;
     private Address thatAddress;
     private ConnectionManager connectionManager;
 
@@ -82,7 +100,7 @@ public class OutboundResponseHandlerTest {
 
     @Before
     public void setup() throws Exception {
-        Address thisAddress = new Address("127.0.0.1", 5701);
+        thisAddress = new Address("127.0.0.1", 5701);
         thatAddress = new Address("127.0.0.1", 5702);
         serializationService = new DefaultSerializationServiceBuilder().setByteOrder(byteOrder).build();
         Node node = mock(Node.class);
@@ -216,6 +234,125 @@ public class OutboundResponseHandlerTest {
         assertEquals(serializationService.toData(expectedResponse), argument.getValue());
     }
 
+    @Test
+    public void sendBackupAck_whenBatchingEnabledAndNothingPending_thenSentAsRegularPacket() {
+        Node node = mock(Node.class);
+        ClusterServiceImpl clusterService = mock(ClusterServiceImpl.class);
+        when(node.getConnectionManager()).thenReturn(connectionManager);
+        when(node.getClusterService()).thenReturn(clusterService);
+        when(clusterService.getClusterVersion()).thenReturn(CURRENT_CLUSTER_VERSION);
+        handler = new OutboundResponseHandler(thisAddress, serializationService, node, logger, true);
+
+        ArgumentCaptor<Packet> argument = ArgumentCaptor.forClass(Packet.class);
+        when(connectionManager.transmit(argument.capture(), eq(thatAddress))).thenReturn(true);
+
+        handler.sendBackupAck(thatAddress, 10, false);
+
+        HeapData expected = serializationService.toData(new BackupAckResponse(10, false));
+        assertEquals(expected, new HeapData(argument.getValue().toByteArray()));
+    }
+
+    @Test
+    public void sendBackupAck_whenResponsesPileUp_thenSenderSendsSingleBatch() {
+        Node node = mock(Node.class);
+        ClusterServiceImpl clusterService = mock(ClusterServiceImpl.class);
+        NodeEngineImpl nodeEngine = mock(NodeEngineImpl.class);
+        InternalExecutionService executionService = mock(InternalExecutionService.class);
+        when(node.getConnectionManager()).thenReturn(connectionManager);
+        when(node.getClusterService()).thenReturn(clusterService);
+        when(node.getNodeEngine()).thenReturn(nodeEngine);
+        when(nodeEngine.getExecutionService()).thenReturn(executionService);
+        when(clusterService.getClusterVersion()).thenReturn(CURRENT_CLUSTER_VERSION);
+        when(clusterService.getMember(thatAddress)).thenReturn(new MemberImpl(thatAddress, MemberVersion.UNKNOWN, false));
+        handler = new OutboundResponseHandler(thisAddress, serializationService, node, logger, true);
+
+        final List<Packet> packets = new ArrayList<Packet>();
+        when(connectionManager.transmit(any(Packet.class), eq(thatAddress))).thenAnswer(new Answer<Boolean>() {
+            @Override
+            public Boolean answer(InvocationOnMock invocation) {
+                packets.add((Packet) invocation.getArguments()[0]);
+                if (packets.size() == 1) {
+                    // the responses of the other threads pile up while the first one is sent
+                    for (int i = 0; i < 200; i++) {
+                        handler.sendBackupAck(thatAddress, i + 1, false);
+                    }
+                }
+                return true;
+            }
+        });
+
+        handler.sendBackupAck(thatAddress, 0, false);
+
+        // the sending thread doesn't send the responses of the others
+        assertEquals(1, packets.size());
+        ArgumentCaptor<Runnable> drainTask = ArgumentCaptor.forClass(Runnable.class);
+        verify(executionService).execute(eq(ExecutionService.ASYNC_EXECUTOR), drainTask.capture());
+
+        drainTask.getValue().run();
+        assertEquals(3, packets.size());
+        assertEquals(1, responseCount(packets.get(0)));
+        assertEquals(128, responseCount(packets.get(1)));
+        assertEquals(72, responseCount(packets.get(2)));
+    }
+
+    @Test
+    public void sendBackupAck_whenMemberLeftWithResponsesPending_thenResponsesDiscarded() {
+        final ClusterServiceImpl clusterService = mock(ClusterServiceImpl.class);
+        Node node = mock(Node.class);
+        NodeEngineImpl nodeEngine = mock(NodeEngineImpl.class);
+        InternalExecutionService executionService = mock(InternalExecutionService.class);
+        when(node.getConnectionManager()).thenReturn(connectionManager);
+        when(node.getClusterService()).thenReturn(clusterService);
+        when(node.getNodeEngine()).thenReturn(nodeEngine);
+        when(nodeEngine.getExecutionService()).thenReturn(executionService);
+        when(clusterService.getClusterVersion()).thenReturn(CURRENT_CLUSTER_VERSION);
+        when(clusterService.getMember(thatAddress)).thenReturn(new MemberImpl(thatAddress, MemberVersion.UNKNOWN, false));
+        handler = new OutboundResponseHandler(thisAddress, serializationService, node, logger, true);
+
+        final List<Packet> packets = new ArrayList<Packet>();
+        when(connectionManager.transmit(any(Packet.class), eq(thatAddress))).thenAnswer(new Answer<Boolean>() {
+            @Override
+            public Boolean answer(InvocationOnMock invocation) {
+                packets.add((Packet) invocation.getArguments()[0]);
+                if (packets.size() == 1) {
+                    for (int i = 0; i < 10; i++) {
+                        handler.sendBackupAck(thatAddress, i + 1, false);
+                    }
+                    // the member leaves while its responses are pending
+                    when(clusterService.getMember(thatAddress)).thenReturn(null);
+                    handler.onMemberLeft(thatAddress);
+                }
+                return false;
+            }
+        });
+
+        handler.sendBackupAck(thatAddress, 0, false);
+        assertEquals(0, handler.pendingResponsesMemberCount());
+
+        // a response sent after the member has left doesn't leave the pending responses behind
+        handler.sendBackupAck(thatAddress, 11, false);
+        assertEquals(0, handler.pendingResponsesMemberCount());
+
+        ArgumentCaptor<Runnable> drainTask = ArgumentCaptor.forClass(Runnable.class);
+        verify(executionService, atMost(1)).execute(eq(ExecutionService.ASYNC_EXECUTOR), drainTask.capture());
+        for (Runnable task : drainTask.getAllValues()) {
+            task.run();
+        }
+        // only the responses sent by the calling threads were transmitted
+        assertEquals(2, packets.size());
+        assertEquals(1, responseCount(packets.get(0)));
+        assertEquals(1, responseCount(packets.get(1)));
+    }
+
+    private int responseCount(Packet packet) {
+        byte[] bytes = packet.toByteArray();
+        boolean bigEndian = byteOrder == BIG_ENDIAN;
+        if (Bits.readInt(bytes, Response.OFFSET_TYPE_ID, bigEndian) != SpiDataSerializerHook.RESPONSE_BATCH) {
+            return 1;
+        }
+        return Bits.readInt(bytes, OutboundResponseHandler.OFFSET_BATCH_SIZE, bigEndian);
+    }
+
     @Test
     public void toBackupAckPacket() {
         testToBackupAckPacket(1, false);
@@ -59,6 +59,26 @@ public class FailFastCallIdSequenceTest extends HazelcastTestSupport {
         sequence.next();
     }
 
+    @Test(expected = HazelcastOverloadException.class)
+    public void next_whenConcurrencyLimitLowered_thenThrowException() {
+        FailFastCallIdSequence sequence = new FailFastCallIdSequence(100);
+        sequence.setConcurrencyLimit(1);
+
+        // take the only slot allowed by the limit
+        sequence.next();
+
+        // this next is going to fail with an exception
+        sequence.next();
+    }
+
+    @Test
+    public void setConcurrencyLimit_whenAboveMaxConcurrentInvocations_thenCapped() {
+        FailFastCallIdSequence sequence = new FailFastCallIdSequence(100);
+        sequence.setConcurrencyLimit(1000);
+
+        assertEquals(100, sequence.getConcurrencyLimit());
+    }
+
     @Test
     public void when_overCapacityButPriorityItem_then_noException() {
         CallIdSequence sequence = new FailFastCallIdSequence(1);